@@ -63,4 +63,12 @@ public @interface Options {
   String keyColumn() default "";
   
   String resultSets() default "";
+
+  String keysetColumn() default "";
+
+  String keysetProperty() default "";
+
+  boolean readOnly() default false;
+
+  boolean coalesce() default false;
 }
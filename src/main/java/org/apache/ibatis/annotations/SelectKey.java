@@ -41,4 +41,14 @@ public @interface SelectKey {
   Class<?> resultType();
 
   StatementType statementType() default StatementType.PREPARED;
+
+  /**
+   * Number of keys allocated by one execution of the statement, which then returns the first key of the block.
+   */
+  int blockSize() default 1;
+
+  /**
+   * Whether the statement returns the high value of the block instead of its first key.
+   */
+  boolean hilo() default false;
 }
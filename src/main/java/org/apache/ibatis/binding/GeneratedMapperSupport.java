@@ -0,0 +1,72 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+
+import org.apache.ibatis.session.SqlSession;
+
+/**
+ * Base class of the mapper implementations generated by {@link MapperProcessor}.
+ * Methods the processor cannot implement directly are executed by a {@link MapperMethod}, as with {@link MapperProxy}.
+ */
+public abstract class GeneratedMapperSupport<T> {
+
+  /**
+   * Suffix appended to the binary name of a mapper interface to get the name of its generated implementation.
+   */
+  public static final String CLASS_NAME_SUFFIX = "_MapperImpl";
+
+  protected final SqlSession sqlSession;
+  private final MapperProxy<T> mapperProxy;
+
+  protected GeneratedMapperSupport(SqlSession sqlSession, Class<T> mapperInterface, Map<Method, MapperMethod> methodCache) {
+    this.sqlSession = sqlSession;
+    this.mapperProxy = new MapperProxy<T>(sqlSession, mapperInterface, methodCache);
+  }
+
+  protected Object invoke(Method method, Object[] args) {
+    try {
+      return mapperProxy.invoke(this, method, args);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  // 返回值是基本类型时，查询结果不能为 null
+  protected static <R> R notNull(R result, String statement, Class<?> returnType) {
+    if (result == null) {
+      throw new BindingException("Mapper method '" + statement
+          + " attempted to return null from a method with a primitive return type (" + returnType + ").");
+    }
+    return result;
+  }
+
+  protected static Method getMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+    try {
+      return type.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      throw new BindingException("Could not find method " + name + " of " + type + ". Cause: " + e, e);
+    }
+  }
+
+}
@@ -0,0 +1,381 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.DeleteProvider;
+import org.apache.ibatis.annotations.Flush;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.annotations.MapKey;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.SelectProvider;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.annotations.UpdateProvider;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Annotation processor generating, for each interface annotated with {@link Mapper}, an implementation that calls the
+ * {@link org.apache.ibatis.session.SqlSession} directly with the statement id and the parameter object worked out at
+ * compile time. {@link MapperRegistry} uses the generated class instead of a {@link MapperProxy} when it is present.
+ * <p>
+ * Only the methods bound by a statement annotation, whose parameters are all named by {@link Param} (or that have a
+ * single unnamed one) and whose return type needs no conversion are implemented directly. The other methods are
+ * executed by a {@link MapperMethod}, as with the proxy.
+ * <p>
+ * The processor is not registered as a service: enable it with {@code -processor org.apache.ibatis.binding.MapperProcessor}.
+ */
+@SupportedAnnotationTypes("org.apache.ibatis.annotations.Mapper")
+public class MapperProcessor extends AbstractProcessor {
+
+  private Elements elements;
+  private Types types;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    elements = processingEnv.getElementUtils();
+    types = processingEnv.getTypeUtils();
+    for (Element element : roundEnv.getElementsAnnotatedWith(Mapper.class)) {
+      if (element.getKind() == ElementKind.INTERFACE) {
+        TypeElement type = (TypeElement) element;
+        String source = generate(type);
+        if (source != null) {
+          write(type, source);
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return null if no implementation can be generated for the interface
+   */
+  private String generate(TypeElement type) {
+    if (!type.getTypeParameters().isEmpty()) {
+      return skip(type, "it has type parameters");
+    }
+    for (Element enclosing = type; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+      if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+        return skip(type, "it is not accessible from its package");
+      }
+    }
+    String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+    String binaryName = elements.getBinaryName(type).toString();
+    String interfaceName = type.getQualifiedName().toString();
+    String className = (packageName.length() == 0 ? binaryName : binaryName.substring(packageName.length() + 1))
+        + GeneratedMapperSupport.CLASS_NAME_SUFFIX;
+
+    StringBuilder fields = new StringBuilder();
+    StringBuilder methods = new StringBuilder();
+    int fallbacks = 0;
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+      if (!method.getModifiers().contains(Modifier.ABSTRACT) || isObjectMethod(method)) {
+        continue;
+      }
+      if (!method.getTypeParameters().isEmpty()) {
+        return skip(type, "method " + method.getSimpleName() + " has type parameters");
+      }
+      ExecutableType methodType = (ExecutableType) types.asMemberOf((DeclaredType) type.asType(), method);
+      appendSignature(methods, method, methodType);
+      String statement = binaryName + "." + method.getSimpleName();
+      if (!appendDirectBody(methods, method, methodType, statement)) {
+        // 无法在编译时确定的方法交给 MapperMethod 执行
+        String field = "METHOD_" + fallbacks++;
+        appendMethodField(fields, field, interfaceName, method);
+        appendFallbackBody(methods, method, methodType, field);
+      }
+      methods.append("  }\n\n");
+    }
+
+    StringBuilder source = new StringBuilder();
+    if (packageName.length() > 0) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("/**\n * Implementation of {@link ").append(interfaceName).append("} generated by ")
+        .append(MapperProcessor.class.getName()).append(".\n */\n");
+    source.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+    source.append("public class ").append(className).append(" extends ").append(GeneratedMapperSupport.class.getName())
+        .append('<').append(interfaceName).append("> implements ").append(interfaceName).append(" {\n\n");
+    source.append(fields);
+    if (fields.length() > 0) {
+      source.append('\n');
+    }
+    source.append("  public ").append(className).append("(org.apache.ibatis.session.SqlSession sqlSession, java.util.Map<java.lang.reflect.Method, ")
+        .append(MapperMethod.class.getName()).append("> methodCache) {\n");
+    source.append("    super(sqlSession, ").append(interfaceName).append(".class, methodCache);\n  }\n\n");
+    source.append(methods);
+    source.setLength(source.length() - 1);
+    source.append("}\n");
+    return source.toString();
+  }
+
+  private void appendSignature(StringBuilder out, ExecutableElement method, ExecutableType methodType) {
+    out.append("  @Override\n  public ").append(methodType.getReturnType()).append(' ').append(method.getSimpleName()).append('(');
+    List<? extends TypeMirror> parameterTypes = methodType.getParameterTypes();
+    for (int i = 0; i < parameterTypes.size(); i++) {
+      if (i > 0) {
+        out.append(", ");
+      }
+      out.append(parameterTypes.get(i)).append(" arg").append(i);
+    }
+    out.append(')');
+    List<? extends TypeMirror> thrownTypes = methodType.getThrownTypes();
+    for (int i = 0; i < thrownTypes.size(); i++) {
+      out.append(i == 0 ? " throws " : ", ").append(thrownTypes.get(i));
+    }
+    out.append(" {\n");
+  }
+
+  /**
+   * @return false if the method cannot be implemented by calling the SqlSession directly
+   */
+  private boolean appendDirectBody(StringBuilder out, ExecutableElement method, ExecutableType methodType, String statement) {
+    String command = getCommand(method);
+    if (command == null) {
+      return false;
+    }
+    List<? extends VariableElement> parameters = method.getParameters();
+    List<? extends TypeMirror> parameterTypes = methodType.getParameterTypes();
+    List<Integer> indexes = new ArrayList<Integer>();
+    List<String> names = new ArrayList<String>();
+    Integer rowBoundsIndex = null;
+    boolean hasResultHandler = false;
+    boolean hasUnnamed = false;
+    for (int i = 0; i < parameters.size(); i++) {
+      TypeMirror parameterType = types.erasure(parameterTypes.get(i));
+      if (isAssignable(parameterType, RowBounds.class)) {
+        if (rowBoundsIndex != null) {
+          return false;
+        }
+        rowBoundsIndex = i;
+      } else if (isAssignable(parameterType, ResultHandler.class)) {
+        hasResultHandler = true;
+      } else {
+        Param param = parameters.get(i).getAnnotation(Param.class);
+        hasUnnamed |= param == null;
+        indexes.add(i);
+        names.add(param == null ? null : param.value());
+      }
+    }
+    // 参数名要与 ParamNameResolver 一致：未使用 @Param 的参数名取决于配置，只支持单个参数
+    if (hasUnnamed && indexes.size() > 1) {
+      return false;
+    }
+    boolean named = !indexes.isEmpty() && !hasUnnamed;
+
+    TypeMirror returnType = methodType.getReturnType();
+    String call;
+    String rowBounds = rowBoundsIndex == null ? "" : ", arg" + rowBoundsIndex;
+    String id = '"' + statement + '"';
+    if ("select".equals(command)) {
+      if (hasResultHandler || returnType.getKind() == TypeKind.VOID || returnType.getKind() == TypeKind.ARRAY) {
+        return false;
+      }
+      TypeMirror rawType = types.erasure(returnType);
+      MapKey mapKey = method.getAnnotation(MapKey.class);
+      if (isSameType(rawType, List.class) || isSameType(rawType, java.util.Collection.class)) {
+        call = "(" + returnType + ") (Object) sqlSession.selectList(" + id + ", param" + rowBounds + ")";
+      } else if (isAssignable(rawType, java.util.Collection.class)) {
+        return false;
+      } else if (mapKey != null && isAssignable(types.erasure(method.getReturnType()), java.util.Map.class)) {
+        call = "(" + returnType + ") (Object) sqlSession.selectMap(" + id + ", param, \"" + escape(mapKey.value()) + "\"" + rowBounds + ")";
+      } else if (isSameType(rawType, Cursor.class)) {
+        call = "(" + returnType + ") (Object) sqlSession.selectCursor(" + id + ", param" + rowBounds + ")";
+      } else if (returnType.getKind().isPrimitive()) {
+        call = "notNull(sqlSession.<" + types.boxedClass(types.getPrimitiveType(returnType.getKind())).getQualifiedName()
+            + ">selectOne(" + id + ", param), " + id + ", " + returnType + ".class)";
+      } else {
+        call = "(" + returnType + ") (Object) sqlSession.selectOne(" + id + ", param)";
+      }
+    } else {
+      String rowCount = "sqlSession." + command + "(" + id + ", param)";
+      TypeKind kind = unboxedKind(returnType);
+      if (kind == TypeKind.VOID) {
+        call = null;
+      } else if (kind == TypeKind.INT) {
+        call = rowCount;
+      } else if (kind == TypeKind.LONG) {
+        call = "(long) " + rowCount;
+      } else if (kind == TypeKind.BOOLEAN) {
+        call = rowCount + " > 0";
+      } else {
+        return false;
+      }
+      if (call == null) {
+        appendParam(out, indexes, names, named);
+        out.append("    ").append(rowCount).append(";\n");
+        return true;
+      }
+    }
+    appendParam(out, indexes, names, named);
+    out.append("    return ").append(call).append(";\n");
+    return true;
+  }
+
+  private void appendParam(StringBuilder out, List<Integer> indexes, List<String> names, boolean named) {
+    if (indexes.isEmpty()) {
+      out.append("    Object param = null;\n");
+    } else if (!named) {
+      out.append("    Object param = arg").append(indexes.get(0)).append(";\n");
+    } else {
+      String paramMap = MapperMethod.ParamMap.class.getCanonicalName() + "<Object>";
+      out.append("    ").append(paramMap).append(" param = new ").append(paramMap).append("();\n");
+      for (int i = 0; i < indexes.size(); i++) {
+        out.append("    param.put(\"").append(escape(names.get(i))).append("\", arg").append(indexes.get(i)).append(");\n");
+        // 与 ParamNameResolver 一样添加 param1, param2 ...，不覆盖 @Param 指定的名称
+        String genericName = "param" + (i + 1);
+        if (!names.contains(genericName)) {
+          out.append("    param.put(\"").append(genericName).append("\", arg").append(indexes.get(i)).append(");\n");
+        }
+      }
+    }
+  }
+
+  private void appendMethodField(StringBuilder out, String field, String interfaceName, ExecutableElement method) {
+    out.append("  private static final java.lang.reflect.Method ").append(field).append(" = getMethod(")
+        .append(interfaceName).append(".class, \"").append(method.getSimpleName()).append('"');
+    for (VariableElement parameter : method.getParameters()) {
+      out.append(", ").append(types.erasure(parameter.asType())).append(".class");
+    }
+    out.append(");\n");
+  }
+
+  private void appendFallbackBody(StringBuilder out, ExecutableElement method, ExecutableType methodType, String field) {
+    StringBuilder args = new StringBuilder("null");
+    if (!method.getParameters().isEmpty()) {
+      args.setLength(0);
+      args.append("new Object[] { ");
+      for (int i = 0; i < method.getParameters().size(); i++) {
+        args.append(i > 0 ? ", arg" : "arg").append(i);
+      }
+      args.append(" }");
+    }
+    TypeMirror returnType = methodType.getReturnType();
+    if (returnType.getKind() == TypeKind.VOID) {
+      out.append("    invoke(").append(field).append(", ").append(args).append(");\n");
+    } else {
+      String cast = returnType.getKind().isPrimitive()
+          ? types.boxedClass(types.getPrimitiveType(returnType.getKind())).getQualifiedName().toString()
+          : returnType.toString();
+      out.append("    return (").append(cast).append(") invoke(").append(field).append(", ").append(args).append(");\n");
+    }
+  }
+
+  private String getCommand(ExecutableElement method) {
+    if (method.getAnnotation(Flush.class) != null) {
+      return null;
+    } else if (method.getAnnotation(Select.class) != null || method.getAnnotation(SelectProvider.class) != null) {
+      return "select";
+    } else if (method.getAnnotation(Insert.class) != null || method.getAnnotation(InsertProvider.class) != null) {
+      return "insert";
+    } else if (method.getAnnotation(Update.class) != null || method.getAnnotation(UpdateProvider.class) != null) {
+      return "update";
+    } else if (method.getAnnotation(Delete.class) != null || method.getAnnotation(DeleteProvider.class) != null) {
+      return "delete";
+    }
+    // 绑定到 XML 的语句在编译时不知道类型
+    return null;
+  }
+
+  private TypeKind unboxedKind(TypeMirror type) {
+    if (type.getKind() == TypeKind.DECLARED) {
+      try {
+        return types.unboxedType(type).getKind();
+      } catch (IllegalArgumentException e) {
+        return TypeKind.NONE;
+      }
+    }
+    return type.getKind();
+  }
+
+  private boolean isObjectMethod(ExecutableElement method) {
+    if (((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals(Object.class.getName())) {
+      return true;
+    }
+    String name = method.getSimpleName().toString();
+    int parameterCount = method.getParameters().size();
+    return ("equals".equals(name) && parameterCount == 1 && isSameType(method.getParameters().get(0).asType(), Object.class))
+        || (("hashCode".equals(name) || "toString".equals(name)) && parameterCount == 0);
+  }
+
+  private boolean isAssignable(TypeMirror type, Class<?> target) {
+    return types.isAssignable(type, types.erasure(elements.getTypeElement(target.getName()).asType()));
+  }
+
+  private boolean isSameType(TypeMirror type, Class<?> target) {
+    return types.isSameType(type, types.erasure(elements.getTypeElement(target.getName()).asType()));
+  }
+
+  private String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+
+  private String skip(TypeElement type, String reason) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+        "No implementation generated for mapper " + type.getQualifiedName() + " because " + reason, type);
+    return null;
+  }
+
+  private void write(TypeElement type, String source) {
+    String name = elements.getBinaryName(type) + GeneratedMapperSupport.CLASS_NAME_SUFFIX;
+    try {
+      Writer writer = processingEnv.getFiler().createSourceFile(name, type).openWriter();
+      try {
+        writer.write(source);
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not write the implementation of mapper " + type.getQualifiedName() + ". Cause: " + e, type);
+    }
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.binding;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Map;
@@ -33,8 +34,27 @@ public class MapperProxyFactory<T> {
   // 缓存，key是mapperInterface接口中某方法对应的Method对象，value是对应的 MapperMethod对象
   private final Map<Method, MapperMethod> methodCache = new ConcurrentHashMap<Method, MapperMethod>();
 
+  // MapperProcessor 生成的实现类的构造方法，为空时创建动态代理
+  private final Constructor<? extends T> implementationConstructor;
+
   public MapperProxyFactory(Class<T> mapperInterface) {
+    this(mapperInterface, null);
+  }
+
+  /**
+   * @param implementationClass the class generated by {@link MapperProcessor}, or null to create proxies
+   */
+  public MapperProxyFactory(Class<T> mapperInterface, Class<? extends T> implementationClass) {
     this.mapperInterface = mapperInterface;
+    if (implementationClass == null) {
+      this.implementationConstructor = null;
+    } else {
+      try {
+        this.implementationConstructor = implementationClass.getConstructor(SqlSession.class, Map.class);
+      } catch (NoSuchMethodException e) {
+        throw new BindingException("Generated mapper " + implementationClass + " has no (SqlSession, Map) constructor. Cause: " + e, e);
+      }
+    }
   }
 
   public Class<T> getMapperInterface() {
@@ -52,6 +72,13 @@ public class MapperProxyFactory<T> {
   }
 
   public T newInstance(SqlSession sqlSession) {
+    if (implementationConstructor != null) {
+      try {
+        return implementationConstructor.newInstance(sqlSession, methodCache);
+      } catch (Exception e) {
+        throw new BindingException("Error creating generated mapper " + implementationConstructor.getDeclaringClass() + ". Cause: " + e, e);
+      }
+    }
     // 创建 MapperProxy 对象，每次调用都会创建
     final MapperProxy<T> mapperProxy = new MapperProxy<T>(sqlSession, mapperInterface, methodCache);
     return newInstance(mapperProxy);
@@ -72,7 +72,7 @@ public class MapperRegistry {
       boolean loadCompleted = false;
       try {
         // 将Mapper对应的class对象和 MapperProxyFactory添加到map中
-        knownMappers.put(type, new MapperProxyFactory<T>(type));
+        knownMappers.put(type, new MapperProxyFactory<T>(type, findGeneratedMapper(type)));
         // It's important that the type is added before the parser is run
         // otherwise the binding may automatically be attempted by the
         // mapper parser. If the type is already known, it won't try.
@@ -88,6 +88,19 @@ public class MapperRegistry {
     }
   }
 
+  // 优先使用 MapperProcessor 在编译时生成的实现类，它与接口在同一个包中
+  private <T> Class<? extends T> findGeneratedMapper(Class<T> type) {
+    try {
+      Class<?> generated = Class.forName(type.getName() + GeneratedMapperSupport.CLASS_NAME_SUFFIX, false, type.getClassLoader());
+      if (type.isAssignableFrom(generated) && GeneratedMapperSupport.class.isAssignableFrom(generated)) {
+        return generated.asSubclass(type);
+      }
+    } catch (ClassNotFoundException e) {
+      // 没有生成实现类，使用动态代理
+    }
+    return null;
+  }
+
   /**
    * @since 3.2.2
    */
@@ -0,0 +1,131 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.dialect.AbstractDialect;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * Turns the SQL of a select into a query counting its rows.
+ * <p>
+ * A top level ORDER BY is removed. When the select is simple (no DISTINCT, GROUP BY, set operator or
+ * row limiting clause) its projection is replaced by <code>COUNT(*)</code>, otherwise the select is
+ * wrapped in a derived table. Parts holding parameter placeholders are never removed so the parameter
+ * mappings of the original statement still apply.
+ * </p>
+ */
+public class CountSqlSource implements SqlSource {
+
+  public static final String COUNT_STATEMENT_SUFFIX = "!count";
+
+  private static final Pattern ORDER_BY = Pattern.compile("\\bORDER\\s+BY\\b");
+  private static final Pattern AFTER_ORDER_BY = Pattern.compile("\\b(LIMIT|OFFSET|FETCH|FOR|ROWS)\\b");
+  private static final Pattern NOT_SIMPLE = Pattern.compile(
+      "\\b(DISTINCT|UNIQUE|TOP|GROUP\\s+BY|HAVING|UNION|INTERSECT|EXCEPT|MINUS|LIMIT|OFFSET|FETCH|ROWNUM|CONNECT\\s+BY|INTO)\\b");
+  private static final Pattern SELECT = Pattern.compile("^SELECT\\b");
+  private static final Pattern FROM = Pattern.compile("\\bFROM\\b");
+
+  private final SqlSource sqlSource;
+
+  public CountSqlSource(SqlSource sqlSource) {
+    this.sqlSource = sqlSource;
+  }
+
+  @Override
+  public BoundSql getBoundSql(Object parameterObject) {
+    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    return boundSql.rewrite(toCountSql(boundSql.getSql()), boundSql.getParameterMappings());
+  }
+
+  public static String toCountSql(String sql) {
+    sql = trim(sql);
+    String masked = mask(sql);
+
+    // 去掉顶层的 ORDER BY，其后不能有分页等子句，也不能包含参数占位符
+    Matcher orderBy = ORDER_BY.matcher(masked);
+    int orderByStart = -1;
+    while (orderBy.find()) {
+      orderByStart = orderBy.start();
+    }
+    if (orderByStart >= 0) {
+      String orderByClause = masked.substring(orderByStart);
+      if (!AFTER_ORDER_BY.matcher(orderByClause).find() && sql.indexOf('?', orderByStart) < 0) {
+        sql = trim(sql.substring(0, orderByStart));
+        masked = masked.substring(0, sql.length());
+      }
+    }
+
+    // 简单查询直接改写投影列，否则包装为子查询
+    Matcher from = FROM.matcher(masked);
+    if (SELECT.matcher(masked).find() && !NOT_SIMPLE.matcher(masked).find() && from.find()
+        && sql.lastIndexOf('?', from.start()) < 0) {
+      return "SELECT COUNT(*) " + sql.substring(from.start());
+    }
+    return "SELECT COUNT(*) FROM (" + sql + ") count_";
+  }
+
+  /**
+   * Upper cases the SQL and blanks out literals, quoted identifiers, comments and parenthesized content
+   * so that only top level keywords remain. The result has the same length as the SQL.
+   */
+  private static String mask(String sql) {
+    char[] chars = sql.toUpperCase(Locale.ENGLISH).toCharArray();
+    int depth = 0;
+    char quote = 0;
+    for (int i = 0; i < chars.length; i++) {
+      char c = chars[i];
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+        chars[i] = ' ';
+      } else if (c == '\'' || c == '"' || c == '`') {
+        quote = c;
+        chars[i] = ' ';
+      } else if (c == '-' && i + 1 < chars.length && chars[i + 1] == '-') {
+        while (i < chars.length && chars[i] != '\n') {
+          chars[i++] = ' ';
+        }
+      } else if (c == '/' && i + 1 < chars.length && chars[i + 1] == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        end = end < 0 ? chars.length : end + 2;
+        while (i < end) {
+          chars[i++] = ' ';
+        }
+        i--;
+      } else if (c == '(') {
+        depth++;
+        chars[i] = ' ';
+      } else if (c == ')') {
+        depth--;
+        chars[i] = ' ';
+      } else if (depth > 0) {
+        chars[i] = ' ';
+      }
+    }
+    return new String(chars);
+  }
+
+  private static String trim(String sql) {
+    return AbstractDialect.trimStatement(sql).trim();
+  }
+
+}
@@ -17,6 +17,7 @@ package org.apache.ibatis.builder;
 
 import java.util.List;
 
+import org.apache.ibatis.executor.parameter.ParameterBinderCache;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
@@ -30,6 +31,8 @@ public class StaticSqlSource implements SqlSource {
   private String sql;
   private List<ParameterMapping> parameterMappings;
   private Configuration configuration;
+  // 该 SQL 按实参类型复用的参数绑定器
+  private final ParameterBinderCache parameterBinders;
 
   public StaticSqlSource(Configuration configuration, String sql) {
     this(configuration, sql, null);
@@ -39,11 +42,12 @@ public class StaticSqlSource implements SqlSource {
     this.sql = sql;
     this.parameterMappings = parameterMappings;
     this.configuration = configuration;
+    this.parameterBinders = parameterMappings == null ? null : new ParameterBinderCache(configuration, parameterMappings);
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    return new BoundSql(configuration, sql, parameterMappings, parameterObject);
+    return new BoundSql(configuration, sql, parameterMappings, parameterObject, parameterBinders);
   }
 
 }
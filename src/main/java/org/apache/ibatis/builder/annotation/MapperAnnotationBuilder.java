@@ -65,6 +65,7 @@ import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.keygen.BlockSelectKeyGenerator;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
@@ -374,7 +375,11 @@ public class MapperAnnotationBuilder {
           null,
           languageDriver,
           // ResultSets
-          options != null ? nullOrEmpty(options.resultSets()) : null);
+          options != null ? nullOrEmpty(options.resultSets()) : null,
+          options != null ? nullOrEmpty(options.keysetColumn()) : null,
+          options != null ? nullOrEmpty(options.keysetProperty()) : null,
+          options != null && options.readOnly(),
+          options != null && options.coalesce());
     }
   }
   
@@ -651,7 +656,14 @@ public class MapperAnnotationBuilder {
     id = assistant.applyCurrentNamespace(id, false);
 
     MappedStatement keyStatement = configuration.getMappedStatement(id, false);
-    SelectKeyGenerator answer = new SelectKeyGenerator(keyStatement, executeBefore);
+    KeyGenerator answer;
+    if (selectKeyAnnotation.blockSize() == 1 && !selectKeyAnnotation.hilo()) {
+      answer = new SelectKeyGenerator(keyStatement, executeBefore);
+    } else if (executeBefore) {
+      answer = new BlockSelectKeyGenerator(keyStatement, selectKeyAnnotation.blockSize(), selectKeyAnnotation.hilo());
+    } else {
+      throw new BuilderException("SelectKey " + id + " allocates keys by block and must be executed before the statement.");
+    }
     configuration.addKeyGenerator(id, answer);
     return answer;
   }
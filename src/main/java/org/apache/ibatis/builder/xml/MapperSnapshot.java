@@ -0,0 +1,245 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Binary copy of the parsed mapper XML files, so that a later startup can skip validating and parsing them.
+ * The snapshot carries a SHA-256 digest of the mapper files it was written from and is ignored as soon as
+ * one of them changes.
+ */
+class MapperSnapshot {
+
+  private static final Log log = LogFactory.getLog(MapperSnapshot.class);
+
+  private static final int MAGIC = 0x4D425353;
+  private static final int VERSION = 1;
+  private static final String CHARSET = "UTF-8";
+
+  private static final byte END = 0;
+  private static final byte ELEMENT = 1;
+  private static final byte TEXT = 2;
+  private static final byte CDATA = 3;
+
+  private final File file;
+  private final MessageDigest digest;
+  private String fingerprint;
+
+  MapperSnapshot(File file) {
+    this.file = file;
+    try {
+      this.digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new BuilderException("Cannot create a mapper snapshot. Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Adds the contents of a mapper file to the fingerprint, in declaration order.
+   */
+  void addInput(String location, byte[] content) throws IOException {
+    digest.update(location.getBytes(CHARSET));
+    digest.update(toBytes(content.length));
+    digest.update(content);
+  }
+
+  /**
+   * @return the root elements of the mapper files, or null when the snapshot is missing, stale or unreadable
+   */
+  List<Element> load() {
+    if (!file.isFile()) {
+      return null;
+    }
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != MAGIC || in.readInt() != VERSION || !getFingerprint().equals(in.readUTF())) {
+        return null;
+      }
+      DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+      int count = in.readInt();
+      List<Element> roots = new ArrayList<Element>(count);
+      for (int i = 0; i < count; i++) {
+        Document document = builder.newDocument();
+        if (in.readByte() != ELEMENT) {
+          throw new IOException("Missing root element");
+        }
+        Element root = readElement(in, document);
+        document.appendChild(root);
+        roots.add(root);
+      }
+      return roots;
+    } catch (Exception e) {
+      log.warn("Ignoring unreadable mapper snapshot " + file + ". Cause: " + e);
+      return null;
+    } finally {
+      close(in);
+    }
+  }
+
+  /**
+   * Writes the snapshot. Must be called before the documents are modified by building the statements.
+   */
+  void store(List<Element> roots) {
+    File temp = null;
+    DataOutputStream out = null;
+    try {
+      File directory = file.getAbsoluteFile().getParentFile();
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+        throw new IOException("Cannot create directory " + directory);
+      }
+      // 先写临时文件再改名，避免其他进程读到写了一半的快照
+      temp = File.createTempFile(file.getName(), ".tmp", directory);
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeUTF(getFingerprint());
+      out.writeInt(roots.size());
+      for (Element root : roots) {
+        writeNode(out, root);
+      }
+      out.close();
+      out = null;
+      if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+        throw new IOException("Cannot rename " + temp + " to " + file);
+      }
+      temp = null;
+    } catch (IOException e) {
+      log.warn("Could not write mapper snapshot " + file + ". Cause: " + e);
+    } finally {
+      close(out);
+      if (temp != null) {
+        temp.delete();
+      }
+    }
+  }
+
+  private String getFingerprint() {
+    if (fingerprint == null) {
+      StringBuilder hex = new StringBuilder();
+      for (byte b : digest.digest()) {
+        hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      fingerprint = hex.toString();
+    }
+    return fingerprint;
+  }
+
+  private static void writeNode(DataOutputStream out, Node node) throws IOException {
+    switch (node.getNodeType()) {
+      case Node.ELEMENT_NODE:
+        out.writeByte(ELEMENT);
+        out.writeUTF(node.getNodeName());
+        NamedNodeMap attributes = node.getAttributes();
+        out.writeInt(attributes.getLength());
+        for (int i = 0; i < attributes.getLength(); i++) {
+          Node attribute = attributes.item(i);
+          out.writeUTF(attribute.getNodeName());
+          writeString(out, attribute.getNodeValue());
+        }
+        NodeList children = node.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+          writeNode(out, children.item(i));
+        }
+        out.writeByte(END);
+        break;
+      case Node.TEXT_NODE:
+        out.writeByte(TEXT);
+        writeString(out, node.getNodeValue());
+        break;
+      case Node.CDATA_SECTION_NODE:
+        out.writeByte(CDATA);
+        writeString(out, node.getNodeValue());
+        break;
+      default:
+        // 注释、处理指令等不影响 mapper 的解析
+        break;
+    }
+  }
+
+  private static Element readElement(DataInputStream in, Document document) throws IOException {
+    Element element = document.createElement(in.readUTF());
+    int attributeCount = in.readInt();
+    for (int i = 0; i < attributeCount; i++) {
+      element.setAttribute(in.readUTF(), readString(in));
+    }
+    for (byte type = in.readByte(); type != END; type = in.readByte()) {
+      if (type == ELEMENT) {
+        element.appendChild(readElement(in, document));
+      } else if (type == TEXT) {
+        element.appendChild(document.createTextNode(readString(in)));
+      } else if (type == CDATA) {
+        element.appendChild(document.createCDATASection(readString(in)));
+      } else {
+        throw new IOException("Unexpected node type " + type);
+      }
+    }
+    return element;
+  }
+
+  // writeUTF 只支持 64K 以内的字符串，SQL 文本可能更长
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(CHARSET);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, CHARSET);
+  }
+
+  private static byte[] toBytes(int value) {
+    return new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value };
+  }
+
+  private static void close(Closeable closeable) {
+    if (closeable != null) {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        // ignore
+      }
+    }
+  }
+
+}
@@ -15,14 +15,39 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.datasource.DataSourceFactory;
+import org.apache.ibatis.dialect.DerbyDialect;
+import org.apache.ibatis.dialect.Dialect;
+import org.apache.ibatis.dialect.H2Dialect;
+import org.apache.ibatis.dialect.HsqldbDialect;
+import org.apache.ibatis.dialect.MySqlDialect;
+import org.apache.ibatis.dialect.OracleDialect;
+import org.apache.ibatis.dialect.PostgreSqlDialect;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.io.Resources;
@@ -45,6 +70,8 @@ import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.type.JdbcType;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
 /**
  * @author Clinton Begin
@@ -52,6 +79,18 @@ import org.apache.ibatis.type.JdbcType;
  */
 public class XMLConfigBuilder extends BaseBuilder {
 
+  // 内置方言的名称，单独解析，不注册为类型别名以免与已有的别名冲突
+  private static final Map<String, Class<? extends Dialect>> DIALECTS = new HashMap<String, Class<? extends Dialect>>();
+
+  static {
+    DIALECTS.put("HSQLDB", HsqldbDialect.class);
+    DIALECTS.put("H2", H2Dialect.class);
+    DIALECTS.put("DERBY", DerbyDialect.class);
+    DIALECTS.put("POSTGRESQL", PostgreSqlDialect.class);
+    DIALECTS.put("MYSQL", MySqlDialect.class);
+    DIALECTS.put("ORACLE", OracleDialect.class);
+  }
+
   private boolean parsed; // 是否已经解析过配置文件了
   private XPathParser parser; // 解析xml
   private String environment; // <environment> 标签的default属性
@@ -286,6 +325,25 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setCallSettersOnNulls(booleanValueOf(props.getProperty("callSettersOnNulls"), false));
     configuration.setUseActualParamName(booleanValueOf(props.getProperty("useActualParamName"), true));
     configuration.setReturnInstanceForEmptyRow(booleanValueOf(props.getProperty("returnInstanceForEmptyRow"), false));
+    configuration.setDialect(createDialect(props.getProperty("dialect")));
+    configuration.setCountCacheTtl(longValueOf(props.getProperty("countCacheTtl"), null));
+    configuration.setMetricsEnabled(booleanValueOf(props.getProperty("metricsEnabled"), false));
+    configuration.setSlowQueryThreshold(longValueOf(props.getProperty("slowQueryThreshold"), null));
+    configuration.setSlowQuerySampling(integerValueOf(props.getProperty("slowQuerySampling"), 1));
+    configuration.setAdaptiveFetchSize(booleanValueOf(props.getProperty("adaptiveFetchSize"), false));
+    configuration.setAdaptiveFetchSizeMin(integerValueOf(props.getProperty("adaptiveFetchSizeMin"), 10));
+    configuration.setAdaptiveFetchSizeMax(integerValueOf(props.getProperty("adaptiveFetchSizeMax"), 1000));
+    configuration.setPipelineResultSets(booleanValueOf(props.getProperty("pipelineResultSets"), false));
+    configuration.setPipelineBufferSize(integerValueOf(props.getProperty("pipelineBufferSize"), 1024));
+    configuration.setCompileRowMappers(booleanValueOf(props.getProperty("compileRowMappers"), false));
+    configuration.setCompileInvokers(booleanValueOf(props.getProperty("compileInvokers"), false));
+    configuration.setAutoMappingPlanCacheSize(integerValueOf(props.getProperty("autoMappingPlanCacheSize"), 1024));
+    configuration.setDynamicSqlShapeCacheSize(integerValueOf(props.getProperty("dynamicSqlShapeCacheSize"), 32));
+    configuration.setPositionalForeachBinding(booleanValueOf(props.getProperty("positionalForeachBinding"), false));
+    configuration.setMapperParsingThreads(integerValueOf(props.getProperty("mapperParsingThreads"), 0));
+    configuration.setMapperSnapshotFile(props.getProperty("mapperSnapshotFile"));
+    configuration.setLazyStatementBuilding(booleanValueOf(props.getProperty("lazyStatementBuilding"), false));
+    configuration.setPrewarmLazyStatements(booleanValueOf(props.getProperty("prewarmLazyStatements"), false));
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     @SuppressWarnings("unchecked")
     Class<? extends Log> logImpl = (Class<? extends Log>)resolveClass(props.getProperty("logImpl"));
@@ -293,6 +351,21 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
   }
 
+  private Dialect createDialect(String name) {
+    if (name == null) {
+      return null;
+    }
+    Class<? extends Dialect> dialectClass = DIALECTS.get(name.toUpperCase(Locale.ENGLISH));
+    if (dialectClass == null) {
+      return (Dialect) createInstance(name); // 类型别名或类的全名
+    }
+    try {
+      return dialectClass.newInstance();
+    } catch (Exception e) {
+      throw new BuilderException("Error creating dialect " + name + ". Cause: " + e, e);
+    }
+  }
+
   private void environmentsElement(XNode context) throws Exception {
     if (context != null) {
       if (environment == null) {
@@ -383,7 +456,10 @@ public class XMLConfigBuilder extends BaseBuilder {
 
   private void mapperElement(XNode parent) throws Exception {
     if (parent != null) {
-      for (XNode child : parent.getChildren()) {
+      List<XNode> children = parent.getChildren();
+      // 并行解析时先在线程池中将 mapper XML 解析为 DOM，再按声明顺序构建，结果与顺序解析一致
+      Map<XNode, Future<XPathParser>> documents = parseMapperDocuments(children);
+      for (XNode child : children) {
         if ("package".equals(child.getName())) {
           String mapperPackage = child.getStringAttribute("name"); // 获取package name
           configuration.addMappers(mapperPackage); // 保存所有mapper
@@ -394,13 +470,23 @@ public class XMLConfigBuilder extends BaseBuilder {
           // resource、 url、mapperClass只能设置其中一个
           if (resource != null && url == null && mapperClass == null) { // 指定的 resource 属性
             ErrorContext.instance().resource(resource);
-            InputStream inputStream = Resources.getResourceAsStream(resource);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+            XMLMapperBuilder mapperParser;
+            if (documents.containsKey(child)) {
+              mapperParser = new XMLMapperBuilder(getDocument(documents.get(child)), configuration, resource, configuration.getSqlFragments());
+            } else {
+              InputStream inputStream = Resources.getResourceAsStream(resource);
+              mapperParser = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+            }
             mapperParser.parse(); // 解析 mapper.xml
           } else if (resource == null && url != null && mapperClass == null) {
             ErrorContext.instance().resource(url);
-            InputStream inputStream = Resources.getUrlAsStream(url);
-            XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
+            XMLMapperBuilder mapperParser;
+            if (documents.containsKey(child)) {
+              mapperParser = new XMLMapperBuilder(getDocument(documents.get(child)), configuration, url, configuration.getSqlFragments());
+            } else {
+              InputStream inputStream = Resources.getUrlAsStream(url);
+              mapperParser = new XMLMapperBuilder(inputStream, configuration, url, configuration.getSqlFragments());
+            }
             mapperParser.parse();
           } else if (resource == null && url == null && mapperClass != null) {
             Class<?> mapperInterface = Resources.classForName(mapperClass);
@@ -413,6 +499,142 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
   }
 
+  /**
+   * Parses ahead the mapper files declared by resource or url, on a pool of mapperParsingThreads threads or
+   * from the mapper snapshot when one is configured. Only the DOM parsing (including DTD validation) is done
+   * here, the statements are still built one file at a time in declaration order because Configuration is
+   * not thread safe.
+   */
+  private Map<XNode, Future<XPathParser>> parseMapperDocuments(List<XNode> children) throws Exception {
+    Map<XNode, Future<XPathParser>> documents = new IdentityHashMap<XNode, Future<XPathParser>>();
+    List<XNode> mappers = new ArrayList<XNode>();
+    for (XNode child : children) {
+      if (!"package".equals(child.getName()) && child.getStringAttribute("class") == null
+          && (child.getStringAttribute("resource") == null ^ child.getStringAttribute("url") == null)) {
+        mappers.add(child);
+      }
+    }
+    String snapshotFile = configuration.getMapperSnapshotFile();
+    if (snapshotFile == null) {
+      if (configuration.getMapperParsingThreads() > 1) {
+        parseMapperDocuments(mappers, null, documents);
+      }
+      return documents;
+    }
+    // 快照中记录了 mapper 文件内容的摘要，任一文件有变化时重新解析并覆盖快照
+    MapperSnapshot snapshot = new MapperSnapshot(new File(snapshotFile));
+    List<byte[]> contents = new ArrayList<byte[]>(mappers.size());
+    for (XNode mapper : mappers) {
+      String resource = mapper.getStringAttribute("resource");
+      String url = mapper.getStringAttribute("url");
+      byte[] content = readMapper(resource != null ? Resources.getResourceAsStream(resource) : Resources.getUrlAsStream(url));
+      snapshot.addInput(resource != null ? resource : url, content);
+      contents.add(content);
+    }
+    List<Element> roots = snapshot.load();
+    if (roots != null && roots.size() == mappers.size()) {
+      for (int i = 0; i < mappers.size(); i++) {
+        final Document document = roots.get(i).getOwnerDocument();
+        documents.put(mappers.get(i), submit(null, new Callable<XPathParser>() {
+          @Override
+          public XPathParser call() {
+            return new XPathParser(document, false, configuration.getVariables(), new XMLMapperEntityResolver());
+          }
+        }));
+      }
+      return documents;
+    }
+    parseMapperDocuments(mappers, contents, documents);
+    roots = new ArrayList<Element>(mappers.size());
+    for (XNode mapper : mappers) {
+      XNode root = getDocument(documents.get(mapper)).evalNode("/mapper");
+      if (root == null) {
+        return documents;
+      }
+      roots.add((Element) root.getNode());
+    }
+    // 构建语句时会修改 DOM（如替换 include），必须在此之前写入快照
+    snapshot.store(roots);
+    return documents;
+  }
+
+  private void parseMapperDocuments(List<XNode> mappers, List<byte[]> contents, Map<XNode, Future<XPathParser>> documents) {
+    int threads = configuration.getMapperParsingThreads();
+    ExecutorService executor = threads <= 1 ? null : Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "mybatis-mapper-parser-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    try {
+      for (int i = 0; i < mappers.size(); i++) {
+        final String resource = mappers.get(i).getStringAttribute("resource");
+        final String url = mappers.get(i).getStringAttribute("url");
+        final byte[] content = contents == null ? null : contents.get(i);
+        documents.put(mappers.get(i), submit(executor, new Callable<XPathParser>() {
+          @Override
+          public XPathParser call() throws Exception {
+            InputStream inputStream;
+            if (content != null) {
+              inputStream = new ByteArrayInputStream(content);
+            } else {
+              inputStream = resource != null ? Resources.getResourceAsStream(resource) : Resources.getUrlAsStream(url);
+            }
+            try {
+              return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+            } finally {
+              inputStream.close();
+            }
+          }
+        }));
+      }
+    } finally {
+      if (executor != null) {
+        // 已提交的任务会继续执行完，线程随后退出
+        executor.shutdown();
+      }
+    }
+  }
+
+  // 没有线程池时直接在当前线程执行
+  private static Future<XPathParser> submit(ExecutorService executor, Callable<XPathParser> task) {
+    if (executor != null) {
+      return executor.submit(task);
+    }
+    FutureTask<XPathParser> future = new FutureTask<XPathParser>(task);
+    future.run();
+    return future;
+  }
+
+  private static byte[] readMapper(InputStream inputStream) throws IOException {
+    try {
+      ByteArrayOutputStream content = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      for (int n = inputStream.read(buffer); n >= 0; n = inputStream.read(buffer)) {
+        content.write(buffer, 0, n);
+      }
+      return content.toByteArray();
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private XPathParser getDocument(Future<XPathParser> document) throws Exception {
+    try {
+      return document.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw (Error) cause;
+    }
+  }
+
   private boolean isSpecifiedEnvironment(String id) {
     if (environment == null) {
       throw new BuilderException("No environment specified.");
@@ -19,7 +19,9 @@ import java.util.List;
 import java.util.Locale;
 
 import org.apache.ibatis.builder.BaseBuilder;
+import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.executor.keygen.BlockSelectKeyGenerator;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
@@ -63,6 +65,23 @@ public class XMLStatementBuilder extends BaseBuilder {
       return;
     }
 
+    if (configuration.isLazyStatementBuilding()) {
+      // 延迟构建：只登记语句及其 selectKey 语句的 id，第一次使用时再构建
+      configuration.addLazyStatement(builderAssistant.applyCurrentNamespace(id, false), this);
+      if (hasSelectKeyNode()) {
+        configuration.addLazyStatement(builderAssistant.applyCurrentNamespace(id + SelectKeyGenerator.SELECT_KEY_SUFFIX, false), this);
+      }
+      return;
+    }
+    buildStatementNode();
+  }
+
+  /**
+   * Builds the statement once {@link #parseStatementNode()} has found that its databaseId matches.
+   */
+  public void buildStatementNode() {
+    String id = context.getStringAttribute("id");
+    String databaseId = context.getStringAttribute("databaseId");
     Integer fetchSize = context.getIntAttribute("fetchSize");
     Integer timeout = context.getIntAttribute("timeout");
     String parameterMap = context.getStringAttribute("parameterMap");
@@ -85,6 +104,8 @@ public class XMLStatementBuilder extends BaseBuilder {
     boolean flushCache = context.getBooleanAttribute("flushCache", !isSelect);
     boolean useCache = context.getBooleanAttribute("useCache", isSelect);
     boolean resultOrdered = context.getBooleanAttribute("resultOrdered", false);
+    boolean readOnly = context.getBooleanAttribute("readOnly", false);
+    boolean coalesce = context.getBooleanAttribute("coalesce", false);
 
     // Include Fragments before parsing
     // 解析 include节点
@@ -100,6 +121,9 @@ public class XMLStatementBuilder extends BaseBuilder {
     String resultSets = context.getStringAttribute("resultSets");
     String keyProperty = context.getStringAttribute("keyProperty");
     String keyColumn = context.getStringAttribute("keyColumn");
+    // keyset 分页的排序列及对应属性
+    String keysetColumn = context.getStringAttribute("keysetColumn");
+    String keysetProperty = context.getStringAttribute("keysetProperty");
     KeyGenerator keyGenerator;
     String keyStatementId = id + SelectKeyGenerator.SELECT_KEY_SUFFIX;
     keyStatementId = builderAssistant.applyCurrentNamespace(keyStatementId, true);
@@ -114,7 +138,8 @@ public class XMLStatementBuilder extends BaseBuilder {
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
         fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
         resultSetTypeEnum, flushCache, useCache, resultOrdered, 
-        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets);
+        keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets,
+        keysetColumn, keysetProperty, readOnly, coalesce);
   }
 
   private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
@@ -137,6 +162,16 @@ public class XMLStatementBuilder extends BaseBuilder {
     }
   }
 
+  private KeyGenerator createSelectKeyGenerator(MappedStatement keyStatement, boolean executeBefore, Integer blockSize, boolean hilo) {
+    if (blockSize == null || (blockSize == 1 && !hilo)) {
+      return new SelectKeyGenerator(keyStatement, executeBefore);
+    }
+    if (!executeBefore) {
+      throw new BuilderException("SelectKey " + keyStatement.getId() + " allocates keys by block and must be executed BEFORE the statement.");
+    }
+    return new BlockSelectKeyGenerator(keyStatement, blockSize, hilo);
+  }
+
   private void parseSelectKeyNode(String id, XNode nodeToHandle, Class<?> parameterTypeClass, LanguageDriver langDriver, String databaseId) {
     // 获取属性
     String resultType = nodeToHandle.getStringAttribute("resultType");
@@ -145,6 +180,9 @@ public class XMLStatementBuilder extends BaseBuilder {
     String keyProperty = nodeToHandle.getStringAttribute("keyProperty");
     String keyColumn = nodeToHandle.getStringAttribute("keyColumn");
     boolean executeBefore = "BEFORE".equals(nodeToHandle.getStringAttribute("order", "AFTER"));
+    // 按块分配主键：一次查询取得 blockSize 个主键
+    Integer blockSize = nodeToHandle.getIntAttribute("blockSize");
+    boolean hilo = nodeToHandle.getBooleanAttribute("hilo", false);
 
     //defaults
     boolean useCache = false;
@@ -172,7 +210,17 @@ public class XMLStatementBuilder extends BaseBuilder {
 
     MappedStatement keyStatement = configuration.getMappedStatement(id, false);
     // 创建 selectKey 节点对应的 KeyGenerator
-    configuration.addKeyGenerator(id, new SelectKeyGenerator(keyStatement, executeBefore));
+    configuration.addKeyGenerator(id, createSelectKeyGenerator(keyStatement, executeBefore, blockSize, hilo));
+  }
+
+  private boolean hasSelectKeyNode() {
+    for (XNode selectKeyNode : context.evalNodes("selectKey")) {
+      String databaseId = selectKeyNode.getStringAttribute("databaseId");
+      if (databaseId == null || databaseId.equals(configuration.getDatabaseId())) {
+        return true;
+      }
+    }
+    return false;
   }
 
   private void removeSelectKeyNodes(List<XNode> selectKeyNodes) {
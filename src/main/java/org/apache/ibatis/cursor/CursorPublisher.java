@@ -0,0 +1,31 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Demand-driven publisher of the items of a {@link Cursor}.
+ * The contract mirrors <code>java.util.concurrent.Flow.Publisher</code> (and Reactive Streams),
+ * so adapting it to either API is a one line bridge, while MyBatis keeps running on older JDKs.
+ * Rows are only read from the database when the subscriber requests them.
+ */
+public interface CursorPublisher<T> {
+
+    /**
+     * Adds the given subscriber. Fetching starts on the first {@link CursorSubscription#request(long)}.
+     * @param subscriber the subscriber, must not be null
+     */
+    void subscribe(CursorSubscriber<? super T> subscriber);
+}
@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Receiver of the items published by a {@link CursorPublisher}.
+ * Mirrors <code>java.util.concurrent.Flow.Subscriber</code>.
+ */
+public interface CursorSubscriber<T> {
+
+    /**
+     * Invoked once before any other method, no item is sent until {@link CursorSubscription#request(long)} is called.
+     */
+    void onSubscribe(CursorSubscription subscription);
+
+    void onNext(T item);
+
+    /**
+     * Invoked once when fetching or mapping fails. The underlying statement and session are already released.
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Invoked once when the cursor is fully consumed. The underlying statement and session are already released.
+     */
+    void onComplete();
+}
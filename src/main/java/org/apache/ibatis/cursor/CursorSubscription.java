@@ -0,0 +1,34 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor;
+
+/**
+ * Link between a {@link CursorPublisher} and a {@link CursorSubscriber}.
+ * Mirrors <code>java.util.concurrent.Flow.Subscription</code>.
+ */
+public interface CursorSubscription {
+
+    /**
+     * Adds n items to the outstanding demand. Rows are fetched from the database only to satisfy that demand.
+     * @param n a strictly positive number of items, Long.MAX_VALUE means unbounded
+     */
+    void request(long n);
+
+    /**
+     * Stops sending items and releases the underlying statement and session.
+     */
+    void cancel();
+}
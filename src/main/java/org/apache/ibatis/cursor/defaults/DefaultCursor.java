@@ -106,6 +106,7 @@ public class DefaultCursor<T> implements Cursor<T> {
         if (isClosed()) {
             return;
         }
+        resultSetHandler.recordCursorRows();
 
         ResultSet rs = rsw.getResultSet();
         try {
@@ -123,6 +124,21 @@ public class DefaultCursor<T> implements Cursor<T> {
         }
     }
 
+    /**
+     * Gives the driver a hint about the number of rows to fetch on the next round-trip.
+     */
+    void setFetchSize(int fetchSize) {
+        ResultSet rs = rsw.getResultSet();
+        if (rs == null || isClosed()) {
+            return;
+        }
+        try {
+            rs.setFetchSize(fetchSize);
+        } catch (SQLException e) {
+            // ignore, this is only a hint
+        }
+    }
+
     protected T fetchNextUsingRowBound() {
         T result = fetchNextObjectFromDatabase();
         while (result != null && indexWithRowBound < rowBounds.getOffset()) {
@@ -0,0 +1,265 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.CursorPublisher;
+import org.apache.ibatis.cursor.CursorSubscriber;
+import org.apache.ibatis.cursor.CursorSubscription;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default implementation of a {@link CursorPublisher}.
+ * Each subscription opens its own {@link SqlSession} on the first request, runs the statement as a {@link Cursor}
+ * and closes the session (and thus the statement) on completion, error or cancellation.
+ * Items are emitted on the thread calling {@link CursorSubscription#request(long)}, one thread at a time,
+ * so the JDBC connection is never used concurrently.
+ */
+public class DefaultCursorPublisher<T> implements CursorPublisher<T> {
+
+    private static final int DEFAULT_MAX_FETCH_SIZE = 1000;
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final String statement;
+    private final Object parameter;
+    private final RowBounds rowBounds;
+    private int maxFetchSize = DEFAULT_MAX_FETCH_SIZE;
+
+    public DefaultCursorPublisher(SqlSessionFactory sqlSessionFactory, String statement) {
+        this(sqlSessionFactory, statement, null, RowBounds.DEFAULT);
+    }
+
+    public DefaultCursorPublisher(SqlSessionFactory sqlSessionFactory, String statement, Object parameter) {
+        this(sqlSessionFactory, statement, parameter, RowBounds.DEFAULT);
+    }
+
+    public DefaultCursorPublisher(SqlSessionFactory sqlSessionFactory, String statement, Object parameter, RowBounds rowBounds) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.statement = statement;
+        this.parameter = parameter;
+        this.rowBounds = rowBounds;
+    }
+
+    /**
+     * Upper bound of the fetch size hint given to the driver, whatever the outstanding demand is.
+     */
+    public void setMaxFetchSize(int maxFetchSize) {
+        if (maxFetchSize <= 0) {
+            throw new IllegalArgumentException("maxFetchSize must be positive but was " + maxFetchSize);
+        }
+        this.maxFetchSize = maxFetchSize;
+    }
+
+    public int getMaxFetchSize() {
+        return maxFetchSize;
+    }
+
+    @Override
+    public void subscribe(CursorSubscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        subscriber.onSubscribe(new DemandSubscription(subscriber));
+    }
+
+    private class DemandSubscription implements CursorSubscription {
+
+        private final CursorSubscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        /**
+         * Number of pending drain requests, only the thread moving it from 0 emits items
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // Only accessed by the draining thread
+        private boolean done;
+        private SqlSession sqlSession;
+        private Cursor<T> cursor;
+        private Iterator<T> iterator;
+        private int fetchSize;
+
+        DemandSubscription(CursorSubscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested items must be positive but was " + n);
+            } else {
+                addDemand(n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void addDemand(long n) {
+            for (;;) {
+                long current = demand.get();
+                long next = current + n;
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+                if (demand.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                emit();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (done) {
+                return;
+            }
+            if (cancelled) {
+                release();
+                return;
+            }
+            if (invalidRequest != null) {
+                release();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            long requested = demand.get();
+            if (requested == 0) {
+                return;
+            }
+            long emitted = 0;
+            try {
+                if (iterator == null) {
+                    open();
+                }
+                alignFetchSize(requested);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            while (emitted != requested) {
+                if (cancelled) {
+                    release();
+                    return;
+                }
+                if (!hasNext()) {
+                    return;
+                }
+                T item;
+                try {
+                    item = iterator.next();
+                } catch (RuntimeException e) {
+                    fail(e);
+                    return;
+                }
+                try {
+                    subscriber.onNext(item);
+                } catch (RuntimeException e) {
+                    // A failing subscriber is considered cancelled, its own exception is not signalled back (rule 2.13)
+                    cancelled = true;
+                    release();
+                    return;
+                }
+                emitted++;
+            }
+            // Completes without waiting for more demand once the last row has been emitted (rule 1.5)
+            if (cancelled) {
+                release();
+                return;
+            }
+            if (!hasNext()) {
+                return;
+            }
+            if (requested != Long.MAX_VALUE) {
+                demand.addAndGet(-emitted);
+            }
+        }
+
+        /**
+         * Signals completion, or the error of the cursor, when there are no more rows.
+         */
+        private boolean hasNext() {
+            boolean hasNext;
+            try {
+                hasNext = iterator.hasNext();
+            } catch (RuntimeException e) {
+                fail(e);
+                return false;
+            }
+            if (!hasNext) {
+                release();
+                subscriber.onComplete();
+            }
+            return hasNext;
+        }
+
+        private void fail(RuntimeException e) {
+            release();
+            subscriber.onError(e);
+        }
+
+        private void open() {
+            sqlSession = sqlSessionFactory.openSession();
+            cursor = sqlSession.selectCursor(statement, parameter, rowBounds);
+            iterator = cursor.iterator();
+        }
+
+        /**
+         * Asks the driver to bring back only what has been requested, bounded by maxFetchSize.
+         */
+        private void alignFetchSize(long requested) {
+            int size = (int) Math.min(requested, maxFetchSize);
+            if (size != fetchSize && cursor instanceof DefaultCursor) {
+                ((DefaultCursor<T>) cursor).setFetchSize(size);
+                fetchSize = size;
+            }
+        }
+
+        private void release() {
+            done = true;
+            iterator = null;
+            cursor = null;
+            if (sqlSession != null) {
+                try {
+                    // Closing the session also closes the cursor and its statement
+                    sqlSession.close();
+                } finally {
+                    sqlSession = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.dialect;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Base class for dialects, mainly to help with the trailing part of the original statement.
+ */
+public abstract class AbstractDialect implements Dialect {
+
+  /**
+   * Oracle rejects IN lists longer than this, the others accept it
+   */
+  public static final int DEFAULT_MAX_IN_LIST_SIZE = 1000;
+
+  private static final int UNSUPPORTED = -2;
+
+  // 出现在 WHERE 之后的子句，存在时不能直接在语句末尾追加条件
+  private static final Set<String> TRAILING_CLAUSES = new HashSet<String>(Arrays.asList("GROUP", "HAVING", "WINDOW",
+      "QUALIFY", "ORDER", "UNION", "INTERSECT", "EXCEPT", "MINUS", "LIMIT", "OFFSET", "FETCH", "FOR", "CONNECT", "START"));
+
+  @Override
+  public boolean supportsPaging() {
+    return true;
+  }
+
+  @Override
+  public String getPagingSql(String sql, int offset, int limit) {
+    StringBuilder builder = new StringBuilder(sql.length() + 40);
+    builder.append(trimStatement(sql));
+    appendPaging(builder, offset, limit);
+    return builder.toString();
+  }
+
+  @Override
+  public boolean supportsArrayParameters() {
+    return false;
+  }
+
+  @Override
+  public String getArrayInPredicate(String column, String parameter) {
+    return column + " IN (UNNEST(" + parameter + "))";
+  }
+
+  @Override
+  public String getArrayElementTypeName(JdbcType elementType) {
+    return elementType.name();
+  }
+
+  @Override
+  public int getMaxInListSize() {
+    return DEFAULT_MAX_IN_LIST_SIZE;
+  }
+
+  @Override
+  public boolean supportsRowValueComparison() {
+    return false;
+  }
+
+  @Override
+  public String getKeysetSql(String sql, String predicate, String orderBy) {
+    String statement = trimStatement(sql);
+    int where = findWhere(statement);
+    if (where == UNSUPPORTED) {
+      return null;
+    }
+    StringBuilder builder = new StringBuilder(statement.length() + 60);
+    if (predicate == null) {
+      builder.append(statement);
+    } else if (where < 0) {
+      builder.append(statement).append(" WHERE ").append(predicate);
+    } else {
+      // 原有条件加括号，避免其中的 OR 和定位条件结合
+      builder.append(statement, 0, where).append("WHERE (").append(statement, where + 5, statement.length())
+          .append(") AND ").append(predicate);
+    }
+    return builder.append(" ORDER BY ").append(orderBy).toString();
+  }
+
+  /**
+   * Appends the paging clause to the statement.
+   * @param offset the offset, never negative
+   * @param limit the limit, {@link RowBounds#NO_ROW_LIMIT} when unbounded
+   */
+  protected abstract void appendPaging(StringBuilder sql, int offset, int limit);
+
+  protected boolean hasOffset(int offset) {
+    return offset > RowBounds.NO_ROW_OFFSET;
+  }
+
+  protected boolean hasLimit(int limit) {
+    return limit < RowBounds.NO_ROW_LIMIT;
+  }
+
+  /**
+   * Finds the WHERE keyword of a select, outside of sub queries, quoted text and comments.
+   *
+   * @return its index, -1 if there is none, {@link #UNSUPPORTED} if a clause follows the WHERE clause
+   *         (GROUP BY, ORDER BY, UNION, ...), so a condition cannot simply be appended to the statement
+   */
+  private static int findWhere(String sql) {
+    int where = -1;
+    int depth = 0;
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (c == '\'' || c == '"' || c == '`') {
+        int end = sql.indexOf(c, i + 1);
+        i = end < 0 ? length : end + 1;
+      } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+        int end = sql.indexOf('\n', i);
+        i = end < 0 ? length : end + 1;
+      } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+        int end = sql.indexOf("*/", i + 2);
+        i = end < 0 ? length : end + 2;
+      } else if (c == '(') {
+        depth++;
+        i++;
+      } else if (c == ')') {
+        depth--;
+        i++;
+      } else if (Character.isLetter(c) || c == '_') {
+        int start = i;
+        while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_' || sql.charAt(i) == '$')) {
+          i++;
+        }
+        if (depth == 0) {
+          String word = sql.substring(start, i).toUpperCase(Locale.ENGLISH);
+          if ("WHERE".equals(word)) {
+            if (where >= 0) {
+              return UNSUPPORTED;
+            }
+            where = start;
+          } else if (TRAILING_CLAUSES.contains(word)) {
+            return UNSUPPORTED;
+          }
+        }
+      } else {
+        i++;
+      }
+    }
+    return where;
+  }
+
+  /**
+   * Removes trailing blanks and statement terminator so a clause can be appended.
+   */
+  public static String trimStatement(String sql) {
+    int end = sql.length();
+    while (end > 0 && (Character.isWhitespace(sql.charAt(end - 1)) || sql.charAt(end - 1) == ';')) {
+      end--;
+    }
+    return sql.substring(0, end);
+  }
+
+}
@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.dialect;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Rewrites SQL statements using features specific to a database vendor.
+ * When no dialect is configured (or the dialect does not support a feature) MyBatis falls back to
+ * the portable JDBC behaviour, for instance skipping rows in memory for {@link org.apache.ibatis.session.RowBounds}.
+ *
+ * @see org.apache.ibatis.session.Configuration#setDialect(Dialect)
+ */
+public interface Dialect {
+
+  /**
+   * @return true if {@link #getPagingSql(String, int, int)} can be used
+   */
+  boolean supportsPaging();
+
+  /**
+   * Restricts the rows returned by a select statement.
+   *
+   * @param sql the original select statement
+   * @param offset number of rows to skip, {@link org.apache.ibatis.session.RowBounds#NO_ROW_OFFSET} when none
+   * @param limit max number of rows to return, {@link org.apache.ibatis.session.RowBounds#NO_ROW_LIMIT} when unbounded
+   * @return the rewritten statement
+   */
+  String getPagingSql(String sql, int offset, int limit);
+
+  /**
+   * @return true if a collection can be bound as a single {@link java.sql.Array} parameter
+   *         and tested with {@link #getArrayInPredicate(String, String)}
+   */
+  boolean supportsArrayParameters();
+
+  /**
+   * Builds a predicate testing a column against the elements of an array parameter.
+   *
+   * @param column the column or expression being tested
+   * @param parameter the placeholder of the array parameter
+   * @return the predicate, for instance <code>id = ANY(?)</code>
+   */
+  String getArrayInPredicate(String column, String parameter);
+
+  /**
+   * @param elementType the JDBC type of the elements of an array parameter
+   * @return the type name passed to {@link java.sql.Connection#createArrayOf(String, Object[])}
+   */
+  String getArrayElementTypeName(JdbcType elementType);
+
+  /**
+   * @return max number of values in a single IN list, longer lists are split into several IN predicates
+   */
+  int getMaxInListSize();
+
+  /**
+   * @return true if rows can be compared as row values, for instance <code>(name, id) &gt; (?, ?)</code>
+   */
+  boolean supportsRowValueComparison();
+
+  /**
+   * Adds the seek condition and the ORDER BY of keyset pagination inside a select statement,
+   * so that the database can seek the index of the keyset columns.
+   *
+   * @param sql the original select statement, which must not be ordered
+   * @param predicate the seek condition, null for the first page
+   * @param orderBy the keyset order, without the ORDER BY keywords
+   * @return the rewritten statement, or null if the condition cannot be added inside this statement,
+   *         in which case the statement is wrapped in a derived table
+   */
+  String getKeysetSql(String sql, String predicate, String orderBy);
+
+}
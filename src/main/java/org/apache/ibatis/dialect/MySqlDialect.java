@@ -0,0 +1,46 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.dialect;
+
+/**
+ * Dialect for MySQL and MariaDB, using the <code>LIMIT n, m</code> clause.
+ */
+public class MySqlDialect extends AbstractDialect {
+
+  /**
+   * MySQL has no way to express an offset without a limit, its documentation recommends this value
+   */
+  private static final String MAX_ROWS = "18446744073709551615";
+
+  @Override
+  protected void appendPaging(StringBuilder sql, int offset, int limit) {
+    sql.append(" LIMIT ");
+    if (hasOffset(offset)) {
+      sql.append(offset).append(", ");
+    }
+    if (hasLimit(limit)) {
+      sql.append(limit);
+    } else {
+      sql.append(MAX_ROWS);
+    }
+  }
+
+  @Override
+  public boolean supportsRowValueComparison() {
+    return true;
+  }
+
+}
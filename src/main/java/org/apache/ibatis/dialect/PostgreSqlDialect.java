@@ -0,0 +1,74 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.dialect;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Dialect for PostgreSQL.
+ */
+public class PostgreSqlDialect extends LimitOffsetDialect {
+
+  // PostgreSQL 驱动按 PostgreSQL 的类型名创建数组
+  private static final Map<JdbcType, String> ARRAY_ELEMENT_TYPE_NAMES = new HashMap<JdbcType, String>();
+
+  static {
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.BOOLEAN, "bool");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.BIT, "bool");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.TINYINT, "int2");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.SMALLINT, "int2");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.INTEGER, "int4");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.BIGINT, "int8");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.REAL, "float4");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.FLOAT, "float8");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.DOUBLE, "float8");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.NUMERIC, "numeric");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.DECIMAL, "numeric");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.CHAR, "bpchar");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.VARCHAR, "varchar");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.LONGVARCHAR, "text");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.DATE, "date");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.TIME, "time");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.TIMESTAMP, "timestamp");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.BINARY, "bytea");
+    ARRAY_ELEMENT_TYPE_NAMES.put(JdbcType.VARBINARY, "bytea");
+  }
+
+  @Override
+  public boolean supportsArrayParameters() {
+    return true;
+  }
+
+  @Override
+  public String getArrayInPredicate(String column, String parameter) {
+    return column + " = ANY(" + parameter + ")";
+  }
+
+  @Override
+  public String getArrayElementTypeName(JdbcType elementType) {
+    String typeName = ARRAY_ELEMENT_TYPE_NAMES.get(elementType);
+    return typeName != null ? typeName : super.getArrayElementTypeName(elementType);
+  }
+
+  @Override
+  public boolean supportsRowValueComparison() {
+    return true;
+  }
+
+}
@@ -0,0 +1,33 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.dialect;
+
+/**
+ * Dialect using the standard SQL:2008 <code>OFFSET n ROWS FETCH NEXT m ROWS ONLY</code> clause.
+ */
+public class Sql2008Dialect extends AbstractDialect {
+
+  @Override
+  protected void appendPaging(StringBuilder sql, int offset, int limit) {
+    if (hasOffset(offset)) {
+      sql.append(" OFFSET ").append(offset).append(" ROWS");
+    }
+    if (hasLimit(limit)) {
+      sql.append(" FETCH NEXT ").append(limit).append(" ROWS ONLY");
+    }
+  }
+
+}
@@ -17,15 +17,21 @@ package org.apache.ibatis.executor;
 
 import static org.apache.ibatis.executor.ExecutionPlaceholder.EXECUTION_PLACEHOLDER;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.metrics.ResultSource;
+import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.executor.statement.StatementUtil;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -34,14 +40,17 @@ import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetPage;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.type.ArrayTypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
 /**
@@ -65,6 +74,10 @@ public abstract class BaseExecutor implements Executor {
   protected int queryStack;
   // 是否关闭
   private boolean closed;
+  // 当前事务中是否执行过更新，此时查询结果可能包含未提交的数据，不能和其他会话合并
+  private boolean dirty;
+  // 绑定参数时创建的 java.sql.Array，执行语句后释放
+  private final Map<Statement, List<Array>> boundArrays = new HashMap<Statement, List<Array>>();
 
   protected BaseExecutor(Configuration configuration, Transaction transaction) {
     this.transaction = transaction;
@@ -119,6 +132,7 @@ public abstract class BaseExecutor implements Executor {
     }
     // 清空一级缓存
     clearLocalCache();
+    dirty = true;
     return doUpdate(ms, parameter);
   }
 
@@ -165,6 +179,7 @@ public abstract class BaseExecutor implements Executor {
       if (list != null) {
         // 处理存储过程调用，缓存命中后将保存的输出类型参数，并设置到用户出入的实参对象中（parameter）
         handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
+        configuration.getMetricsRegistry().recordCacheHit(ms, boundSql, ResultSource.LOCAL_CACHE);
       } else {
         // 调用doQuery抽象方法
         list = queryFromDatabase(ms, parameter, rowBounds, resultHandler, key, boundSql);
@@ -241,6 +256,12 @@ public abstract class BaseExecutor implements Executor {
         cacheKey.update(value);
       }
     }
+    if (rowBounds instanceof KeysetPage && !((KeysetPage) rowBounds).isFirstPage()) {
+      // keyset 分页的定位条件在 StatementHandler 中才追加，这里需要加入上一页最后一行的键值
+      for (Object value : ((KeysetPage) rowBounds).getLastKey()) {
+        cacheKey.update(value);
+      }
+    }
     if (configuration.getEnvironment() != null) {
       // issue #176
       cacheKey.update(configuration.getEnvironment().getId());
@@ -268,6 +289,7 @@ public abstract class BaseExecutor implements Executor {
     if (required) { // 是否提交事务
       transaction.commit();
     }
+    dirty = false;
   }
 
   // 和commit一样
@@ -281,6 +303,7 @@ public abstract class BaseExecutor implements Executor {
         if (required) {
           transaction.rollback();
         }
+        dirty = false;
       }
     }
   }
@@ -308,7 +331,47 @@ public abstract class BaseExecutor implements Executor {
   protected abstract <E> Cursor<E> doQueryCursor(MappedStatement ms, Object parameter, RowBounds rowBounds, BoundSql boundSql)
       throws SQLException;
 
+  /**
+   * Sets the parameters of the statement, recording the arrays created for them until {@link #freeArrays(Statement)}.
+   */
+  protected void parameterize(StatementHandler handler, Statement statement) throws SQLException {
+    List<Array> arrays = boundArrays.isEmpty() ? null : boundArrays.get(statement);
+    if (arrays == null) {
+      arrays = new ArrayList<Array>();
+    }
+    ArrayTypeHandler.recordCreatedArrays(arrays);
+    try {
+      handler.parameterize(statement);
+    } finally {
+      ArrayTypeHandler.recordCreatedArrays(null);
+    }
+    if (!arrays.isEmpty()) {
+      // 批处理中同一 Statement 多次绑定参数，数组累加到执行后一起释放
+      boundArrays.put(statement, arrays);
+    }
+  }
+
+  /**
+   * Frees the arrays created for the parameters of the statement, once it has been executed.
+   */
+  protected void freeArrays(Statement statement) {
+    if (boundArrays.isEmpty()) {
+      return;
+    }
+    List<Array> arrays = boundArrays.remove(statement);
+    if (arrays != null) {
+      for (Array array : arrays) {
+        try {
+          array.free();
+        } catch (SQLException e) {
+          // ignore
+        }
+      }
+    }
+  }
+
   protected void closeStatement(Statement statement) {
+    freeArrays(statement);
     if (statement != null) {
       try {
         statement.close();
@@ -351,7 +414,11 @@ public abstract class BaseExecutor implements Executor {
     // 给缓存添加占位符
     localCache.putObject(key, EXECUTION_PLACEHOLDER);
     try {
-      list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      if (isCoalescable(ms, resultHandler)) {
+        list = coalesceQuery(ms, parameter, rowBounds, key, boundSql);
+      } else {
+        list = doQuery(ms, parameter, rowBounds, resultHandler, boundSql);
+      }
     } finally {
       localCache.removeObject(key); // 删除占位符
     }
@@ -362,6 +429,42 @@ public abstract class BaseExecutor implements Executor {
     return list;
   }
 
+  /**
+   * Only top level queries of statements marked to be coalesced and returning complete results are coalesced, nested
+   * queries may still be deferred and output parameters belong to the caller. Statements flushing the caches and
+   * sessions that updated data run on their own, they may rely on locks or on their own changes.
+   */
+  private boolean isCoalescable(MappedStatement ms, ResultHandler resultHandler) {
+    if (!ms.isCoalesce() || ms.isFlushCacheRequired() || dirty || resultHandler != null || queryStack > 1
+        || ms.getStatementType() == StatementType.CALLABLE) {
+      return false;
+    }
+    for (ResultMap resultMap : ms.getResultMaps()) {
+      if (resultMap.hasNestedQueries()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private <E> List<E> coalesceQuery(final MappedStatement ms, final Object parameter, final RowBounds rowBounds, CacheKey key, final BoundSql boundSql) throws SQLException {
+    final boolean[] executed = new boolean[1];
+    // 等待其他会话的时间不超过本语句的超时时间
+    Integer timeout = ms.getTimeout() != null ? ms.getTimeout() : configuration.getDefaultStatementTimeout();
+    List<E> list = configuration.getQueryCoalescer().query(key, ms.isReadOnly(), timeout, new QueryCoalescer.Query<E>() {
+      @Override
+      public List<E> execute() throws SQLException {
+        executed[0] = true;
+        return doQuery(ms, parameter, rowBounds, null, boundSql);
+      }
+    });
+    if (!executed[0]) {
+      // 结果来自其他会话的执行
+      configuration.getMetricsRegistry().recordCacheHit(ms, boundSql, ResultSource.COALESCED);
+    }
+    return list;
+  }
+
   protected Connection getConnection(Log statementLog) throws SQLException {
     Connection connection = transaction.getConnection();
     if (statementLog.isDebugEnabled()) {
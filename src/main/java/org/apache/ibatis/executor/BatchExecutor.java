@@ -68,7 +68,7 @@ public class BatchExecutor extends BaseExecutor {
       stmt = statementList.get(last); // 获取list中最后一个 statement
       applyTransactionTimeout(stmt);
       // 绑定实参，处理 ? 占位符
-     handler.parameterize(stmt);//fix Issues 322
+     parameterize(handler, stmt);//fix Issues 322
       // 获取对应的 BatchResult对象，记录用户传入的实参
       BatchResult batchResult = batchResultList.get(last);
       batchResult.addParameterObject(parameterObject);
@@ -76,7 +76,7 @@ public class BatchExecutor extends BaseExecutor {
       Connection connection = getConnection(ms.getStatementLog());
       stmt = handler.prepare(connection, transaction.getTimeout()); // 获取新的 statement
       // 绑定实参，处理 ? 占位符
-      handler.parameterize(stmt);    //fix Issues 322
+      parameterize(handler, stmt);    //fix Issues 322
       currentSql = sql;
       currentStatement = ms;
       // 添加到集合中
@@ -98,7 +98,7 @@ public class BatchExecutor extends BaseExecutor {
       StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameterObject, rowBounds, resultHandler, boundSql);
       Connection connection = getConnection(ms.getStatementLog());
       stmt = handler.prepare(connection, transaction.getTimeout());
-      handler.parameterize(stmt);
+      parameterize(handler, stmt);
       return handler.<E>query(stmt, resultHandler);
     } finally {
       closeStatement(stmt);
@@ -112,8 +112,10 @@ public class BatchExecutor extends BaseExecutor {
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
     Connection connection = getConnection(ms.getStatementLog());
     Statement stmt = handler.prepare(connection, transaction.getTimeout());
-    handler.parameterize(stmt);
-    return handler.<E>queryCursor(stmt);
+    parameterize(handler, stmt);
+    Cursor<E> cursor = handler.<E>queryCursor(stmt);
+    freeArrays(stmt); // 游标打开后语句已执行
+    return cursor;
   }
 
   @Override
@@ -22,6 +22,7 @@ import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.CacheKey;
 import org.apache.ibatis.cache.TransactionalCacheManager;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.metrics.ResultSource;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMapping;
@@ -107,6 +108,8 @@ public class CachingExecutor implements Executor {
           list = delegate.<E> query(ms, parameterObject, rowBounds, resultHandler, key, boundSql);
           // 保存到暂存空间 entriesToAddOnCommit 里面，待提交后才保存到二级缓存中
           tcm.putObject(cache, key, list); // issue #578 and #116
+        } else {
+          ms.getConfiguration().getMetricsRegistry().recordCacheHit(ms, boundSql, ResultSource.SECOND_LEVEL_CACHE);
         }
         return list;
       }
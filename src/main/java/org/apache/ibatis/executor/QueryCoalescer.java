@@ -0,0 +1,191 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.decorators.SerializedCache;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Lets concurrent callers running the same query share a single database execution.
+ * <p>
+ * The first caller of a {@link CacheKey} runs the query, callers arriving while it is in flight wait for it and
+ * receive a copy of its results. Nothing is kept once the execution completes, this is not a cache.
+ * <p>
+ * Waiting callers get the same result objects in a new list when the results are shared, or a serialized copy of
+ * them otherwise. When the execution fails, the results cannot be serialized or the execution takes longer than the
+ * timeout of the waiting caller, the caller runs the query itself.
+ */
+public class QueryCoalescer {
+
+  private static final Log log = LogFactory.getLog(QueryCoalescer.class);
+
+  private final ConcurrentMap<CacheKey, Flight> flights = new ConcurrentHashMap<CacheKey, Flight>();
+
+  public interface Query<E> {
+    List<E> execute() throws SQLException;
+  }
+
+  /**
+   * @param timeout max number of seconds to wait for the execution of another caller, null to wait until it completes
+   */
+  public <E> List<E> query(CacheKey key, boolean shared, Integer timeout, Query<E> query) throws SQLException {
+    Flight flight = new Flight(shared);
+    Flight inFlight = flights.putIfAbsent(key, flight);
+    if (inFlight == null) {
+      // 第一个调用方执行查询，完成后唤醒等待的调用方
+      List<E> list = null;
+      try {
+        list = query.execute();
+      } finally {
+        flights.remove(key, flight);
+        flight.complete(list);
+      }
+      return list;
+    }
+    List<E> list = inFlight.await(timeout);
+    return list != null ? list : query.execute();
+  }
+
+  /**
+   * Number of coalescable queries currently executing.
+   */
+  public int getInFlightCount() {
+    return flights.size();
+  }
+
+  /**
+   * Number of callers currently waiting for the results of another caller.
+   */
+  public int getWaitingCount() {
+    int count = 0;
+    for (Flight flight : flights.values()) {
+      count += flight.getWaiters();
+    }
+    return count;
+  }
+
+  private static class Flight {
+
+    private final boolean shared;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private boolean completed; // guarded by this
+    private int waiters; // guarded by this
+    private List<Object> results;
+    private byte[] serializedResults;
+
+    Flight(boolean shared) {
+      this.shared = shared;
+    }
+
+    synchronized int getWaiters() {
+      return waiters;
+    }
+
+    /**
+     * Copies the results before the executing caller gets them back and may modify them.
+     */
+    void complete(List<?> list) {
+      synchronized (this) {
+        completed = true;
+        if (waiters > 0 && list != null) {
+          if (shared) {
+            results = new ArrayList<Object>(list);
+          } else {
+            serializedResults = serialize(list);
+          }
+        }
+      }
+      done.countDown();
+    }
+
+    /**
+     * Returns a copy of the results, or null when the caller should run the query itself.
+     */
+    @SuppressWarnings("unchecked")
+    <E> List<E> await(Integer timeout) {
+      synchronized (this) {
+        if (completed) {
+          return null;
+        }
+        waiters++;
+      }
+      try {
+        if (timeout == null) {
+          done.await();
+        } else if (!done.await(timeout, TimeUnit.SECONDS)) {
+          // 超时后不再等待，由调用方自己执行查询
+          synchronized (this) {
+            waiters--;
+          }
+          return null;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      if (results != null) {
+        return new ArrayList<E>((List<E>) results);
+      }
+      if (serializedResults != null) {
+        return (List<E>) deserialize(serializedResults);
+      }
+      return null;
+    }
+
+    private static byte[] serialize(List<?> list) {
+      try {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(new ArrayList<Object>(list));
+        oos.close();
+        return bos.toByteArray();
+      } catch (IOException e) {
+        // 结果对象无法序列化时，等待的调用方各自执行查询
+        if (log.isDebugEnabled()) {
+          log.debug("Results could not be copied to waiting callers, they will run the query themselves. Cause: " + e);
+        }
+        return null;
+      }
+    }
+
+    private static Object deserialize(byte[] bytes) {
+      try {
+        ObjectInputStream ois = new SerializedCache.CustomObjectInputStream(new ByteArrayInputStream(bytes));
+        Object result = ois.readObject();
+        ois.close();
+        return result;
+      } catch (Exception e) {
+        throw new ExecutorException("Error copying coalesced results.  Cause: " + e, e);
+      }
+    }
+  }
+
+}
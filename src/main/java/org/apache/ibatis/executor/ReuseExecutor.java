@@ -68,7 +68,9 @@ public class ReuseExecutor extends BaseExecutor {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
     Statement stmt = prepareStatement(handler, ms.getStatementLog());
-    return handler.<E>queryCursor(stmt);
+    Cursor<E> cursor = handler.<E>queryCursor(stmt);
+    freeArrays(stmt); // 游标打开后语句已执行
+    return cursor;
   }
 
   @Override
@@ -87,13 +89,14 @@ public class ReuseExecutor extends BaseExecutor {
     if (hasStatementFor(sql)) { // 判断是否缓存了相同模式的sql所对应的Statement
       stmt = getStatement(sql); // 从map中取出
       applyTransactionTimeout(stmt); // 修改超时时间
+      freeArrays(stmt); // 释放上次执行绑定的数组
     } else {
       Connection connection = getConnection(statementLog);
       // 创建新的 statement，并缓存到map中
       stmt = handler.prepare(connection, transaction.getTimeout());
       putStatement(sql, stmt);
     }
-    handler.parameterize(stmt); // 处理占位符
+    parameterize(handler, stmt); // 处理占位符
     return stmt;
   }
 
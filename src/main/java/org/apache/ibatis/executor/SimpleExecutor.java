@@ -74,7 +74,9 @@ public class SimpleExecutor extends BaseExecutor {
     Configuration configuration = ms.getConfiguration();
     StatementHandler handler = configuration.newStatementHandler(wrapper, ms, parameter, rowBounds, null, boundSql);
     Statement stmt = prepareStatement(handler, ms.getStatementLog());
-    return handler.<E>queryCursor(stmt);
+    Cursor<E> cursor = handler.<E>queryCursor(stmt);
+    freeArrays(stmt); // 游标打开后语句已执行
+    return cursor;
   }
 
   // 不支持批量处理SQL
@@ -87,7 +89,7 @@ public class SimpleExecutor extends BaseExecutor {
     Statement stmt;
     Connection connection = getConnection(statementLog);
     stmt = handler.prepare(connection, transaction.getTimeout());
-    handler.parameterize(stmt); // 处理占位符
+    parameterize(handler, stmt); // 处理占位符
     return stmt;
   }
 
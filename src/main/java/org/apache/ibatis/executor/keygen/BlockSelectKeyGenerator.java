@@ -0,0 +1,194 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.keygen;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * A select key generator that reads a block of keys at once and hands them out from memory, before the insert.
+ * <p>
+ * The key statement returns either the first key of a block of <code>blockSize</code> keys, e.g. the next value of a
+ * sequence incremented by <code>blockSize</code>, or with <code>hilo</code> the high value of the block, the keys then
+ * being <code>hi * blockSize</code> to <code>hi * blockSize + blockSize - 1</code>.
+ * The key statement runs in a transaction of its own when the configuration has an environment, so a new block
+ * does not depend on the outcome of the insert that needed it.
+ * </p>
+ * This generator is shared by all the sessions. Keys are handed out without locking. A new block is read under a
+ * lock by the first session finding the block exhausted, the others wait for it and take their keys from it.
+ */
+public class BlockSelectKeyGenerator implements KeyGenerator {
+
+  private final MappedStatement keyStatement;
+  private final int blockSize;
+  private final boolean hilo;
+
+  // 当前正在分配的块
+  private final AtomicReference<Block> block = new AtomicReference<Block>(new Block(0, 0));
+  // 读取新块时持有，同一时间只有一个会话读取新块
+  private final Object refillLock = new Object();
+
+  public BlockSelectKeyGenerator(MappedStatement keyStatement, int blockSize, boolean hilo) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("The block size of " + keyStatement.getId() + " must be positive but was " + blockSize);
+    }
+    String[] keyProperties = keyStatement.getKeyProperties();
+    if (keyProperties == null || keyProperties.length != 1) {
+      throw new IllegalArgumentException("A block allocated key needs exactly one keyProperty but " + keyStatement.getId() + " has "
+          + (keyProperties == null ? 0 : keyProperties.length));
+    }
+    this.keyStatement = keyStatement;
+    this.blockSize = blockSize;
+    this.hilo = hilo;
+  }
+
+  @Override
+  public void processBefore(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
+    if (parameter == null) {
+      return;
+    }
+    try {
+      final Configuration configuration = ms.getConfiguration();
+      final MetaObject metaParam = configuration.newMetaObject(parameter);
+      final String keyProperty = keyStatement.getKeyProperties()[0];
+      if (!metaParam.hasSetter(keyProperty)) {
+        throw new ExecutorException("No setter found for the keyProperty '" + keyProperty + "' in " + metaParam.getOriginalObject().getClass().getName() + ".");
+      }
+      long key = nextKey(executor, parameter);
+      metaParam.setValue(keyProperty, toPropertyType(key, metaParam.getSetterType(keyProperty)));
+    } catch (ExecutorException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ExecutorException("Error selecting key or setting result to parameter object. Cause: " + e, e);
+    }
+  }
+
+  @Override
+  public void processAfter(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
+    // keys are set before the insert
+  }
+
+  protected long nextKey(Executor executor, Object parameter) throws Exception {
+    for (;;) {
+      Block current = block.get();
+      long key = current.nextKey.getAndIncrement();
+      if (key < current.end) {
+        return key;
+      }
+      synchronized (refillLock) {
+        // 等待期间其他会话可能已经换了新块，此时直接重试
+        if (block.get() == current) {
+          long value = selectBlock(executor, parameter);
+          long start = hilo ? value * blockSize : value;
+          block.set(new Block(start, start + blockSize));
+        }
+      }
+    }
+  }
+
+  private long selectBlock(Executor executor, Object parameter) throws Exception {
+    final Configuration configuration = keyStatement.getConfiguration();
+    final Environment environment = configuration.getEnvironment();
+    List<Object> values;
+    if (environment == null) {
+      // Do not close keyExecutor.
+      // The transaction will be closed by parent executor.
+      Executor keyExecutor = configuration.newExecutor(executor.getTransaction(), ExecutorType.SIMPLE);
+      values = keyExecutor.query(keyStatement, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+    } else {
+      // 使用独立的自动提交事务读取新块，不占用调用者的事务
+      Transaction transaction = environment.getTransactionFactory().newTransaction(environment.getDataSource(), null, true);
+      Executor keyExecutor = configuration.newExecutor(transaction, ExecutorType.SIMPLE);
+      try {
+        values = keyExecutor.query(keyStatement, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+      } finally {
+        keyExecutor.close(false);
+      }
+    }
+    if (values.size() == 0) {
+      throw new ExecutorException("SelectKey returned no data.");
+    } else if (values.size() > 1) {
+      throw new ExecutorException("SelectKey returned more than one value.");
+    }
+    Object value = values.get(0);
+    String keyProperty = keyStatement.getKeyProperties()[0];
+    if (!(value instanceof Number)) {
+      MetaObject metaResult = configuration.newMetaObject(value);
+      if (value != null && metaResult.hasGetter(keyProperty)) {
+        value = metaResult.getValue(keyProperty);
+      }
+    }
+    if (!(value instanceof Number)) {
+      throw new ExecutorException("SelectKey " + keyStatement.getId() + " must return a number to allocate a block of keys but returned " + value);
+    }
+    return ((Number) value).longValue();
+  }
+
+  private Object toPropertyType(long key, Class<?> type) {
+    if (type == Integer.class || type == int.class) {
+      if (key > Integer.MAX_VALUE) {
+        throw new ExecutorException("Key " + key + " allocated by " + keyStatement.getId() + " does not fit in an int.");
+      }
+      return (int) key;
+    } else if (type == Short.class || type == short.class) {
+      if (key > Short.MAX_VALUE) {
+        throw new ExecutorException("Key " + key + " allocated by " + keyStatement.getId() + " does not fit in a short.");
+      }
+      return (short) key;
+    } else if (type == BigInteger.class) {
+      return BigInteger.valueOf(key);
+    } else if (type == BigDecimal.class) {
+      return BigDecimal.valueOf(key);
+    } else if (type == String.class) {
+      return String.valueOf(key);
+    }
+    return key;
+  }
+
+  private static class Block {
+
+    private final AtomicLong nextKey;
+    private final long end;
+
+    private Block(long start, long end) {
+      this.nextKey = new AtomicLong(start);
+      this.end = end;
+    }
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  public boolean isHilo() {
+    return hilo;
+  }
+
+}
@@ -0,0 +1,123 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * One execution of a mapped statement. Only valid while the listener is called:
+ * the parameters are read from the parameter object when requested.
+ */
+public class ExecutionEvent {
+
+  private final Configuration configuration;
+  private final String statementId;
+  private final BoundSql boundSql;
+  private final ResultSource resultSource;
+  private final long databaseNanos;
+  private final long mappingNanos;
+  private final int rows;
+  private final boolean slow;
+
+  public ExecutionEvent(Configuration configuration, String statementId, BoundSql boundSql, ResultSource resultSource,
+      long databaseNanos, long mappingNanos, int rows, boolean slow) {
+    this.configuration = configuration;
+    this.statementId = statementId;
+    this.boundSql = boundSql;
+    this.resultSource = resultSource;
+    this.databaseNanos = databaseNanos;
+    this.mappingNanos = mappingNanos;
+    this.rows = rows;
+    this.slow = slow;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public String getSql() {
+    return boundSql == null ? null : boundSql.getSql();
+  }
+
+  /**
+   * @return the values bound to the parameters of the SQL, in order
+   */
+  public List<Object> getParameters() {
+    List<Object> values = new ArrayList<Object>();
+    if (boundSql == null) {
+      return values;
+    }
+    Object parameterObject = boundSql.getParameterObject();
+    TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+    MetaObject metaObject = null;
+    // mimic DefaultParameterHandler logic
+    for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+      if (parameterMapping.getMode() == ParameterMode.OUT) {
+        continue;
+      }
+      String propertyName = parameterMapping.getProperty();
+      if (boundSql.hasAdditionalParameter(propertyName)) {
+        values.add(boundSql.getAdditionalParameter(propertyName));
+      } else if (parameterObject == null) {
+        values.add(null);
+      } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+        values.add(parameterObject);
+      } else {
+        if (metaObject == null) {
+          metaObject = configuration.newMetaObject(parameterObject);
+        }
+        values.add(metaObject.getValue(propertyName));
+      }
+    }
+    return values;
+  }
+
+  public ResultSource getResultSource() {
+    return resultSource;
+  }
+
+  public long getElapsedNanos() {
+    return databaseNanos + mappingNanos;
+  }
+
+  public long getDatabaseNanos() {
+    return databaseNanos;
+  }
+
+  public long getMappingNanos() {
+    return mappingNanos;
+  }
+
+  /**
+   * @return the rows returned by a query or affected by an update, -1 when not known (cursors and cache hits)
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  public boolean isSlow() {
+    return slow;
+  }
+
+}
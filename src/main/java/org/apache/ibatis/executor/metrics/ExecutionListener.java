@@ -0,0 +1,35 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * Receives the executions of all mapped statements, registered with {@link MetricsRegistry#addListener}.
+ * It is called synchronously on the executing thread and must return quickly.
+ */
+public interface ExecutionListener {
+
+  /**
+   * Called after each execution against the database and each cache hit.
+   */
+  void onExecution(ExecutionEvent event);
+
+  /**
+   * Called after an execution that took longer than the slow statement threshold, in addition to {@link #onExecution}.
+   * Not sampled.
+   */
+  void onSlowExecution(ExecutionEvent event);
+
+}
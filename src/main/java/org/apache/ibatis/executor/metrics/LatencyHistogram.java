@@ -0,0 +1,110 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of durations with power of two buckets in microseconds.
+ * Bucket 0 counts durations under 1 microsecond, bucket i counts durations in [2^(i-1), 2^i) microseconds.
+ * Percentiles are reported as the upper bound of their bucket, so they are at most twice the actual value.
+ */
+public class LatencyHistogram {
+
+  public static final int BUCKETS = 40;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong totalNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  public void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+    buckets.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(nanos)));
+    count.incrementAndGet();
+    totalNanos.addAndGet(nanos);
+    long max = maxNanos.get();
+    while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+      max = maxNanos.get();
+    }
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.get();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  public long getMeanNanos() {
+    long n = count.get();
+    return n == 0 ? 0 : totalNanos.get() / n;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the upper bound in microseconds of the bucket holding the percentile, 0 if nothing was recorded
+   */
+  public long getPercentileMicros(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100 but was " + percentile);
+    }
+    long[] snapshot = getBucketCounts();
+    long total = 0;
+    for (long bucket : snapshot) {
+      total += bucket;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return upperBoundMicros(i);
+      }
+    }
+    return upperBoundMicros(BUCKETS - 1);
+  }
+
+  public long[] getBucketCounts() {
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = buckets.get(i);
+    }
+    return snapshot;
+  }
+
+  public static long upperBoundMicros(int bucket) {
+    return 1L << bucket;
+  }
+
+  static int bucketOf(long micros) {
+    int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    return bucket < BUCKETS ? bucket : BUCKETS - 1;
+  }
+
+}
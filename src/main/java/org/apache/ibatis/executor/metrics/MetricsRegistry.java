@@ -0,0 +1,288 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Collects the {@link StatementMetrics} of the mapped statements of a {@link Configuration}.
+ * <p>
+ * Executions slower than the slow query threshold are logged at WARN level with their SQL, and with their parameters
+ * at DEBUG level only, as they may hold personal data.
+ * Only one in <code>slowQuerySampling</code> of them is logged to bound the cost of a burst of slow statements.
+ * </p>
+ */
+public class MetricsRegistry implements MetricsRegistryMBean {
+
+  private static final Log log = LogFactory.getLog(MetricsRegistry.class);
+
+  private final Configuration configuration;
+  private final ConcurrentMap<String, StatementMetrics> statements = new ConcurrentHashMap<String, StatementMetrics>();
+  private final List<ExecutionListener> listeners = new CopyOnWriteArrayList<ExecutionListener>();
+  private final AtomicLong slowQueryCount = new AtomicLong();
+
+  private volatile boolean enabled;
+  private volatile Long slowQueryThreshold;
+  private volatile int slowQuerySampling = 1;
+
+  public MetricsRegistry(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  /**
+   * Records an execution against the database.
+   *
+   * @param start {@link System#nanoTime()} before the statement was executed
+   * @param executed {@link System#nanoTime()} once the statement was executed, before the results were read
+   * @param end {@link System#nanoTime()} once the results were read
+   * @param rows the rows returned or affected, -1 if not known
+   */
+  public void recordExecution(MappedStatement ms, BoundSql boundSql, long start, long executed, long end, int rows) {
+    if (!enabled) {
+      recordRows(ms, rows);
+      return;
+    }
+    long databaseNanos = executed - start;
+    long mappingNanos = end - executed;
+    StatementMetrics metrics = getStatementMetrics(ms.getId());
+    metrics.recordExecution(databaseNanos, mappingNanos, rows);
+    Long threshold = slowQueryThreshold;
+    boolean slow = threshold != null && TimeUnit.NANOSECONDS.toMillis(end - start) >= threshold;
+    if (!slow && listeners.isEmpty()) {
+      return;
+    }
+    ExecutionEvent event = new ExecutionEvent(configuration, ms.getId(), boundSql, ResultSource.DATABASE, databaseNanos, mappingNanos, rows, slow);
+    for (ExecutionListener listener : listeners) {
+      listener.onExecution(event);
+    }
+    if (slow) {
+      metrics.recordSlowExecution();
+      long count = slowQueryCount.incrementAndGet();
+      if (count % slowQuerySampling == 0) {
+        log.warn("Slow statement " + ms.getId() + " took " + TimeUnit.NANOSECONDS.toMillis(end - start) + " ms ("
+            + TimeUnit.NANOSECONDS.toMillis(databaseNanos) + " ms in database, " + rows + " rows). SQL: "
+            + event.getSql());
+        if (log.isDebugEnabled()) {
+          log.debug("Parameters of slow statement " + ms.getId() + ": " + event.getParameters());
+        }
+      }
+      for (ExecutionListener listener : listeners) {
+        listener.onSlowExecution(event);
+      }
+    }
+  }
+
+  /**
+   * Records a query answered from a cache or by the execution of another session.
+   */
+  public void recordCacheHit(MappedStatement ms, BoundSql boundSql, ResultSource source) {
+    if (!enabled) {
+      return;
+    }
+    getStatementMetrics(ms.getId()).recordCacheHit(source);
+    if (!listeners.isEmpty()) {
+      ExecutionEvent event = new ExecutionEvent(configuration, ms.getId(), boundSql, source, 0, 0, -1, false);
+      for (ExecutionListener listener : listeners) {
+        listener.onExecution(event);
+      }
+    }
+  }
+
+  /**
+   * Records the rows read by a cursor after its execution has been recorded.
+   * They are also recorded when the metrics are disabled, if the adaptive fetch size or the pipelining of result sets
+   * is enabled, as both depend on the rows returned before.
+   */
+  public void recordRows(MappedStatement ms, int rows) {
+    if (!enabled && !configuration.isAdaptiveFetchSize() && !configuration.isPipelineResultSets()) {
+      return;
+    }
+    getStatementMetrics(ms.getId()).recordRows(rows);
+  }
+
+  /**
+   * Records the estimated size of the rows returned by a query, used to adapt its fetch size.
+   */
+  public void recordRowWidth(MappedStatement ms, int rowWidth) {
+    getStatementMetrics(ms.getId()).recordRowWidth(rowWidth);
+  }
+
+  public StatementMetrics getStatementMetrics(String statementId) {
+    StatementMetrics metrics = statements.get(statementId);
+    if (metrics == null) {
+      metrics = new StatementMetrics(statementId);
+      StatementMetrics existing = statements.putIfAbsent(statementId, metrics);
+      if (existing != null) {
+        metrics = existing;
+      }
+    }
+    return metrics;
+  }
+
+  public Collection<StatementMetrics> getAllStatementMetrics() {
+    return statements.values();
+  }
+
+  public void addListener(ExecutionListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(ExecutionListener listener) {
+    listeners.remove(listener);
+  }
+
+  public List<ExecutionListener> getListeners() {
+    return listeners;
+  }
+
+  /**
+   * Registers this registry to the platform MBean server as <code>org.apache.ibatis:type=MetricsRegistry,name=&lt;name&gt;</code>.
+   */
+  public ObjectName registerMBean(String name) throws JMException {
+    ObjectName objectName = new ObjectName("org.apache.ibatis:type=MetricsRegistry,name=" + ObjectName.quote(name));
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    return objectName;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * @return the duration in milliseconds above which an execution is slow, null if none is
+   */
+  @Override
+  public Long getSlowQueryThreshold() {
+    return slowQueryThreshold;
+  }
+
+  @Override
+  public void setSlowQueryThreshold(Long slowQueryThreshold) {
+    this.slowQueryThreshold = slowQueryThreshold;
+  }
+
+  @Override
+  public int getSlowQuerySampling() {
+    return slowQuerySampling;
+  }
+
+  @Override
+  public void setSlowQuerySampling(int slowQuerySampling) {
+    if (slowQuerySampling < 1) {
+      throw new IllegalArgumentException("Slow query sampling must be at least 1 but was " + slowQuerySampling);
+    }
+    this.slowQuerySampling = slowQuerySampling;
+  }
+
+  @Override
+  public long getSlowQueryCount() {
+    return slowQueryCount.get();
+  }
+
+  @Override
+  public String[] getStatementIds() {
+    return statements.keySet().toArray(new String[0]);
+  }
+
+  @Override
+  public long getExecutions(String statementId) {
+    return lookup(statementId).getExecutions();
+  }
+
+  @Override
+  public long getRows(String statementId) {
+    return lookup(statementId).getRows();
+  }
+
+  @Override
+  public long getMeanLatency(String statementId) {
+    return TimeUnit.NANOSECONDS.toMicros(lookup(statementId).getLatency().getMeanNanos());
+  }
+
+  @Override
+  public long getMaxLatency(String statementId) {
+    return TimeUnit.NANOSECONDS.toMicros(lookup(statementId).getLatency().getMaxNanos());
+  }
+
+  @Override
+  public long getPercentileLatency(String statementId, double percentile) {
+    return lookup(statementId).getLatency().getPercentileMicros(percentile);
+  }
+
+  @Override
+  public long getDatabaseTime(String statementId) {
+    return TimeUnit.NANOSECONDS.toMicros(lookup(statementId).getDatabaseNanos());
+  }
+
+  @Override
+  public long getMappingTime(String statementId) {
+    return TimeUnit.NANOSECONDS.toMicros(lookup(statementId).getMappingNanos());
+  }
+
+  @Override
+  public long getLocalCacheHits(String statementId) {
+    return lookup(statementId).getLocalCacheHits();
+  }
+
+  @Override
+  public long getSecondLevelCacheHits(String statementId) {
+    return lookup(statementId).getSecondLevelCacheHits();
+  }
+
+  @Override
+  public long getCoalescedQueries(String statementId) {
+    return lookup(statementId).getCoalescedQueries();
+  }
+
+  @Override
+  public int getFetchSize(String statementId) {
+    return lookup(statementId).getFetchSize();
+  }
+
+  private StatementMetrics lookup(String statementId) {
+    StatementMetrics metrics = statements.get(statementId);
+    return metrics == null ? new StatementMetrics(statementId) : metrics;
+  }
+
+  @Override
+  public void reset() {
+    statements.clear();
+    slowQueryCount.set(0);
+  }
+
+}
@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+/**
+ * Management interface of the {@link MetricsRegistry}. Times are in microseconds.
+ */
+public interface MetricsRegistryMBean {
+
+  boolean isEnabled();
+
+  void setEnabled(boolean enabled);
+
+  Long getSlowQueryThreshold();
+
+  void setSlowQueryThreshold(Long slowQueryThreshold);
+
+  int getSlowQuerySampling();
+
+  void setSlowQuerySampling(int slowQuerySampling);
+
+  long getSlowQueryCount();
+
+  String[] getStatementIds();
+
+  long getExecutions(String statementId);
+
+  long getRows(String statementId);
+
+  long getMeanLatency(String statementId);
+
+  long getMaxLatency(String statementId);
+
+  long getPercentileLatency(String statementId, double percentile);
+
+  long getDatabaseTime(String statementId);
+
+  long getMappingTime(String statementId);
+
+  long getLocalCacheHits(String statementId);
+
+  long getSecondLevelCacheHits(String statementId);
+
+  long getCoalescedQueries(String statementId);
+
+  int getFetchSize(String statementId);
+
+  void reset();
+
+}
@@ -0,0 +1,182 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution statistics of one mapped statement.
+ * Database time is spent executing the statement, mapping time is spent reading and mapping its results
+ * (nested selects included).
+ */
+public class StatementMetrics {
+
+  /**
+   * Bytes of rows a fetch may bring at once when the fetch size is adapted.
+   */
+  public static final int FETCH_BUFFER_SIZE = 1024 * 1024;
+
+  // weight of the last execution in the averages used to adapt the fetch size
+  private static final double SMOOTHING = 0.3;
+
+  private final String id;
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final AtomicLong rows = new AtomicLong();
+  private final AtomicLong databaseNanos = new AtomicLong();
+  private final AtomicLong mappingNanos = new AtomicLong();
+  private final AtomicLong localCacheHits = new AtomicLong();
+  private final AtomicLong secondLevelCacheHits = new AtomicLong();
+  private final AtomicLong coalescedQueries = new AtomicLong();
+  private final AtomicLong slowExecutions = new AtomicLong();
+  // the averages are only hints, concurrent updates may lose an observation
+  private volatile double averageRows = -1;
+  private volatile double averageRowWidth = -1;
+  private volatile int fetchSize;
+
+  public StatementMetrics(String id) {
+    this.id = id;
+  }
+
+  void recordExecution(long databaseNanos, long mappingNanos, int rows) {
+    latency.record(databaseNanos + mappingNanos);
+    this.databaseNanos.addAndGet(databaseNanos);
+    this.mappingNanos.addAndGet(mappingNanos);
+    recordRows(rows);
+  }
+
+  void recordRows(int rows) {
+    if (rows > 0) {
+      this.rows.addAndGet(rows);
+    }
+    if (rows >= 0) {
+      averageRows = smooth(averageRows, rows);
+    }
+  }
+
+  void recordRowWidth(int rowWidth) {
+    if (rowWidth > 0) {
+      averageRowWidth = smooth(averageRowWidth, rowWidth);
+    }
+  }
+
+  /**
+   * Chooses the fetch size of the next execution: enough rows for an average execution to complete in one round-trip,
+   * no more than {@link #FETCH_BUFFER_SIZE} bytes of rows, within the given bounds.
+   *
+   * @return the fetch size, 0 until an execution has been recorded
+   */
+  public int adaptFetchSize(int minFetchSize, int maxFetchSize) {
+    double rows = averageRows;
+    if (rows < 0) {
+      return 0;
+    }
+    // 多取一行，使驱动在同一次往返中就能发现结果集已结束
+    double size = Math.ceil(rows * 1.2) + 1;
+    double width = averageRowWidth;
+    if (width > 0) {
+      size = Math.min(size, FETCH_BUFFER_SIZE / width);
+    }
+    int chosen = (int) Math.max(minFetchSize, Math.min(maxFetchSize, size));
+    fetchSize = chosen;
+    return chosen;
+  }
+
+  private static double smooth(double average, int value) {
+    return average < 0 ? value : average + SMOOTHING * (value - average);
+  }
+
+  void recordCacheHit(ResultSource source) {
+    if (source == ResultSource.LOCAL_CACHE) {
+      localCacheHits.incrementAndGet();
+    } else if (source == ResultSource.SECOND_LEVEL_CACHE) {
+      secondLevelCacheHits.incrementAndGet();
+    } else if (source == ResultSource.COALESCED) {
+      coalescedQueries.incrementAndGet();
+    }
+  }
+
+  void recordSlowExecution() {
+    slowExecutions.incrementAndGet();
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return the durations of the executions against the database, cache hits excluded
+   */
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  public long getExecutions() {
+    return latency.getCount();
+  }
+
+  /**
+   * @return the number of rows returned by queries or affected by updates
+   */
+  public long getRows() {
+    return rows.get();
+  }
+
+  public long getDatabaseNanos() {
+    return databaseNanos.get();
+  }
+
+  public long getMappingNanos() {
+    return mappingNanos.get();
+  }
+
+  public long getLocalCacheHits() {
+    return localCacheHits.get();
+  }
+
+  public long getSecondLevelCacheHits() {
+    return secondLevelCacheHits.get();
+  }
+
+  public long getCoalescedQueries() {
+    return coalescedQueries.get();
+  }
+
+  public long getSlowExecutions() {
+    return slowExecutions.get();
+  }
+
+  /**
+   * @return the average number of rows returned or affected per execution, -1 if not known
+   */
+  public double getAverageRows() {
+    return averageRows;
+  }
+
+  /**
+   * @return the average estimated size of a row in bytes, -1 if not known (only measured with adaptive fetch size)
+   */
+  public double getAverageRowWidth() {
+    return averageRowWidth;
+  }
+
+  /**
+   * @return the last fetch size chosen by {@link #adaptFetchSize}, 0 if none
+   */
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+}
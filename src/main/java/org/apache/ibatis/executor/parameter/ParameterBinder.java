@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.parameter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.PropertyPath;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Sets the parameters of a list of parameter mappings for one parameter class.
+ * <p>
+ * How each value is read and which type handler sets it are resolved when the binder is created,
+ * so binding is a loop over the placeholders. Binders are reused by the executions of the same parsed SQL
+ * with the same parameter class, see {@link ParameterBinderCache}.
+ */
+public class ParameterBinder {
+
+  private final Configuration configuration;
+  // 实参本身有 TypeHandler 时直接作为每个参数的值
+  private final boolean simpleParameter;
+  private final Binding[] bindings;
+
+  public ParameterBinder(Configuration configuration, List<ParameterMapping> parameterMappings, Class<?> parameterType) {
+    this.configuration = configuration;
+    this.simpleParameter = parameterType != null && configuration.getTypeHandlerRegistry().hasTypeHandler(parameterType);
+    this.bindings = new Binding[parameterMappings.size()];
+    for (int i = 0; i < bindings.length; i++) {
+      ParameterMapping parameterMapping = parameterMappings.get(i);
+      if (parameterMapping.getMode() != ParameterMode.OUT) { // 过滤掉存储过程中的输出参数
+        bindings[i] = new Binding(parameterMapping);
+      }
+    }
+  }
+
+  public void bind(PreparedStatement ps, BoundSql boundSql, Object parameterObject) {
+    final Map<String, Object> additionalParameters = boundSql.getAdditionalParameters();
+    final boolean hasAdditionalParameters = !additionalParameters.isEmpty();
+    final ObjectFactory objectFactory = configuration.getObjectFactory();
+    final ObjectWrapperFactory objectWrapperFactory = configuration.getObjectWrapperFactory();
+    for (int i = 0; i < bindings.length; i++) {
+      final Binding binding = bindings[i];
+      if (binding == null) {
+        continue;
+      }
+      final Object value;
+      if (hasAdditionalParameters && additionalParameters.containsKey(binding.parameterName)) { // issue #448 ask first for additional params
+        value = binding.path.getValue(additionalParameters, objectFactory, objectWrapperFactory, configuration.getReflectorFactory());
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (simpleParameter) {
+        value = parameterObject;
+      } else {
+        value = binding.path.getValue(parameterObject, objectFactory, objectWrapperFactory, configuration.getReflectorFactory());
+      }
+      JdbcType jdbcType = binding.jdbcType;
+      if (value == null && jdbcType == null) {
+        jdbcType = configuration.getJdbcTypeForNull();
+      }
+      try {
+        binding.typeHandler.setParameter(ps, i + 1, value, jdbcType);
+      } catch (TypeException e) {
+        throw new TypeException("Could not set parameters for mapping: " + binding.parameterMapping + ". Cause: " + e, e);
+      } catch (SQLException e) {
+        throw new TypeException("Could not set parameters for mapping: " + binding.parameterMapping + ". Cause: " + e, e);
+      }
+    }
+  }
+
+  private static class Binding {
+    private final ParameterMapping parameterMapping;
+    // 属性表达式的第一段，用于查找附加参数
+    private final String parameterName;
+    private final PropertyPath path;
+    @SuppressWarnings("rawtypes")
+    private final TypeHandler typeHandler;
+    private final JdbcType jdbcType;
+
+    Binding(ParameterMapping parameterMapping) {
+      this.parameterMapping = parameterMapping;
+      this.parameterName = new PropertyTokenizer(parameterMapping.getProperty()).getName();
+      this.path = new PropertyPath(parameterMapping.getProperty());
+      this.typeHandler = parameterMapping.getTypeHandler();
+      this.jdbcType = parameterMapping.getJdbcType();
+    }
+  }
+}
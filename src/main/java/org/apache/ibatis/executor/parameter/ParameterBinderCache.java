@@ -0,0 +1,64 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.parameter;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * The {@link ParameterBinder}s of one parsed SQL, keyed by parameter class.
+ * <p>
+ * Owned by the {@link org.apache.ibatis.builder.StaticSqlSource} holding the parameter mappings and
+ * handed to the {@link org.apache.ibatis.mapping.BoundSql}s it creates.
+ */
+public class ParameterBinderCache {
+
+  private final Configuration configuration;
+  private final List<ParameterMapping> parameterMappings;
+  private final ConcurrentMap<Class<?>, ParameterBinder> binders = new ConcurrentHashMap<Class<?>, ParameterBinder>();
+  // 实参为 null 时使用的绑定器，ConcurrentHashMap 不接受 null 键
+  private volatile ParameterBinder nullParameterBinder;
+
+  public ParameterBinderCache(Configuration configuration, List<ParameterMapping> parameterMappings) {
+    this.configuration = configuration;
+    this.parameterMappings = parameterMappings;
+  }
+
+  /**
+   * @return the binder of the parameter class, only cached when the parameter mappings are the ones of this cache
+   */
+  public ParameterBinder getBinder(List<ParameterMapping> parameterMappings, Class<?> parameterType) {
+    if (parameterMappings != this.parameterMappings) {
+      // 插件替换了参数映射，不能复用
+      return new ParameterBinder(configuration, parameterMappings, parameterType);
+    }
+    ParameterBinder binder = parameterType == null ? nullParameterBinder : binders.get(parameterType);
+    if (binder == null) {
+      binder = new ParameterBinder(configuration, parameterMappings, parameterType);
+      if (parameterType == null) {
+        nullParameterBinder = binder;
+      } else {
+        binders.put(parameterType, binder);
+      }
+    }
+    return binder;
+  }
+
+}
@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * How the columns of a result set layout are applied to a result map with a given column prefix.
+ * <p>
+ * Plans are shared by all the queries returning the same columns, see {@link AutoMappingPlanCache}.
+ */
+public class AutoMappingPlan {
+
+  // 在 ResultMap 中显式映射的列名（大写）
+  private final List<String> mappedColumnNames;
+  // 未显式映射的列名
+  private final List<String> unmappedColumnNames;
+  // 未映射列的自动映射，第一次自动映射时创建
+  private volatile List<UnMappedColumnAutoMapping> autoMappings;
+
+  public AutoMappingPlan(List<String> mappedColumnNames, List<String> unmappedColumnNames) {
+    this.mappedColumnNames = Collections.unmodifiableList(mappedColumnNames);
+    this.unmappedColumnNames = Collections.unmodifiableList(unmappedColumnNames);
+  }
+
+  public List<String> getMappedColumnNames() {
+    return mappedColumnNames;
+  }
+
+  public List<String> getUnmappedColumnNames() {
+    return unmappedColumnNames;
+  }
+
+  /**
+   * @return the automatic mappings of the unmapped columns, null until they are resolved
+   */
+  public List<UnMappedColumnAutoMapping> getAutoMappings() {
+    return autoMappings;
+  }
+
+  public void setAutoMappings(List<UnMappedColumnAutoMapping> autoMappings) {
+    // 并发解析得到的结果相同，后写入的覆盖先写入的即可
+    this.autoMappings = Collections.unmodifiableList(autoMappings);
+  }
+
+  public static class UnMappedColumnAutoMapping {
+    final String column;
+    final String property;
+    final TypeHandler<?> typeHandler;
+    final boolean primitive;
+
+    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
+      this.column = column;
+      this.property = property;
+      this.typeHandler = typeHandler;
+      this.primitive = primitive;
+    }
+
+    public String getColumn() {
+      return column;
+    }
+
+    public String getProperty() {
+      return property;
+    }
+
+    public TypeHandler<?> getTypeHandler() {
+      return typeHandler;
+    }
+
+    public boolean isPrimitive() {
+      return primitive;
+    }
+  }
+}
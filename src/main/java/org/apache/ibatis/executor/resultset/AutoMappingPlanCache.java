@@ -0,0 +1,71 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Application wide cache of {@link AutoMappingPlan}s keyed by result map, column prefix and column layout.
+ * Its size is approximate: arbitrary plans are evicted once it is reached.
+ */
+public class AutoMappingPlanCache {
+
+  private final ConcurrentMap<String, AutoMappingPlan> plans = new ConcurrentHashMap<String, AutoMappingPlan>();
+  private volatile int size = 1024; // 默认1024
+
+  public AutoMappingPlan get(String key) {
+    return plans.get(key);
+  }
+
+  public void put(String key, AutoMappingPlan plan) {
+    int maxPlans = size;
+    if (maxPlans <= 0) {
+      return;
+    }
+    // 上限是近似的：超出时移除任意计划，读取不加锁
+    Iterator<String> keys = plans.keySet().iterator();
+    while (plans.size() >= maxPlans && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+    plans.put(key, plan);
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * @param size the approximate maximum number of plans, 0 disables the cache
+   */
+  public void setSize(final int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Auto mapping plan cache size must not be negative but was " + size);
+    }
+    this.size = size;
+    plans.clear();
+  }
+
+  public int getPlanCount() {
+    return plans.size();
+  }
+
+  public void clear() {
+    plans.clear();
+  }
+}
@@ -21,6 +21,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -41,6 +42,7 @@ import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.executor.resultset.AutoMappingPlan.UnMappedColumnAutoMapping;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.Discriminator;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -48,10 +50,15 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.Reflector;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
@@ -69,6 +76,8 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERED = new Object();
+  // 内置 TypeHandler 所在的包，自定义的 TypeHandler 可能只实现了按列名读取
+  private static final String BUILT_IN_TYPE_HANDLER_PREFIX = TypeHandler.class.getPackage().getName() + ".";
 
   private final Executor executor;
   private final Configuration configuration;
@@ -90,30 +99,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<String, ResultMapping>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<CacheKey, List<PendingRelation>>();
 
-  // Cached Automappings
-  private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<String, List<UnMappedColumnAutoMapping>>();
-
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
+
+  // 已从结果集中读取的行数
+  private int rowCount;
   
   private static class PendingRelation {
     public MetaObject metaObject;
     public ResultMapping propertyMapping;
   }
 
-  private static class UnMappedColumnAutoMapping {
-    private final String column;   
-    private final String property;    
-    private final TypeHandler<?> typeHandler;
-    private final boolean primitive;
-    public UnMappedColumnAutoMapping(String column, String property, TypeHandler<?> typeHandler, boolean primitive) {
-      this.column = column;
-      this.property = property;
-      this.typeHandler = typeHandler;
-      this.primitive = primitive;
-    }
-  }  
-  
   public DefaultResultSetHandler(Executor executor, MappedStatement mappedStatement, ParameterHandler parameterHandler, ResultHandler<?> resultHandler, BoundSql boundSql,
       RowBounds rowBounds) {
     this.executor = executor;
@@ -128,6 +124,20 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     this.resultHandler = resultHandler;
   }
 
+  /**
+   * @return the rows read from the result sets, including the rows skipped by the RowBounds
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Records the rows read by a cursor, they are only known once the cursor is closed.
+   */
+  public void recordCursorRows() {
+    configuration.getMetricsRegistry().recordRows(mappedStatement, rowCount);
+  }
+
   //
   // HANDLE OUTPUT PARAMETER
   //
@@ -177,7 +187,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final List<Object> multipleResults = new ArrayList<Object>();
 
     int resultSetCount = 0;
-    ResultSetWrapper rsw = getFirstResultSet(stmt); // 获取第一个ResultSet
+    ResultSetWrapper rsw = getFirstResultSet(stmt, resultHandler == null); // 获取第一个ResultSet
 
     // 获取所有resultMap
     List<ResultMap> resultMaps = mappedStatement.getResultMaps();
@@ -216,7 +226,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   public <E> Cursor<E> handleCursorResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling cursor results").object(mappedStatement.getId());
 
-    ResultSetWrapper rsw = getFirstResultSet(stmt);
+    // 游标读取期间调用方可能在同一连接上执行其他语句，不使用后台线程
+    ResultSetWrapper rsw = getFirstResultSet(stmt, false);
 
     List<ResultMap> resultMaps = mappedStatement.getResultMaps();
 
@@ -230,7 +241,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return new DefaultCursor<E>(this, resultMap, rsw, rowBounds);
   }
 
-  private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
+  private ResultSetWrapper getFirstResultSet(Statement stmt, boolean pipelinable) throws SQLException {
     ResultSet rs = stmt.getResultSet();
     while (rs == null) {
       // move forward to get the first resultset in case the driver
@@ -244,7 +255,62 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    return rs != null ? new ResultSetWrapper(rs, configuration) : null; // 将结果集包装返回
+    if (rs == null) {
+      return null;
+    }
+    if (pipelinable && isPipelined(rs)) {
+      // 由后台线程读取行，当前线程只负责映射
+      rs = PipelinedResultSet.newInstance(rs, configuration.getPipelineBufferSize());
+    }
+    ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration); // 将结果集包装返回
+    if (configuration.isAdaptiveFetchSize()) {
+      // 记录行宽度，用于调整后续执行的 fetchSize
+      configuration.getMetricsRegistry().recordRowWidth(mappedStatement, rsw.getRowWidth());
+    }
+    return rsw;
+  }
+
+  /**
+   * Only single forward only result sets read into a list are pipelined, the connection must not be used by nested
+   * selects, result handlers or the reader of a cursor while the rows are fetched in the background.
+   */
+  private boolean isPipelined(ResultSet rs) throws SQLException {
+    if (!configuration.isPipelineResultSets()
+        || mappedStatement.getStatementType() == StatementType.CALLABLE
+        || mappedStatement.getResultSets() != null
+        || mappedStatement.getResultMaps().size() != 1
+        || hasNestedQueries(mappedStatement.getResultMaps().get(0), new HashSet<String>())
+        || rs.getType() != ResultSet.TYPE_FORWARD_ONLY
+        || !PipelinedResultSet.isPipelinable(rs.getMetaData())) {
+      return false;
+    }
+    // 以往返回的行数不足一批时不值得切换线程
+    double averageRows = configuration.getMetricsRegistry().getStatementMetrics(mappedStatement.getId()).getAverageRows();
+    return averageRows < 0 || averageRows >= PipelinedResultSet.CHUNK_SIZE;
+  }
+
+  private boolean hasNestedQueries(ResultMap resultMap, Set<String> visited) {
+    if (!visited.add(resultMap.getId())) {
+      return false;
+    }
+    if (resultMap.hasNestedQueries()) {
+      return true;
+    }
+    for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+      if (resultMapping.getNestedResultMapId() != null
+          && hasNestedQueries(configuration.getResultMap(resultMapping.getNestedResultMapId()), visited)) {
+        return true;
+      }
+    }
+    Discriminator discriminator = resultMap.getDiscriminator();
+    if (discriminator != null) {
+      for (String resultMapId : discriminator.getDiscriminatorMap().values()) {
+        if (hasNestedQueries(configuration.getResultMap(resultMapId), visited)) {
+          return true;
+        }
+      }
+    }
+    return false;
   }
 
   private ResultSetWrapper getNextResultSet(Statement stmt) throws SQLException {
@@ -343,7 +409,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       throws SQLException {
     DefaultResultContext<Object> resultContext = new DefaultResultContext<Object>();
     skipRows(rsw.getResultSet(), rowBounds);
-    while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
+    while (shouldProcessMoreRows(resultContext, rowBounds) && nextRow(rsw.getResultSet())) {
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, rsw.getResultSet());
@@ -375,16 +441,33 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     } else {
       for (int i = 0; i < rowBounds.getOffset(); i++) {
-        rs.next();
+        nextRow(rs);
       }
     }
   }
 
+  private boolean nextRow(ResultSet rs) throws SQLException {
+    if (rs.next()) {
+      rowCount++;
+      return true;
+    }
+    return false;
+  }
+
   //
   // GET VALUE FROM ROW FOR SIMPLE RESULT MAP
   //
 
   private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    if (configuration.isCompileRowMappers()) {
+      // 使用生成的类直接调用 getter 和 setter
+      CompiledRowMapper rowMapper = getCompiledRowMapper(rsw, resultMap);
+      if (rowMapper != null) {
+        Object rowValue = rowMapper.newInstance();
+        boolean foundValues = rowMapper.map(rowValue, rsw.getResultSet());
+        return (foundValues || configuration.isReturnInstanceForEmptyRow()) ? rowValue : null;
+      }
+    }
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, null);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
@@ -400,6 +483,94 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return rowValue;
   }
 
+  //
+  // COMPILED ROW MAPPERS
+  //
+
+  private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    if (rsw.hasRowMapper(resultMap.getId())) {
+      return rsw.getRowMapper(resultMap.getId());
+    }
+    CompiledRowMapper rowMapper = null;
+    List<RowMapperCompiler.ColumnMapping> mappings = getCompilableMappings(rsw, resultMap);
+    if (mappings != null) {
+      // 映射取决于结果集的列和相关配置
+      StringBuilder key = new StringBuilder(resultMap.getId()).append(rsw.getColumnSignature());
+      key.append('|').append(configuration.isCallSettersOnNulls())
+          .append(':').append(configuration.isMapUnderscoreToCamelCase())
+          .append(':').append(configuration.getAutoMappingBehavior());
+      rowMapper = configuration.getRowMapperCompiler().getRowMapper(key.toString(), resultMap.getType(), mappings,
+          configuration.isCallSettersOnNulls());
+    }
+    rsw.putRowMapper(resultMap.getId(), rowMapper);
+    return rowMapper;
+  }
+
+  /**
+   * Collects the columns applied to a plain bean in the same order as the reflective mapping,
+   * or returns null when the result map uses a feature only the reflective mapping supports.
+   */
+  private List<RowMapperCompiler.ColumnMapping> getCompilableMappings(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final Class<?> type = resultMap.getType();
+    if (!configuration.isUseColumnLabel()
+        || !resultMap.getConstructorResultMappings().isEmpty()
+        || resultMap.hasNestedResultMaps()
+        || resultMap.hasNestedQueries()
+        || objectFactory.getClass() != DefaultObjectFactory.class
+        || configuration.getObjectWrapperFactory().getClass() != DefaultObjectWrapperFactory.class
+        || Map.class.isAssignableFrom(type)
+        || Collection.class.isAssignableFrom(type)
+        || hasTypeHandlerForResultObject(rsw, type)) {
+      return null;
+    }
+    final Reflector reflector = reflectorFactory.findForClass(type);
+    final List<RowMapperCompiler.ColumnMapping> mappings = new ArrayList<RowMapperCompiler.ColumnMapping>();
+    try {
+      if (shouldApplyAutomaticMappings(resultMap, false)) {
+        final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(type));
+        for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, null)) {
+          if (!addColumnMapping(mappings, rsw, reflector, mapping.column, mapping.property, mapping.typeHandler)) {
+            return null;
+          }
+        }
+      }
+    } catch (RuntimeException e) {
+      // 无法创建结果对象时由反射方式处理
+      return null;
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.isCompositeResult() || propertyMapping.getResultSet() != null) {
+        return null;
+      }
+      final String column = propertyMapping.getColumn();
+      if (column == null || propertyMapping.getProperty() == null
+          || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      if (!addColumnMapping(mappings, rsw, reflector, column, propertyMapping.getProperty(), propertyMapping.getTypeHandler())) {
+        return null;
+      }
+    }
+    return mappings;
+  }
+
+  private boolean addColumnMapping(List<RowMapperCompiler.ColumnMapping> mappings, ResultSetWrapper rsw, Reflector reflector,
+      String column, String property, TypeHandler<?> typeHandler) {
+    if (property.indexOf('.') >= 0 || property.indexOf('[') >= 0
+        || !reflector.hasSetter(property) || !(reflector.getSetInvoker(property) instanceof MethodInvoker)) {
+      return false;
+    }
+    final List<String> columnNames = rsw.getColumnNames();
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(column)) {
+        mappings.add(new RowMapperCompiler.ColumnMapping(i + 1, column, property, reflector.getSetterType(property), typeHandler));
+        return true;
+      }
+    }
+    return false;
+  }
+
   private boolean shouldApplyAutomaticMappings(ResultMap resultMap, boolean isNested) {
     if (resultMap.getAutoMapping() != null) {
       return resultMap.getAutoMapping();
@@ -430,7 +601,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (propertyMapping.isCompositeResult()
           || (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH)))
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader, columnPrefix);
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -451,8 +622,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject, ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix)
       throws SQLException {
+    final ResultSet rs = rsw.getResultSet();
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     } else if (propertyMapping.getResultSet() != null) {
@@ -461,16 +633,28 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     } else {
       final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      return getColumnValue(rsw, typeHandler, column);
+    }
+  }
+
+  // 内置的 TypeHandler 按列序号读取，避免驱动每次按列名查找列
+  private Object getColumnValue(ResultSetWrapper rsw, TypeHandler<?> typeHandler, String column) throws SQLException {
+    if (column != null && typeHandler.getClass().getName().startsWith(BUILT_IN_TYPE_HANDLER_PREFIX)) {
+      final int columnIndex = rsw.getColumnIndex(column);
+      if (columnIndex > 0) {
+        return typeHandler.getResult(rsw.getResultSet(), columnIndex);
+      }
     }
+    return typeHandler.getResult(rsw.getResultSet(), column);
   }
 
   private List<UnMappedColumnAutoMapping> createAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
-    final String mapKey = resultMap.getId() + ":" + columnPrefix;
-    List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
+    // 自动映射计划在返回相同列的查询间共享
+    final AutoMappingPlan plan = rsw.getAutoMappingPlan(resultMap, columnPrefix);
+    List<UnMappedColumnAutoMapping> autoMapping = plan.getAutoMappings();
     if (autoMapping == null) {
       autoMapping = new ArrayList<UnMappedColumnAutoMapping>();
-      final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
+      final List<String> unmappedColumnNames = plan.getUnmappedColumnNames();
       for (String columnName : unmappedColumnNames) {
         String propertyName = columnName;
         if (columnPrefix != null && !columnPrefix.isEmpty()) {
@@ -497,7 +681,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
                   .doAction(mappedStatement, columnName, (property != null) ? property : propertyName, null);
         }
       }
-      autoMappingsCache.put(mapKey, autoMapping);
+      plan.setAutoMappings(autoMapping);
     }
     return autoMapping;
   }
@@ -507,7 +691,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (autoMapping.size() > 0) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = getColumnValue(rsw, mapping.typeHandler, mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -628,7 +812,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           value = getRowValue(rsw, resultMap);
         } else {
           final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          value = getColumnValue(rsw, typeHandler, prependPrefix(column, columnPrefix));
         }
       } catch (ResultMapException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -651,7 +835,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           Class<?> parameterType = constructor.getParameterTypes()[i];
           String columnName = rsw.getColumnNames().get(i);
           TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-          Object value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(columnName, columnPrefix));
+          Object value = getColumnValue(rsw, typeHandler, prependPrefix(columnName, columnPrefix));
           constructorArgTypes.add(parameterType);
           constructorArgs.add(value);
           foundValues = value != null || foundValues;
@@ -681,7 +865,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       columnName = rsw.getColumnNames().get(0);
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    return getColumnValue(rsw, typeHandler, columnName);
   }
 
   //
@@ -822,7 +1006,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final DefaultResultContext<Object> resultContext = new DefaultResultContext<Object>();
     skipRows(rsw.getResultSet(), rowBounds);
     Object rowValue = previousRowValue;
-    while (shouldProcessMoreRows(resultContext, rowBounds) && rsw.getResultSet().next()) {
+    while (shouldProcessMoreRows(resultContext, rowBounds) && nextRow(rsw.getResultSet())) {
       final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(rsw.getResultSet(), resultMap, null);
       final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
@@ -1026,7 +1210,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
-          final Object value = th.getResult(rsw.getResultSet(), column);
+          final Object value = getColumnValue(rsw, th, column);
           if (value != null || configuration.isReturnInstanceForEmptyRow()) {
             cacheKey.update(column);
             cacheKey.update(value);
@@ -1082,7 +1266,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private Object instantiateCollectionPropertyIfAppropriate(ResultMapping resultMapping, MetaObject metaObject) {
     final String propertyName = resultMapping.getProperty();
-    Object propertyValue = metaObject.getValue(propertyName);
+    // 每个嵌套行都会读取该属性，使用解析好的属性表达式
+    Object propertyValue = configuration.getPropertyValue(metaObject.getOriginalObject(), propertyName);
     if (propertyValue == null) {
       Class<?> type = resultMapping.getJavaType();
       if (type == null) {
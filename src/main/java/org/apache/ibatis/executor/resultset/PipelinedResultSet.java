@@ -0,0 +1,454 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.rowset.serial.SerialClob;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * Forward only ResultSet proxy whose rows are fetched by a background thread.
+ * <p>
+ * The fetching thread copies the column values of each row ({@link ResultSet#getObject(int)}, CLOBs are read
+ * into memory) into a bounded buffer while the calling thread maps the previous rows, so a large query takes about
+ * the longer of fetching and mapping instead of their sum. Rows are handed over in chunks, or one by one while the
+ * caller is waiting. Getters convert the copied values like the JDBC getters would, which is only reliable for the
+ * standard column classes accepted by {@link #isPipelinable(ResultSetMetaData)}.
+ */
+public final class PipelinedResultSet implements InvocationHandler {
+
+  /**
+   * Maximum number of rows handed over at once, selects returning fewer rows are not worth pipelining.
+   */
+  public static final int CHUNK_SIZE = 64;
+
+  private static final List<Object[]> END = Collections.emptyList();
+
+  // getObject 返回这些类型时，复制的值可以像驱动一样转换；驱动特有的类型（如 LocalDateTime、oracle.sql.TIMESTAMP）
+  // 和二进制列（getString 的结果取决于驱动）不使用后台读取
+  private static final Set<String> PIPELINABLE_CLASSES = new HashSet<String>(Arrays.asList(
+      String.class.getName(), Boolean.class.getName(), Byte.class.getName(), Short.class.getName(),
+      Integer.class.getName(), Long.class.getName(), Float.class.getName(), Double.class.getName(),
+      BigDecimal.class.getName(), BigInteger.class.getName(), java.sql.Date.class.getName(),
+      Time.class.getName(), Timestamp.class.getName(), Clob.class.getName()));
+
+  private static final Map<Class<?>, Class<?>> PRIMITIVE_TYPES = new HashMap<Class<?>, Class<?>>();
+
+  static {
+    PRIMITIVE_TYPES.put(Boolean.class, boolean.class);
+    PRIMITIVE_TYPES.put(Byte.class, byte.class);
+    PRIMITIVE_TYPES.put(Short.class, short.class);
+    PRIMITIVE_TYPES.put(Integer.class, int.class);
+    PRIMITIVE_TYPES.put(Long.class, long.class);
+    PRIMITIVE_TYPES.put(Float.class, float.class);
+    PRIMITIVE_TYPES.put(Double.class, double.class);
+  }
+
+  private static final ExecutorService FETCHERS = Executors.newCachedThreadPool(new ThreadFactory() {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "mybatis-result-fetcher-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  private final ResultSet rs;
+  private final ResultSetMetaData metaData;
+  private final Statement statement;
+  private final int columnCount;
+  private final Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+  private final int chunkSize;
+  private final BlockingQueue<List<Object[]>> chunks;
+  private final CountDownLatch fetched = new CountDownLatch(1);
+  private volatile boolean closed;
+  private volatile Throwable fetchError;
+
+  private boolean started;
+  private boolean exhausted;
+  private List<Object[]> chunk = Collections.emptyList();
+  private int chunkIndex;
+  private Object[] row;
+  private boolean wasNull;
+
+  private PipelinedResultSet(ResultSet rs, int bufferSize) throws SQLException {
+    this.rs = rs;
+    this.metaData = rs.getMetaData();
+    this.statement = rs.getStatement();
+    this.columnCount = metaData.getColumnCount();
+    for (int i = columnCount; i > 0; i--) {
+      // 与 JDBC 一致，同名列取第一个
+      columnIndexes.put(metaData.getColumnName(i).toUpperCase(Locale.ENGLISH), i);
+    }
+    for (int i = columnCount; i > 0; i--) {
+      columnIndexes.put(metaData.getColumnLabel(i).toUpperCase(Locale.ENGLISH), i);
+    }
+    this.chunkSize = Math.max(1, Math.min(CHUNK_SIZE, bufferSize));
+    this.chunks = new ArrayBlockingQueue<List<Object[]>>(Math.max(1, bufferSize / chunkSize));
+  }
+
+  /**
+   * Creates a pipelined view of a forward only ResultSet, buffering up to bufferSize rows.
+   */
+  public static ResultSet newInstance(ResultSet rs, int bufferSize) throws SQLException {
+    InvocationHandler handler = new PipelinedResultSet(rs, bufferSize);
+    ClassLoader cl = ResultSet.class.getClassLoader();
+    return (ResultSet) Proxy.newProxyInstance(cl, new Class[]{ResultSet.class}, handler);
+  }
+
+  /**
+   * Whether all the columns are of a standard class whose copied values can be read with any getter.
+   */
+  public static boolean isPipelinable(ResultSetMetaData metaData) throws SQLException {
+    for (int i = 1, n = metaData.getColumnCount(); i <= n; i++) {
+      if (!PIPELINABLE_CLASSES.contains(metaData.getColumnClassName(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] params) throws Throwable {
+    try {
+      if (Object.class.equals(method.getDeclaringClass())) {
+        return method.invoke(this, params);
+      }
+    } catch (Throwable t) {
+      throw ExceptionUtil.unwrapThrowable(t);
+    }
+    String name = method.getName();
+    if ("next".equals(name)) {
+      return next();
+    } else if ("close".equals(name)) {
+      close();
+      return null;
+    } else if ("wasNull".equals(name)) {
+      return wasNull;
+    } else if ("isClosed".equals(name)) {
+      return closed;
+    } else if ("getMetaData".equals(name)) {
+      return metaData;
+    } else if ("getStatement".equals(name)) {
+      return statement;
+    } else if ("getType".equals(name)) {
+      return ResultSet.TYPE_FORWARD_ONLY;
+    } else if ("getConcurrency".equals(name)) {
+      return ResultSet.CONCUR_READ_ONLY;
+    } else if ("findColumn".equals(name)) {
+      return columnIndex(params[0]);
+    } else if ("getWarnings".equals(name)) {
+      return null;
+    } else if ("clearWarnings".equals(name) || "setFetchSize".equals(name)) {
+      // 行已由后台线程读取，忽略
+      return null;
+    } else if ("getFetchSize".equals(name)) {
+      return chunkSize;
+    } else if (name.startsWith("get") && params != null && params.length == 1) {
+      return getValue(name, method.getReturnType(), params[0]);
+    } else if (name.startsWith("get") && params != null && params.length == 2) {
+      return getValue(name, method.getReturnType(), params[0], params[1]);
+    }
+    throw new SQLFeatureNotSupportedException("Pipelined result sets do not support " + name);
+  }
+
+  private boolean next() throws SQLException {
+    if (closed) {
+      throw new SQLException("ResultSet is closed");
+    }
+    if (exhausted) {
+      return false;
+    }
+    if (!started) {
+      started = true;
+      FETCHERS.execute(new Runnable() {
+        @Override
+        public void run() {
+          fetchRows();
+        }
+      });
+    }
+    if (++chunkIndex >= chunk.size()) {
+      try {
+        chunk = chunks.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while waiting for rows", e);
+      }
+      chunkIndex = 0;
+      if (chunk == END) {
+        exhausted = true;
+        row = null;
+        if (fetchError != null) {
+          throw fetchException(fetchError);
+        }
+        return false;
+      }
+    }
+    row = chunk.get(chunkIndex);
+    return true;
+  }
+
+  private void close() throws SQLException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    // 等待后台线程停止使用 ResultSet 后再关闭
+    if (started) {
+      try {
+        fetched.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    rs.close();
+  }
+
+  private void fetchRows() {
+    List<Object[]> rows = new ArrayList<Object[]>(chunkSize);
+    try {
+      while (!closed && rs.next()) {
+        Object[] values = new Object[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+          values[i] = copyValue(rs.getObject(i + 1));
+        }
+        rows.add(values);
+        // 调用方在等待时立即交付，否则攒满一批
+        if (rows.size() >= chunkSize || chunks.isEmpty()) {
+          hand(rows);
+          rows = new ArrayList<Object[]>(chunkSize);
+        }
+      }
+    } catch (Throwable t) {
+      fetchError = t;
+    } finally {
+      try {
+        // 出错前已读取的行仍然交给调用方
+        if (!rows.isEmpty()) {
+          hand(rows);
+        }
+        hand(END);
+      } catch (Throwable t) {
+        // ignore, the caller is gone
+      }
+      fetched.countDown();
+    }
+  }
+
+  private void hand(List<Object[]> rows) throws InterruptedException, SQLException {
+    // 调用方未读完就关闭（或连接被关闭）时放弃剩余的行
+    while (!chunks.offer(rows, 100, TimeUnit.MILLISECONDS)) {
+      if (closed || rs.isClosed()) {
+        return;
+      }
+    }
+  }
+
+  private static Object copyValue(Object value) throws SQLException {
+    if (value instanceof Clob) {
+      Clob clob = (Clob) value;
+      return clob.getSubString(1, (int) clob.length());
+    }
+    return value;
+  }
+
+  private int columnIndex(Object column) throws SQLException {
+    if (column instanceof Integer) {
+      int index = (Integer) column;
+      if (index < 1 || index > columnCount) {
+        throw new SQLException("Invalid column index: " + index);
+      }
+      return index;
+    }
+    Integer index = columnIndexes.get(String.valueOf(column).toUpperCase(Locale.ENGLISH));
+    if (index == null) {
+      throw new SQLException("Column not found: " + column);
+    }
+    return index;
+  }
+
+  private Object getValue(String getter, Class<?> type, Object column) throws SQLException {
+    if (row == null) {
+      throw new SQLException("No current row");
+    }
+    Object value = row[columnIndex(column) - 1];
+    wasNull = value == null;
+    try {
+      return convert(value, getter, type);
+    } catch (NumberFormatException e) {
+      throw new SQLException("Cannot convert '" + value + "' with " + getter, e);
+    }
+  }
+
+  private Object getValue(String getter, Class<?> type, Object column, Object option) throws SQLException {
+    if ("getObject".equals(getter)) {
+      // getObject(column, Class) 转换为指定类型，getObject(column, Map) 的类型映射只用于自定义类型
+      return getValue(getter, option instanceof Class ? (Class<?>) option : Object.class, column);
+    }
+    Object value = getValue(getter, type, column);
+    if (value == null) {
+      return null;
+    } else if (option instanceof Calendar) {
+      return toCalendar((java.util.Date) value, (Calendar) option);
+    } else if (option instanceof Integer && value instanceof BigDecimal) {
+      return ((BigDecimal) value).setScale((Integer) option, BigDecimal.ROUND_HALF_UP);
+    }
+    throw new SQLFeatureNotSupportedException("Pipelined result sets do not support " + getter + " with " + option);
+  }
+
+  /**
+   * The driver read the value in the default time zone, the fields are read again in the time zone of the calendar.
+   */
+  private static Object toCalendar(java.util.Date value, Calendar calendar) {
+    Calendar local = Calendar.getInstance();
+    local.setTime(value);
+    Calendar target = (Calendar) calendar.clone();
+    target.clear();
+    target.set(local.get(Calendar.YEAR), local.get(Calendar.MONTH), local.get(Calendar.DAY_OF_MONTH),
+        local.get(Calendar.HOUR_OF_DAY), local.get(Calendar.MINUTE), local.get(Calendar.SECOND));
+    target.set(Calendar.MILLISECOND, local.get(Calendar.MILLISECOND));
+    long millis = target.getTimeInMillis();
+    if (value instanceof Timestamp) {
+      Timestamp timestamp = new Timestamp(millis);
+      timestamp.setNanos(((Timestamp) value).getNanos());
+      return timestamp;
+    } else if (value instanceof Time) {
+      return new Time(millis);
+    }
+    return new java.sql.Date(millis);
+  }
+
+  private static Object convert(Object value, String getter, Class<?> type) throws SQLException {
+    if (type.isPrimitive()) {
+      return convertPrimitive(value, type);
+    }
+    if (value == null || type.isInstance(value)) {
+      return value;
+    }
+    Class<?> primitiveType = PRIMITIVE_TYPES.get(type);
+    if (primitiveType != null) {
+      return convertPrimitive(value, primitiveType);
+    }
+    if (type == String.class) {
+      return value.toString();
+    } else if (type == BigDecimal.class) {
+      if (value instanceof BigInteger) {
+        return new BigDecimal((BigInteger) value);
+      }
+      return new BigDecimal(value.toString().trim());
+    } else if (type == java.sql.Date.class && value instanceof java.util.Date) {
+      return new java.sql.Date(((java.util.Date) value).getTime());
+    } else if (type == Time.class && value instanceof java.util.Date) {
+      return new Time(((java.util.Date) value).getTime());
+    } else if (type == Timestamp.class && value instanceof java.util.Date) {
+      return new Timestamp(((java.util.Date) value).getTime());
+    } else if (type == Clob.class && value instanceof String) {
+      return new SerialClob(((String) value).toCharArray());
+    } else if (type == Reader.class && value instanceof String) {
+      return new StringReader((String) value);
+    } else if (type == InputStream.class && "getAsciiStream".equals(getter) && value instanceof String) {
+      return new ByteArrayInputStream(((String) value).getBytes(Charset.forName("US-ASCII")));
+    }
+    throw new SQLException("Cannot convert " + value.getClass().getName() + " with " + getter);
+  }
+
+  private static Object convertPrimitive(Object value, Class<?> type) throws SQLException {
+    if (type == boolean.class) {
+      if (value == null) {
+        return false;
+      } else if (value instanceof Boolean) {
+        return value;
+      } else if (value instanceof Number) {
+        return ((Number) value).intValue() != 0;
+      }
+      String s = value.toString().trim();
+      return "1".equals(s) || "true".equalsIgnoreCase(s);
+    }
+    Number number;
+    if (value == null) {
+      number = 0;
+    } else if (value instanceof Number) {
+      number = (Number) value;
+    } else if (value instanceof Boolean) {
+      number = (Boolean) value ? 1 : 0;
+    } else {
+      number = new BigDecimal(value.toString().trim());
+    }
+    if (type == int.class) {
+      return number.intValue();
+    } else if (type == long.class) {
+      return number.longValue();
+    } else if (type == double.class) {
+      return number.doubleValue();
+    } else if (type == float.class) {
+      return number.floatValue();
+    } else if (type == short.class) {
+      return number.shortValue();
+    } else if (type == byte.class) {
+      return number.byteValue();
+    }
+    throw new SQLException("Cannot convert " + value + " to " + type);
+  }
+
+  private static SQLException fetchException(Throwable t) {
+    if (t instanceof SQLException) {
+      SQLException e = (SQLException) t;
+      return new SQLException("Error fetching rows.  Cause: " + e, e.getSQLState(), e.getErrorCode(), e);
+    }
+    return new SQLException("Error fetching rows.  Cause: " + t, t);
+  }
+
+}
@@ -40,8 +40,12 @@ import org.apache.ibatis.type.UnknownTypeHandler;
  */
 public class ResultSetWrapper {
 
+  // LOB 等列的显示宽度没有意义，估算行宽度时按该值计算
+  private static final int MAX_COLUMN_WIDTH = 4096;
+
   // 封装的 ResultSet 对象
   private final ResultSet resultSet;
+  private final Configuration configuration;
   private final TypeHandlerRegistry typeHandlerRegistry;
   // ResultSet 每列列名
   private final List<String> columnNames = new ArrayList<String>();
@@ -51,13 +55,20 @@ public class ResultSetWrapper {
   private final List<JdbcType> jdbcTypes = new ArrayList<JdbcType>();
   // key列名，value TypeHandler集合
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<String, Map<Class<?>, TypeHandler<?>>>();
-  // 被映射的列名，key是ResultMap对象id，value是该ResultMap对象映射列名集合
-  private Map<String, List<String>> mappedColumnNamesMap = new HashMap<String, List<String>>();
-  // 未映射的列名，key是ResultMap对象id，value是该ResultMap对象未映射列名集合
-  private Map<String, List<String>> unMappedColumnNamesMap = new HashMap<String, List<String>>();
+  // 自动映射计划，key是ResultMap对象id+列前缀，value是该ResultMap对象的映射列名、未映射列名等
+  private final Map<String, AutoMappingPlan> autoMappingPlans = new HashMap<String, AutoMappingPlan>();
+  // 列名、jdbcType、Java类型组成的签名，用于在查询间共享自动映射计划
+  private String columnSignature;
+  // 估算的每行字节数，只在开启 adaptiveFetchSize 时计算
+  private int rowWidth;
+  // 编译后的行映射器，key是ResultMap对象id，value为null表示该ResultMap不能编译
+  private final Map<String, CompiledRowMapper> rowMappers = new HashMap<String, CompiledRowMapper>();
+  // 列名对应的列序号，每列只通过 findColumn 解析一次，-1 表示无法解析
+  private final Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
     super();
+    this.configuration = configuration;
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.resultSet = rs;
     final ResultSetMetaData metaData = rs.getMetaData();
@@ -67,6 +78,9 @@ public class ResultSetWrapper {
       columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
       jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
       classNames.add(metaData.getColumnClassName(i));
+      if (configuration.isAdaptiveFetchSize()) {
+        rowWidth += Math.max(1, Math.min(metaData.getColumnDisplaySize(i), MAX_COLUMN_WIDTH));
+      }
     }
   }
 
@@ -78,6 +92,52 @@ public class ResultSetWrapper {
     return this.columnNames;
   }
 
+  /**
+   * @return an estimate of the size of a row in bytes, based on the display size of the columns,
+   *         0 unless adaptiveFetchSize is enabled
+   */
+  public int getRowWidth() {
+    return rowWidth;
+  }
+
+  /**
+   * Resolves a column to its index once per result set, with the same rules as the driver uses for labels.
+   *
+   * @return the 1-based index of the column, -1 if the driver can not resolve it
+   */
+  public int getColumnIndex(String columnName) {
+    Integer columnIndex = columnIndexes.get(columnName);
+    if (columnIndex == null) {
+      try {
+        columnIndex = resultSet.findColumn(columnName);
+      } catch (SQLException e) {
+        // 交给按列名读取的方法报告错误
+        columnIndex = -1;
+      }
+      if (columnIndex < 1) {
+        columnIndex = -1;
+      }
+      columnIndexes.put(columnName, columnIndex);
+    }
+    return columnIndex;
+  }
+
+  public boolean hasRowMapper(String resultMapId) {
+    return rowMappers.containsKey(resultMapId);
+  }
+
+  public CompiledRowMapper getRowMapper(String resultMapId) {
+    return rowMappers.get(resultMapId);
+  }
+
+  public void putRowMapper(String resultMapId, CompiledRowMapper rowMapper) {
+    rowMappers.put(resultMapId, rowMapper);
+  }
+
+  public List<JdbcType> getJdbcTypes() {
+    return Collections.unmodifiableList(jdbcTypes);
+  }
+
   public List<String> getClassNames() {
     return Collections.unmodifiableList(classNames);
   }
@@ -145,7 +205,43 @@ public class ResultSetWrapper {
     return null;
   }
 
-  private void loadMappedAndUnmappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
+  /**
+   * @return the names, JDBC types and Java types of the columns, identifying the layout of this result set
+   */
+  public String getColumnSignature() {
+    if (columnSignature == null) {
+      StringBuilder signature = new StringBuilder();
+      for (int i = 0; i < columnNames.size(); i++) {
+        signature.append('|').append(columnNames.get(i))
+            .append(':').append(jdbcTypes.get(i))
+            .append(':').append(classNames.get(i));
+      }
+      columnSignature = signature.toString();
+    }
+    return columnSignature;
+  }
+
+  /**
+   * Gets the plan to map the columns to a result map, shared by the queries returning the same columns.
+   */
+  public AutoMappingPlan getAutoMappingPlan(ResultMap resultMap, String columnPrefix) {
+    final String mapKey = getMapKey(resultMap, columnPrefix);
+    AutoMappingPlan plan = autoMappingPlans.get(mapKey);
+    if (plan == null) {
+      // 自动映射还取决于 mapUnderscoreToCamelCase
+      final String planKey = mapKey + ":" + configuration.isMapUnderscoreToCamelCase() + getColumnSignature();
+      final AutoMappingPlanCache planCache = configuration.getAutoMappingPlanCache();
+      plan = planCache.get(planKey);
+      if (plan == null) {
+        plan = loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
+        planCache.put(planKey, plan);
+      }
+      autoMappingPlans.put(mapKey, plan);
+    }
+    return plan;
+  }
+
+  private AutoMappingPlan loadMappedAndUnmappedColumnNames(ResultMap resultMap, String columnPrefix) {
     List<String> mappedColumnNames = new ArrayList<String>();
     List<String> unmappedColumnNames = new ArrayList<String>();
     final String upperColumnPrefix = columnPrefix == null ? null : columnPrefix.toUpperCase(Locale.ENGLISH);
@@ -158,28 +254,16 @@ public class ResultSetWrapper {
         unmappedColumnNames.add(columnName);
       }
     }
-    mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
-    unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
+    return new AutoMappingPlan(mappedColumnNames, unmappedColumnNames);
   }
 
   public List<String> getMappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
     //  key = ResultMap的id+列前缀组成
-    List<String> mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
-    if (mappedColumnNames == null) {
-      // 未查找到，则加载进行存入
-      loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
-    }
-    return mappedColumnNames;
+    return getAutoMappingPlan(resultMap, columnPrefix).getMappedColumnNames();
   }
 
   public List<String> getUnmappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
-    if (unMappedColumnNames == null) {
-      loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
-    }
-    return unMappedColumnNames;
+    return getAutoMappingPlan(resultMap, columnPrefix).getUnmappedColumnNames();
   }
 
   private String getMapKey(ResultMap resultMap, String columnPrefix) {
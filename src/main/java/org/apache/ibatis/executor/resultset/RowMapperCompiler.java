@@ -0,0 +1,352 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.ClassDefiner;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.type.BigDecimalTypeHandler;
+import org.apache.ibatis.type.BooleanTypeHandler;
+import org.apache.ibatis.type.ByteArrayTypeHandler;
+import org.apache.ibatis.type.ByteTypeHandler;
+import org.apache.ibatis.type.DoubleTypeHandler;
+import org.apache.ibatis.type.FloatTypeHandler;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.LongTypeHandler;
+import org.apache.ibatis.type.ShortTypeHandler;
+import org.apache.ibatis.type.SqlDateTypeHandler;
+import org.apache.ibatis.type.SqlTimeTypeHandler;
+import org.apache.ibatis.type.SqlTimestampTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeReference;
+
+/**
+ * Generates {@link CompiledRowMapper}s with Javassist and caches them by result map and column layout.
+ * <p>
+ * Columns read by the built-in type handlers of simple types call the matching {@code ResultSet} getter by index,
+ * other columns go through their type handler. Values are set with direct calls to public setters.
+ * <p>
+ * Generated classes are never unloaded with their class loader alive, so at most {@link #MAX_ROW_MAPPERS} layouts
+ * are compiled, the others are mapped by reflection.
+ */
+public class RowMapperCompiler {
+
+  private static final Log log = LogFactory.getLog(RowMapperCompiler.class);
+
+  /**
+   * Maximum number of cached row mappers, e.g. when dynamic SQL selects many different column layouts.
+   */
+  public static final int MAX_ROW_MAPPERS = 1024;
+
+  private static final AtomicInteger classCounter = new AtomicInteger();
+
+  // 内置类型处理器对应的 ResultSet 方法和返回类型
+  private static final Map<Class<?>, String> INLINE_GETTERS = new HashMap<Class<?>, String>();
+  private static final Map<Class<?>, Class<?>> INLINE_TYPES = new HashMap<Class<?>, Class<?>>();
+  private static final Map<Class<?>, Class<?>> WRAPPERS = new HashMap<Class<?>, Class<?>>();
+
+  static {
+    inline(StringTypeHandler.class, "getString", String.class);
+    inline(IntegerTypeHandler.class, "getInt", int.class);
+    inline(LongTypeHandler.class, "getLong", long.class);
+    inline(ShortTypeHandler.class, "getShort", short.class);
+    inline(ByteTypeHandler.class, "getByte", byte.class);
+    inline(DoubleTypeHandler.class, "getDouble", double.class);
+    inline(FloatTypeHandler.class, "getFloat", float.class);
+    inline(BooleanTypeHandler.class, "getBoolean", boolean.class);
+    inline(BigDecimalTypeHandler.class, "getBigDecimal", BigDecimal.class);
+    inline(SqlTimestampTypeHandler.class, "getTimestamp", Timestamp.class);
+    inline(SqlDateTypeHandler.class, "getDate", Date.class);
+    inline(SqlTimeTypeHandler.class, "getTime", Time.class);
+    inline(ByteArrayTypeHandler.class, "getBytes", byte[].class);
+
+    WRAPPERS.put(int.class, Integer.class);
+    WRAPPERS.put(long.class, Long.class);
+    WRAPPERS.put(short.class, Short.class);
+    WRAPPERS.put(byte.class, Byte.class);
+    WRAPPERS.put(double.class, Double.class);
+    WRAPPERS.put(float.class, Float.class);
+    WRAPPERS.put(boolean.class, Boolean.class);
+    WRAPPERS.put(char.class, Character.class);
+  }
+
+  private static void inline(Class<?> typeHandlerClass, String getter, Class<?> type) {
+    INLINE_GETTERS.put(typeHandlerClass, getter);
+    INLINE_TYPES.put(typeHandlerClass, type);
+  }
+
+  // 不支持编译的结果映射也会缓存，避免重复尝试
+  private static final CompiledRowMapper UNSUPPORTED = new CompiledRowMapper() {
+    @Override
+    public Object newInstance() {
+      return null;
+    }
+
+    @Override
+    public boolean map(Object target, java.sql.ResultSet rs) {
+      return false;
+    }
+  };
+
+  private final ConcurrentMap<String, CompiledRowMapper> rowMappers = new ConcurrentHashMap<String, CompiledRowMapper>();
+  // 只在第一次无法定义类或缓存已满时警告
+  private final AtomicBoolean definitionWarned = new AtomicBoolean();
+  private final AtomicBoolean fullWarned = new AtomicBoolean();
+
+  /**
+   * A column set on a property of the result object.
+   */
+  public static class ColumnMapping {
+    private final int columnIndex;
+    private final String column;
+    private final String property;
+    private final Class<?> propertyType;
+    private final TypeHandler<?> typeHandler;
+
+    public ColumnMapping(int columnIndex, String column, String property, Class<?> propertyType, TypeHandler<?> typeHandler) {
+      this.columnIndex = columnIndex;
+      this.column = column;
+      this.property = property;
+      this.propertyType = propertyType;
+      this.typeHandler = typeHandler;
+    }
+  }
+
+  /**
+   * Returns the row mapper cached under the key, compiling it on first use.
+   *
+   * @return null when the mappings cannot be compiled and must be applied by reflection
+   */
+  public CompiledRowMapper getRowMapper(String key, Class<?> type, List<ColumnMapping> mappings, boolean callSettersOnNulls) {
+    CompiledRowMapper rowMapper = rowMappers.get(key);
+    if (rowMapper == null) {
+      if (rowMappers.size() >= MAX_ROW_MAPPERS) {
+        if (fullWarned.compareAndSet(false, true)) {
+          log.warn("More than " + MAX_ROW_MAPPERS + " row mappers were compiled, other results are mapped by reflection.");
+        }
+        return null;
+      }
+      rowMapper = compile(type, mappings, callSettersOnNulls);
+      rowMappers.putIfAbsent(key, rowMapper == null ? UNSUPPORTED : rowMapper);
+    }
+    return rowMapper == UNSUPPORTED ? null : rowMapper;
+  }
+
+  /**
+   * Number of generated row mappers.
+   */
+  public int getCompiledCount() {
+    int count = 0;
+    for (CompiledRowMapper rowMapper : rowMappers.values()) {
+      if (rowMapper != UNSUPPORTED) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  public static ResultMapException columnError(String column, Exception e) {
+    return new ResultMapException("Error attempting to get column '" + column + "' from result set.  Cause: " + e, e);
+  }
+
+  private CompiledRowMapper compile(Class<?> type, List<ColumnMapping> mappings, boolean callSettersOnNulls) {
+    if (!isInstantiable(type)) {
+      return null;
+    }
+    StringBuilder body = new StringBuilder();
+    body.append("public boolean map(Object target, java.sql.ResultSet rs) throws java.sql.SQLException {\n");
+    body.append("  ").append(type.getName()).append(" t = (").append(type.getName()).append(") target;\n");
+    body.append("  boolean found = false;\n");
+    TypeHandler<?>[] typeHandlers = new TypeHandler<?>[mappings.size()];
+    String[] columns = new String[mappings.size()];
+    for (int i = 0; i < mappings.size(); i++) {
+      ColumnMapping mapping = mappings.get(i);
+      Method setter = findSetter(type, mapping.property, mapping.propertyType);
+      if (setter == null) {
+        return null;
+      }
+      typeHandlers[i] = mapping.typeHandler;
+      columns[i] = mapping.column;
+      if (!appendColumn(body, i, mapping, setter, callSettersOnNulls)) {
+        return null;
+      }
+    }
+    body.append("  return found;\n}");
+
+    try {
+      ClassPool pool = new ClassPool(true);
+      pool.appendClassPath(new ClassClassPath(CompiledRowMapper.class));
+      if (type.getClassLoader() != null) {
+        pool.appendClassPath(new LoaderClassPath(type.getClassLoader()));
+      }
+      // 与结果类型放在同一个包和类加载器中
+      CtClass ctClass = pool.makeClass(type.getName() + "$$RowMapper$$" + classCounter.incrementAndGet());
+      ctClass.addInterface(pool.get(CompiledRowMapper.class.getName()));
+      ctClass.addField(CtField.make("private final org.apache.ibatis.type.TypeHandler[] handlers;", ctClass));
+      ctClass.addField(CtField.make("private final java.lang.String[] columns;", ctClass));
+      ctClass.addConstructor(CtNewConstructor.make("public " + ctClass.getSimpleName()
+          + "(org.apache.ibatis.type.TypeHandler[] handlers, java.lang.String[] columns) { this.handlers = $1; this.columns = $2; }", ctClass));
+      ctClass.addMethod(CtNewMethod.make("public Object newInstance() { return new " + type.getName() + "(); }", ctClass));
+      ctClass.addMethod(CtNewMethod.make(body.toString(), ctClass));
+      Class<?> rowMapperClass = ClassDefiner.defineClass(ctClass, type);
+      ctClass.detach();
+      Constructor<?> constructor = rowMapperClass.getConstructor(TypeHandler[].class, String[].class);
+      return (CompiledRowMapper) constructor.newInstance(typeHandlers, columns);
+    } catch (Throwable t) {
+      // 无法生成类时（如类加载器不可访问）退回反射方式
+      if (definitionWarned.compareAndSet(false, true)) {
+        log.warn("Could not compile a row mapper for " + type.getName() + ", results are mapped by reflection. Cause: " + t);
+      } else if (log.isDebugEnabled()) {
+        log.debug("Could not compile a row mapper for " + type.getName() + ", results are mapped by reflection. Cause: " + t);
+      }
+      return null;
+    }
+  }
+
+  private static boolean appendColumn(StringBuilder body, int i, ColumnMapping mapping, Method setter, boolean callSettersOnNulls) {
+    Class<?> propertyType = setter.getParameterTypes()[0];
+    Class<?> boxedPropertyType = box(propertyType);
+    String getter = INLINE_GETTERS.get(mapping.typeHandler.getClass());
+    String call = "t." + setter.getName();
+    body.append("  {\n");
+    if (getter != null && INLINE_TYPES.get(mapping.typeHandler.getClass()).isPrimitive()) {
+      Class<?> valueType = INLINE_TYPES.get(mapping.typeHandler.getClass());
+      if (!boxedPropertyType.isAssignableFrom(box(valueType))) {
+        return false;
+      }
+      body.append("    ").append(valueType.getName()).append(" v;\n");
+      appendRead(body, i, mapping, getter);
+      String value = propertyType.isPrimitive() ? "v" : box(valueType).getName() + ".valueOf(v)";
+      body.append("    if (!rs.wasNull()) { ").append(call).append("(").append(value).append("); found = true; }\n");
+      appendNullSetter(body, call, propertyType, callSettersOnNulls);
+    } else {
+      String valueTypeName;
+      if (getter != null) {
+        Class<?> valueType = INLINE_TYPES.get(mapping.typeHandler.getClass());
+        if (!boxedPropertyType.isAssignableFrom(valueType)) {
+          return false;
+        }
+        valueTypeName = sourceName(valueType);
+        body.append("    ").append(valueTypeName).append(" v;\n");
+        appendRead(body, i, mapping, getter);
+        body.append("    if (rs.wasNull()) { v = null; }\n");
+      } else {
+        // 类型处理器的泛型参数无法确定时（如 EnumTypeHandler<E>），它是按属性类型创建的
+        Class<?> valueType = handledType(mapping.typeHandler);
+        if (valueType != null && !boxedPropertyType.isAssignableFrom(valueType)) {
+          return false;
+        }
+        valueTypeName = sourceName(boxedPropertyType);
+        body.append("    ").append(valueTypeName).append(" v = (").append(valueTypeName)
+            .append(") this.handlers[").append(i).append("].getResult(rs, this.columns[").append(i).append("]);\n");
+      }
+      String value = propertyType.isPrimitive() ? "v." + propertyType.getName() + "Value()" : "v";
+      body.append("    if (v != null) { ").append(call).append("(").append(value).append("); found = true; }\n");
+      appendNullSetter(body, call, propertyType, callSettersOnNulls);
+    }
+    body.append("  }\n");
+    return true;
+  }
+
+  private static void appendNullSetter(StringBuilder body, String call, Class<?> propertyType, boolean callSettersOnNulls) {
+    // 与 callSettersOnNulls 一致，空值也调用非基本类型的 setter
+    if (callSettersOnNulls && !propertyType.isPrimitive()) {
+      body.append("    else { ").append(call).append("((").append(sourceName(propertyType)).append(") null); }\n");
+    }
+  }
+
+  private static String sourceName(Class<?> type) {
+    return type.isArray() ? sourceName(type.getComponentType()) + "[]" : type.getName();
+  }
+
+  private static void appendRead(StringBuilder body, int i, ColumnMapping mapping, String getter) {
+    body.append("    try { v = rs.").append(getter).append("(").append(mapping.columnIndex).append("); }\n");
+    body.append("    catch (java.sql.SQLException e) { throw ").append(RowMapperCompiler.class.getName())
+        .append(".columnError(this.columns[").append(i).append("], e); }\n");
+  }
+
+  private static boolean isInstantiable(Class<?> type) {
+    if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers()) || type.isInterface()
+        || (type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers()))) {
+      return false;
+    }
+    try {
+      return Modifier.isPublic(type.getConstructor().getModifiers());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Finds the public setter used by the Reflector for the property.
+   */
+  private static Method findSetter(Class<?> type, String property, Class<?> propertyType) {
+    for (Method method : type.getMethods()) {
+      if (method.getName().startsWith("set") && method.getName().length() > 3
+          && method.getParameterTypes().length == 1 && method.getParameterTypes()[0] == propertyType
+          && !Modifier.isStatic(method.getModifiers())
+          && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+          && PropertyNamer.methodToProperty(method.getName()).equals(property)) {
+        return method;
+      }
+    }
+    return null;
+  }
+
+  private static Class<?> handledType(TypeHandler<?> typeHandler) {
+    if (typeHandler instanceof TypeReference) {
+      Type rawType = ((TypeReference<?>) typeHandler).getRawType();
+      if (rawType instanceof Class) {
+        return (Class<?>) rawType;
+      }
+    }
+    return null;
+  }
+
+  private static Class<?> box(Class<?> type) {
+    Class<?> wrapper = WRAPPERS.get(type);
+    return wrapper != null ? wrapper : type;
+  }
+
+}
@@ -19,16 +19,22 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import org.apache.ibatis.dialect.Dialect;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetPage;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.type.TypeHandlerRegistry;
@@ -54,7 +60,6 @@ public abstract class BaseStatementHandler implements StatementHandler {
     this.configuration = mappedStatement.getConfiguration();
     this.executor = executor;
     this.mappedStatement = mappedStatement;
-    this.rowBounds = rowBounds;
 
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
@@ -64,6 +69,19 @@ public abstract class BaseStatementHandler implements StatementHandler {
       boundSql = mappedStatement.getBoundSql(parameterObject);
     }
 
+    // keyset 分页：追加定位条件和排序，limit 再交给方言或内存分页处理
+    if (rowBounds instanceof KeysetPage) {
+      boundSql = KeysetSqlBuilder.rewrite(mappedStatement, boundSql, (KeysetPage) rowBounds);
+    }
+
+    // 配置了方言时将 RowBounds 改写为物理分页，结果集无需再跳过记录
+    if (isPagingPushedDown(rowBounds)) {
+      String pagingSql = configuration.getDialect().getPagingSql(boundSql.getSql(), rowBounds.getOffset(), rowBounds.getLimit());
+      boundSql = boundSql.rewrite(pagingSql, boundSql.getParameterMappings());
+      rowBounds = RowBounds.DEFAULT;
+    }
+
+    this.rowBounds = rowBounds;
     this.boundSql = boundSql;
 
     this.parameterHandler = configuration.newParameterHandler(mappedStatement, parameterObject, boundSql);
@@ -125,6 +143,15 @@ public abstract class BaseStatementHandler implements StatementHandler {
       stmt.setFetchSize(fetchSize);
       return;
     }
+    if (configuration.isAdaptiveFetchSize() && mappedStatement.getSqlCommandType() == SqlCommandType.SELECT) {
+      // 根据以往执行的行数和行宽度选择 fetchSize，第一次执行时使用默认值
+      int adaptiveFetchSize = configuration.getMetricsRegistry().getStatementMetrics(mappedStatement.getId())
+          .adaptFetchSize(configuration.getAdaptiveFetchSizeMin(), configuration.getAdaptiveFetchSizeMax());
+      if (adaptiveFetchSize > 0) {
+        stmt.setFetchSize(adaptiveFetchSize);
+        return;
+      }
+    }
     Integer defaultFetchSize = configuration.getDefaultFetchSize();
     if (defaultFetchSize != null) {
       stmt.setFetchSize(defaultFetchSize);
@@ -141,6 +168,43 @@ public abstract class BaseStatementHandler implements StatementHandler {
     }
   }
 
+  /**
+   * RowBounds are only pushed down to simple selects, rows of nested result maps do not match result objects.
+   */
+  protected boolean isPagingPushedDown(RowBounds rowBounds) {
+    Dialect dialect = configuration.getDialect();
+    if (dialect == null || !dialect.supportsPaging() || rowBounds == null
+        || (rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET && rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT)) {
+      return false;
+    }
+    if (mappedStatement.getSqlCommandType() != SqlCommandType.SELECT || mappedStatement.getStatementType() == StatementType.CALLABLE) {
+      return false;
+    }
+    for (ResultMap resultMap : mappedStatement.getResultMaps()) {
+      if (resultMap.hasNestedResultMaps()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 记录语句执行的统计信息，executed 之后的耗时计为结果映射时间
+   */
+  protected void recordExecution(long start, long executed, int rows) {
+    configuration.getMetricsRegistry().recordExecution(mappedStatement, boundSql, start, executed, System.nanoTime(), rows);
+  }
+
+  /**
+   * @return the rows read by the result set handler, -1 if it does not count them (a plugin or another implementation)
+   */
+  protected int getRowCount() {
+    if (resultSetHandler instanceof DefaultResultSetHandler) {
+      return ((DefaultResultSetHandler) resultSetHandler).getRowCount();
+    }
+    return -1;
+  }
+
   protected void generateKeys(Object parameter) {
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     ErrorContext.instance().store();
@@ -47,12 +47,15 @@ public class CallableStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    long start = System.nanoTime();
     cs.execute();
+    long executed = System.nanoTime();
     int rows = cs.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     keyGenerator.processAfter(executor, mappedStatement, cs, parameterObject);
     resultSetHandler.handleOutputParameters(cs);
+    recordExecution(start, executed, rows);
     return rows;
   }
 
@@ -65,18 +68,24 @@ public class CallableStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    long start = System.nanoTime();
     cs.execute();
+    long executed = System.nanoTime();
     List<E> resultList = resultSetHandler.<E>handleResultSets(cs);
     resultSetHandler.handleOutputParameters(cs);
+    recordExecution(start, executed, getRowCount());
     return resultList;
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     CallableStatement cs = (CallableStatement) statement;
+    long start = System.nanoTime();
     cs.execute();
+    long executed = System.nanoTime();
     Cursor<E> resultList = resultSetHandler.<E>handleCursorResultSets(cs);
     resultSetHandler.handleOutputParameters(cs);
+    recordExecution(start, executed, -1);
     return resultList;
   }
 
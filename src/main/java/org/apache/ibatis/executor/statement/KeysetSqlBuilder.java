@@ -0,0 +1,152 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.ibatis.dialect.AbstractDialect;
+import org.apache.ibatis.dialect.Dialect;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetPage;
+
+/**
+ * Rewrites a select so that it returns the rows following a {@link KeysetPage} key, in keyset order.
+ * <p>
+ * The configured {@link Dialect} adds the seek condition and the ORDER BY inside the statement. The condition is a
+ * row value comparison <code>(c1, c2) &gt; (?, ?)</code> when the dialect supports it and all the columns are sorted
+ * in the same direction, otherwise it is expanded to <code>(c1 &gt; ?) OR (c1 = ? AND c2 &gt; ?) ...</code>.
+ * Without a dialect, or when the statement already has clauses after its WHERE clause, the statement is wrapped
+ * in a derived table instead, which some databases cannot seek through.
+ * </p>
+ */
+final class KeysetSqlBuilder {
+
+  static final String KEYSET_PARAMETER_PREFIX = "__keyset_";
+
+  private KeysetSqlBuilder() {
+    // Prevent Instantiation
+  }
+
+  static BoundSql rewrite(MappedStatement ms, BoundSql boundSql, KeysetPage page) {
+    String[] keysetColumns = ms.getKeysetColumns();
+    if (keysetColumns == null) {
+      throw new ExecutorException("Mapped statement '" + ms.getId() + "' was called with a KeysetPage but declares no keysetColumn.");
+    }
+    Object[] lastKey = page.getLastKey();
+    if (lastKey != null && lastKey.length != keysetColumns.length) {
+      throw new ExecutorException("Mapped statement '" + ms.getId() + "' has " + keysetColumns.length
+          + " keyset columns but the key of the KeysetPage has " + lastKey.length + " values.");
+    }
+    Configuration configuration = ms.getConfiguration();
+    String[] columns = new String[keysetColumns.length];
+    boolean[] descending = new boolean[keysetColumns.length];
+    for (int i = 0; i < keysetColumns.length; i++) {
+      String[] tokens = keysetColumns[i].split("\\s+");
+      columns[i] = tokens[0];
+      descending[i] = tokens.length > 1 && "DESC".equals(tokens[1].toUpperCase(Locale.ENGLISH));
+    }
+
+    Dialect dialect = configuration.getDialect();
+    boolean sameDirection = true;
+    for (boolean desc : descending) {
+      sameDirection &= desc == descending[0];
+    }
+    List<ParameterMapping> parameterMappings = new ArrayList<ParameterMapping>(boundSql.getParameterMappings());
+    String predicate = null;
+    if (lastKey != null) {
+      StringBuilder condition = new StringBuilder();
+      if (columns.length == 1 || (sameDirection && dialect != null && dialect.supportsRowValueComparison())) {
+        // 行值比较：(c1, c2) > (?, ?)，单列时即 c1 > ?
+        appendRow(condition, columns);
+        condition.append(descending[0] ? " < " : " > ");
+        String[] placeholders = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+          placeholders[i] = "?";
+          parameterMappings.add(keyParameter(configuration, boundSql, i, lastKey[i], ms));
+        }
+        appendRow(condition, placeholders);
+      } else {
+        condition.append('(');
+        for (int i = 0; i < columns.length; i++) {
+          if (i > 0) {
+            condition.append(" OR ");
+          }
+          condition.append('(');
+          for (int j = 0; j < i; j++) {
+            condition.append(columns[j]).append(" = ? AND ");
+            parameterMappings.add(keyParameter(configuration, boundSql, j, lastKey[j], ms));
+          }
+          condition.append(columns[i]).append(descending[i] ? " < ?" : " > ?");
+          parameterMappings.add(keyParameter(configuration, boundSql, i, lastKey[i], ms));
+          condition.append(')');
+        }
+        condition.append(')');
+      }
+      predicate = condition.toString();
+    }
+    StringBuilder orderBy = new StringBuilder();
+    for (int i = 0; i < columns.length; i++) {
+      if (i > 0) {
+        orderBy.append(", ");
+      }
+      orderBy.append(columns[i]).append(descending[i] ? " DESC" : " ASC");
+    }
+
+    String sql = dialect != null ? dialect.getKeysetSql(boundSql.getSql(), predicate, orderBy.toString()) : null;
+    if (sql == null) {
+      // 无法在语句内部追加条件时，包装为派生表
+      StringBuilder wrapped = new StringBuilder("SELECT * FROM (").append(AbstractDialect.trimStatement(boundSql.getSql())).append(") keyset_");
+      if (predicate != null) {
+        wrapped.append(" WHERE ").append(predicate);
+      }
+      sql = wrapped.append(" ORDER BY ").append(orderBy).toString();
+    }
+    return boundSql.rewrite(sql, parameterMappings);
+  }
+
+  private static void appendRow(StringBuilder sql, String[] values) {
+    if (values.length > 1) {
+      sql.append('(');
+    }
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(values[i]);
+    }
+    if (values.length > 1) {
+      sql.append(')');
+    }
+  }
+
+  private static ParameterMapping keyParameter(Configuration configuration, BoundSql boundSql, int index, Object value, MappedStatement ms) {
+    if (value == null) {
+      throw new ExecutorException("Mapped statement '" + ms.getId() + "' was called with a null value for keyset column "
+          + ms.getKeysetColumns()[index] + ". Keyset columns must not be nullable.");
+    }
+    String property = KEYSET_PARAMETER_PREFIX + index;
+    boundSql.setAdditionalParameter(property, value);
+    Class<?> javaType = configuration.getTypeHandlerRegistry().hasTypeHandler(value.getClass()) ? value.getClass() : Object.class;
+    return new ParameterMapping.Builder(configuration, property, javaType).build();
+  }
+
+}
@@ -45,11 +45,14 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = System.nanoTime();
     ps.execute();
+    long executed = System.nanoTime();
     int rows = ps.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     keyGenerator.processAfter(executor, mappedStatement, ps, parameterObject);
+    recordExecution(start, executed, rows);
     return rows;
   }
 
@@ -62,15 +65,23 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = System.nanoTime();
     ps.execute();
-    return resultSetHandler.<E> handleResultSets(ps);
+    long executed = System.nanoTime();
+    List<E> results = resultSetHandler.<E> handleResultSets(ps);
+    recordExecution(start, executed, getRowCount());
+    return results;
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    long start = System.nanoTime();
     ps.execute();
-    return resultSetHandler.<E> handleCursorResultSets(ps);
+    long executed = System.nanoTime();
+    Cursor<E> cursor = resultSetHandler.<E> handleCursorResultSets(ps);
+    recordExecution(start, executed, -1);
+    return cursor;
   }
 
   @Override
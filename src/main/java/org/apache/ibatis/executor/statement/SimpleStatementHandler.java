@@ -48,21 +48,27 @@ public class SimpleStatementHandler extends BaseStatementHandler {
     // 获取配置的 KeyGenerator
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     int rows;
+    long start = System.nanoTime();
+    long executed;
     if (keyGenerator instanceof Jdbc3KeyGenerator) {
       // 执行sql
       statement.execute(sql, Statement.RETURN_GENERATED_KEYS);
+      executed = System.nanoTime();
       rows = statement.getUpdateCount();
       // 将数据库主键添加到 parameterObject中
       keyGenerator.processAfter(executor, mappedStatement, statement, parameterObject);
     } else if (keyGenerator instanceof SelectKeyGenerator) {
       statement.execute(sql); // 执行sql语句
+      executed = System.nanoTime();
       rows = statement.getUpdateCount();
       // 执行 selectKey 节点中配置的SQL语句获取数据库生成的主键，并添加到parameterObject中
       keyGenerator.processAfter(executor, mappedStatement, statement, parameterObject);
     } else {
       statement.execute(sql);
+      executed = System.nanoTime();
       rows = statement.getUpdateCount();
     }
+    recordExecution(start, executed, rows);
     return rows;
   }
 
@@ -75,15 +81,23 @@ public class SimpleStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     String sql = boundSql.getSql();
+    long start = System.nanoTime();
     statement.execute(sql);
-    return resultSetHandler.<E>handleResultSets(statement); // 映射结果集
+    long executed = System.nanoTime();
+    List<E> results = resultSetHandler.<E>handleResultSets(statement); // 映射结果集
+    recordExecution(start, executed, getRowCount());
+    return results;
   }
 
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     String sql = boundSql.getSql();
+    long start = System.nanoTime();
     statement.execute(sql);
-    return resultSetHandler.<E>handleCursorResultSets(statement);
+    long executed = System.nanoTime();
+    Cursor<E> cursor = resultSetHandler.<E>handleCursorResultSets(statement);
+    recordExecution(start, executed, -1);
+    return cursor;
   }
 
   @Override
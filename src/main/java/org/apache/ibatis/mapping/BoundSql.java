@@ -19,6 +19,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ibatis.executor.parameter.ParameterBinderCache;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
@@ -40,13 +41,38 @@ public class BoundSql {
   private Object parameterObject; // 实际参数
   private Map<String, Object> additionalParameters; // 之后会复制 DynamicContext.bindings 集合中的内容
   private MetaObject metaParameters; // additionalParameters 对应的 MetaObject对象
+  private ParameterBinderCache parameterBinders; // 解析该 SQL 的 SqlSource 持有的参数绑定器
 
   public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject) {
+    this(configuration, sql, parameterMappings, parameterObject, null);
+  }
+
+  public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject,
+      ParameterBinderCache parameterBinders) {
     this.sql = sql;
     this.parameterMappings = parameterMappings;
     this.parameterObject = parameterObject;
     this.additionalParameters = new HashMap<String, Object>();
     this.metaParameters = configuration.newMetaObject(additionalParameters);
+    this.parameterBinders = parameterBinders;
+  }
+
+  private BoundSql(BoundSql source, String sql, List<ParameterMapping> parameterMappings) {
+    this.sql = sql;
+    this.parameterMappings = parameterMappings;
+    this.parameterObject = source.parameterObject;
+    this.additionalParameters = source.additionalParameters;
+    this.metaParameters = source.metaParameters;
+    // 参数映射不变时（如分页改写）继续复用绑定器，缓存会校验参数映射
+    this.parameterBinders = source.parameterBinders;
+  }
+
+  /**
+   * Creates a BoundSql running another SQL that shares the parameter object and the additional parameters of this one.
+   * Used to rewrite statements (e.g. physical pagination) after the dynamic content has been processed.
+   */
+  public BoundSql rewrite(String sql, List<ParameterMapping> parameterMappings) {
+    return new BoundSql(this, sql, parameterMappings);
   }
 
   public String getSql() {
@@ -57,10 +83,24 @@ public class BoundSql {
     return parameterMappings;
   }
 
+  /**
+   * @return the binders cached for the parameter mappings of this SQL, null if they are not cached
+   */
+  public ParameterBinderCache getParameterBinders() {
+    return parameterBinders;
+  }
+
   public Object getParameterObject() {
     return parameterObject;
   }
 
+  /**
+   * @return the parameters created by the dynamic language, keyed by name
+   */
+  public Map<String, Object> getAdditionalParameters() {
+    return additionalParameters;
+  }
+
   public boolean hasAdditionalParameter(String name) {
     String paramName = new PropertyTokenizer(name).getName();
     return additionalParameters.containsKey(paramName);
@@ -60,6 +60,14 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  // keyset 分页的排序列（可带 ASC/DESC），以及结果对象中对应的属性
+  private String[] keysetColumns;
+  private String[] keysetProperties;
+  // 结果对象不会被调用方修改，合并执行的查询可以直接共享结果
+  private boolean readOnly;
+  // 不同会话中同时执行的相同查询合并为一次执行
+  private boolean coalesce;
+  // 最近一次使用的参数绑定器，参数映射和实参类型不变时复用
 
   MappedStatement() {
     // constructor disabled
@@ -177,6 +185,26 @@ public final class MappedStatement {
       return this;
     }
 
+    public Builder keysetColumn(String keysetColumn) {
+      mappedStatement.keysetColumns = trim(delimitedStringToArray(keysetColumn));
+      return this;
+    }
+
+    public Builder keysetProperty(String keysetProperty) {
+      mappedStatement.keysetProperties = trim(delimitedStringToArray(keysetProperty));
+      return this;
+    }
+
+    public Builder readOnly(boolean readOnly) {
+      mappedStatement.readOnly = readOnly;
+      return this;
+    }
+
+    public Builder coalesce(boolean coalesce) {
+      mappedStatement.coalesce = coalesce;
+      return this;
+    }
+
     /** @deprecated Use {@link #resultSets} */
     @Deprecated
     public Builder resulSets(String resultSet) {
@@ -190,6 +218,20 @@ public final class MappedStatement {
       assert mappedStatement.sqlSource != null;
       assert mappedStatement.lang != null;
       mappedStatement.resultMaps = Collections.unmodifiableList(mappedStatement.resultMaps);
+      if (mappedStatement.keysetColumns != null) {
+        // 未指定 keysetProperty 时使用去掉排序方向的列名
+        if (mappedStatement.keysetProperties == null) {
+          String[] properties = new String[mappedStatement.keysetColumns.length];
+          for (int i = 0; i < properties.length; i++) {
+            properties[i] = mappedStatement.keysetColumns[i].split("\\s+")[0];
+          }
+          mappedStatement.keysetProperties = properties;
+        } else if (mappedStatement.keysetProperties.length != mappedStatement.keysetColumns.length) {
+          throw new IllegalArgumentException("Mapped statement '" + mappedStatement.id
+              + "' declares " + mappedStatement.keysetColumns.length + " keyset columns but "
+              + mappedStatement.keysetProperties.length + " keyset properties");
+        }
+      }
       return mappedStatement;
     }
   }
@@ -286,6 +328,22 @@ public final class MappedStatement {
     return resultSets;
   }
 
+  public String[] getKeysetColumns() {
+    return keysetColumns;
+  }
+
+  public String[] getKeysetProperties() {
+    return keysetProperties;
+  }
+
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  public boolean isCoalesce() {
+    return coalesce;
+  }
+
   /** @deprecated Use {@link #getResultSets()} */
   @Deprecated
   public String[] getResulSets() {
@@ -321,4 +379,13 @@ public final class MappedStatement {
     }
   }
 
+  private static String[] trim(String[] in) {
+    if (in != null) {
+      for (int i = 0; i < in.length; i++) {
+        in[i] = in[i].trim();
+      }
+    }
+    return in;
+  }
+
 }
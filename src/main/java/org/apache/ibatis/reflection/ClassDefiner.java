@@ -0,0 +1,76 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.lang.reflect.Method;
+
+import javassist.CtClass;
+
+/**
+ * Defines classes generated with Javassist next to an existing class, in its package and class loader.
+ * <p>
+ * On Java 9 and later the class is defined with {@code MethodHandles.Lookup#defineClass}, which does not need
+ * reflective access to {@code ClassLoader#defineClass} (denied by default since Java 16). Older runtimes use
+ * {@link CtClass#toClass(ClassLoader, java.security.ProtectionDomain)}.
+ */
+public final class ClassDefiner {
+
+  // Java 9 以上可用的 Lookup API，通过反射调用以兼容 Java 6
+  private static final Method LOOKUP;
+  private static final Method PRIVATE_LOOKUP_IN;
+  private static final Method DEFINE_CLASS;
+
+  static {
+    Method lookup = null;
+    Method privateLookupIn = null;
+    Method defineClass = null;
+    try {
+      Class<?> methodHandles = Class.forName("java.lang.invoke.MethodHandles");
+      Class<?> lookupClass = Class.forName("java.lang.invoke.MethodHandles$Lookup");
+      lookup = methodHandles.getMethod("lookup");
+      privateLookupIn = methodHandles.getMethod("privateLookupIn", Class.class, lookupClass);
+      defineClass = lookupClass.getMethod("defineClass", byte[].class);
+    } catch (Exception e) {
+      // Java 8 and earlier
+      lookup = null;
+    }
+    LOOKUP = lookup;
+    PRIVATE_LOOKUP_IN = privateLookupIn;
+    DEFINE_CLASS = defineClass;
+  }
+
+  private ClassDefiner() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Defines the class, which must be in the package of the neighbor.
+   */
+  public static Class<?> defineClass(CtClass ctClass, Class<?> neighbor) throws Exception {
+    if (LOOKUP == null) {
+      return ctClass.toClass(neighbor.getClassLoader(), neighbor.getProtectionDomain());
+    }
+    byte[] bytecode = ctClass.toBytecode();
+    try {
+      Object lookup = PRIVATE_LOOKUP_IN.invoke(null, neighbor, LOOKUP.invoke(null));
+      return (Class<?>) DEFINE_CLASS.invoke(lookup, bytecode);
+    } catch (Exception e) {
+      Throwable cause = ExceptionUtil.unwrapThrowable(e);
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+
+}
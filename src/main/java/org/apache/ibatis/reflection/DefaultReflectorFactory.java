@@ -23,6 +23,8 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class DefaultReflectorFactory implements ReflectorFactory {
   private boolean classCacheEnabled = true;
+  // 是否为 getter/setter 生成调用类，代替反射
+  private boolean compileInvokers;
   private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<Class<?>, Reflector>();
 
   public DefaultReflectorFactory() {
@@ -38,6 +40,18 @@ public class DefaultReflectorFactory implements ReflectorFactory {
     this.classCacheEnabled = classCacheEnabled;
   }
 
+  public boolean isCompileInvokers() {
+    return compileInvokers;
+  }
+
+  public void setCompileInvokers(boolean compileInvokers) {
+    if (this.compileInvokers != compileInvokers) {
+      this.compileInvokers = compileInvokers;
+      // 已缓存的 Reflector 使用的是之前的方式
+      reflectorMap.clear();
+    }
+  }
+
   @Override
   public Reflector findForClass(Class<?> type) {
     //这里进行缓存
@@ -45,12 +59,12 @@ public class DefaultReflectorFactory implements ReflectorFactory {
             // synchronized (type) removed see issue #461
       Reflector cached = reflectorMap.get(type);
       if (cached == null) {
-        cached = new Reflector(type);
+        cached = new Reflector(type, compileInvokers);
         reflectorMap.put(type, cached);
       }
       return cached;
     } else {
-      return new Reflector(type);
+      return new Reflector(type, compileInvokers);
     }
   }
 
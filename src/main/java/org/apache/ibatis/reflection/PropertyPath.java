@@ -0,0 +1,167 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
+
+/**
+ * A property expression such as <code>order.items[0].name</code>, tokenized once and reading values
+ * with the getter invokers resolved for the classes it meets.
+ * <p>
+ * Reads the same values as {@link MetaObject#getValue(String)} without creating a {@link MetaObject} per segment.
+ * Objects handled by an {@link ObjectWrapperFactory}, collections and invalid expressions are read by
+ * {@link MetaObject} so that they fail with the same errors.
+ */
+public class PropertyPath {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+  // 表示该段无法直接读取，需要交给 MetaObject
+  private static final Object UNRESOLVED = new Object();
+
+  private final String expression;
+  private final Segment[] segments;
+
+  public PropertyPath(String expression) {
+    this.expression = expression;
+    List<Segment> list = new ArrayList<Segment>();
+    PropertyTokenizer prop = new PropertyTokenizer(expression);
+    list.add(new Segment(prop));
+    while (prop.hasNext()) {
+      prop = prop.next();
+      list.add(new Segment(prop));
+    }
+    this.segments = list.toArray(new Segment[list.size()]);
+  }
+
+  public String getExpression() {
+    return expression;
+  }
+
+  public Object getValue(Object object, ObjectFactory objectFactory, ObjectWrapperFactory objectWrapperFactory, ReflectorFactory reflectorFactory) {
+    Object value = object == null ? UNRESOLVED : object;
+    for (int i = 0; i < segments.length && value != UNRESOLVED; i++) {
+      if (value == null) {
+        // 与 MetaObject 一致，中间属性为 null 时返回 null
+        return null;
+      }
+      value = segments[i].getValue(value, objectWrapperFactory, reflectorFactory);
+    }
+    if (value == UNRESOLVED) {
+      return MetaObject.forObject(object, objectFactory, objectWrapperFactory, reflectorFactory).getValue(expression);
+    }
+    return value;
+  }
+
+  private static class Segment {
+    private final String name;
+    private final String index;
+    private final int position;
+    // 最近一次解析的类型及其 getter，类型变化时重新解析
+    private volatile ResolvedGetter getter;
+
+    Segment(PropertyTokenizer prop) {
+      this.name = prop.getName();
+      this.index = prop.getIndex();
+      int i = -1;
+      if (index != null) {
+        try {
+          i = Integer.parseInt(index);
+        } catch (NumberFormatException e) {
+          // 只能用作 Map 的 key
+        }
+      }
+      this.position = i;
+    }
+
+    Object getValue(Object object, ObjectWrapperFactory objectWrapperFactory, ReflectorFactory reflectorFactory) {
+      if (object instanceof ObjectWrapper || objectWrapperFactory.hasWrapperFor(object)) {
+        return UNRESOLVED;
+      }
+      final Object collection;
+      if (object instanceof Map) {
+        if (index == null) {
+          return ((Map<?, ?>) object).get(name);
+        }
+        collection = "".equals(name) ? object : ((Map<?, ?>) object).get(name);
+      } else if (object instanceof Collection) {
+        return UNRESOLVED;
+      } else {
+        if (index == null) {
+          return getProperty(object, reflectorFactory);
+        }
+        collection = "".equals(name) ? object : getProperty(object, reflectorFactory);
+      }
+      return getIndexedValue(collection);
+    }
+
+    private Object getIndexedValue(Object collection) {
+      if (collection instanceof Map) {
+        return ((Map<?, ?>) collection).get(index);
+      } else if (position < 0) {
+        return UNRESOLVED;
+      } else if (collection instanceof List) {
+        return ((List<?>) collection).get(position);
+      } else if (collection instanceof Object[]) {
+        return ((Object[]) collection)[position];
+      } else if (collection != null && collection != UNRESOLVED && collection.getClass().isArray()) {
+        return java.lang.reflect.Array.get(collection, position);
+      }
+      return UNRESOLVED;
+    }
+
+    private Object getProperty(Object object, ReflectorFactory reflectorFactory) {
+      ResolvedGetter resolved = getter;
+      if (resolved == null || resolved.type != object.getClass()) {
+        Reflector reflector = reflectorFactory.findForClass(object.getClass());
+        if (!reflector.hasGetter(name)) {
+          return UNRESOLVED;
+        }
+        resolved = new ResolvedGetter(object.getClass(), reflector.getGetInvoker(name));
+        getter = resolved;
+      }
+      try {
+        try {
+          return resolved.invoker.invoke(object, NO_ARGUMENTS);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not get property '" + name + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
+      }
+    }
+  }
+
+  private static class ResolvedGetter {
+    private final Class<?> type;
+    private final Invoker invoker;
+
+    ResolvedGetter(Class<?> type, Invoker invoker) {
+      this.type = type;
+      this.invoker = invoker;
+    }
+  }
+}
@@ -34,6 +34,7 @@ import java.util.Map;
 
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
 import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.InvokerCompiler;
 import org.apache.ibatis.reflection.invoker.MethodInvoker;
 import org.apache.ibatis.reflection.invoker.SetFieldInvoker;
 import org.apache.ibatis.reflection.property.PropertyNamer;
@@ -91,11 +92,21 @@ public class Reflector {
   private Map<String, String> caseInsensitivePropertyMap = new HashMap<String, String>();
 
   public Reflector(Class<?> clazz) {
+    this(clazz, false);
+  }
+
+  /**
+   * @param compileInvokers true to call the public getters and setters through generated classes instead of reflection
+   */
+  public Reflector(Class<?> clazz, boolean compileInvokers) {
     type = clazz;
     addDefaultConstructor(clazz);
     addGetMethods(clazz); // 填充 getMethods 和 getTypes
     addSetMethods(clazz);
     addFields(clazz);
+    if (compileInvokers) {
+      InvokerCompiler.compileInvokers(clazz, getMethods, setMethods);
+    }
     readablePropertyNames = getMethods.keySet().toArray(new String[getMethods.keySet().size()]);
     writeablePropertyNames = setMethods.keySet().toArray(new String[setMethods.keySet().size()]);
     for (String propName : readablePropertyNames) {
@@ -19,6 +19,7 @@ import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -27,6 +28,8 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.reflection.ReflectionException;
 
@@ -37,6 +40,9 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
 
   private static final long serialVersionUID = -8855120656740914948L;
 
+  // 构造函数缓存：类 -> 参数类型列表 -> 已设置可访问的构造函数
+  private transient volatile ConcurrentMap<Class<?>, ConcurrentMap<List<Class<?>>, Constructor<?>>> constructors;
+
   @Override
   public <T> T create(Class<T> type) {
     return create(type, null, null);
@@ -55,23 +61,25 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
     // no props for default
   }
 
+  @SuppressWarnings("unchecked")
   <T> T instantiateClass(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
     try {
-      Constructor<T> constructor;
       if (constructorArgTypes == null || constructorArgs == null) {
-        constructor = type.getDeclaredConstructor();
-        if (!constructor.isAccessible()) {
-          constructor.setAccessible(true);
+        // 默认集合类型直接创建，不经过反射
+        if (type == ArrayList.class) {
+          return (T) new ArrayList<Object>();
+        } else if (type == HashMap.class) {
+          return (T) new HashMap<Object, Object>();
+        } else if (type == HashSet.class) {
+          return (T) new HashSet<Object>();
+        } else if (type == TreeSet.class) {
+          return (T) new TreeSet<Object>();
         }
         //创建无参构造创建对象
-        return constructor.newInstance();
+        return getConstructor(type, Collections.<Class<?>>emptyList()).newInstance();
       }
       //根据指定的参数列表查找构造函数，进行创建
-      constructor = type.getDeclaredConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
-      if (!constructor.isAccessible()) {
-        constructor.setAccessible(true);
-      }
-      return constructor.newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
+      return getConstructor(type, constructorArgTypes).newInstance(constructorArgs.toArray(new Object[constructorArgs.size()]));
     } catch (Exception e) {
       StringBuilder argTypes = new StringBuilder();
       if (constructorArgTypes != null && !constructorArgTypes.isEmpty()) {
@@ -93,6 +101,33 @@ public class DefaultObjectFactory implements ObjectFactory, Serializable {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private <T> Constructor<T> getConstructor(Class<T> type, List<Class<?>> constructorArgTypes) throws NoSuchMethodException {
+    ConcurrentMap<Class<?>, ConcurrentMap<List<Class<?>>, Constructor<?>>> cache = constructors;
+    if (cache == null) {
+      cache = new ConcurrentHashMap<Class<?>, ConcurrentMap<List<Class<?>>, Constructor<?>>>();
+      constructors = cache;
+    }
+    ConcurrentMap<List<Class<?>>, Constructor<?>> byArgTypes = cache.get(type);
+    if (byArgTypes == null) {
+      byArgTypes = new ConcurrentHashMap<List<Class<?>>, Constructor<?>>();
+      ConcurrentMap<List<Class<?>>, Constructor<?>> existing = cache.putIfAbsent(type, byArgTypes);
+      if (existing != null) {
+        byArgTypes = existing;
+      }
+    }
+    // List 的 equals 按元素比较，调用方传入的列表可以直接作为查找键
+    Constructor<T> constructor = (Constructor<T>) byArgTypes.get(constructorArgTypes);
+    if (constructor == null) {
+      constructor = type.getDeclaredConstructor(constructorArgTypes.toArray(new Class[constructorArgTypes.size()]));
+      if (!constructor.isAccessible()) {
+        constructor.setAccessible(true);
+      }
+      byArgTypes.put(Collections.unmodifiableList(new ArrayList<Class<?>>(constructorArgTypes)), constructor);
+    }
+    return constructor;
+  }
+
   protected Class<?> resolveInterface(Class<?> type) {
     Class<?> classToCreate;
     if (type == List.class || type == Collection.class || type == Iterable.class) {
@@ -0,0 +1,46 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a getter or a setter through a generated {@link PropertyAccessor} instead of {@link Method#invoke}.
+ */
+public class CompiledMethodInvoker extends MethodInvoker {
+
+  private final PropertyAccessor accessor;
+  private final int index;
+
+  public CompiledMethodInvoker(Method method, PropertyAccessor accessor, int index) {
+    super(method);
+    this.accessor = accessor;
+    this.index = index;
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    if (args == null || args.length == 0) {
+      return accessor.get(target, index);
+    }
+    if (accessor.set(target, index, args[0])) {
+      return null;
+    }
+    // 需要类型转换的值（如 Integer 传给 long 参数）仍交给反射处理
+    return super.invoke(target, args);
+  }
+}
@@ -0,0 +1,189 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.ClassDefiner;
+
+/**
+ * Replaces the {@link MethodInvoker}s of the public getters and setters of a class with {@link CompiledMethodInvoker}s
+ * sharing a {@link PropertyAccessor} generated with Javassist.
+ * <p>
+ * Fields, non public methods and classes loaded by the bootstrap class loader keep their reflective invokers.
+ */
+public final class InvokerCompiler {
+
+  private static final Log log = LogFactory.getLog(InvokerCompiler.class);
+
+  private static final AtomicInteger classCounter = new AtomicInteger();
+  // 只在第一次无法定义类时警告
+  private static final AtomicBoolean definitionWarned = new AtomicBoolean();
+
+  private InvokerCompiler() {
+    // Prevent Instantiation of Static Class
+  }
+
+  public static void compileInvokers(Class<?> type, Map<String, Invoker> getInvokers, Map<String, Invoker> setInvokers) {
+    if (!isAccessible(type) || type.getClassLoader() == null) {
+      return;
+    }
+    List<String> getterNames = compilableProperties(getInvokers, 0);
+    List<String> setterNames = compilableProperties(setInvokers, 1);
+    if (getterNames.isEmpty() && setterNames.isEmpty()) {
+      return;
+    }
+    StringBuilder get = new StringBuilder();
+    get.append("public Object get(Object target, int index) throws java.lang.reflect.InvocationTargetException {\n");
+    get.append("  try {\n    switch (index) {\n");
+    for (int i = 0; i < getterNames.size(); i++) {
+      Method getter = ((MethodInvoker) getInvokers.get(getterNames.get(i))).getMethod();
+      String call = "((" + typeName(getter.getDeclaringClass()) + ") target)." + getter.getName() + "()";
+      get.append("      case ").append(i).append(": return ").append(box(getter.getReturnType(), call)).append(";\n");
+    }
+    get.append("    }\n    return null;\n");
+    get.append("  } catch (Throwable t) {\n    throw new java.lang.reflect.InvocationTargetException(t);\n  }\n}");
+
+    StringBuilder set = new StringBuilder();
+    set.append("public boolean set(Object target, int index, Object value) throws java.lang.reflect.InvocationTargetException {\n");
+    set.append("  try {\n    switch (index) {\n");
+    for (int i = 0; i < setterNames.size(); i++) {
+      Method setter = ((MethodInvoker) setInvokers.get(setterNames.get(i))).getMethod();
+      Class<?> parameterType = setter.getParameterTypes()[0];
+      String call = "((" + typeName(setter.getDeclaringClass()) + ") target)." + setter.getName();
+      set.append("      case ").append(i).append(":\n");
+      if (parameterType.isPrimitive()) {
+        // 只处理包装类型完全一致的值，null 和需要拓宽转换的值交给反射处理
+        String wrapper = typeName(wrap(parameterType));
+        set.append("        if (value instanceof ").append(wrapper).append(") { ").append(call)
+            .append("(((").append(wrapper).append(") value).").append(parameterType.getName()).append("Value()); return true; }\n");
+      } else {
+        String name = typeName(parameterType);
+        set.append("        if (value == null || value instanceof ").append(name).append(") { ").append(call)
+            .append("((").append(name).append(") value); return true; }\n");
+      }
+      set.append("        return false;\n");
+    }
+    set.append("    }\n    return false;\n");
+    set.append("  } catch (Throwable t) {\n    throw new java.lang.reflect.InvocationTargetException(t);\n  }\n}");
+
+    PropertyAccessor accessor;
+    try {
+      ClassPool pool = new ClassPool(true);
+      pool.appendClassPath(new ClassClassPath(PropertyAccessor.class));
+      pool.appendClassPath(new LoaderClassPath(type.getClassLoader()));
+      // 与目标类放在同一个包和类加载器中
+      CtClass ctClass = pool.makeClass(type.getName() + "$$Accessor$$" + classCounter.incrementAndGet());
+      ctClass.addInterface(pool.get(PropertyAccessor.class.getName()));
+      ctClass.addMethod(CtNewMethod.make(get.toString(), ctClass));
+      ctClass.addMethod(CtNewMethod.make(set.toString(), ctClass));
+      Class<?> accessorClass = ClassDefiner.defineClass(ctClass, type);
+      ctClass.detach();
+      accessor = (PropertyAccessor) accessorClass.newInstance();
+    } catch (Throwable t) {
+      // 无法生成类时保留反射方式的 Invoker
+      if (definitionWarned.compareAndSet(false, true)) {
+        log.warn("Could not compile the invokers of " + type.getName() + ", properties are accessed by reflection. Cause: " + t);
+      } else if (log.isDebugEnabled()) {
+        log.debug("Could not compile the invokers of " + type.getName() + ", properties are accessed by reflection. Cause: " + t);
+      }
+      return;
+    }
+    for (int i = 0; i < getterNames.size(); i++) {
+      String name = getterNames.get(i);
+      getInvokers.put(name, new CompiledMethodInvoker(((MethodInvoker) getInvokers.get(name)).getMethod(), accessor, i));
+    }
+    for (int i = 0; i < setterNames.size(); i++) {
+      String name = setterNames.get(i);
+      setInvokers.put(name, new CompiledMethodInvoker(((MethodInvoker) setInvokers.get(name)).getMethod(), accessor, i));
+    }
+  }
+
+  private static List<String> compilableProperties(Map<String, Invoker> invokers, int parameterCount) {
+    List<String> names = new ArrayList<String>();
+    for (Map.Entry<String, Invoker> entry : invokers.entrySet()) {
+      if (entry.getValue().getClass() != MethodInvoker.class) {
+        continue;
+      }
+      Method method = ((MethodInvoker) entry.getValue()).getMethod();
+      Class<?>[] parameterTypes = method.getParameterTypes();
+      if (Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers())
+          && isAccessible(method.getDeclaringClass()) && isAccessible(method.getReturnType())
+          && parameterTypes.length == parameterCount
+          && (parameterCount == 0 || isAccessible(parameterTypes[0]))) {
+        names.add(entry.getKey());
+      }
+    }
+    return names;
+  }
+
+  private static boolean isAccessible(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    if (type.isPrimitive()) {
+      return true;
+    }
+    for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+      if (!Modifier.isPublic(c.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String typeName(Class<?> type) {
+    return type.isArray() ? typeName(type.getComponentType()) + "[]" : type.getName();
+  }
+
+  private static String box(Class<?> type, String expression) {
+    return type.isPrimitive() ? typeName(wrap(type)) + ".valueOf(" + expression + ")" : expression;
+  }
+
+  private static Class<?> wrap(Class<?> type) {
+    if (type == int.class) {
+      return Integer.class;
+    } else if (type == long.class) {
+      return Long.class;
+    } else if (type == boolean.class) {
+      return Boolean.class;
+    } else if (type == double.class) {
+      return Double.class;
+    } else if (type == float.class) {
+      return Float.class;
+    } else if (type == short.class) {
+      return Short.class;
+    } else if (type == byte.class) {
+      return Byte.class;
+    } else {
+      return Character.class;
+    }
+  }
+}
@@ -42,6 +42,10 @@ public class MethodInvoker implements Invoker {
     return method.invoke(target, args);
   }
 
+  public Method getMethod() {
+    return method;
+  }
+
   @Override
   public Class<?> getType() {
     return type;
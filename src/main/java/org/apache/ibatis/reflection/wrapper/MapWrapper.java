@@ -101,8 +101,10 @@ public class MapWrapper extends BaseWrapper {
         return metaValue.getGetterType(prop.getChildren());
       }
     } else {
-      if (map.get(name) != null) {
-        return map.get(name).getClass();
+      // 带下标的属性（如 list[0]）取集合中对应元素的类型
+      Object value = prop.getIndex() != null && map.containsKey(prop.getName()) ? get(prop) : map.get(name);
+      if (value != null) {
+        return value.getClass();
       } else {
         return Object.class;
       }
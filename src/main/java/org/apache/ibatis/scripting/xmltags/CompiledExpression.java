@@ -0,0 +1,509 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import ognl.MapPropertyAccessor;
+import ognl.ObjectPropertyAccessor;
+import ognl.OgnlOps;
+import ognl.OgnlRuntime;
+import ognl.PropertyAccessor;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodInvoker;
+
+/**
+ * A precompiled form of the OGNL expressions commonly used by dynamic SQL tests: property paths, null and
+ * literal comparisons, boolean logic and the <code>size()</code>, <code>length()</code> and <code>isEmpty()</code>
+ * methods. Operators and truth values go through {@link OgnlOps} so the results are the same as OGNL's.
+ * <p>
+ * Expressions outside this subset are not compiled. Values the compiled form cannot read exactly like OGNL
+ * (collections, custom property accessors, null targets...) make {@link #getValue(Map)} throw, and the caller
+ * evaluates the expression with OGNL instead.
+ */
+public abstract class CompiledExpression {
+
+  private static final Set<String> RESERVED = new HashSet<String>(Arrays.asList(
+      "in", "not", "instanceof", "new", "shl", "shr", "ushr", "band", "bor", "xor"));
+
+  private static final ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+  // 类 -> OGNL 读取其属性的方式
+  private static final ConcurrentMap<Class<?>, AccessKind> accessKinds = new ConcurrentHashMap<Class<?>, AccessKind>();
+
+  private static final UnsupportedValueException UNSUPPORTED = new UnsupportedValueException();
+
+  /**
+   * @param bindings the bindings of a {@link DynamicContext}
+   * @throws RuntimeException if the value must be evaluated by OGNL
+   */
+  public abstract Object getValue(Map<String, Object> bindings);
+
+  /**
+   * @return the compiled expression, or <code>null</code> if it is not in the supported subset
+   */
+  public static CompiledExpression compile(String expression) {
+    return new Parser(expression).parse();
+  }
+
+  private static Object getProperty(Object target, String name) {
+    if (target == null) {
+      throw UNSUPPORTED;
+    }
+    AccessKind kind = accessKinds.get(target.getClass());
+    if (kind == null) {
+      kind = resolveAccessKind(target.getClass());
+      accessKinds.put(target.getClass(), kind);
+    }
+    if (kind == AccessKind.MAP) {
+      if ("size".equals(name) || "keys".equals(name) || "keySet".equals(name) || "values".equals(name) || "isEmpty".equals(name)) {
+        throw UNSUPPORTED;
+      }
+      return ((Map<?, ?>) target).get(name);
+    }
+    if (kind == AccessKind.BEAN) {
+      Reflector reflector = reflectorFactory.findForClass(target.getClass());
+      if (reflector.hasGetter(name)) {
+        Invoker invoker = reflector.getGetInvoker(name);
+        if (invoker instanceof MethodInvoker && isPublic(((MethodInvoker) invoker).getMethod())) {
+          try {
+            return invoker.invoke(target, null);
+          } catch (Exception e) {
+            throw UNSUPPORTED;
+          }
+        }
+      }
+    }
+    throw UNSUPPORTED;
+  }
+
+  // 只处理 OGNL 使用默认 Map/Object 属性访问器的类型
+  private static AccessKind resolveAccessKind(Class<?> type) {
+    if (DynamicContext.ContextMap.class.isAssignableFrom(type)) {
+      return AccessKind.OTHER;
+    }
+    try {
+      PropertyAccessor accessor = OgnlRuntime.getPropertyAccessor(type);
+      if (accessor != null && accessor.getClass() == MapPropertyAccessor.class) {
+        return AccessKind.MAP;
+      }
+      if (accessor != null && accessor.getClass() == ObjectPropertyAccessor.class) {
+        return AccessKind.BEAN;
+      }
+    } catch (Exception e) {
+      // ignore
+    }
+    return AccessKind.OTHER;
+  }
+
+  private static boolean isPublic(Method method) {
+    return Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers());
+  }
+
+  private enum AccessKind {
+    MAP, BEAN, OTHER
+  }
+
+  private static final class UnsupportedValueException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
+  private static final class Literal extends CompiledExpression {
+    private final Object value;
+
+    Literal(Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      return value;
+    }
+  }
+
+  // 与 DynamicContext.ContextAccessor 相同的查找方式
+  private static final class Binding extends CompiledExpression {
+    private final String name;
+
+    Binding(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      Object result = bindings.get(name);
+      if (bindings.containsKey(name) || result != null) {
+        return result;
+      }
+      Object parameterObject = bindings.get(DynamicContext.PARAMETER_OBJECT_KEY);
+      if (parameterObject instanceof Map) {
+        return ((Map<?, ?>) parameterObject).get(name);
+      }
+      return null;
+    }
+  }
+
+  private static final class Property extends CompiledExpression {
+    private final CompiledExpression target;
+    private final String name;
+
+    Property(CompiledExpression target, String name) {
+      this.target = target;
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      return getProperty(target.getValue(bindings), name);
+    }
+  }
+
+  private static final class MethodCall extends CompiledExpression {
+    private final CompiledExpression target;
+    private final String name;
+
+    MethodCall(CompiledExpression target, String name) {
+      this.target = target;
+      this.name = name;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      Object value = target.getValue(bindings);
+      if ("length".equals(name)) {
+        // length() 只对字符串有效，其他类型交给 OGNL 报错
+        if (value instanceof String) {
+          return ((String) value).length();
+        }
+      } else if ("size".equals(name)) {
+        if (value instanceof Collection) {
+          return ((Collection<?>) value).size();
+        } else if (value instanceof Map) {
+          return ((Map<?, ?>) value).size();
+        }
+      } else if (value instanceof Collection) {
+        return ((Collection<?>) value).isEmpty();
+      } else if (value instanceof Map) {
+        return ((Map<?, ?>) value).isEmpty();
+      } else if (value instanceof String) {
+        return ((String) value).isEmpty();
+      }
+      throw UNSUPPORTED;
+    }
+  }
+
+  private static final class Not extends CompiledExpression {
+    private final CompiledExpression operand;
+
+    Not(CompiledExpression operand) {
+      this.operand = operand;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      return OgnlOps.booleanValue(operand.getValue(bindings)) ? Boolean.FALSE : Boolean.TRUE;
+    }
+  }
+
+  // 与 OGNL 一致：返回最后一个求值的操作数，而不是 boolean
+  private static final class Logical extends CompiledExpression {
+    private final boolean and;
+    private final CompiledExpression[] operands;
+
+    Logical(boolean and, List<CompiledExpression> operands) {
+      this.and = and;
+      this.operands = operands.toArray(new CompiledExpression[operands.size()]);
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      Object result = null;
+      for (int i = 0; i < operands.length; i++) {
+        result = operands[i].getValue(bindings);
+        if (i < operands.length - 1 && OgnlOps.booleanValue(result) != and) {
+          break;
+        }
+      }
+      return result;
+    }
+  }
+
+  private static final class Comparison extends CompiledExpression {
+    private final String operator;
+    private final CompiledExpression left;
+    private final CompiledExpression right;
+
+    Comparison(String operator, CompiledExpression left, CompiledExpression right) {
+      this.operator = operator;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public Object getValue(Map<String, Object> bindings) {
+      Object v1 = left.getValue(bindings);
+      Object v2 = right.getValue(bindings);
+      boolean result;
+      if ("==".equals(operator)) {
+        result = OgnlOps.equal(v1, v2);
+      } else if ("!=".equals(operator)) {
+        result = !OgnlOps.equal(v1, v2);
+      } else if ("<".equals(operator)) {
+        result = OgnlOps.less(v1, v2);
+      } else if ("<=".equals(operator)) {
+        result = !OgnlOps.greater(v1, v2);
+      } else if (">".equals(operator)) {
+        result = OgnlOps.greater(v1, v2);
+      } else {
+        result = !OgnlOps.less(v1, v2);
+      }
+      return result ? Boolean.TRUE : Boolean.FALSE;
+    }
+  }
+
+  /**
+   * Recursive descent parser of the supported subset, following OGNL's precedence:
+   * or &lt; and &lt; comparison &lt; not.
+   */
+  private static final class Parser {
+    private final String expression;
+    private final List<String> tokens = new ArrayList<String>();
+    private int position;
+
+    Parser(String expression) {
+      this.expression = expression;
+    }
+
+    CompiledExpression parse() {
+      if (expression == null || !tokenize()) {
+        return null;
+      }
+      CompiledExpression result = parseOr();
+      return result != null && position == tokens.size() ? result : null;
+    }
+
+    private CompiledExpression parseOr() {
+      return parseLogical(false);
+    }
+
+    private CompiledExpression parseLogical(boolean and) {
+      List<CompiledExpression> operands = new ArrayList<CompiledExpression>();
+      CompiledExpression operand = and ? parseComparison() : parseLogical(true);
+      if (operand == null) {
+        return null;
+      }
+      operands.add(operand);
+      while (and ? accept("and", "&&") : accept("or", "||")) {
+        operand = and ? parseComparison() : parseLogical(true);
+        if (operand == null) {
+          return null;
+        }
+        operands.add(operand);
+      }
+      return operands.size() == 1 ? operands.get(0) : new Logical(and, operands);
+    }
+
+    private CompiledExpression parseComparison() {
+      CompiledExpression left = parseUnary();
+      if (left == null) {
+        return null;
+      }
+      String operator = comparisonOperator(peek());
+      if (operator == null) {
+        return left;
+      }
+      position++;
+      CompiledExpression right = parseUnary();
+      // 连续比较不在支持范围内
+      if (right == null || comparisonOperator(peek()) != null) {
+        return null;
+      }
+      return new Comparison(operator, left, right);
+    }
+
+    private CompiledExpression parseUnary() {
+      if (accept("!", "not")) {
+        CompiledExpression operand = parseUnary();
+        return operand == null ? null : new Not(operand);
+      }
+      return parsePrimary();
+    }
+
+    private CompiledExpression parsePrimary() {
+      String token = next();
+      if (token == null) {
+        return null;
+      }
+      if ("(".equals(token)) {
+        CompiledExpression inner = parseOr();
+        return inner != null && accept(")") ? inner : null;
+      }
+      char first = token.charAt(0);
+      if (first == '\'' || first == '"') {
+        String value = token.substring(1, token.length() - 1);
+        // OGNL 将单引号中的单个字符解析为 Character
+        return first == '\'' && value.length() == 1 ? null : new Literal(value);
+      }
+      if (Character.isDigit(first)) {
+        // 以 0 开头的数字在 OGNL 中是八进制
+        return token.length() <= 9 && (first != '0' || token.length() == 1) ? new Literal(Integer.valueOf(token)) : null;
+      }
+      if (!isIdentifier(token)) {
+        return null;
+      }
+      if ("null".equals(token)) {
+        return new Literal(null);
+      } else if ("true".equals(token)) {
+        return new Literal(Boolean.TRUE);
+      } else if ("false".equals(token)) {
+        return new Literal(Boolean.FALSE);
+      }
+      CompiledExpression result = new Binding(token);
+      while (accept(".")) {
+        String name = next();
+        if (name == null || !isIdentifier(name) || "class".equals(name)) {
+          return null;
+        }
+        if (accept("(")) {
+          if (!accept(")") || !("size".equals(name) || "length".equals(name) || "isEmpty".equals(name))) {
+            return null;
+          }
+          result = new MethodCall(result, name);
+        } else {
+          result = new Property(result, name);
+        }
+      }
+      return result;
+    }
+
+    private boolean isIdentifier(String token) {
+      if (!Character.isJavaIdentifierStart(token.charAt(0)) || RESERVED.contains(token) || comparisonOperator(token) != null
+          || "and".equals(token) || "or".equals(token)) {
+        return false;
+      }
+      for (int i = 1; i < token.length(); i++) {
+        if (!Character.isJavaIdentifierPart(token.charAt(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private String comparisonOperator(String token) {
+      if (token == null) {
+        return null;
+      }
+      if ("==".equals(token) || "eq".equals(token)) {
+        return "==";
+      } else if ("!=".equals(token) || "neq".equals(token)) {
+        return "!=";
+      } else if ("<".equals(token) || "lt".equals(token)) {
+        return "<";
+      } else if ("<=".equals(token) || "lte".equals(token)) {
+        return "<=";
+      } else if (">".equals(token) || "gt".equals(token)) {
+        return ">";
+      } else if (">=".equals(token) || "gte".equals(token)) {
+        return ">=";
+      }
+      return null;
+    }
+
+    private String peek() {
+      return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private String next() {
+      return position < tokens.size() ? tokens.get(position++) : null;
+    }
+
+    private boolean accept(String... candidates) {
+      String token = peek();
+      for (String candidate : candidates) {
+        if (candidate.equals(token)) {
+          position++;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean tokenize() {
+      int length = expression.length();
+      int i = 0;
+      while (i < length) {
+        char c = expression.charAt(i);
+        if (Character.isWhitespace(c)) {
+          i++;
+        } else if (Character.isJavaIdentifierStart(c)) {
+          int start = i;
+          while (i < length && Character.isJavaIdentifierPart(expression.charAt(i))) {
+            i++;
+          }
+          tokens.add(expression.substring(start, i));
+        } else if (Character.isDigit(c)) {
+          int start = i;
+          while (i < length && Character.isDigit(expression.charAt(i))) {
+            i++;
+          }
+          // 小数、十六进制、类型后缀等不在支持范围内
+          if (i < length && (Character.isLetterOrDigit(expression.charAt(i)) || expression.charAt(i) == '.')) {
+            return false;
+          }
+          tokens.add(expression.substring(start, i));
+        } else if (c == '\'' || c == '"') {
+          int end = expression.indexOf(c, i + 1);
+          if (end < 0 || expression.substring(i + 1, end).indexOf('\\') >= 0) {
+            return false;
+          }
+          tokens.add(expression.substring(i, end + 1));
+          i = end + 1;
+        } else {
+          String two = i + 1 < length ? expression.substring(i, i + 2) : null;
+          if ("==".equals(two) || "!=".equals(two) || "<=".equals(two) || ">=".equals(two) || "&&".equals(two) || "||".equals(two)) {
+            tokens.add(two);
+            i += 2;
+          } else if (c == '<' || c == '>' || c == '!' || c == '(' || c == ')' || c == '.') {
+            tokens.add(String.valueOf(c));
+            i++;
+          } else {
+            return false;
+          }
+        }
+      }
+      return !tokens.isEmpty();
+    }
+  }
+
+}
@@ -40,10 +40,18 @@ public class DynamicContext {
 
   private final ContextMap bindings;
   // 在SqlNode解析动态SQL时，会将解析后的SQL语句片段添加到该属性中保存
-  private final StringBuilder sqlBuilder = new StringBuilder();
+  private final StringBuilder sqlBuilder;
   private int uniqueNumber = 0;
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
+    this(configuration, parameterObject, 0);
+  }
+
+  /**
+   * @param sqlLength expected length of the generated SQL, used to size the buffer up front
+   */
+  public DynamicContext(Configuration configuration, Object parameterObject, int sqlLength) {
+    sqlBuilder = sqlLength > 0 ? new StringBuilder(sqlLength) : new StringBuilder();
     // 对于非Map对象，会创建对应的MataObject对象
     if (parameterObject != null && !(parameterObject instanceof Map)) {
       MetaObject metaObject = configuration.newMetaObject(parameterObject);
@@ -15,11 +15,20 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -29,6 +38,10 @@ public class DynamicSqlSource implements SqlSource {
 
   private Configuration configuration;
   private SqlNode rootSqlNode;
+  // 已解析的 SQL 形态：SqlNode.apply 生成的 SQL 文本 + 参数类型 -> 解析后的 StaticSqlSource
+  private volatile ConcurrentMap<ShapeKey, Shape> shapes;
+  // 历史上生成的最长 SQL 长度，用于预分配 DynamicContext 的缓冲区
+  private volatile int sqlLengthHint;
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
@@ -37,16 +50,143 @@ public class DynamicSqlSource implements SqlSource {
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    DynamicContext context = new DynamicContext(configuration, parameterObject);
+    DynamicContext context = new DynamicContext(configuration, parameterObject, sqlLengthHint);
     rootSqlNode.apply(context);
-    SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration); // 将 SQL 语句中的 #{} 占位符替换成 ? 占位符
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-    SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
-    BoundSql boundSql = sqlSource.getBoundSql(parameterObject); // 创建BoundSql对象，并将 DynamicContext.bindings 中的参数信息复制到 additionalParameters 集合中保存
-    for (Map.Entry<String, Object> entry : context.getBindings().entrySet()) {
-      boundSql.setAdditionalParameter(entry.getKey(), entry.getValue());
+    Map<String, Object> bindings = context.getBindings();
+    String sql = context.getSql();
+    if (sql.length() > sqlLengthHint) {
+      // 末尾多留一个字符给 appendSql 追加的空格
+      sqlLengthHint = sql.length() + 1;
+    }
+    ShapeKey key = new ShapeKey(sql, parameterType);
+    Shape shape = getShape(key);
+    BoundSql boundSql;
+    if (shape != null && shape.matches(bindings)) {
+      // 相同形态直接复用解析结果，只需重新绑定参数值
+      boundSql = shape.sqlSource.getBoundSql(parameterObject);
+    } else {
+      SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration); // 将 SQL 语句中的 #{} 占位符替换成 ? 占位符
+      SqlSource sqlSource = sqlSourceParser.parse(key.sql, parameterType, bindings);
+      boundSql = sqlSource.getBoundSql(parameterObject);
+      if (configuration.getDynamicSqlShapeCacheSize() > 0) {
+        // 缓存的参数映射由之后的执行共享，不允许修改
+        sqlSource = new StaticSqlSource(configuration, boundSql.getSql(), Collections.unmodifiableList(boundSql.getParameterMappings()));
+        boundSql = sqlSource.getBoundSql(parameterObject);
+        putShape(key, new Shape(sqlSource, boundSql.getParameterMappings(), bindings));
+      }
+    }
+    // 将 DynamicContext.bindings 中的参数信息复制到 additionalParameters 集合中保存
+    Map<String, Object> additionalParameters = boundSql.getAdditionalParameters();
+    for (Map.Entry<String, Object> entry : bindings.entrySet()) {
+      String name = entry.getKey();
+      if (name.indexOf('.') < 0 && name.indexOf('[') < 0) {
+        additionalParameters.put(name, entry.getValue());
+      } else {
+        boundSql.setAdditionalParameter(name, entry.getValue());
+      }
     }
     return boundSql;
   }
 
+  private Shape getShape(ShapeKey key) {
+    ConcurrentMap<ShapeKey, Shape> current = shapes;
+    return current == null ? null : current.get(key);
+  }
+
+  private void putShape(ShapeKey key, Shape shape) {
+    int maxShapes = configuration.getDynamicSqlShapeCacheSize();
+    if (maxShapes <= 0) {
+      return;
+    }
+    ConcurrentMap<ShapeKey, Shape> current = shapes;
+    if (current == null) {
+      // 并发创建时只丢失少量形态
+      current = new ConcurrentHashMap<ShapeKey, Shape>();
+      shapes = current;
+    }
+    // 上限是近似的：超出时移除任意形态，读取不加锁
+    Iterator<ShapeKey> keys = current.keySet().iterator();
+    while (current.size() >= maxShapes && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+    current.put(key, shape);
+  }
+
+  private static final class ShapeKey {
+    private final String sql;
+    private final Class<?> parameterType;
+    private final int hashCode;
+
+    ShapeKey(String sql, Class<?> parameterType) {
+      this.sql = sql;
+      this.parameterType = parameterType;
+      this.hashCode = 31 * sql.hashCode() + parameterType.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ShapeKey)) {
+        return false;
+      }
+      ShapeKey other = (ShapeKey) o;
+      return parameterType == other.parameterType && sql.equals(other.sql);
+    }
+  }
+
+  private final class Shape {
+    private final SqlSource sqlSource;
+    private final String[] properties;
+    // 参数映射的 javaType 取自 bindings 中的值时，记录其类型；值类型变化时需要重新解析
+    private final Class<?>[] bindingTypes;
+
+    Shape(SqlSource sqlSource, List<ParameterMapping> parameterMappings, Map<String, Object> bindings) {
+      this.sqlSource = sqlSource;
+      this.properties = new String[parameterMappings.size()];
+      for (int i = 0; i < properties.length; i++) {
+        properties[i] = parameterMappings.get(i).getProperty();
+      }
+      this.bindingTypes = resolveBindingTypes(bindings);
+    }
+
+    boolean matches(Map<String, Object> bindings) {
+      return Arrays.equals(bindingTypes, resolveBindingTypes(bindings));
+    }
+
+    // 与 SqlSourceBuilder 一致：bindings 中存在该属性时，以其值的类型作为参数类型
+    private Class<?>[] resolveBindingTypes(Map<String, Object> bindings) {
+      Class<?>[] types = new Class<?>[properties.length];
+      MetaObject metaBindings = null;
+      for (int i = 0; i < properties.length; i++) {
+        String property = properties[i];
+        if (property == null) {
+          continue;
+        }
+        if (property.indexOf('.') < 0 && property.indexOf('[') < 0) {
+          if (bindings.containsKey(property)) {
+            Object value = bindings.get(property);
+            types[i] = value == null ? Object.class : value.getClass();
+          }
+        } else {
+          if (metaBindings == null) {
+            metaBindings = configuration.newMetaObject(bindings);
+          }
+          if (metaBindings.hasGetter(property)) {
+            types[i] = metaBindings.getGetterType(property);
+          }
+        }
+      }
+      return types;
+    }
+  }
+
 }
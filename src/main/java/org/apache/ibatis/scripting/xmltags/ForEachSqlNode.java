@@ -15,8 +15,15 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.apache.ibatis.dialect.AbstractDialect;
+import org.apache.ibatis.dialect.Dialect;
 import org.apache.ibatis.parsing.GenericTokenParser;
 import org.apache.ibatis.parsing.TokenHandler;
 import org.apache.ibatis.session.Configuration;
@@ -38,9 +45,17 @@ public class ForEachSqlNode implements SqlNode {
   private String separator;
   private String item;
   private String index;
+  // 是否将元素个数补齐到桶大小（8/16/32...，最多为方言的 IN 列表上限），重复最后一个元素
+  private boolean padToBucket;
   private Configuration configuration;
+  // 循环体只是引用 item 的静态文本时，按位置绑定所用的模板
+  private PositionalTemplate positionalTemplate;
 
   public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator) {
+    this(configuration, contents, collectionExpression, index, item, open, close, separator, false);
+  }
+
+  public ForEachSqlNode(Configuration configuration, SqlNode contents, String collectionExpression, String index, String item, String open, String close, String separator, boolean padToBucket) {
     this.evaluator = new ExpressionEvaluator();
     this.collectionExpression = collectionExpression;
     this.contents = contents;
@@ -49,16 +64,26 @@ public class ForEachSqlNode implements SqlNode {
     this.separator = separator;
     this.index = index;
     this.item = item;
+    this.padToBucket = padToBucket;
     this.configuration = configuration;
+    this.positionalTemplate = PositionalTemplate.create(contents, item, index);
   }
 
   @Override
   public boolean apply(DynamicContext context) {
     Map<String, Object> bindings = context.getBindings();
-    final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
+    Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
     if (!iterable.iterator().hasNext()) {
       return true;
     }
+    if (padToBucket) {
+      Dialect dialect = configuration.getDialect();
+      iterable = pad(iterable, dialect == null ? AbstractDialect.DEFAULT_MAX_IN_LIST_SIZE : dialect.getMaxInListSize());
+    }
+    if (positionalTemplate != null && configuration.isPositionalForeachBinding()) {
+      applyPositional(context, iterable);
+      return true;
+    }
     boolean first = true;
     applyOpen(context); // open
     int i = 0;
@@ -93,6 +118,80 @@ public class ForEachSqlNode implements SqlNode {
     return true;
   }
 
+  /**
+   * Binds all the items as one list and references them by position, e.g. <code>#{__frch_item_0[2]}</code>,
+   * instead of binding two names per item and rewriting the contents through nested contexts.
+   */
+  private void applyPositional(DynamicContext context, Iterable<?> iterable) {
+    List<Object> items = iterable instanceof Collection ? new ArrayList<Object>(((Collection<?>) iterable).size()) : new ArrayList<Object>();
+    Object lastIndex = null;
+    int i = 0;
+    for (Object o : iterable) {
+      if (o instanceof Map.Entry) {
+        Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) o;
+        lastIndex = mapEntry.getKey();
+        items.add(mapEntry.getValue());
+      } else {
+        lastIndex = i;
+        items.add(o);
+      }
+      i++;
+    }
+    String name = itemizeItem(item, context.getUniqueNumber());
+    context.bind(name, items);
+    StringBuilder sql = new StringBuilder();
+    if (open != null) {
+      sql.append(open).append(' ');
+    }
+    for (int position = 0; position < items.size(); position++) {
+      if (position > 0 && separator != null) {
+        sql.append(separator).append(' ');
+      }
+      positionalTemplate.appendTo(sql, name, position);
+      sql.append(' ');
+    }
+    if (close != null) {
+      sql.append(close);
+    }
+    context.appendSql(sql.toString());
+    // 与逐个绑定时一致，循环结束后 item/index 为最后一个元素
+    applyIndex(context, lastIndex);
+    applyItem(context, items.get(items.size() - 1));
+  }
+
+  // 补齐到不小于元素个数的桶大小：8、16、32...，不超过方言允许的 IN 列表长度；超过该长度的集合不补齐
+  private static Iterable<?> pad(Iterable<?> iterable, int maxSize) {
+    List<Object> items = new ArrayList<Object>();
+    for (Object o : iterable) {
+      items.add(o);
+    }
+    if (items.size() >= maxSize) {
+      return items;
+    }
+    int bucket = 8;
+    while (bucket < items.size()) {
+      bucket <<= 1;
+    }
+    bucket = Math.min(bucket, maxSize);
+    Object last = items.get(items.size() - 1);
+    while (items.size() < bucket) {
+      items.add(last);
+    }
+    return items;
+  }
+
+  private void applyIndex(DynamicContext context, Object o) {
+    if (index != null) {
+      context.bind(index, o);
+    }
+  }
+
+  private void applyItem(DynamicContext context, Object o) {
+    if (item != null) {
+      context.bind(item, o);
+    }
+  }
+
   private void applyIndex(DynamicContext context, Object o, int i) {
     if (index != null) {
       context.bind(index, o);
@@ -124,6 +223,86 @@ public class ForEachSqlNode implements SqlNode {
     return new StringBuilder(ITEM_PREFIX).append(item).append("_").append(i).toString();
   }
 
+  /**
+   * Static contents split around their <code>#{}</code> placeholders, with the placeholders referencing the item
+   * rewritten to a position in the bound list.
+   */
+  private static final class PositionalTemplate {
+    private static final char MARKER = '\u0000';
+
+    private final String[] texts;
+    // 引用 item 的占位符为 item 之后的部分（如 ".id,jdbcType=INTEGER"），其他占位符为 null
+    private final String[] itemSuffixes;
+    private final String[] tokens;
+
+    private PositionalTemplate(String[] texts, String[] itemSuffixes, String[] tokens) {
+      this.texts = texts;
+      this.itemSuffixes = itemSuffixes;
+      this.tokens = tokens;
+    }
+
+    static PositionalTemplate create(SqlNode contents, String item, String index) {
+      if (contents instanceof MixedSqlNode && ((MixedSqlNode) contents).getContents().size() == 1) {
+        contents = ((MixedSqlNode) contents).getContents().get(0);
+      }
+      if (item == null || !(contents instanceof StaticTextSqlNode)) {
+        return null;
+      }
+      String text = ((StaticTextSqlNode) contents).getText();
+      if (text.indexOf(MARKER) >= 0) {
+        return null;
+      }
+      final Pattern itemPattern = Pattern.compile("^\\s*" + item + "(?![^.,:\\s])");
+      final Pattern indexPattern = index == null ? null : Pattern.compile("^\\s*" + index + "(?![^.,:\\s])");
+      final List<String> itemSuffixes = new ArrayList<String>();
+      final List<String> tokens = new ArrayList<String>();
+      // supported[0]：未引用 index；supported[1]：至少有一个占位符引用 item
+      final boolean[] supported = { true, false };
+      String marked = new GenericTokenParser("#{", "}", new TokenHandler() {
+        @Override
+        public String handleToken(String content) {
+          Matcher matcher = itemPattern.matcher(content);
+          if (matcher.find()) {
+            itemSuffixes.add(content.substring(matcher.end()));
+            supported[1] = true;
+          } else if (indexPattern != null && indexPattern.matcher(content).find()) {
+            supported[0] = false;
+            itemSuffixes.add(null);
+          } else {
+            itemSuffixes.add(null);
+          }
+          tokens.add(content);
+          return String.valueOf(MARKER);
+        }
+      }).parse(text);
+      if (!supported[0] || !supported[1]) {
+        return null;
+      }
+      List<String> texts = new ArrayList<String>();
+      int start = 0;
+      for (int i = marked.indexOf(MARKER); i >= 0; i = marked.indexOf(MARKER, start)) {
+        texts.add(marked.substring(start, i));
+        start = i + 1;
+      }
+      texts.add(marked.substring(start));
+      return new PositionalTemplate(texts.toArray(new String[texts.size()]),
+          itemSuffixes.toArray(new String[itemSuffixes.size()]), tokens.toArray(new String[tokens.size()]));
+    }
+
+    void appendTo(StringBuilder sql, String name, int position) {
+      for (int i = 0; i < tokens.length; i++) {
+        sql.append(texts[i]).append("#{");
+        if (itemSuffixes[i] != null) {
+          sql.append(name).append('[').append(position).append(']').append(itemSuffixes[i]);
+        } else {
+          sql.append(tokens[i]);
+        }
+        sql.append('}');
+      }
+      sql.append(texts[tokens.length]);
+    }
+  }
+
   private static class FilteredDynamicContext extends DynamicContext {
     private DynamicContext delegate;
     private int index;
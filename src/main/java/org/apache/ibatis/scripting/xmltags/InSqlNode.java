@@ -0,0 +1,108 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.dialect.AbstractDialect;
+import org.apache.ibatis.dialect.Dialect;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.ArrayParameter;
+import org.apache.ibatis.type.ArrayTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Tests a column against the items of a collection. When the configured {@link Dialect} supports array
+ * parameters the whole collection is bound as one {@link java.sql.Array}, so the statement is the same
+ * whatever the number of items. Otherwise the items are bound by position in IN lists no longer than
+ * {@link Dialect#getMaxInListSize()}, joined with OR.
+ */
+public class InSqlNode implements SqlNode {
+  public static final String ITEM_PREFIX = "__in_";
+
+  private ExpressionEvaluator evaluator;
+  private Configuration configuration;
+  private String column;
+  private String collectionExpression;
+  private String jdbcType;
+
+  public InSqlNode(Configuration configuration, String column, String collectionExpression, String jdbcType) {
+    this.evaluator = new ExpressionEvaluator();
+    this.configuration = configuration;
+    this.column = column;
+    this.collectionExpression = collectionExpression;
+    this.jdbcType = jdbcType;
+  }
+
+  @Override
+  public boolean apply(DynamicContext context) {
+    Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, context.getBindings());
+    List<Object> items = new ArrayList<Object>();
+    for (Object o : iterable) {
+      items.add(o instanceof Map.Entry ? ((Map.Entry<?, ?>) o).getValue() : o);
+    }
+    if (items.isEmpty()) {
+      // 空集合时 IN () 不是合法的 SQL，生成恒假条件
+      context.appendSql("1 = 0");
+      return true;
+    }
+    String name = ITEM_PREFIX + context.getUniqueNumber();
+    Dialect dialect = configuration.getDialect();
+    StringBuilder sql = new StringBuilder();
+    if (dialect != null && dialect.supportsArrayParameters()) {
+      // 元素的 SQL 类型名由方言决定，如 PostgreSQL 的 float8
+      JdbcType elementType = jdbcType != null ? JdbcType.valueOf(jdbcType) : ArrayTypeHandler.resolveElementType(items);
+      context.bind(name, new ArrayParameter(dialect.getArrayElementTypeName(elementType), items.toArray()));
+      String parameter = "#{" + name + ",typeHandler=" + ArrayTypeHandler.class.getName() + "}";
+      sql.append(dialect.getArrayInPredicate(column, parameter));
+    } else {
+      context.bind(name, items);
+      int maxSize = dialect == null ? AbstractDialect.DEFAULT_MAX_IN_LIST_SIZE : dialect.getMaxInListSize();
+      boolean chunked = items.size() > maxSize;
+      if (chunked) {
+        sql.append('(');
+      }
+      for (int i = 0; i < items.size(); i++) {
+        if (i % maxSize == 0) {
+          if (i > 0) {
+            sql.append(") OR ");
+          }
+          sql.append(column).append(" IN (");
+        } else {
+          sql.append(", ");
+        }
+        sql.append("#{").append(name).append('[').append(i).append(']');
+        appendJdbcType(sql);
+        sql.append('}');
+      }
+      sql.append(')');
+      if (chunked) {
+        sql.append(')');
+      }
+    }
+    context.appendSql(sql.toString());
+    return true;
+  }
+
+  private void appendJdbcType(StringBuilder sql) {
+    if (jdbcType != null) {
+      sql.append(",jdbcType=").append(jdbcType);
+    }
+  }
+
+}
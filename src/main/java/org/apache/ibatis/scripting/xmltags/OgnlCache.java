@@ -15,7 +15,9 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import ognl.Ognl;
@@ -34,12 +36,27 @@ public final class OgnlCache {
 
   // 缓存 OGNL 表达式
   private static final Map<String, Object> expressionCache = new ConcurrentHashMap<String, Object>();
+  // 缓存预编译的表达式，不在支持范围内的表达式记录在 notCompilable 中
+  private static final Map<String, CompiledExpression> compiledCache = new ConcurrentHashMap<String, CompiledExpression>();
+  private static final Set<String> notCompilable = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
   private OgnlCache() {
     // Prevent Instantiation of Static Class
   }
 
+  @SuppressWarnings("unchecked")
   public static Object getValue(String expression, Object root) {
+    // 动态 SQL 中的常见表达式直接求值，不创建 OgnlContext
+    if (root instanceof DynamicContext.ContextMap) {
+      CompiledExpression compiled = getCompiledExpression(expression);
+      if (compiled != null) {
+        try {
+          return compiled.getValue((Map<String, Object>) root);
+        } catch (RuntimeException e) {
+          // 交给 OGNL 求值
+        }
+      }
+    }
     try {
       // 创建 OgnlContext对象
       Map<Object, OgnlClassResolver> context = Ognl.createDefaultContext(root, new OgnlClassResolver());
@@ -50,6 +67,22 @@ public final class OgnlCache {
     }
   }
 
+  /**
+   * @return null when the expression is not supported by {@link CompiledExpression}
+   */
+  private static CompiledExpression getCompiledExpression(String expression) {
+    CompiledExpression compiled = compiledCache.get(expression);
+    if (compiled == null && !notCompilable.contains(expression)) {
+      compiled = CompiledExpression.compile(expression);
+      if (compiled == null) {
+        notCompilable.add(expression);
+      } else {
+        compiledCache.put(expression, compiled);
+      }
+    }
+    return compiled;
+  }
+
   // 从 expressionCache 缓存中查询，没有则进行解析，并将结果保存到 expressionCache 中
   private static Object parseExpression(String expression) throws OgnlException {
     Object node = expressionCache.get(expression);
@@ -58,6 +58,10 @@ public class TrimSqlNode implements SqlNode {
     return result;
   }
 
+  SqlNode getContents() {
+    return contents;
+  }
+
   private static List<String> parseOverrides(String overrides) {
     if (overrides != null) {
       // 分隔符 |
@@ -83,10 +83,78 @@ public class XMLScriptBuilder extends BaseBuilder {
         }
         // 将包装好的 SqlNode对象 添加到 contents 集合中
         handler.handleNode(child, contents);
-        isDynamic = true;
+        int last = contents.size() - 1;
+        if (isStatic(contents.get(last))) {
+          // 内容全是静态文本的 trim/where/set，其输出与参数无关，解析时直接生成
+          contents.set(last, prerender(contents.get(last)));
+        } else {
+          isDynamic = true;
+        }
+      }
+    }
+    return mergeStaticText(contents);
+  }
+
+  // 子树中只有静态文本时，其输出与参数无关
+  private boolean isStatic(SqlNode node) {
+    if (node instanceof StaticTextSqlNode) {
+      return true;
+    }
+    if (node instanceof MixedSqlNode) {
+      for (SqlNode child : ((MixedSqlNode) node).getContents()) {
+        if (!isStatic(child)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (node instanceof TrimSqlNode) {
+      return isStatic(((TrimSqlNode) node).getContents());
+    }
+    return false;
+  }
+
+  private SqlNode prerender(SqlNode node) {
+    final StringBuilder sql = new StringBuilder();
+    node.apply(new DynamicContext(configuration, null) {
+      private boolean appended;
+
+      @Override
+      public void appendSql(String fragment) {
+        // 与多次 appendSql 的效果一致：片段之间以空格分隔
+        if (appended) {
+          sql.append(' ');
+        }
+        sql.append(fragment);
+        appended = true;
+      }
+    });
+    return new StaticTextSqlNode(sql.toString());
+  }
+
+  // 合并相邻的静态文本，减少每次执行时的 appendSql 调用
+  private List<SqlNode> mergeStaticText(List<SqlNode> contents) {
+    List<SqlNode> merged = new ArrayList<SqlNode>(contents.size());
+    StringBuilder text = null;
+    for (SqlNode node : contents) {
+      if (node instanceof StaticTextSqlNode) {
+        if (text == null) {
+          text = new StringBuilder(((StaticTextSqlNode) node).getText());
+        } else {
+          text.append(' ').append(((StaticTextSqlNode) node).getText());
+        }
+      } else {
+        if (text != null) {
+          merged.add(new StaticTextSqlNode(text.toString()));
+          text = null;
+        }
+        merged.add(node);
       }
     }
-    return contents;
+    if (text != null) {
+      merged.add(new StaticTextSqlNode(text.toString()));
+    }
+    return merged;
   }
 
   NodeHandler nodeHandlers(String nodeName) {
@@ -100,6 +168,7 @@ public class XMLScriptBuilder extends BaseBuilder {
     map.put("when", new IfHandler());
     map.put("otherwise", new OtherwiseHandler());
     map.put("bind", new BindHandler());
+    map.put("in", new InHandler());
     return map.get(nodeName);
   }
 
@@ -184,11 +253,27 @@ public class XMLScriptBuilder extends BaseBuilder {
       String open = nodeToHandle.getStringAttribute("open");
       String close = nodeToHandle.getStringAttribute("close");
       String separator = nodeToHandle.getStringAttribute("separator");
-      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator);
+      boolean padToBucket = nodeToHandle.getBooleanAttribute("padToBucket", false);
+      ForEachSqlNode forEachSqlNode = new ForEachSqlNode(configuration, mixedSqlNode, collection, index, item, open, close, separator, padToBucket);
       targetContents.add(forEachSqlNode);
     }
   }
 
+  private class InHandler implements NodeHandler {
+    public InHandler() {
+      // Prevent Synthetic Access
+    }
+
+    @Override
+    public void handleNode(XNode nodeToHandle, List<SqlNode> targetContents) {
+      String column = nodeToHandle.getStringAttribute("column");
+      String collection = nodeToHandle.getStringAttribute("collection");
+      String jdbcType = nodeToHandle.getStringAttribute("jdbcType");
+      InSqlNode inSqlNode = new InSqlNode(configuration, column, collection, jdbcType);
+      targetContents.add(inSqlNode);
+    }
+  }
+
   private class IfHandler implements NodeHandler {
     public IfHandler() {
       // Prevent Synthetic Access
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.session;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -24,9 +25,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.CacheRefResolver;
+import org.apache.ibatis.builder.CountSqlSource;
 import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
@@ -39,18 +43,24 @@ import org.apache.ibatis.cache.impl.PerpetualCache;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
+import org.apache.ibatis.dialect.Dialect;
 import org.apache.ibatis.executor.BatchExecutor;
 import org.apache.ibatis.executor.CachingExecutor;
 import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.QueryCoalescer;
 import org.apache.ibatis.executor.ReuseExecutor;
 import org.apache.ibatis.executor.SimpleExecutor;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.executor.metrics.MetricsRegistry;
 import org.apache.ibatis.executor.loader.ProxyFactory;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.resultset.AutoMappingPlanCache;
+import org.apache.ibatis.executor.resultset.RowMapperCompiler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.io.VFS;
@@ -64,16 +74,21 @@ import org.apache.ibatis.logging.nologging.NoLoggingImpl;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
 import org.apache.ibatis.logging.stdout.StdOutImpl;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.CacheBuilder;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ParameterMap;
 import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.InterceptorChain;
 import org.apache.ibatis.reflection.DefaultReflectorFactory;
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.PropertyPath;
 import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
@@ -118,6 +133,27 @@ public class Configuration {
   protected Set<String> lazyLoadTriggerMethods = new HashSet<String>(Arrays.asList(new String[] { "equals", "clone", "hashCode", "toString" }));
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
+  // 根据每个语句以往返回的行数和行宽度调整 fetchSize
+  protected boolean adaptiveFetchSize;
+  protected int adaptiveFetchSizeMin = 10;
+  protected int adaptiveFetchSizeMax = 1000;
+  // 由后台线程读取结果集，与结果映射并行
+  protected boolean pipelineResultSets;
+  protected int pipelineBufferSize = 1024;
+  // 为结果映射生成字节码，代替反射
+  protected boolean compileRowMappers;
+  // 默认的 ReflectorFactory 为 getter/setter 生成调用类，代替反射
+  protected boolean compileInvokers;
+  protected int dynamicSqlShapeCacheSize = 32;
+  protected boolean positionalForeachBinding;
+  // 并行解析 mapper XML 的线程数，不大于 1 时按顺序解析
+  protected int mapperParsingThreads;
+  // mapper XML 解析结果的快照文件，内容未变时启动时直接读取
+  protected String mapperSnapshotFile;
+  // 启动时只登记 mapper XML 中语句的 id，第一次使用时再构建
+  protected boolean lazyStatementBuilding;
+  // 启动后在后台线程中构建延迟构建的语句
+  protected boolean prewarmLazyStatements;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
   protected AutoMappingUnknownColumnBehavior autoMappingUnknownColumnBehavior = AutoMappingUnknownColumnBehavior.NONE;
@@ -131,6 +167,10 @@ public class Configuration {
   protected ProxyFactory proxyFactory = new JavassistProxyFactory(); // #224 Using internal Javassist instead of OGNL
 
   protected String databaseId;
+  // 数据库方言，用于将 RowBounds 改写为物理分页，为空时在内存中跳过记录
+  protected Dialect dialect;
+  // 推导出的 count 语句结果的缓存时间（毫秒），为空时使用原语句所在命名空间的二级缓存
+  protected Long countCacheTtl;
   /**
    * Configuration factory class.
    * Used to create Configuration for loading deserialized unread properties.
@@ -143,12 +183,22 @@ public class Configuration {
   protected final MapperRegistry mapperRegistry = new MapperRegistry(this);
   // 插件
   protected final InterceptorChain interceptorChain = new InterceptorChain();
+  // 各 MappedStatement 的执行统计
+  protected final MetricsRegistry metricsRegistry = new MetricsRegistry(this);
+  protected final QueryCoalescer queryCoalescer = new QueryCoalescer();
+  protected final RowMapperCompiler rowMapperCompiler = new RowMapperCompiler();
+  // 结果集列与 ResultMap 的映射计划，在查询间共享
+  protected final AutoMappingPlanCache autoMappingPlanCache = new AutoMappingPlanCache();
+  // 解析后的属性表达式，key 为根对象的类型，value 的 key 为表达式
+  protected final ConcurrentMap<Class<?>, ConcurrentMap<String, PropertyPath>> propertyPaths = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, PropertyPath>>();
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
   protected final LanguageDriverRegistry languageRegistry = new LanguageDriverRegistry();
 
   // sql
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection");
+  // 根据 select 语句推导出的 count 语句，第一次使用时创建，key 为原语句的 id
+  protected final Map<String, MappedStatement> countStatements = new ConcurrentHashMap<String, MappedStatement>();
   // 缓存
   protected final Map<String, Cache> caches = new StrictMap<Cache>("Caches collection");
   protected final Map<String, ResultMap> resultMaps = new StrictMap<ResultMap>("Result Maps collection");
@@ -161,6 +211,10 @@ public class Configuration {
   protected final Map<String, XNode> sqlFragments = new StrictMap<XNode>("XML fragments parsed from previous mappers");
 
   protected final Collection<XMLStatementBuilder> incompleteStatements = new LinkedList<XMLStatementBuilder>();
+  // 延迟构建的语句，和 mappedStatements 一样也以简称登记，只在启动时写入
+  protected final StrictMap<LazyStatement> lazyStatements = new StrictMap<LazyStatement>("Mapped Statements collection");
+  // 正在构建或已经构建过的延迟语句，只在持有 lazyStatements 的锁时访问
+  protected final Set<XMLStatementBuilder> lazyStatementBuilders = new HashSet<XMLStatementBuilder>();
   // 保存获取cache-ref中namespace在caches中解析异常的（也就是在 caches map里面没找到的）
   protected final Collection<CacheRefResolver> incompleteCacheRefs = new LinkedList<CacheRefResolver>();
   protected final Collection<ResultMapResolver> incompleteResultMaps = new LinkedList<ResultMapResolver>();
@@ -275,6 +329,166 @@ public class Configuration {
     this.databaseId = databaseId;
   }
 
+  public Dialect getDialect() {
+    return dialect;
+  }
+
+  public void setDialect(Dialect dialect) {
+    this.dialect = dialect;
+  }
+
+  public Long getCountCacheTtl() {
+    return countCacheTtl;
+  }
+
+  public void setCountCacheTtl(Long countCacheTtl) {
+    this.countCacheTtl = countCacheTtl;
+  }
+
+  public boolean isAdaptiveFetchSize() {
+    return adaptiveFetchSize;
+  }
+
+  public void setAdaptiveFetchSize(boolean adaptiveFetchSize) {
+    this.adaptiveFetchSize = adaptiveFetchSize;
+  }
+
+  public int getAdaptiveFetchSizeMin() {
+    return adaptiveFetchSizeMin;
+  }
+
+  public void setAdaptiveFetchSizeMin(int adaptiveFetchSizeMin) {
+    this.adaptiveFetchSizeMin = adaptiveFetchSizeMin;
+  }
+
+  public int getAdaptiveFetchSizeMax() {
+    return adaptiveFetchSizeMax;
+  }
+
+  public void setAdaptiveFetchSizeMax(int adaptiveFetchSizeMax) {
+    this.adaptiveFetchSizeMax = adaptiveFetchSizeMax;
+  }
+
+  public boolean isPipelineResultSets() {
+    return pipelineResultSets;
+  }
+
+  public void setPipelineResultSets(boolean pipelineResultSets) {
+    this.pipelineResultSets = pipelineResultSets;
+  }
+
+  public int getPipelineBufferSize() {
+    return pipelineBufferSize;
+  }
+
+  public void setPipelineBufferSize(int pipelineBufferSize) {
+    this.pipelineBufferSize = pipelineBufferSize;
+  }
+
+  public boolean isCompileRowMappers() {
+    return compileRowMappers;
+  }
+
+  public void setCompileRowMappers(boolean compileRowMappers) {
+    this.compileRowMappers = compileRowMappers;
+  }
+
+  public RowMapperCompiler getRowMapperCompiler() {
+    return rowMapperCompiler;
+  }
+
+  public AutoMappingPlanCache getAutoMappingPlanCache() {
+    return autoMappingPlanCache;
+  }
+
+  public int getAutoMappingPlanCacheSize() {
+    return autoMappingPlanCache.getSize();
+  }
+
+  public void setAutoMappingPlanCacheSize(int autoMappingPlanCacheSize) {
+    autoMappingPlanCache.setSize(autoMappingPlanCacheSize);
+  }
+
+  public int getDynamicSqlShapeCacheSize() {
+    return dynamicSqlShapeCacheSize;
+  }
+
+  public void setDynamicSqlShapeCacheSize(int dynamicSqlShapeCacheSize) {
+    this.dynamicSqlShapeCacheSize = dynamicSqlShapeCacheSize;
+  }
+
+  public boolean isPositionalForeachBinding() {
+    return positionalForeachBinding;
+  }
+
+  public void setPositionalForeachBinding(boolean positionalForeachBinding) {
+    this.positionalForeachBinding = positionalForeachBinding;
+  }
+
+  public int getMapperParsingThreads() {
+    return mapperParsingThreads;
+  }
+
+  public void setMapperParsingThreads(int mapperParsingThreads) {
+    this.mapperParsingThreads = mapperParsingThreads;
+  }
+
+  public String getMapperSnapshotFile() {
+    return mapperSnapshotFile;
+  }
+
+  public void setMapperSnapshotFile(String mapperSnapshotFile) {
+    this.mapperSnapshotFile = mapperSnapshotFile;
+  }
+
+  public boolean isLazyStatementBuilding() {
+    return lazyStatementBuilding;
+  }
+
+  public void setLazyStatementBuilding(boolean lazyStatementBuilding) {
+    this.lazyStatementBuilding = lazyStatementBuilding;
+  }
+
+  public boolean isPrewarmLazyStatements() {
+    return prewarmLazyStatements;
+  }
+
+  public void setPrewarmLazyStatements(boolean prewarmLazyStatements) {
+    this.prewarmLazyStatements = prewarmLazyStatements;
+  }
+
+  public QueryCoalescer getQueryCoalescer() {
+    return queryCoalescer;
+  }
+
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+
+  public boolean isMetricsEnabled() {
+    return metricsRegistry.isEnabled();
+  }
+
+  public void setMetricsEnabled(boolean metricsEnabled) {
+    metricsRegistry.setEnabled(metricsEnabled);
+  }
+
+  public Long getSlowQueryThreshold() {
+    return metricsRegistry.getSlowQueryThreshold();
+  }
+
+  public void setSlowQueryThreshold(Long slowQueryThreshold) {
+    metricsRegistry.setSlowQueryThreshold(slowQueryThreshold);
+  }
+
+  public int getSlowQuerySampling() {
+    return metricsRegistry.getSlowQuerySampling();
+  }
+
+  public void setSlowQuerySampling(int slowQuerySampling) {
+    metricsRegistry.setSlowQuerySampling(slowQuerySampling);
+  }
+
   public Class<?> getConfigurationFactory() {
     return configurationFactory;
   }
@@ -487,6 +701,23 @@ public class Configuration {
 
   public void setReflectorFactory(ReflectorFactory reflectorFactory) {
 	  this.reflectorFactory = reflectorFactory;
+	  applyCompileInvokers();
+  }
+
+  public boolean isCompileInvokers() {
+    return compileInvokers;
+  }
+
+  public void setCompileInvokers(boolean compileInvokers) {
+    this.compileInvokers = compileInvokers;
+    applyCompileInvokers();
+  }
+
+  private void applyCompileInvokers() {
+    // 自定义的 ReflectorFactory 自行决定如何调用属性
+    if (reflectorFactory instanceof DefaultReflectorFactory) {
+      ((DefaultReflectorFactory) reflectorFactory).setCompileInvokers(compileInvokers);
+    }
   }
 
   public ObjectFactory getObjectFactory() {
@@ -537,6 +768,33 @@ public class Configuration {
     return MetaObject.forObject(object, objectFactory, objectWrapperFactory, reflectorFactory);
   }
 
+  /**
+   * Reads a property expression like {@link MetaObject#getValue(String)}, parsing each expression once per type.
+   */
+  public Object getPropertyValue(Object object, String expression) {
+    if (object == null) {
+      return newMetaObject(null).getValue(expression);
+    }
+    return getPropertyPath(object.getClass(), expression).getValue(object, objectFactory, objectWrapperFactory, reflectorFactory);
+  }
+
+  public PropertyPath getPropertyPath(Class<?> type, String expression) {
+    ConcurrentMap<String, PropertyPath> paths = propertyPaths.get(type);
+    if (paths == null) {
+      paths = new ConcurrentHashMap<String, PropertyPath>();
+      ConcurrentMap<String, PropertyPath> existing = propertyPaths.putIfAbsent(type, paths);
+      if (existing != null) {
+        paths = existing;
+      }
+    }
+    PropertyPath path = paths.get(expression);
+    if (path == null) {
+      path = new PropertyPath(expression);
+      paths.putIfAbsent(expression, path);
+    }
+    return path;
+  }
+
   public ParameterHandler newParameterHandler(MappedStatement mappedStatement, Object parameterObject, BoundSql boundSql) {
     ParameterHandler parameterHandler = mappedStatement.getLang().createParameterHandler(mappedStatement, parameterObject, boundSql);
     parameterHandler = (ParameterHandler) interceptorChain.pluginAll(parameterHandler);
@@ -581,22 +839,67 @@ public class Configuration {
   }
 
   public void addKeyGenerator(String id, KeyGenerator keyGenerator) {
+    if (lazyStatements.containsKey(id)) {
+      LazyStatement lazyStatement = lazyStatements.get(id);
+      if (lazyStatement.keyGenerator != null) {
+        throw new IllegalArgumentException("Key Generators collection already contains value for " + id);
+      }
+      // 延迟构建的 selectKey 语句的 KeyGenerator 随语句保存，不再改动 keyGenerators
+      lazyStatement.keyGenerator = keyGenerator;
+      return;
+    }
     keyGenerators.put(id, keyGenerator);
   }
 
   public Collection<String> getKeyGeneratorNames() {
-    return keyGenerators.keySet();
+    if (lazyStatements.isEmpty()) {
+      return keyGenerators.keySet();
+    }
+    // 延迟构建的 selectKey 语句登记时就有 id，不需要构建
+    Set<String> names = new HashSet<String>(keyGenerators.keySet());
+    for (String id : lazyStatements.keySet()) {
+      if (id.endsWith(SelectKeyGenerator.SELECT_KEY_SUFFIX)) {
+        names.add(id);
+      }
+    }
+    return names;
   }
 
   public Collection<KeyGenerator> getKeyGenerators() {
-    return keyGenerators.values();
+    if (lazyStatements.isEmpty()) {
+      return keyGenerators.values();
+    }
+    // 只构建 selectKey 语句；简称和完整 id 指向同一个语句
+    Set<Object> built = new HashSet<Object>();
+    List<KeyGenerator> generators = new ArrayList<KeyGenerator>(keyGenerators.values());
+    for (Map.Entry<String, LazyStatement> entry : lazyStatements.entrySet()) {
+      Object value = entry.getValue();
+      if (entry.getKey().endsWith(SelectKeyGenerator.SELECT_KEY_SUFFIX) && value instanceof LazyStatement && built.add(value)) {
+        KeyGenerator keyGenerator = ((LazyStatement) value).getKeyGenerator();
+        if (keyGenerator != null) {
+          generators.add(keyGenerator);
+        }
+      }
+    }
+    return generators;
   }
 
   public KeyGenerator getKeyGenerator(String id) {
+    if (lazyStatements.containsKey(id)) {
+      // selectKey 的 KeyGenerator 随语句一起构建
+      KeyGenerator keyGenerator = lazyStatements.get(id).getKeyGenerator();
+      if (keyGenerator == null) {
+        throw new IllegalArgumentException("Key Generators collection does not contain value for " + id);
+      }
+      return keyGenerator;
+    }
     return keyGenerators.get(id);
   }
 
   public boolean hasKeyGenerator(String id) {
+    if (lazyStatements.containsKey(id) && !lazyStatements.isAmbiguous(id)) {
+      return lazyStatements.get(id).getKeyGenerator() != null;
+    }
     return keyGenerators.containsKey(id);
   }
 
@@ -663,17 +966,81 @@ public class Configuration {
   }
 
   public void addMappedStatement(MappedStatement ms) {
+    if (lazyStatements.containsKey(ms.getId())) {
+      LazyStatement lazyStatement = lazyStatements.get(ms.getId());
+      if (lazyStatement.statement != null) {
+        throw new IllegalArgumentException("Mapped Statements collection already contains value for " + ms.getId());
+      }
+      // 延迟构建的语句已经登记过 id，直接填入，不再改动 mappedStatements
+      lazyStatement.statement = ms;
+      return;
+    }
     mappedStatements.put(ms.getId(), ms);
   }
 
+  /**
+   * Registers the id of a statement that the given builder builds on first use.
+   * Registering all the ids at startup keeps both statement maps unchanged afterwards, so they can be read without locking.
+   */
+  public void addLazyStatement(String id, XMLStatementBuilder builder) {
+    if (mappedStatements.containsKey(id)) {
+      throw new IllegalArgumentException("Mapped Statements collection already contains value for " + id);
+    }
+    lazyStatements.put(id, new LazyStatement(builder));
+  }
+
+  /**
+   * Builds the lazily built statements in a background daemon thread.
+   * A statement that fails to build is left to fail again on first use.
+   */
+  public void prewarmLazyStatements() {
+    final List<LazyStatement> statements = new ArrayList<LazyStatement>(lazyStatements.values());
+    if (statements.isEmpty()) {
+      return;
+    }
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (LazyStatement statement : statements) {
+          try {
+            statement.get();
+          } catch (RuntimeException e) {
+            // 使用该语句时会再次抛出异常
+          }
+        }
+      }
+    }, "mybatis-statement-prewarm");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
   public Collection<String> getMappedStatementNames() {
     buildAllStatements();
-    return mappedStatements.keySet();
+    if (lazyStatements.isEmpty()) {
+      return mappedStatements.keySet();
+    }
+    Set<String> names = new HashSet<String>(mappedStatements.keySet());
+    names.addAll(lazyStatements.keySet());
+    return names;
   }
 
   public Collection<MappedStatement> getMappedStatements() {
     buildAllStatements();
-    return mappedStatements.values();
+    if (lazyStatements.isEmpty()) {
+      return mappedStatements.values();
+    }
+    // 构建所有延迟构建的语句，没有构建出语句的 id 不返回；简称和完整 id 指向同一个语句
+    Set<LazyStatement> built = new HashSet<LazyStatement>();
+    List<MappedStatement> statements = new ArrayList<MappedStatement>(mappedStatements.values());
+    for (Object value : lazyStatements.values()) {
+      if (value instanceof LazyStatement && built.add((LazyStatement) value)) {
+        MappedStatement ms = ((LazyStatement) value).get();
+        if (ms != null) {
+          statements.add(ms);
+        }
+      }
+    }
+    return statements;
   }
 
   public Collection<XMLStatementBuilder> getIncompleteStatements() {
@@ -716,7 +1083,81 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
-    return mappedStatements.get(id);
+    // "<id>!count" 返回由 select 语句推导出的 count 语句
+    if (id.endsWith(CountSqlSource.COUNT_STATEMENT_SUFFIX) && !containsStatement(id)) {
+      MappedStatement countStatement = getCountStatement(id.substring(0, id.length() - CountSqlSource.COUNT_STATEMENT_SUFFIX.length()));
+      if (countStatement != null) {
+        return countStatement;
+      }
+    }
+    return findStatement(id);
+  }
+
+  private boolean containsStatement(String id) {
+    return mappedStatements.containsKey(id) || lazyStatements.containsKey(id);
+  }
+
+  // 先查已构建的语句，再查延迟构建的语句，找不到时和 StrictMap 一样抛异常
+  private MappedStatement findStatement(String id) {
+    if (!lazyStatements.containsKey(id)) {
+      return mappedStatements.get(id);
+    }
+    if (mappedStatements.containsKey(id)) { // 只有简称会同时出现在两个集合中
+      throw new IllegalArgumentException(id + " is ambiguous in Mapped Statements collection"
+          + " (try using the full name including the namespace, or rename one of the entries)");
+    }
+    MappedStatement ms = lazyStatements.get(id).get();
+    if (ms == null) {
+      throw new IllegalArgumentException("Mapped Statements collection does not contain value for " + id);
+    }
+    return ms;
+  }
+
+  /**
+   * Gets the statement counting the rows returned by a select, derived from its SQL.
+   * It can also be called by the id of the select followed by {@link CountSqlSource#COUNT_STATEMENT_SUFFIX}.
+   *
+   * @return null if there is no such select
+   */
+  public MappedStatement getCountStatement(String id) {
+    if (!containsStatement(id)) {
+      return null;
+    }
+    MappedStatement ms = findStatement(id);
+    if (ms.getSqlCommandType() != SqlCommandType.SELECT || ms.getStatementType() == StatementType.CALLABLE) {
+      return null;
+    }
+    MappedStatement countStatement = countStatements.get(ms.getId());
+    if (countStatement == null) {
+      countStatement = buildCountStatement(ms);
+      countStatements.put(ms.getId(), countStatement);
+    }
+    return countStatement;
+  }
+
+  protected MappedStatement buildCountStatement(MappedStatement ms) {
+    String countId = ms.getId() + CountSqlSource.COUNT_STATEMENT_SUFFIX;
+    List<ResultMap> resultMaps = new ArrayList<ResultMap>();
+    resultMaps.add(new ResultMap.Builder(this, countId + "-Inline", Long.class, new ArrayList<ResultMapping>()).build());
+    Cache cache = ms.getCache();
+    boolean useCache = ms.isUseCache();
+    if (countCacheTtl != null) {
+      // 每个 count 语句使用单独的定时清空缓存，按参数缓存计数结果
+      cache = new CacheBuilder(countId).clearInterval(countCacheTtl).build();
+      useCache = true;
+    }
+    return new MappedStatement.Builder(this, countId, new CountSqlSource(ms.getSqlSource()), SqlCommandType.SELECT)
+        .resource(ms.getResource())
+        .timeout(ms.getTimeout())
+        .statementType(ms.getStatementType())
+        .parameterMap(ms.getParameterMap())
+        .resultMaps(resultMaps)
+        .databaseId(ms.getDatabaseId())
+        .lang(ms.getLang())
+        .cache(cache)
+        .useCache(useCache)
+        .flushCacheRequired(ms.isFlushCacheRequired())
+        .build();
   }
 
   public Map<String, XNode> getSqlFragments() {
@@ -755,7 +1196,17 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
-    return mappedStatements.containsKey(statementName);
+    if (statementName.endsWith(CountSqlSource.COUNT_STATEMENT_SUFFIX) && !containsStatement(statementName)) {
+      return getCountStatement(statementName.substring(0, statementName.length() - CountSqlSource.COUNT_STATEMENT_SUFFIX.length())) != null;
+    }
+    if (mappedStatements.containsKey(statementName)) {
+      return true;
+    }
+    if (!lazyStatements.containsKey(statementName)) {
+      return false;
+    }
+    // 不触发构建，正在构建或没有构建出语句的延迟语句视为不存在
+    return lazyStatements.isAmbiguous(statementName) || lazyStatements.get(statementName).isAvailable();
   }
 
   public void addCacheRef(String namespace, String referencedNamespace) {
@@ -839,6 +1290,75 @@ public class Configuration {
     }
   }
 
+  /**
+   * A statement registered by id at startup and built by its {@link XMLStatementBuilder} on first use.
+   * Statements are built one at a time under a single lock, as the builders share the mapper state.
+   */
+  protected class LazyStatement {
+
+    private final XMLStatementBuilder builder;
+    private volatile MappedStatement statement;
+    // selectKey 语句对应的 KeyGenerator，在语句之后设置
+    private volatile KeyGenerator keyGenerator;
+
+    public LazyStatement(XMLStatementBuilder builder) {
+      this.builder = builder;
+    }
+
+    /**
+     * @return null while the statement is being built by the current thread, or if the builder did not build it
+     */
+    public MappedStatement get() {
+      MappedStatement ms = statement;
+      if (ms != null) {
+        return ms;
+      }
+      synchronized (lazyStatements) {
+        // 同一个 builder 只构建一次，它同时构建语句和 selectKey 语句
+        if (statement == null && lazyStatementBuilders.add(builder)) {
+          boolean built = false;
+          try {
+            builder.buildStatementNode();
+            built = true;
+          } finally {
+            if (!built) {
+              lazyStatementBuilders.remove(builder); // 构建失败，下次使用时重试
+            }
+          }
+        }
+        return statement;
+      }
+    }
+
+    /**
+     * @return the key generator of a selectKey statement, null if the builder did not build one
+     */
+    public KeyGenerator getKeyGenerator() {
+      KeyGenerator generator = keyGenerator;
+      if (generator != null) {
+        return generator;
+      }
+      get();
+      synchronized (lazyStatements) {
+        // 语句先于 KeyGenerator 设置，等待正在进行的构建完成后再读取
+        return keyGenerator;
+      }
+    }
+
+    /**
+     * @return true unless the statement is being built by the current thread or its builder did not build it,
+     *   without building it
+     */
+    public boolean isAvailable() {
+      if (statement != null) {
+        return true;
+      }
+      synchronized (lazyStatements) {
+        return statement != null || !lazyStatementBuilders.contains(builder);
+      }
+    }
+  }
+
   protected static class StrictMap<V> extends HashMap<String, V> {
 
     private static final long serialVersionUID = -4950446264854982944L;
@@ -893,6 +1413,13 @@ public class Configuration {
       return value;
     }
 
+    /**
+     * @return true if the key is a short name shared by several entries
+     */
+    public boolean isAmbiguous(String key) {
+      return super.get(key) instanceof Ambiguity;
+    }
+
     private String getShortName(String key) {
       final String[] keyParts = key.split("\\.");
       return keyParts[keyParts.length - 1];
@@ -0,0 +1,51 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A page of results read with a {@link KeysetPage}.
+ *
+ * @see KeysetPage
+ */
+public class KeysetList<E> extends ArrayList<E> {
+
+  private static final long serialVersionUID = 3506208742915362158L;
+
+  private final transient KeysetPage nextPage;
+
+  public KeysetList(Collection<? extends E> results, KeysetPage nextPage) {
+    super(results);
+    this.nextPage = nextPage;
+  }
+
+  /**
+   * @return false when this page was not full, meaning that there are no more rows
+   */
+  public boolean hasNextPage() {
+    return nextPage != null;
+  }
+
+  /**
+   * @return the request for the following page, built from the keyset properties of the last row, null if none
+   */
+  public KeysetPage getNextPage() {
+    return nextPage;
+  }
+
+}
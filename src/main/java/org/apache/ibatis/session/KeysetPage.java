@@ -0,0 +1,70 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.Arrays;
+
+/**
+ * Keyset (seek) pagination: instead of skipping rows, the next page starts after the key of the last row read.
+ * The mapped select declares its ordering columns with <code>keysetColumn</code> (and the matching
+ * <code>keysetProperty</code>), MyBatis appends the seek predicate, the ORDER BY and the limit.
+ * Pages are returned as a {@link KeysetList} which holds the page to fetch next.
+ * <p>
+ * It can be passed wherever a {@link RowBounds} is accepted.
+ * </p>
+ *
+ * @see KeysetList
+ */
+public class KeysetPage extends RowBounds {
+
+  private final Object[] lastKey;
+
+  /**
+   * Creates a request for the first page.
+   */
+  public KeysetPage(int limit) {
+    this(limit, (Object[]) null);
+  }
+
+  /**
+   * Creates a request for the page following the row having the given key.
+   * @param lastKey values of the keyset properties of the last row read, in the declared order
+   */
+  public KeysetPage(int limit, Object... lastKey) {
+    super(NO_ROW_OFFSET, limit);
+    if (limit <= 0) {
+      throw new IllegalArgumentException("A keyset page must have a positive limit but was " + limit);
+    }
+    this.lastKey = lastKey == null || lastKey.length == 0 ? null : lastKey.clone();
+  }
+
+  public boolean isFirstPage() {
+    return lastKey == null;
+  }
+
+  /**
+   * @return the key of the last row of the previous page (the continuation token), null for the first page
+   */
+  public Object[] getLastKey() {
+    return lastKey == null ? null : lastKey.clone();
+  }
+
+  @Override
+  public String toString() {
+    return "KeysetPage{limit=" + getLimit() + ", lastKey=" + Arrays.toString(lastKey) + "}";
+  }
+
+}
@@ -0,0 +1,60 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A page of results together with the total number of rows of the query.
+ *
+ * @see Paginator
+ */
+public class Page<E> extends ArrayList<E> {
+
+  private static final long serialVersionUID = -2930564179204153265L;
+
+  private final int offset;
+  private final int limit;
+  private final long total;
+
+  public Page(Collection<? extends E> results, RowBounds rowBounds, long total) {
+    super(results);
+    this.offset = rowBounds.getOffset();
+    this.limit = rowBounds.getLimit();
+    this.total = total;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return the number of rows of the query without pagination
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  public boolean hasNextPage() {
+    return offset + size() < total;
+  }
+
+}
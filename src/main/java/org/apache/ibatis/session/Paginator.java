@@ -0,0 +1,135 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.builder.CountSqlSource;
+import org.apache.ibatis.exceptions.ExceptionFactory;
+
+/**
+ * Reads {@link Page}s of a select together with the number of rows it returns.
+ * <p>
+ * The count comes from the statement derived from the select (see {@link Configuration#getCountStatement(String)}),
+ * so no count statement has to be written. When an {@link ExecutorService} is given, the count and the page are read
+ * at the same time, each in its own {@link SqlSession}. Counts can be cached for a while with the
+ * <code>countCacheTtl</code> setting.
+ * </p>
+ */
+public class Paginator {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final ExecutorService executorService;
+
+  public Paginator(SqlSessionFactory sqlSessionFactory) {
+    this(sqlSessionFactory, null);
+  }
+
+  /**
+   * @param executorService runs the count queries, null to run them after the page query in the same session
+   */
+  public Paginator(SqlSessionFactory sqlSessionFactory, ExecutorService executorService) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.executorService = executorService;
+  }
+
+  public <E> Page<E> selectPage(String statement, Object parameter, RowBounds rowBounds) {
+    if (executorService == null) {
+      SqlSession sqlSession = sqlSessionFactory.openSession();
+      try {
+        return selectPage(sqlSession, statement, parameter, rowBounds);
+      } finally {
+        sqlSession.close();
+      }
+    }
+    Future<Long> count = executorService.submit(new CountTask(statement, parameter));
+    List<E> results;
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      results = sqlSession.selectList(statement, parameter, rowBounds);
+    } catch (RuntimeException e) {
+      count.cancel(true);
+      throw e;
+    } finally {
+      sqlSession.close();
+    }
+    return new Page<E>(results, rowBounds, getCount(count, statement));
+  }
+
+  /**
+   * Reads a page and its count one after the other in the given session.
+   * The count query is not run when the page is not full, the total is then known.
+   */
+  public static <E> Page<E> selectPage(SqlSession sqlSession, String statement, Object parameter, RowBounds rowBounds) {
+    List<E> results = sqlSession.selectList(statement, parameter, rowBounds);
+    long total;
+    if (results.size() < rowBounds.getLimit() && (!results.isEmpty() || rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET)) {
+      total = (long) rowBounds.getOffset() + results.size();
+    } else {
+      total = count(sqlSession, statement, parameter);
+    }
+    return new Page<E>(results, rowBounds, total);
+  }
+
+  private static long count(SqlSession sqlSession, String statement, Object parameter) {
+    Long count = sqlSession.selectOne(statement + CountSqlSource.COUNT_STATEMENT_SUFFIX, parameter);
+    return count == null ? 0 : count;
+  }
+
+  private long getCount(Future<Long> count, String statement) {
+    try {
+      return count.get();
+    } catch (InterruptedException e) {
+      count.cancel(true);
+      Thread.currentThread().interrupt();
+      throw ExceptionFactory.wrapException("Interrupted while counting rows of " + statement + ".  Cause: " + e, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw ExceptionFactory.wrapException("Error counting rows of " + statement + ".  Cause: " + e.getCause(), (Exception) e.getCause());
+    }
+  }
+
+  private class CountTask implements Callable<Long> {
+
+    private final String statement;
+    private final Object parameter;
+
+    CountTask(String statement, Object parameter) {
+      this.statement = statement;
+      this.parameter = parameter;
+    }
+
+    @Override
+    public Long call() {
+      SqlSession sqlSession = sqlSessionFactory.openSession();
+      try {
+        return count(sqlSession, statement, parameter);
+      } finally {
+        sqlSession.close();
+      }
+    }
+  }
+
+}
@@ -90,6 +90,9 @@ public class SqlSessionFactoryBuilder {
   }
     
   public SqlSessionFactory build(Configuration config) {
+    if (config.isPrewarmLazyStatements()) {
+      config.prewarmLazyStatements(); // 在后台构建延迟构建的语句
+    }
     return new DefaultSqlSessionFactory(config);
   }
 
@@ -34,7 +34,10 @@ import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.result.DefaultMapResultHandler;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetList;
+import org.apache.ibatis.session.KeysetPage;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
@@ -148,7 +151,11 @@ public class DefaultSqlSession implements SqlSession {
   public <E> List<E> selectList(String statement, Object parameter, RowBounds rowBounds) {
     try {
       MappedStatement ms = configuration.getMappedStatement(statement);
-      return executor.query(ms, wrapCollection(parameter), rowBounds, Executor.NO_RESULT_HANDLER);
+      List<E> list = executor.query(ms, wrapCollection(parameter), rowBounds, Executor.NO_RESULT_HANDLER);
+      if (rowBounds instanceof KeysetPage) {
+        return toKeysetList(ms, list, (KeysetPage) rowBounds);
+      }
+      return list;
     } catch (Exception e) {
       throw ExceptionFactory.wrapException("Error querying database.  Cause: " + e, e);
     } finally {
@@ -156,6 +163,23 @@ public class DefaultSqlSession implements SqlSession {
     }
   }
 
+  /**
+   * 根据最后一行的 keyset 属性生成下一页的请求，不满一页时说明没有后续数据
+   */
+  private <E> KeysetList<E> toKeysetList(MappedStatement ms, List<E> list, KeysetPage page) {
+    KeysetPage nextPage = null;
+    if (!list.isEmpty() && list.size() >= page.getLimit()) {
+      MetaObject metaObject = configuration.newMetaObject(list.get(list.size() - 1));
+      String[] keysetProperties = ms.getKeysetProperties();
+      Object[] lastKey = new Object[keysetProperties.length];
+      for (int i = 0; i < keysetProperties.length; i++) {
+        lastKey[i] = metaObject.getValue(keysetProperties[i]);
+      }
+      nextPage = new KeysetPage(page.getLimit(), lastKey);
+    }
+    return new KeysetList<E>(list, nextPage);
+  }
+
   @Override
   public void select(String statement, Object parameter, ResultHandler handler) {
     select(statement, parameter, RowBounds.DEFAULT, handler);
@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.type;
+
+import java.util.Arrays;
+
+/**
+ * Elements bound by {@link ArrayTypeHandler} as a {@link java.sql.Array} whose element type name is already known,
+ * e.g. chosen by a {@link org.apache.ibatis.dialect.Dialect}.
+ */
+public class ArrayParameter {
+
+  private final String typeName;
+  private final Object[] elements;
+
+  public ArrayParameter(String typeName, Object[] elements) {
+    this.typeName = typeName;
+    this.elements = elements;
+  }
+
+  /**
+   * @return the SQL type name of the elements, as expected by {@link java.sql.Connection#createArrayOf(String, Object[])}
+   */
+  public String getTypeName() {
+    return typeName;
+  }
+
+  public Object[] getElements() {
+    return elements;
+  }
+
+  @Override
+  public String toString() {
+    return typeName + Arrays.toString(elements);
+  }
+
+}
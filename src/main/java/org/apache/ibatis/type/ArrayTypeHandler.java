@@ -20,19 +20,135 @@ import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author Clinton Begin
  */
 public class ArrayTypeHandler extends BaseTypeHandler<Object> {
 
+  // 元素类型 -> 创建 java.sql.Array 时使用的 JDBC 类型
+  private static final Map<Class<?>, JdbcType> STANDARD_TYPES = new HashMap<Class<?>, JdbcType>();
+
+  static {
+    register(JdbcType.BOOLEAN, Boolean.class, boolean.class);
+    register(JdbcType.TINYINT, Byte.class, byte.class);
+    register(JdbcType.SMALLINT, Short.class, short.class);
+    register(JdbcType.INTEGER, Integer.class, int.class);
+    register(JdbcType.BIGINT, Long.class, long.class);
+    register(JdbcType.REAL, Float.class, float.class);
+    register(JdbcType.DOUBLE, Double.class, double.class);
+    register(JdbcType.NUMERIC, java.math.BigDecimal.class);
+    register(JdbcType.VARCHAR, String.class);
+    register(JdbcType.TIMESTAMP, java.util.Date.class, java.sql.Timestamp.class);
+    register(JdbcType.DATE, java.sql.Date.class);
+    register(JdbcType.TIME, java.sql.Time.class);
+  }
+
+  // 不为 null 时记录本线程为参数创建的 java.sql.Array，执行语句后由执行器释放
+  private static final ThreadLocal<List<Array>> createdArrays = new ThreadLocal<List<Array>>();
+
+  private static void register(JdbcType jdbcType, Class<?>... types) {
+    for (Class<?> type : types) {
+      STANDARD_TYPES.put(type, jdbcType);
+    }
+  }
+
   public ArrayTypeHandler() {
     super();
   }
 
+  /**
+   * Also accepts an {@link ArrayParameter}, a {@link Collection} or a Java array, which is converted with
+   * {@link java.sql.Connection#createArrayOf(String, Object[])}. The SQL type of the elements is the one of the
+   * ArrayParameter, or the jdbcType of the parameter when it is not ARRAY, otherwise it is guessed from the elements.
+   */
   @Override
   public void setNonNullParameter(PreparedStatement ps, int i, Object parameter, JdbcType jdbcType) throws SQLException {
-    ps.setArray(i, (Array) parameter);
+    if (parameter instanceof Array) {
+      ps.setArray(i, (Array) parameter);
+      return;
+    }
+    Array array;
+    if (parameter instanceof ArrayParameter) {
+      ArrayParameter arrayParameter = (ArrayParameter) parameter;
+      array = ps.getConnection().createArrayOf(arrayParameter.getTypeName(), arrayParameter.getElements());
+    } else {
+      Object[] elements = toElements(parameter);
+      String typeName = jdbcType != null && jdbcType != JdbcType.ARRAY ? jdbcType.name() : resolveElementType(parameter, elements).name();
+      array = ps.getConnection().createArrayOf(typeName, elements);
+    }
+    ps.setArray(i, array);
+    // 不能在这里调用 free()：有的驱动在执行语句时才读取元素
+    List<Array> arrays = createdArrays.get();
+    if (arrays != null) {
+      arrays.add(array);
+    }
+  }
+
+  /**
+   * Adds the java.sql.Arrays this thread creates for parameters to the given list, until it is called
+   * with null. The caller frees them once the statement has been executed, see
+   * {@link org.apache.ibatis.executor.BaseExecutor}.
+   */
+  public static void recordCreatedArrays(List<Array> arrays) {
+    if (arrays == null) {
+      createdArrays.remove();
+    } else {
+      createdArrays.set(arrays);
+    }
+  }
+
+  private static Object[] toElements(Object parameter) {
+    if (parameter instanceof Collection) {
+      return ((Collection<?>) parameter).toArray();
+    }
+    if (parameter instanceof Object[]) {
+      return (Object[]) parameter;
+    }
+    if (parameter.getClass().isArray()) {
+      // 基本类型数组需逐个装箱
+      int length = java.lang.reflect.Array.getLength(parameter);
+      Object[] elements = new Object[length];
+      for (int i = 0; i < length; i++) {
+        elements[i] = java.lang.reflect.Array.get(parameter, i);
+      }
+      return elements;
+    }
+    throw new TypeException("ArrayTypeHandler cannot bind a parameter of type " + parameter.getClass().getName()
+        + ", expected a java.sql.Array, a Collection or an array.");
+  }
+
+  /**
+   * Guesses the JDBC type of the elements of a collection or an array from their class.
+   */
+  public static JdbcType resolveElementType(Object parameter) {
+    return resolveElementType(parameter, toElements(parameter));
+  }
+
+  private static JdbcType resolveElementType(Object parameter, Object[] elements) {
+    Class<?> componentType = parameter.getClass().getComponentType();
+    if (componentType == null || componentType == Object.class) {
+      componentType = null;
+      for (Object element : elements) {
+        if (element != null) {
+          componentType = element.getClass();
+          break;
+        }
+      }
+    }
+    JdbcType elementType = null;
+    for (Class<?> type = componentType; elementType == null && type != null; type = type.getSuperclass()) {
+      elementType = STANDARD_TYPES.get(type);
+    }
+    if (elementType == null) {
+      throw new TypeException("Could not determine the SQL type of the array elements of type " + componentType
+          + ". Specify it as the jdbcType of the parameter.");
+    }
+    return elementType;
   }
 
   @Override
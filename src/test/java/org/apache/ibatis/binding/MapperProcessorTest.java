@@ -0,0 +1,212 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.binding;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MapperProcessorTest {
+
+  private static final String MAPPER_NAME = "org.apache.ibatis.binding.generated.GeneratedAuthorMapper";
+  private static final String MAPPER_SOURCE = "package org.apache.ibatis.binding.generated;\n"
+      + "import java.util.List;\n"
+      + "import java.util.Map;\n"
+      + "import org.apache.ibatis.annotations.*;\n"
+      + "import org.apache.ibatis.domain.blog.Author;\n"
+      + "import org.apache.ibatis.session.ResultHandler;\n"
+      + "import org.apache.ibatis.session.RowBounds;\n"
+      + "@Mapper\n"
+      + "public interface GeneratedAuthorMapper {\n"
+      + "  @Select(\"select count(*) from author\") int countAuthors();\n"
+      + "  @Select(\"select * from author where id = #{id}\") Author selectAuthor(int id);\n"
+      + "  @Select(\"select username from author where id >= #{from} and username <> #{exclude} order by id\")\n"
+      + "  List<String> selectUsernames(@Param(\"from\") int from, @Param(\"exclude\") String exclude);\n"
+      + "  @Select(\"select * from author order by id\") List<Author> selectAuthors(RowBounds rowBounds);\n"
+      + "  @Select(\"select * from author\") @MapKey(\"id\") Map<Integer, Author> selectAuthorsById();\n"
+      + "  @Update(\"update author set bio = #{bio} where id = #{id}\") boolean updateBio(@Param(\"id\") int id, @Param(\"bio\") String bio);\n"
+      + "  @Delete(\"delete from author where id = #{id}\") int deleteAuthor(int id);\n"
+      // executed by MapperMethod
+      + "  @Select(\"select username from author order by id\") String[] selectUsernameArray();\n"
+      + "  @Select(\"select * from author order by id\") @ResultType(Author.class) void scanAuthors(ResultHandler<Author> handler);\n"
+      + "  Author selectUnboundAuthor(int id);\n"
+      + "}\n";
+
+  private static File generatedSources;
+  private static Class<?> mapperType;
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    File output = File.createTempFile("mapper-processor", "");
+    output.delete();
+    generatedSources = new File(output, "generated");
+    File sources = new File(output, "sources/org/apache/ibatis/binding/generated");
+    assertTrue(generatedSources.mkdirs() && sources.mkdirs());
+    File source = new File(sources, "GeneratedAuthorMapper.java");
+    Writer writer = new FileWriter(source);
+    try {
+      writer.write(MAPPER_SOURCE);
+    } finally {
+      writer.close();
+    }
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertNotNull("A JDK is needed to run the annotation processor", compiler);
+    String classPath = classesOf(SqlSession.class) + File.pathSeparator + classesOf(Author.class);
+    int result = compiler.run(null, null, null, "-classpath", classPath, "-processor", MapperProcessor.class.getName(),
+        "-d", output.getPath(), "-s", generatedSources.getPath(), source.getPath());
+    assertEquals(0, result);
+
+    ClassLoader classLoader = new URLClassLoader(new URL[] { output.toURI().toURL() }, MapperProcessorTest.class.getClassLoader());
+    mapperType = classLoader.loadClass(MAPPER_NAME);
+
+    Environment environment = new Environment("Production", new JdbcTransactionFactory(), BaseDataTest.createBlogDataSource());
+    Configuration configuration = new Configuration(environment);
+    configuration.addMapper(mapperType);
+    configuration.addMapper(BoundAuthorMapper.class);
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  private static String classesOf(Class<?> type) throws Exception {
+    return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+  }
+
+  @Test
+  public void shouldPreferGeneratedImplementation() throws Exception {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      Object mapper = session.getMapper(mapperType);
+      assertEquals(MAPPER_NAME + GeneratedMapperSupport.CLASS_NAME_SUFFIX, mapper.getClass().getName());
+      assertTrue(mapper instanceof GeneratedMapperSupport);
+      // mappers without a generated implementation still get a proxy
+      assertTrue(Proxy.isProxyClass(session.getMapper(BoundAuthorMapper.class).getClass()));
+    } finally {
+      session.close();
+    }
+    assertTrue(new File(generatedSources, MAPPER_NAME.replace('.', '/') + GeneratedMapperSupport.CLASS_NAME_SUFFIX + ".java").isFile());
+    int fallbacks = 0;
+    for (Field field : mapperType.getClassLoader().loadClass(MAPPER_NAME + GeneratedMapperSupport.CLASS_NAME_SUFFIX).getDeclaredFields()) {
+      if (field.getType() == Method.class) {
+        fallbacks++;
+      }
+    }
+    assertEquals(3, fallbacks);
+  }
+
+  @Test
+  public void shouldSelectThroughGeneratedMethods() throws Exception {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      Object mapper = session.getMapper(mapperType);
+      assertEquals(2, call(mapper, "countAuthors"));
+      assertEquals("jim", ((Author) call(mapper, "selectAuthor", 101)).getUsername());
+      assertEquals(Arrays.asList("sally"), call(mapper, "selectUsernames", 101, "jim"));
+      List<?> authors = (List<?>) call(mapper, "selectAuthors", new RowBounds(1, 1));
+      assertEquals(1, authors.size());
+      assertEquals("sally", ((Author) authors.get(0)).getUsername());
+      Map<?, ?> authorsById = (Map<?, ?>) call(mapper, "selectAuthorsById");
+      assertEquals("jim", ((Author) authorsById.get(101)).getUsername());
+      assertEquals(2, authorsById.size());
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  public void shouldUpdateThroughGeneratedMethods() throws Exception {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      Object mapper = session.getMapper(mapperType);
+      assertEquals(Boolean.TRUE, call(mapper, "updateBio", 101, "bio"));
+      assertEquals(Boolean.FALSE, call(mapper, "updateBio", 999, "bio"));
+      assertEquals(0, call(mapper, "deleteAuthor", 999));
+    } finally {
+      session.rollback();
+      session.close();
+    }
+  }
+
+  @Test
+  public void shouldExecuteOtherMethodsThroughMapperMethod() throws Exception {
+    SqlSession session = sqlSessionFactory.openSession();
+    try {
+      Object mapper = session.getMapper(mapperType);
+      assertArrayEquals(new String[] { "jim", "sally" }, (String[]) call(mapper, "selectUsernameArray"));
+      final List<Object> authors = new ArrayList<Object>();
+      call(mapper, "scanAuthors", new ResultHandler<Object>() {
+        @Override
+        public void handleResult(ResultContext<? extends Object> resultContext) {
+          authors.add(resultContext.getResultObject());
+        }
+      });
+      assertEquals(2, authors.size());
+      try {
+        call(mapper, "selectUnboundAuthor", 101);
+        fail("Expected a BindingException");
+      } catch (InvocationTargetException e) {
+        assertTrue(e.getCause() instanceof BindingException);
+        assertFalse(e.getCause().getMessage().isEmpty());
+      }
+    } finally {
+      session.close();
+    }
+  }
+
+  private static Object call(Object mapper, String name, Object... args) throws Exception {
+    for (Method method : mapperType.getMethods()) {
+      if (method.getName().equals(name)) {
+        return method.invoke(mapper, args);
+      }
+    }
+    throw new NoSuchMethodException(name);
+  }
+
+}
@@ -0,0 +1,73 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CountSqlSourceTest {
+
+  @Test
+  public void shouldReplaceProjectionAndRemoveOrderBy() {
+    assertEquals("SELECT COUNT(*) from users where name = ?",
+        CountSqlSource.toCountSql("select id, name from users where name = ? order by id desc;"));
+  }
+
+  @Test
+  public void shouldKeepNestedOrderByAndSubqueries() {
+    assertEquals("SELECT COUNT(*) FROM users u where u.id in (select user_id from roles order by user_id)",
+        CountSqlSource.toCountSql("select u.*, (select count(*) from posts p where p.user_id = u.id) posts "
+            + "FROM users u where u.id in (select user_id from roles order by user_id) ORDER BY u.name"));
+  }
+
+  @Test
+  public void shouldIgnoreKeywordsInLiteralsAndComments() {
+    assertEquals("SELECT COUNT(*) from users where name = 'group by' /* order by */",
+        CountSqlSource.toCountSql("select \"distinct\" from users where name = 'group by' /* order by */"));
+  }
+
+  @Test
+  public void shouldWrapDistinctAndGroupBy() {
+    assertEquals("SELECT COUNT(*) FROM (select distinct name from users) count_",
+        CountSqlSource.toCountSql("select distinct name from users order by name"));
+    assertEquals("SELECT COUNT(*) FROM (select name, count(*) from users group by name) count_",
+        CountSqlSource.toCountSql("select name, count(*) from users group by name"));
+    assertEquals("SELECT COUNT(*) FROM (select id from users union select id from admins) count_",
+        CountSqlSource.toCountSql("select id from users union select id from admins"));
+  }
+
+  @Test
+  public void shouldKeepOrderByFollowedByRowLimit() {
+    assertEquals("SELECT COUNT(*) FROM (select id from users order by id limit 10) count_",
+        CountSqlSource.toCountSql("select id from users order by id limit 10"));
+  }
+
+  @Test
+  public void shouldKeepParameterPlaceholders() {
+    assertEquals("SELECT COUNT(*) FROM (select ? as kind, id from users) count_",
+        CountSqlSource.toCountSql("select ? as kind, id from users"));
+    assertEquals("SELECT COUNT(*) from users order by case when id = ? then 0 else 1 end",
+        CountSqlSource.toCountSql("select id from users order by case when id = ? then 0 else 1 end"));
+  }
+
+  @Test
+  public void shouldWrapCommonTableExpressions() {
+    assertEquals("SELECT COUNT(*) FROM (with t as (select id from users) select id from t) count_",
+        CountSqlSource.toCountSql("with t as (select id from users) select id from t order by id"));
+  }
+
+}
@@ -30,6 +30,7 @@ import org.apache.ibatis.builder.mapper.CustomMapper;
 import org.apache.ibatis.builder.typehandler.CustomIntegerTypeHandler;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.dialect.H2Dialect;
 import org.apache.ibatis.domain.blog.Author;
 import org.apache.ibatis.domain.blog.Blog;
 import org.apache.ibatis.domain.blog.mappers.BlogMapper;
@@ -96,6 +97,7 @@ public class XmlConfigBuilderTest {
     assertNull(config.getLogPrefix());
     assertNull(config.getLogImpl());
     assertNull(config.getConfigurationFactory());
+    assertFalse(config.isMetricsEnabled());
   }
 
   enum MyEnum {
@@ -265,6 +267,25 @@ public class XmlConfigBuilderTest {
     builder.parse();
   }
 
+  @Test
+  public void shouldResolveDialectNamesWithoutReservingTypeAliases() {
+    final String MAPPER_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+            + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+            + "<configuration>\n"
+            + "  <settings>\n"
+            + "    <setting name=\"dialect\" value=\"h2\"/>\n"
+            + "  </settings>\n"
+            + "  <typeAliases>\n"
+            + "    <typeAlias alias=\"oracle\" type=\"org.apache.ibatis.domain.blog.Author\"/>\n"
+            + "  </typeAliases>\n"
+            + "</configuration>\n";
+
+    XMLConfigBuilder builder = new XMLConfigBuilder(new StringReader(MAPPER_CONFIG));
+    Configuration config = builder.parse();
+    assertThat(config.getDialect(), is(instanceOf(H2Dialect.class)));
+    assertEquals(Author.class, config.getTypeAliasRegistry().resolveAlias("ORACLE"));
+  }
+
   @Test
   public void unknownJavaTypeOnTypeHandler() {
     final String MAPPER_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml.dynamic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ognl.Ognl;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.scripting.xmltags.CompiledExpression;
+import org.apache.ibatis.scripting.xmltags.DynamicContext;
+import org.apache.ibatis.scripting.xmltags.OgnlCache;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class CompiledExpressionTest {
+
+  private static final String[] EXPRESSIONS = {
+      "name", "name != null", "name != null and name != ''", "name == null or name == ''",
+      "id", "id == 0", "id != ''", "id > 1", "id >= 1", "id < 1", "id lte 1", "id gt 1 && id lt 10",
+      "!active", "not active", "! active == false", "active and id", "name or id",
+      "list != null and list.size() > 0", "list.isEmpty()", "map.size() == 2", "name.length() > 3", "name.isEmpty()",
+      "list.length() > 0", "map.length() == 0", "name.size() > 0",
+      "author.username == 'cbegin'", "author.section == 'NEWS'", "author.id != null", "map.key == \"value\"",
+      "missing == null", "(id == 1 or id == 2) and name != null", "true", "false or null", "_parameter != null", "_databaseId == null"
+  };
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  public void shouldEvaluateLikeOgnl() throws Exception {
+    for (Map<String, Object> parameter : parameters()) {
+      Map<String, Object> bindings = new DynamicContext(configuration, parameter).getBindings();
+      for (String expression : EXPRESSIONS) {
+        CompiledExpression compiled = CompiledExpression.compile(expression);
+        assertNotNull(expression, compiled);
+        Object expected = null;
+        try {
+          expected = Ognl.getValue(Ognl.parseExpression(expression), Ognl.createDefaultContext(bindings), bindings);
+        } catch (Exception e) {
+          // OGNL 求值失败时，编译后的表达式也必须失败，以便回退到 OGNL
+          try {
+            compiled.getValue(bindings);
+            fail(expression + " with " + parameter + " should have failed like OGNL: " + e);
+          } catch (RuntimeException expectedFailure) {
+            continue;
+          }
+        }
+        assertEquals(expression + " with " + parameter, expected, compiled.getValue(bindings));
+      }
+    }
+  }
+
+  @Test
+  public void shouldNotCompileOtherExpressions() {
+    String[] expressions = {"id + 1 > 2", "list[0] != null", "@java.lang.Math@max(1, 2)", "name == 'a'", "id in {1, 2}",
+        "id == 010", "id == 1L", "id > 1.5", "name != null ? 1 : 0", "id == 1 == true", "size()", "name.trim() != ''"};
+    for (String expression : expressions) {
+      assertNull(expression, CompiledExpression.compile(expression));
+    }
+  }
+
+  @Test
+  public void shouldFallBackToOgnl() {
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("list", Arrays.asList(1, 2, 3));
+    Map<String, Object> bindings = new DynamicContext(configuration, parameter).getBindings();
+    // List 的 size 属性由 OGNL 的 ListPropertyAccessor 处理
+    assertEquals(3, OgnlCache.getValue("list.size", bindings));
+    try {
+      OgnlCache.getValue("missing.name != null", bindings);
+      fail("Should have thrown BuilderException");
+    } catch (BuilderException e) {
+      // expected: OGNL reports the null source
+    }
+  }
+
+  private List<Map<String, Object>> parameters() {
+    List<Map<String, Object>> parameters = new ArrayList<Map<String, Object>>();
+    parameters.add(new HashMap<String, Object>());
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("name", "");
+    parameter.put("id", 0);
+    parameter.put("active", Boolean.FALSE);
+    parameter.put("list", new ArrayList<Object>());
+    parameter.put("map", new HashMap<String, Object>());
+    parameter.put("author", new Author(0, null, null, null, null, null));
+    parameters.add(parameter);
+    parameter = new HashMap<String, Object>();
+    parameter.put("name", "cbegin");
+    parameter.put("id", 5L);
+    parameter.put("active", "true");
+    parameter.put("list", Arrays.asList("a", "b"));
+    Map<String, Object> map = new HashMap<String, Object>();
+    map.put("key", "value");
+    map.put("other", 1);
+    parameter.put("map", map);
+    parameter.put("author", new Author(1, "cbegin", "******", "cbegin@apache.org", "N/A", Section.NEWS));
+    parameters.add(parameter);
+    return parameters;
+  }
+}
@@ -16,6 +16,8 @@
 package org.apache.ibatis.builder.xml.dynamic;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -27,20 +29,27 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.dialect.HsqldbDialect;
+import org.apache.ibatis.dialect.MySqlDialect;
+import org.apache.ibatis.dialect.PostgreSqlDialect;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.scripting.xmltags.ChooseSqlNode;
 import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
 import org.apache.ibatis.scripting.xmltags.ForEachSqlNode;
 import org.apache.ibatis.scripting.xmltags.IfSqlNode;
+import org.apache.ibatis.scripting.xmltags.InSqlNode;
 import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
 import org.apache.ibatis.scripting.xmltags.SetSqlNode;
 import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
 import org.apache.ibatis.scripting.xmltags.TextSqlNode;
 import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.type.ArrayParameter;
+import org.apache.ibatis.type.ArrayTypeHandler;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -364,6 +373,163 @@ public class DynamicSqlSourceTest extends BaseDataTest {
     assertEquals("__frch_u_0", boundSql.getParameterMappings().get(3).getProperty());
   }
 
+  @Test
+  public void shouldReuseParameterMappingsOfTheSameSqlShape() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "ids", null, "item", "(", ")", ","));
+    BoundSql first = source.getBoundSql(idsParameter(1, 2));
+    BoundSql second = source.getBoundSql(idsParameter(3, 4));
+    assertEquals("SELECT * FROM BLOG WHERE ID IN (  ? , ? )", second.getSql());
+    assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals(3, second.getAdditionalParameter("__frch_item_0"));
+    assertEquals(4, second.getAdditionalParameter("__frch_item_1"));
+
+    BoundSql third = source.getBoundSql(idsParameter(1, 2, 3));
+    assertEquals(3, third.getParameterMappings().size());
+    assertNotSame(first.getParameterMappings(), third.getParameterMappings());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shouldNotModifyParameterMappingsOfACachedSqlShape() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "ids", null, "item", "(", ")", ","));
+    source.getBoundSql(idsParameter(1, 2)).getParameterMappings().clear();
+  }
+
+  @Test
+  public void shouldParseAgainWhenTheTypeOfABoundValueChanges() throws Exception {
+    DynamicSqlSource source = createDynamicSqlSource(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+        new ForEachSqlNode(new Configuration(), mixedContents(new TextSqlNode("#{item}")), "ids", null, "item", "(", ")", ","));
+    BoundSql integers = source.getBoundSql(idsParameter(1));
+    assertEquals(Integer.class, integers.getParameterMappings().get(0).getJavaType());
+    BoundSql strings = source.getBoundSql(idsParameter("a"));
+    assertEquals(String.class, strings.getParameterMappings().get(0).getJavaType());
+  }
+
+  @Test
+  public void shouldNotCacheShapesWhenDisabled() {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlShapeCacheSize(0);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(new TextSqlNode("SELECT * FROM BLOG WHERE ID = #{id}")));
+    assertNotSame(source.getBoundSql(new Bean("1")).getParameterMappings(), source.getBoundSql(new Bean("1")).getParameterMappings());
+  }
+
+  @Test
+  public void shouldEvictShapesBeyondTheCacheSize() {
+    Configuration configuration = new Configuration();
+    configuration.setDynamicSqlShapeCacheSize(1);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")), "ids", null, "item", "(", ")", ",")));
+    BoundSql first = source.getBoundSql(idsParameter(1));
+    assertSame(first.getParameterMappings(), source.getBoundSql(idsParameter(2)).getParameterMappings());
+    source.getBoundSql(idsParameter(1, 2));
+    assertNotSame(first.getParameterMappings(), source.getBoundSql(idsParameter(3)).getParameterMappings());
+  }
+
+  @Test
+  public void shouldNotPadBeyondTheMaxInListSize() {
+    Configuration configuration = new Configuration();
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")), "ids", null, "item", "(", ")", ",", true)));
+    assertEquals(8, source.getBoundSql(idsParameter(1, 2, 3)).getParameterMappings().size());
+    // 1024 would exceed the 1000 items allowed in an IN list
+    assertEquals(1000, source.getBoundSql(idsParameter(new Object[600])).getParameterMappings().size());
+    assertEquals(1200, source.getBoundSql(idsParameter(new Object[1200])).getParameterMappings().size());
+  }
+
+  @Test
+  public void shouldBindForEachItemsByPosition() {
+    Configuration configuration = new Configuration();
+    configuration.setPositionalForeachBinding(true);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+        new ForEachSqlNode(configuration, mixedContents(new StaticTextSqlNode("#{item, jdbcType=INTEGER}")), "ids", null, "item", "(", ")", ",")));
+    BoundSql boundSql = source.getBoundSql(idsParameter(1, 2));
+    assertEquals("SELECT * FROM BLOG WHERE ID IN ( ? , ? )", boundSql.getSql());
+    assertEquals("__frch_item_0[1]", boundSql.getParameterMappings().get(1).getProperty());
+    assertEquals(2, boundSql.getAdditionalParameter("__frch_item_0[1]"));
+    assertEquals(2, boundSql.getAdditionalParameter("item"));
+  }
+
+  @Test
+  public void shouldBindForEachItemsByNameWhenTheIndexIsUsed() {
+    Configuration configuration = new Configuration();
+    configuration.setPositionalForeachBinding(true);
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+        new ForEachSqlNode(configuration, mixedContents(new StaticTextSqlNode("#{i}")), "ids", "i", "item", "(", ")", ",")));
+    BoundSql boundSql = source.getBoundSql(idsParameter(5, 6));
+    assertEquals("__frch_i_1", boundSql.getParameterMappings().get(1).getProperty());
+    assertEquals(1, boundSql.getAdditionalParameter("__frch_i_1"));
+  }
+
+  @Test
+  public void shouldPadForEachItemsToBuckets() {
+    Configuration configuration = new Configuration();
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE ID IN"),
+        new ForEachSqlNode(configuration, mixedContents(new TextSqlNode("#{item}")), "ids", null, "item", "(", ")", ",", true)));
+    BoundSql boundSql = source.getBoundSql(idsParameter(1, 2, 3));
+    assertEquals(8, boundSql.getParameterMappings().size());
+    assertEquals(3, boundSql.getAdditionalParameter("__frch_item_7"));
+    assertEquals(0, source.getBoundSql(idsParameter()).getParameterMappings().size());
+  }
+
+  @Test
+  public void shouldBindInCollectionAsArray() {
+    Configuration configuration = new Configuration();
+    configuration.setDialect(new HsqldbDialect());
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE"), new InSqlNode(configuration, "ID", "ids", "INTEGER")));
+    BoundSql boundSql = source.getBoundSql(idsParameter(1, 2, 3));
+    assertEquals("SELECT * FROM BLOG WHERE ID IN (UNNEST(?))", boundSql.getSql());
+    assertEquals(1, boundSql.getParameterMappings().size());
+    assertEquals(ArrayTypeHandler.class, boundSql.getParameterMappings().get(0).getTypeHandler().getClass());
+    ArrayParameter array = (ArrayParameter) boundSql.getAdditionalParameter("__in_0");
+    assertEquals("INTEGER", array.getTypeName());
+    assertEquals(Arrays.asList(1, 2, 3), Arrays.asList(array.getElements()));
+  }
+
+  @Test
+  public void shouldNameArrayElementTypesLikeTheDialect() {
+    Configuration configuration = new Configuration();
+    configuration.setDialect(new PostgreSqlDialect());
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE"), new InSqlNode(configuration, "SCORE", "ids", null)));
+    BoundSql boundSql = source.getBoundSql(idsParameter(1.5, 2.5));
+    assertEquals("SELECT * FROM BLOG WHERE SCORE = ANY(?)", boundSql.getSql());
+    assertEquals("float8", ((ArrayParameter) boundSql.getAdditionalParameter("__in_0")).getTypeName());
+  }
+
+  @Test
+  public void shouldSplitInCollectionWhenArraysAreNotSupported() {
+    Configuration configuration = new Configuration();
+    configuration.setDialect(new MySqlDialect() {
+      @Override
+      public int getMaxInListSize() {
+        return 2;
+      }
+    });
+    DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new TextSqlNode("SELECT * FROM BLOG WHERE"), new InSqlNode(configuration, "ID", "ids", null)));
+    BoundSql boundSql = source.getBoundSql(idsParameter(1, 2, 3));
+    assertEquals("SELECT * FROM BLOG WHERE (ID IN (?, ?) OR ID IN (?))", boundSql.getSql());
+    assertEquals("__in_0[2]", boundSql.getParameterMappings().get(2).getProperty());
+    assertEquals("SELECT * FROM BLOG WHERE ID IN (?, ?)", source.getBoundSql(idsParameter(1, 2)).getSql());
+    assertEquals("SELECT * FROM BLOG WHERE 1 = 0", source.getBoundSql(idsParameter()).getSql());
+  }
+
+  private Map<String, Object> idsParameter(Object... ids) {
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("ids", Arrays.asList(ids));
+    return parameter;
+  }
+
   private DynamicSqlSource createDynamicSqlSource(SqlNode... contents) throws IOException, SQLException {
     createBlogDataSource();
     final String resource = "org/apache/ibatis/builder/MapperConfig.xml";
@@ -0,0 +1,96 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.dialect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.ibatis.session.RowBounds;
+import org.junit.Test;
+
+public class DialectTest {
+
+  private static final String SQL = "select * from users order by id";
+
+  @Test
+  public void shouldAppendStandardOffsetFetch() {
+    Dialect dialect = new HsqldbDialect();
+    assertEquals(SQL + " OFFSET 20 ROWS FETCH NEXT 10 ROWS ONLY", dialect.getPagingSql(SQL, 20, 10));
+    assertEquals(SQL + " FETCH NEXT 10 ROWS ONLY", dialect.getPagingSql(SQL, RowBounds.NO_ROW_OFFSET, 10));
+    assertEquals(SQL + " OFFSET 20 ROWS", dialect.getPagingSql(SQL, 20, RowBounds.NO_ROW_LIMIT));
+    assertEquals(SQL + " OFFSET 5 ROWS FETCH NEXT 1 ROWS ONLY", new DerbyDialect().getPagingSql(SQL, 5, 1));
+    assertEquals(SQL + " OFFSET 5 ROWS FETCH NEXT 1 ROWS ONLY", new OracleDialect().getPagingSql(SQL, 5, 1));
+  }
+
+  @Test
+  public void shouldAppendLimitOffset() {
+    Dialect dialect = new PostgreSqlDialect();
+    assertEquals(SQL + " LIMIT 10 OFFSET 20", dialect.getPagingSql(SQL, 20, 10));
+    assertEquals(SQL + " LIMIT 10", dialect.getPagingSql(SQL, RowBounds.NO_ROW_OFFSET, 10));
+    assertEquals(SQL + " OFFSET 20", dialect.getPagingSql(SQL, 20, RowBounds.NO_ROW_LIMIT));
+    assertEquals(SQL + " LIMIT 10 OFFSET 20", new H2Dialect().getPagingSql(SQL, 20, 10));
+  }
+
+  @Test
+  public void shouldAppendMySqlLimit() {
+    Dialect dialect = new MySqlDialect();
+    assertEquals(SQL + " LIMIT 20, 10", dialect.getPagingSql(SQL, 20, 10));
+    assertEquals(SQL + " LIMIT 10", dialect.getPagingSql(SQL, RowBounds.NO_ROW_OFFSET, 10));
+    assertEquals(SQL + " LIMIT 20, 18446744073709551615", dialect.getPagingSql(SQL, 20, RowBounds.NO_ROW_LIMIT));
+  }
+
+  @Test
+  public void shouldRemoveTrailingBlanksAndTerminator() {
+    assertEquals(SQL + " LIMIT 10", new H2Dialect().getPagingSql(SQL + " ;\n  ", 0, 10));
+  }
+
+  @Test
+  public void shouldTestColumnAgainstArrayParameter() {
+    assertTrue(new PostgreSqlDialect().supportsArrayParameters());
+    assertEquals("id = ANY(?)", new PostgreSqlDialect().getArrayInPredicate("id", "?"));
+    assertEquals("id = ANY(?)", new H2Dialect().getArrayInPredicate("id", "?"));
+    assertTrue(new HsqldbDialect().supportsArrayParameters());
+    assertEquals("id IN (UNNEST(?))", new HsqldbDialect().getArrayInPredicate("id", "?"));
+    assertFalse(new MySqlDialect().supportsArrayParameters());
+    assertFalse(new OracleDialect().supportsArrayParameters());
+    assertEquals(1000, new OracleDialect().getMaxInListSize());
+  }
+
+  @Test
+  public void shouldAddKeysetConditionInsideStatement() {
+    Dialect dialect = new PostgreSqlDialect();
+    assertTrue(dialect.supportsRowValueComparison());
+    assertFalse(new OracleDialect().supportsRowValueComparison());
+    // HSQLDB 不能推断行值中参数的类型
+    assertFalse(new HsqldbDialect().supportsRowValueComparison());
+    assertEquals("select * from users WHERE (name, id) > (?, ?) ORDER BY name ASC, id ASC",
+        dialect.getKeysetSql("select * from users;", "(name, id) > (?, ?)", "name ASC, id ASC"));
+    assertEquals("select * from users u WHERE ( u.a = ? or (u.b) in (select x from y where z = 1)) AND id > ? ORDER BY id ASC",
+        dialect.getKeysetSql("select * from users u where u.a = ? or (u.b) in (select x from y where z = 1)", "id > ?", "id ASC"));
+    assertEquals("select * from users where name <> 'order by' ORDER BY id ASC",
+        dialect.getKeysetSql("select * from users where name <> 'order by'", null, "id ASC"));
+  }
+
+  @Test
+  public void shouldNotAddKeysetConditionBeforeTrailingClauses() {
+    Dialect dialect = new Sql2008Dialect();
+    assertEquals(null, dialect.getKeysetSql("select * from users order by id", "id > ?", "id ASC"));
+    assertEquals(null, dialect.getKeysetSql("select name, count(*) c from users group by name", "name > ?", "name ASC"));
+    assertEquals(null, dialect.getKeysetSql("select id from a union select id from b", "id > ?", "id ASC"));
+  }
+
+}
@@ -0,0 +1,222 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryCoalescerTest {
+
+  private QueryCoalescer coalescer;
+  private ExecutorService executorService;
+  private AtomicInteger executions;
+  private CountDownLatch release;
+
+  @Before
+  public void setUp() {
+    coalescer = new QueryCoalescer();
+    executorService = Executors.newFixedThreadPool(4);
+    executions = new AtomicInteger();
+    release = new CountDownLatch(1);
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void shouldCopyResultsForWaitingCallers() throws Exception {
+    List<Future<List<Name>>> futures = runConcurrently(new Name("a"), false, false);
+    List<Name> first = futures.get(0).get();
+    List<Name> second = futures.get(1).get();
+    assertEquals(1, executions.get());
+    assertEquals(first, second);
+    assertNotSame(first.get(0), second.get(0));
+  }
+
+  @Test
+  public void shouldShareResultsWhenRequested() throws Exception {
+    List<Future<List<Name>>> futures = runConcurrently(new Name("a"), true, false);
+    List<Name> first = futures.get(0).get();
+    List<Name> second = futures.get(1).get();
+    assertEquals(1, executions.get());
+    assertNotSame(first, second);
+    assertSame(first.get(0), second.get(0));
+  }
+
+  @Test
+  public void shouldRunQueryAgainWhenResultsCannotBeCopied() throws Exception {
+    List<Future<List<Object>>> futures = runConcurrently(new Object(), false, false);
+    for (Future<List<Object>> future : futures) {
+      assertEquals(1, future.get().size());
+    }
+    assertEquals(3, executions.get());
+  }
+
+  @Test
+  public void shouldRunQueryAgainWhenExecutionFails() throws Exception {
+    List<Future<List<Name>>> futures = runConcurrently(new Name("a"), false, true);
+    for (Future<List<Name>> future : futures) {
+      try {
+        future.get();
+        fail();
+      } catch (ExecutionException e) {
+        assertEquals("failed", e.getCause().getMessage());
+      }
+    }
+    // the waiting callers retry, possibly coalesced again
+    assertTrue(executions.get() > 1);
+  }
+
+  @Test
+  public void shouldNotKeepResults() throws Exception {
+    release.countDown();
+    coalescer.query(newKey(), false, null, newQuery(new Name("a"), false));
+    coalescer.query(newKey(), false, null, newQuery(new Name("a"), false));
+    assertEquals(2, executions.get());
+    assertEquals(0, coalescer.getInFlightCount());
+  }
+
+  @Test
+  public void shouldNotCoalesceDifferentKeys() throws Exception {
+    release.countDown();
+    CacheKey other = newKey();
+    other.update("other");
+    coalescer.query(newKey(), false, null, newQuery(new Name("a"), false));
+    coalescer.query(other, false, null, newQuery(new Name("a"), false));
+    assertEquals(2, executions.get());
+  }
+
+  @Test
+  public void shouldRunQueryItselfWhenWaitTimesOut() throws Exception {
+    final QueryCoalescer.Query<Name> query = newQuery(new Name("a"), false);
+    Future<List<Name>> executing = executorService.submit(new Callable<List<Name>>() {
+      @Override
+      public List<Name> call() throws Exception {
+        return coalescer.query(newKey(), false, null, query);
+      }
+    });
+    while (coalescer.getInFlightCount() == 0) {
+      Thread.sleep(5);
+    }
+    Future<List<Name>> waiting = executorService.submit(new Callable<List<Name>>() {
+      @Override
+      public List<Name> call() throws Exception {
+        return coalescer.query(newKey(), false, 1, query);
+      }
+    });
+    // the waiting caller gives up after one second and runs the query while the first execution is still blocked
+    while (executions.get() < 2) {
+      Thread.sleep(5);
+    }
+    assertEquals(0, coalescer.getWaitingCount());
+    release.countDown();
+    assertEquals(1, executing.get().size());
+    assertEquals(1, waiting.get().size());
+    assertEquals(2, executions.get());
+  }
+
+  /**
+   * Starts a query blocked until two other callers wait for it. The first future is the executing caller.
+   */
+  private <E> List<Future<List<E>>> runConcurrently(E result, final boolean shared, boolean fail) throws Exception {
+    final QueryCoalescer.Query<E> query = newQuery(result, fail);
+    List<Future<List<E>>> futures = new ArrayList<Future<List<E>>>();
+    Callable<List<E>> caller = new Callable<List<E>>() {
+      @Override
+      public List<E> call() throws Exception {
+        return coalescer.query(newKey(), shared, null, query);
+      }
+    };
+    futures.add(executorService.submit(caller));
+    while (coalescer.getInFlightCount() == 0) {
+      Thread.sleep(5);
+    }
+    futures.add(executorService.submit(caller));
+    futures.add(executorService.submit(caller));
+    while (coalescer.getWaitingCount() < 2) {
+      Thread.sleep(5);
+    }
+    release.countDown();
+    return futures;
+  }
+
+  private <E> QueryCoalescer.Query<E> newQuery(final E result, final boolean fail) {
+    return new QueryCoalescer.Query<E>() {
+      @Override
+      public List<E> execute() throws SQLException {
+        executions.incrementAndGet();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new SQLException(e);
+        }
+        if (fail) {
+          throw new SQLException("failed");
+        }
+        return new ArrayList<E>(Arrays.asList(result));
+      }
+    };
+  }
+
+  private static CacheKey newKey() {
+    CacheKey key = new CacheKey();
+    key.update("statement");
+    key.update(1);
+    return key;
+  }
+
+  private static class Name implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final String value;
+
+    Name(String value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Name && ((Name) o).value.equals(value);
+    }
+
+    @Override
+    public int hashCode() {
+      return value.hashCode();
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void shouldPutDurationsInPowerOfTwoBuckets() {
+    assertEquals(0, LatencyHistogram.bucketOf(0));
+    assertEquals(1, LatencyHistogram.bucketOf(1));
+    assertEquals(2, LatencyHistogram.bucketOf(2));
+    assertEquals(2, LatencyHistogram.bucketOf(3));
+    assertEquals(11, LatencyHistogram.bucketOf(1024));
+    assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void shouldReportPercentilesAsBucketUpperBounds() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 90; i++) {
+      histogram.record(100000L); // 100 micros
+    }
+    for (int i = 0; i < 10; i++) {
+      histogram.record(5000000L); // 5 millis
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(128, histogram.getPercentileMicros(50));
+    assertEquals(128, histogram.getPercentileMicros(90));
+    assertEquals(8192, histogram.getPercentileMicros(99));
+    assertEquals(5000000L, histogram.getMaxNanos());
+    assertEquals((90 * 100000L + 10 * 5000000L) / 100, histogram.getMeanNanos());
+  }
+
+  @Test
+  public void shouldReportZeroWhenEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentileMicros(99));
+    assertEquals(0, histogram.getMeanNanos());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidPercentile() {
+    new LatencyHistogram().getPercentileMicros(101);
+  }
+
+}
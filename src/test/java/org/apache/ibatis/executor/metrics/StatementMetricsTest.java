@@ -0,0 +1,67 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class StatementMetricsTest {
+
+  @Test
+  public void shouldNotChooseFetchSizeBeforeFirstExecution() {
+    StatementMetrics metrics = new StatementMetrics("test");
+    assertEquals(0, metrics.adaptFetchSize(10, 1000));
+    assertEquals(0, metrics.getFetchSize());
+  }
+
+  @Test
+  public void shouldFetchAverageExecutionInOneRoundTrip() {
+    StatementMetrics metrics = new StatementMetrics("test");
+    metrics.recordExecution(0, 0, 100);
+    assertEquals(121, metrics.adaptFetchSize(10, 1000));
+    assertEquals(121, metrics.getFetchSize());
+  }
+
+  @Test
+  public void shouldKeepFetchSizeWithinBounds() {
+    StatementMetrics metrics = new StatementMetrics("test");
+    metrics.recordExecution(0, 0, 1);
+    assertEquals(10, metrics.adaptFetchSize(10, 1000));
+    metrics.recordExecution(0, 0, 1000000);
+    assertEquals(1000, metrics.adaptFetchSize(10, 1000));
+  }
+
+  @Test
+  public void shouldLimitFetchSizeOfWideRows() {
+    StatementMetrics metrics = new StatementMetrics("test");
+    metrics.recordExecution(0, 0, 100000);
+    metrics.recordRowWidth(8192);
+    assertEquals(StatementMetrics.FETCH_BUFFER_SIZE / 8192, metrics.adaptFetchSize(10, 100000));
+  }
+
+  @Test
+  public void shouldSmoothObservedRows() {
+    StatementMetrics metrics = new StatementMetrics("test");
+    metrics.recordExecution(0, 0, 100);
+    metrics.recordExecution(0, 0, 200);
+    assertEquals(130.0, metrics.getAverageRows(), 0.001);
+    // cursors do not report their rows
+    metrics.recordExecution(0, 0, -1);
+    assertEquals(130.0, metrics.getAverageRows(), 0.001);
+  }
+
+}
@@ -0,0 +1,111 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.parameter;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class ParameterBinderTest {
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  public void shouldBindPropertiesOfTheParameterObject() throws Exception {
+    List<ParameterMapping> mappings = mappings(Integer.class, "id", String.class, "username");
+    Author author = new Author(101, "jim", "secret", "jim@example.com", "bio", null);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new ParameterBinder(configuration, mappings, Author.class).bind(ps, boundSql(mappings, author), author);
+    verify(ps).setInt(1, 101);
+    verify(ps).setString(2, "jim");
+  }
+
+  @Test
+  public void shouldPreferAdditionalParameters() throws Exception {
+    List<ParameterMapping> mappings = mappings(Integer.class, "id", String.class, "item.name");
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("id", 1);
+    BoundSql boundSql = boundSql(mappings, parameter);
+    boundSql.setAdditionalParameter("id", 2);
+    Map<String, Object> item = new HashMap<String, Object>();
+    item.put("name", "foreach item");
+    boundSql.setAdditionalParameter("item", item);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new ParameterBinder(configuration, mappings, HashMap.class).bind(ps, boundSql, parameter);
+    verify(ps).setInt(1, 2);
+    verify(ps).setString(2, "foreach item");
+  }
+
+  @Test
+  public void shouldBindSimpleAndNullParameters() throws Exception {
+    List<ParameterMapping> mappings = mappings(Integer.class, "id", Integer.class, "other");
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new ParameterBinder(configuration, mappings, Integer.class).bind(ps, boundSql(mappings, 5), 5);
+    verify(ps).setInt(1, 5);
+    verify(ps).setInt(2, 5);
+    ps = mock(PreparedStatement.class);
+    new ParameterBinder(configuration, mappings, null).bind(ps, boundSql(mappings, null), null);
+    verify(ps).setNull(1, Types.OTHER);
+    verify(ps).setNull(2, Types.OTHER);
+  }
+
+  @Test
+  public void shouldReuseBindersOfTheSameShape() throws Exception {
+    List<ParameterMapping> mappings = mappings(Integer.class, "id", String.class, "username");
+    MappedStatement ms = new MappedStatement.Builder(configuration, "select", new StaticSqlSource(configuration, "select", mappings), SqlCommandType.SELECT).build();
+    Author author = new Author(101, "jim", "secret", "jim@example.com", "bio", null);
+    BoundSql boundSql = ms.getBoundSql(author);
+    new DefaultParameterHandler(ms, author, boundSql).setParameters(mock(PreparedStatement.class));
+    ParameterBinderCache binders = boundSql.getParameterBinders();
+    assertSame(binders, ms.getBoundSql(author).getParameterBinders());
+    assertSame(binders, boundSql.rewrite("select count(*) from (select) t", mappings).getParameterBinders());
+    ParameterBinder binder = binders.getBinder(mappings, Author.class);
+    assertSame(binder, binders.getBinder(mappings, Author.class));
+    assertNotSame(binder, binders.getBinder(mappings, HashMap.class));
+    assertSame(binders.getBinder(mappings, null), binders.getBinder(mappings, null));
+    List<ParameterMapping> replaced = new ArrayList<ParameterMapping>(mappings);
+    assertNotSame(binders.getBinder(replaced, Author.class), binders.getBinder(replaced, Author.class));
+  }
+
+  private List<ParameterMapping> mappings(Class<?> type1, String property1, Class<?> type2, String property2) {
+    List<ParameterMapping> mappings = new ArrayList<ParameterMapping>();
+    mappings.add(new ParameterMapping.Builder(configuration, property1, type1).build());
+    mappings.add(new ParameterMapping.Builder(configuration, property2, type2).build());
+    return mappings;
+  }
+
+  private BoundSql boundSql(List<ParameterMapping> mappings, Object parameterObject) {
+    return new BoundSql(configuration, "select", mappings, parameterObject);
+  }
+}
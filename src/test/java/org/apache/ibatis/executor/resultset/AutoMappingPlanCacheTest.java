@@ -0,0 +1,59 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+public class AutoMappingPlanCacheTest {
+
+  @Test
+  public void shouldEvictPlansBeyondTheCacheSize() {
+    AutoMappingPlanCache cache = new AutoMappingPlanCache();
+    cache.setSize(2);
+    AutoMappingPlan plan1 = newPlan();
+    cache.put("plan1", plan1);
+    cache.put("plan2", newPlan());
+    assertSame(plan1, cache.get("plan1"));
+    AutoMappingPlan plan3 = newPlan();
+    cache.put("plan3", plan3);
+    assertEquals(2, cache.getPlanCount());
+    assertSame(plan3, cache.get("plan3"));
+  }
+
+  @Test
+  public void shouldNotCacheWhenSizeIsZero() {
+    AutoMappingPlanCache cache = new AutoMappingPlanCache();
+    cache.setSize(0);
+    cache.put("plan1", newPlan());
+    assertNull(cache.get("plan1"));
+    assertEquals(0, cache.getPlanCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNegativeSize() {
+    new AutoMappingPlanCache().setSize(-1);
+  }
+
+  private AutoMappingPlan newPlan() {
+    return new AutoMappingPlan(new ArrayList<String>(), new ArrayList<String>());
+  }
+}
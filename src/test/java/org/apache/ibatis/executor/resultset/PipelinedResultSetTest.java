@@ -0,0 +1,238 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class PipelinedResultSetTest {
+
+  private ResultSet rs;
+  private AtomicInteger fetchedRows;
+
+  @Before
+  public void setUp() throws Exception {
+    rs = mock(ResultSet.class);
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(rs.getMetaData()).thenReturn(metaData);
+    when(rs.getStatement()).thenReturn(mock(Statement.class));
+    when(metaData.getColumnCount()).thenReturn(2);
+    when(metaData.getColumnName(1)).thenReturn("ID");
+    when(metaData.getColumnLabel(1)).thenReturn("ID");
+    when(metaData.getColumnName(2)).thenReturn("NAME");
+    when(metaData.getColumnLabel(2)).thenReturn("USER_NAME");
+    fetchedRows = new AtomicInteger();
+  }
+
+  @Test
+  public void shouldReturnRowsInOrder() throws Exception {
+    stubRows(1000, -1);
+    ResultSet pipelined = PipelinedResultSet.newInstance(rs, 100);
+    for (int i = 1; i <= 1000; i++) {
+      assertTrue(pipelined.next());
+      assertEquals(i, pipelined.getInt("id"));
+      assertEquals("User" + i, pipelined.getString(2));
+      assertEquals("User" + i, pipelined.getString("user_name"));
+      assertEquals("User" + i, pipelined.getString("NAME"));
+    }
+    assertFalse(pipelined.next());
+    assertFalse(pipelined.next());
+    pipelined.close();
+    verify(rs).close();
+  }
+
+  @Test
+  public void shouldConvertValues() throws Exception {
+    Timestamp timestamp = new Timestamp(1000L);
+    Clob clob = mock(Clob.class);
+    when(clob.length()).thenReturn(4L);
+    when(clob.getSubString(1, 4)).thenReturn("text");
+    when(rs.next()).thenReturn(true, true, true, false);
+    when(rs.getObject(1)).thenReturn(new BigDecimal("12"), timestamp, null);
+    when(rs.getObject(2)).thenReturn("1", clob, null);
+
+    ResultSet pipelined = PipelinedResultSet.newInstance(rs, 10);
+    assertTrue(pipelined.next());
+    assertEquals(12, pipelined.getInt(1));
+    assertEquals(12L, pipelined.getLong(1));
+    assertEquals(12.0, pipelined.getDouble(1), 0);
+    assertEquals(new BigDecimal("12"), pipelined.getBigDecimal(1));
+    assertEquals("12", pipelined.getString(1));
+    assertTrue(pipelined.getBoolean(2));
+    assertEquals((short) 1, pipelined.getShort(2));
+    assertFalse(pipelined.wasNull());
+
+    assertTrue(pipelined.next());
+    assertSame(timestamp, pipelined.getTimestamp(1));
+    assertEquals(new java.sql.Date(1000L), pipelined.getDate(1));
+    assertEquals(1000L, pipelined.getTime(1).getTime());
+    assertEquals("text", pipelined.getString(2));
+    assertEquals("text", pipelined.getClob(2).getSubString(1, 4));
+
+    assertTrue(pipelined.next());
+    assertEquals(0, pipelined.getInt(1));
+    assertTrue(pipelined.wasNull());
+    assertNull(pipelined.getString(2));
+    assertTrue(pipelined.wasNull());
+    assertNull(pipelined.getObject(2));
+
+    assertFalse(pipelined.next());
+    pipelined.close();
+  }
+
+  @Test
+  public void shouldReadValuesWithOptionsAndStreams() throws Exception {
+    Timestamp timestamp = Timestamp.valueOf("2020-01-02 03:04:05.123456789");
+    when(rs.next()).thenReturn(true, false);
+    when(rs.getObject(1)).thenReturn(new BigDecimal("1.25"), timestamp);
+    when(rs.getObject(2)).thenReturn("text");
+    stubColumnClasses(BigDecimal.class, String.class);
+
+    ResultSet pipelined = PipelinedResultSet.newInstance(rs, 10);
+    assertTrue(pipelined.next());
+    assertEquals(new BigDecimal("1.3"), pipelined.getBigDecimal(1, 1));
+    assertEquals(Integer.valueOf(1), pipelined.getObject(1, Integer.class));
+    assertEquals("1.25", pipelined.getObject(1, String.class));
+    assertEquals(new BigDecimal("1.25"), pipelined.getObject(1, Collections.<String, Class<?>>emptyMap()));
+    assertEquals('t', pipelined.getCharacterStream(2).read());
+    assertEquals('t', pipelined.getAsciiStream(2).read());
+    pipelined.close();
+
+    when(rs.next()).thenReturn(true, false);
+    when(rs.getObject(1)).thenReturn(timestamp);
+    pipelined = PipelinedResultSet.newInstance(rs, 10);
+    assertTrue(pipelined.next());
+    Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    Timestamp utcTimestamp = pipelined.getTimestamp(1, utc);
+    utc.setTime(utcTimestamp);
+    assertEquals(3, utc.get(Calendar.HOUR_OF_DAY));
+    assertEquals(4, utc.get(Calendar.MINUTE));
+    assertEquals(123456789, utcTimestamp.getNanos());
+    pipelined.close();
+  }
+
+  @Test
+  public void shouldOnlyPipelineStandardColumnClasses() throws Exception {
+    ResultSetMetaData metaData = rs.getMetaData();
+    stubColumnClasses(Integer.class, String.class);
+    assertTrue(PipelinedResultSet.isPipelinable(metaData));
+    // drivers may return their own classes, e.g. LocalDateTime or oracle.sql.TIMESTAMP for timestamps
+    when(metaData.getColumnClassName(2)).thenReturn("oracle.sql.TIMESTAMP");
+    assertFalse(PipelinedResultSet.isPipelinable(metaData));
+    // getString on a binary column depends on the driver
+    when(metaData.getColumnClassName(2)).thenReturn(byte[].class.getName());
+    assertFalse(PipelinedResultSet.isPipelinable(metaData));
+  }
+
+  @Test
+  public void shouldRethrowFetchErrorsAfterFetchedRows() throws Exception {
+    stubRows(1000, 3);
+    ResultSet pipelined = PipelinedResultSet.newInstance(rs, 100);
+    for (int i = 1; i <= 3; i++) {
+      assertTrue(pipelined.next());
+      assertEquals(i, pipelined.getInt(1));
+    }
+    try {
+      pipelined.next();
+      fail();
+    } catch (SQLException e) {
+      assertEquals("08000", e.getSQLState());
+      assertEquals("connection lost", e.getCause().getMessage());
+    }
+    pipelined.close();
+  }
+
+  @Test
+  public void shouldStopFetchingWhenClosedEarly() throws Exception {
+    stubRows(Integer.MAX_VALUE, -1);
+    ResultSet pipelined = PipelinedResultSet.newInstance(rs, 128);
+    for (int i = 1; i <= 10; i++) {
+      assertTrue(pipelined.next());
+    }
+    pipelined.close();
+    verify(rs).close();
+    int fetched = fetchedRows.get();
+    // the buffer is bounded
+    assertTrue(fetched <= 128 + 10 + PipelinedResultSet.CHUNK_SIZE + 1);
+    Thread.sleep(50);
+    assertEquals(fetched, fetchedRows.get());
+    assertTrue(pipelined.isClosed());
+  }
+
+  @Test
+  public void shouldRejectUnknownColumns() throws Exception {
+    stubRows(1, -1);
+    ResultSet pipelined = PipelinedResultSet.newInstance(rs, 10);
+    assertTrue(pipelined.next());
+    try {
+      pipelined.getString("missing");
+      fail();
+    } catch (SQLException e) {
+      assertTrue(e.getMessage().contains("missing"));
+    }
+    pipelined.close();
+  }
+
+  private void stubColumnClasses(Class<?> first, Class<?> second) throws SQLException {
+    ResultSetMetaData metaData = rs.getMetaData();
+    when(metaData.getColumnClassName(1)).thenReturn(first.getName());
+    when(metaData.getColumnClassName(2)).thenReturn(second.getName());
+  }
+
+  private void stubRows(final int rows, final int failAfter) throws SQLException {
+    when(rs.next()).thenAnswer(new Answer<Boolean>() {
+      @Override
+      public Boolean answer(InvocationOnMock invocation) throws Throwable {
+        if (fetchedRows.get() == failAfter) {
+          throw new SQLException("connection lost", "08000");
+        }
+        return fetchedRows.incrementAndGet() <= rows;
+      }
+    });
+    when(rs.getObject(anyInt())).thenAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        int column = (Integer) invocation.getArguments()[0];
+        return column == 1 ? (Object) fetchedRows.get() : "User" + fetchedRows.get();
+      }
+    });
+  }
+}
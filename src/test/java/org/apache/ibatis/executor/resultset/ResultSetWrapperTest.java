@@ -0,0 +1,65 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+public class ResultSetWrapperTest {
+
+  @Test
+  public void shouldResolveColumnIndexOnce() throws Exception {
+    ResultSet rs = mockResultSet();
+    when(rs.findColumn("name")).thenReturn(2);
+    ResultSetWrapper rsw = new ResultSetWrapper(rs, new Configuration());
+    assertEquals(2, rsw.getColumnIndex("name"));
+    assertEquals(2, rsw.getColumnIndex("name"));
+    verify(rs, times(1)).findColumn("name");
+  }
+
+  @Test
+  public void shouldNotResolveUnknownColumns() throws Exception {
+    ResultSet rs = mockResultSet();
+    when(rs.findColumn("missing")).thenThrow(new SQLException("Column not found"));
+    ResultSetWrapper rsw = new ResultSetWrapper(rs, new Configuration());
+    assertEquals(-1, rsw.getColumnIndex("missing"));
+    assertEquals(-1, rsw.getColumnIndex("missing"));
+    verify(rs, times(1)).findColumn("missing");
+  }
+
+  private ResultSet mockResultSet() throws SQLException {
+    ResultSet rs = mock(ResultSet.class);
+    ResultSetMetaData rsmd = mock(ResultSetMetaData.class);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rsmd.getColumnCount()).thenReturn(2);
+    when(rsmd.getColumnLabel(1)).thenReturn("id");
+    when(rsmd.getColumnLabel(2)).thenReturn("name");
+    when(rsmd.getColumnType(1)).thenReturn(Types.INTEGER);
+    when(rsmd.getColumnType(2)).thenReturn(Types.VARCHAR);
+    return rs;
+  }
+}
@@ -0,0 +1,200 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.result.ResultMapException;
+import org.apache.ibatis.type.BigDecimalTypeHandler;
+import org.apache.ibatis.type.EnumTypeHandler;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.LongTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RowMapperCompilerTest {
+
+  private RowMapperCompiler compiler;
+  private ResultSet rs;
+
+  @Before
+  public void setUp() {
+    compiler = new RowMapperCompiler();
+    rs = mock(ResultSet.class);
+  }
+
+  @Test
+  public void shouldMapColumnsWithDirectCalls() throws Exception {
+    CompiledRowMapper rowMapper = compiler.getRowMapper("bean", Bean.class, allColumns(), false);
+    assertNotNull(rowMapper);
+    when(rs.getInt(1)).thenReturn(7);
+    when(rs.getString(2)).thenReturn("name");
+    when(rs.getLong(3)).thenReturn(5L);
+    when(rs.getBigDecimal(4)).thenReturn(BigDecimal.TEN);
+    when(rs.getString("COLOR")).thenReturn("RED");
+
+    Bean bean = (Bean) rowMapper.newInstance();
+    assertTrue(rowMapper.map(bean, rs));
+    assertEquals(Integer.valueOf(7), bean.getId());
+    assertEquals("name", bean.getName());
+    assertEquals(5L, bean.getCount());
+    assertEquals(BigDecimal.TEN, bean.getAmount());
+    assertEquals(Color.RED, bean.getColor());
+  }
+
+  @Test
+  public void shouldSkipNullsUnlessCallingSettersOnNulls() throws Exception {
+    when(rs.wasNull()).thenReturn(true);
+    Bean bean = new Bean();
+    bean.setId(1);
+    bean.setName("name");
+    bean.setCount(3);
+    assertFalse(compiler.getRowMapper("bean", Bean.class, allColumns(), false).map(bean, rs));
+    assertEquals(Integer.valueOf(1), bean.getId());
+    assertEquals("name", bean.getName());
+
+    assertFalse(compiler.getRowMapper("bean-nulls", Bean.class, allColumns(), true).map(bean, rs));
+    assertNull(bean.getId());
+    assertNull(bean.getName());
+    assertNull(bean.getColor());
+    // primitives keep their value
+    assertEquals(3L, bean.getCount());
+  }
+
+  @Test
+  public void shouldWrapColumnErrors() throws Exception {
+    when(rs.getInt(1)).thenThrow(new SQLException("bad column"));
+    CompiledRowMapper rowMapper = compiler.getRowMapper("bean", Bean.class, allColumns(), false);
+    try {
+      rowMapper.map(rowMapper.newInstance(), rs);
+      fail();
+    } catch (ResultMapException e) {
+      assertTrue(e.getMessage().contains("'ID'"));
+    }
+  }
+
+  @Test
+  public void shouldCacheRowMappers() {
+    CompiledRowMapper rowMapper = compiler.getRowMapper("bean", Bean.class, allColumns(), false);
+    assertSame(rowMapper, compiler.getRowMapper("bean", Bean.class, allColumns(), false));
+    assertEquals(1, compiler.getCompiledCount());
+  }
+
+  @Test
+  public void shouldNotCompileUnsupportedMappings() {
+    List<RowMapperCompiler.ColumnMapping> mappings = new ArrayList<RowMapperCompiler.ColumnMapping>();
+    mappings.add(new RowMapperCompiler.ColumnMapping(1, "ID", "id", Integer.class, new IntegerTypeHandler()));
+    // no public constructor
+    assertNull(compiler.getRowMapper("hidden", HiddenBean.class, mappings, false));
+    // setter type does not match
+    mappings.set(0, new RowMapperCompiler.ColumnMapping(1, "ID", "id", Long.class, new LongTypeHandler()));
+    assertNull(compiler.getRowMapper("mismatch", Bean.class, mappings, false));
+    // handler type does not match the property
+    mappings.set(0, new RowMapperCompiler.ColumnMapping(1, "ID", "name", String.class, new IntegerTypeHandler()));
+    assertNull(compiler.getRowMapper("handler", Bean.class, mappings, false));
+    // unsupported mappings are remembered
+    assertNull(compiler.getRowMapper("hidden", HiddenBean.class, mappings, false));
+    assertEquals(0, compiler.getCompiledCount());
+  }
+
+  private static List<RowMapperCompiler.ColumnMapping> allColumns() {
+    List<RowMapperCompiler.ColumnMapping> mappings = new ArrayList<RowMapperCompiler.ColumnMapping>();
+    mappings.add(new RowMapperCompiler.ColumnMapping(1, "ID", "id", Integer.class, new IntegerTypeHandler()));
+    mappings.add(new RowMapperCompiler.ColumnMapping(2, "NAME", "name", String.class, new StringTypeHandler()));
+    mappings.add(new RowMapperCompiler.ColumnMapping(3, "COUNT", "count", long.class, new LongTypeHandler()));
+    mappings.add(new RowMapperCompiler.ColumnMapping(4, "AMOUNT", "amount", BigDecimal.class, new BigDecimalTypeHandler()));
+    mappings.add(new RowMapperCompiler.ColumnMapping(5, "COLOR", "color", Color.class, new EnumTypeHandler<Color>(Color.class)));
+    return mappings;
+  }
+
+  public enum Color {
+    RED, GREEN
+  }
+
+  public static class Bean {
+    private Integer id;
+    private String name;
+    private long count;
+    private BigDecimal amount;
+    private Color color;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public void setCount(long count) {
+      this.count = count;
+    }
+
+    public BigDecimal getAmount() {
+      return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+      this.amount = amount;
+    }
+
+    public Color getColor() {
+      return color;
+    }
+
+    public void setColor(Color color) {
+      this.color = color;
+    }
+  }
+
+  public static class HiddenBean {
+    private Integer id;
+
+    private HiddenBean() {
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.domain.misc.RichType;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.junit.Test;
+
+public class PropertyPathTest {
+
+  private final ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+
+  @Test
+  public void shouldReadLikeMetaObject() {
+    RichType rich = new RichType();
+    rich.setRichProperty("property");
+    rich.setRichType(new RichType());
+    rich.getRichType().setRichProperty("nested");
+    rich.getRichType().getRichList().add("item");
+    rich.getRichMap().put("key", "value");
+    rich.getRichMap().put("child", rich.getRichType());
+    Map<String, Object> map = new HashMap<String, Object>();
+    map.put("rich", rich);
+    map.put("array", new int[] { 1, 2 });
+    map.put("names", new String[] { "a", "b" });
+    List<RichType> list = new ArrayList<RichType>();
+    list.add(rich);
+    map.put("list", list);
+
+    String[] expressions = { "richProperty", "richType.richProperty", "richType.richList[0]", "richMap.key",
+        "richMap[key]", "richMap.child.richProperty", "richType.richType", "richType.richType.richProperty" };
+    for (String expression : expressions) {
+      assertEquals(expression, getValue(rich, expression), SystemMetaObject.forObject(rich).getValue(expression));
+    }
+    expressions = new String[] { "rich.richProperty", "array[1]", "names[0]", "list[0].richType.richProperty", "missing.richProperty" };
+    for (String expression : expressions) {
+      assertEquals(expression, getValue(map, expression), SystemMetaObject.forObject(map).getValue(expression));
+    }
+    assertEquals("nested", getValue(rich, "richType.richProperty"));
+    assertEquals(2, getValue(map, "array[1]"));
+    assertNull(getValue(rich, "richType.richType.richProperty"));
+  }
+
+  @Test
+  public void shouldResolveGettersOfEachClass() {
+    PropertyPath path = new PropertyPath("value.richProperty");
+    Map<String, Object> map = new HashMap<String, Object>();
+    RichType rich = new RichType();
+    rich.setRichProperty("rich");
+    map.put("value", rich);
+    assertEquals("rich", getValue(path, map));
+    map.put("value", new RichSubType("sub"));
+    assertEquals("sub", getValue(path, map));
+    map.put("value", new HashMap<String, Object>());
+    assertNull(getValue(path, map));
+  }
+
+  @Test
+  public void shouldFailLikeMetaObject() {
+    RichType rich = new RichType();
+    try {
+      getValue(rich, "unknown");
+      fail();
+    } catch (ReflectionException e) {
+      assertEquals("There is no getter for property named 'unknown' in 'class org.apache.ibatis.domain.misc.RichType'", e.getMessage());
+    }
+    try {
+      getValue(rich, "richList[first]");
+      fail();
+    } catch (NumberFormatException e) {
+      // expected
+    }
+    Map<String, Object> map = new HashMap<String, Object>();
+    map.put("list", new ArrayList<Object>());
+    try {
+      getValue(map, "list.size");
+      fail();
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+  private Object getValue(Object object, String expression) {
+    return getValue(new PropertyPath(expression), object);
+  }
+
+  private Object getValue(PropertyPath path, Object object) {
+    return path.getValue(object, new DefaultObjectFactory(), new DefaultObjectWrapperFactory(), reflectorFactory);
+  }
+
+  public static class RichSubType extends RichType {
+    public RichSubType(String richProperty) {
+      setRichProperty(richProperty);
+    }
+  }
+}
@@ -15,8 +15,16 @@
  */
 package org.apache.ibatis.reflection.factory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 import org.apache.ibatis.reflection.ReflectionException;
 import org.junit.Assert;
@@ -52,4 +60,33 @@ public class DefaultObjectFactoryTest {
     }
   }
 
+  @Test
+  public void createsDefaultCollectionsForInterfaces() {
+    DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
+    Assert.assertEquals(ArrayList.class, defaultObjectFactory.create(List.class).getClass());
+    Assert.assertEquals(HashMap.class, defaultObjectFactory.create(Map.class).getClass());
+    Assert.assertEquals(HashSet.class, defaultObjectFactory.create(Set.class).getClass());
+    Assert.assertEquals(TreeSet.class, defaultObjectFactory.create(SortedSet.class).getClass());
+    Assert.assertNotSame(defaultObjectFactory.create(List.class), defaultObjectFactory.create(List.class));
+  }
+
+  @Test
+  public void reusesCachedConstructorsForEqualArgTypes() {
+    DefaultObjectFactory defaultObjectFactory = new DefaultObjectFactory();
+    for (int i = 0; i < 3; i++) {
+      List<Class<?>> argTypes = new ArrayList<Class<?>>();
+      argTypes.add(String.class);
+      argTypes.add(Integer.class);
+      TestClass testClass = defaultObjectFactory.create(TestClass.class, argTypes, Arrays.<Object>asList("foo" + i, i));
+      Assert.assertEquals("foo" + i, testClass.myString);
+      Assert.assertEquals((Integer) i, testClass.myInteger);
+    }
+    try {
+      defaultObjectFactory.create(TestClass.class);
+      Assert.fail("Should have thrown ReflectionException");
+    } catch (ReflectionException e) {
+      // expected: TestClass has no default constructor
+    }
+  }
+
 }
@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.apache.ibatis.reflection.Reflector;
+import org.junit.Test;
+
+public class InvokerCompilerTest {
+
+  @Test
+  public void shouldCompileGettersAndSetters() throws Exception {
+    Reflector reflector = new Reflector(Bean.class, true);
+    assertTrue(reflector.getGetInvoker("name") instanceof CompiledMethodInvoker);
+    assertTrue(reflector.getSetInvoker("count") instanceof CompiledMethodInvoker);
+    assertTrue(reflector.getSetInvoker("tags") instanceof CompiledMethodInvoker);
+    assertTrue(reflector.getGetInvoker("active") instanceof CompiledMethodInvoker);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { "name" });
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { 10L });
+    reflector.getSetInvoker("tags").invoke(bean, new Object[] { new String[] { "a", "b" } });
+    reflector.getSetInvoker("active").invoke(bean, new Object[] { Boolean.TRUE });
+    assertEquals("name", reflector.getGetInvoker("name").invoke(bean, new Object[0]));
+    assertEquals(10L, reflector.getGetInvoker("count").invoke(bean, new Object[0]));
+    assertArrayEquals(new String[] { "a", "b" }, (String[]) reflector.getGetInvoker("tags").invoke(bean, new Object[0]));
+    assertEquals(Boolean.TRUE, reflector.getGetInvoker("active").invoke(bean, new Object[0]));
+    reflector.getSetInvoker("name").invoke(bean, new Object[] { null });
+    assertNull(bean.getName());
+  }
+
+  @Test
+  public void shouldConvertValuesLikeReflection() throws Exception {
+    Reflector reflector = new Reflector(Bean.class, true);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { 5 });
+    assertEquals(5L, bean.getCount());
+    try {
+      reflector.getSetInvoker("count").invoke(bean, new Object[] { null });
+      fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      reflector.getSetInvoker("name").invoke(bean, new Object[] { 1 });
+      fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void shouldWrapExceptionsOfGetters() throws Exception {
+    Reflector reflector = new Reflector(Bean.class, true);
+    try {
+      reflector.getGetInvoker("broken").invoke(new Bean(), new Object[0]);
+      fail();
+    } catch (InvocationTargetException e) {
+      assertEquals("broken", e.getCause().getMessage());
+    }
+  }
+
+  @Test
+  public void shouldKeepReflectiveInvokersOfInaccessibleMembers() throws Exception {
+    Reflector reflector = new Reflector(PrivateBean.class, true);
+    assertSame(MethodInvoker.class, reflector.getGetInvoker("name").getClass());
+    reflector = new Reflector(Bean.class, true);
+    assertSame(GetFieldInvoker.class, reflector.getGetInvoker("field").getClass());
+  }
+
+  @Test
+  public void shouldNotCompileByDefault() throws Exception {
+    Reflector reflector = new Reflector(Bean.class);
+    assertSame(MethodInvoker.class, reflector.getGetInvoker("name").getClass());
+  }
+
+  public static class Bean {
+    private String name;
+    private long count;
+    private String[] tags;
+    private boolean active;
+    private String field;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public void setCount(long count) {
+      this.count = count;
+    }
+
+    public String[] getTags() {
+      return tags;
+    }
+
+    public void setTags(String[] tags) {
+      this.tags = tags;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public void setActive(boolean active) {
+      this.active = active;
+    }
+
+    public String getBroken() {
+      throw new IllegalStateException("broken");
+    }
+  }
+
+  private static class PrivateBean {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.array_in;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.dialect.Dialect;
+import org.apache.ibatis.dialect.MySqlDialect;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ArrayInTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/array_in/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/array_in/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldBindListAsArray() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers(Arrays.asList(4, 2, 7));
+      assertEquals(2, users.size());
+      assertEquals("User2", users.get(0).getName());
+      assertEquals("User4", users.get(1).getName());
+      BoundSql boundSql = getBoundSql("getUsers", Arrays.asList(4, 2, 7));
+      assertEquals(1, boundSql.getParameterMappings().size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldBindArrayOfStrings() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsersByName("User1", "User3", "Nobody");
+      assertEquals(2, users.size());
+      assertEquals("User3", users.get(1).getName());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReturnNothingForEmptyList() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(0, mapper.getUsers(new ArrayList<Integer>()).size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldSplitLongListsWhenArraysAreNotSupported() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    Dialect dialect = configuration.getDialect();
+    configuration.setDialect(new MySqlDialect());
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<Integer> ids = new ArrayList<Integer>();
+      for (int i = 2500; i > 0; i--) {
+        ids.add(i);
+      }
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers(ids);
+      assertEquals(4, users.size());
+      BoundSql boundSql = getBoundSql("getUsers", ids);
+      assertEquals(2500, boundSql.getParameterMappings().size());
+      assertEquals(2, boundSql.getSql().split(" OR ").length - 1);
+    } finally {
+      sqlSession.close();
+      configuration.setDialect(dialect);
+    }
+  }
+
+  @Test
+  public void shouldFreeArraysAfterExecution() throws Exception {
+    SqlSession session = sqlSessionFactory.openSession();
+    List<Array> arrays = new ArrayList<Array>();
+    SqlSession sqlSession = sqlSessionFactory.openSession(recordArrays(session.getConnection(), arrays));
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(2, mapper.getUsers(Arrays.asList(4, 2, 7)).size());
+      assertEquals(1, arrays.size());
+      assertFreed(arrays.get(0));
+    } finally {
+      sqlSession.close();
+      session.close();
+    }
+  }
+
+  @Test
+  public void shouldFreeArraysOfReusedStatements() throws Exception {
+    SqlSession session = sqlSessionFactory.openSession();
+    List<Array> arrays = new ArrayList<Array>();
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.REUSE, recordArrays(session.getConnection(), arrays));
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals(2, mapper.getUsers(Arrays.asList(4, 2, 7)).size());
+      assertEquals(1, mapper.getUsers(Arrays.asList(1, 9)).size());
+      assertEquals(2, arrays.size());
+      assertFreed(arrays.get(0));
+    } finally {
+      sqlSession.close();
+      session.close();
+    }
+    assertFreed(arrays.get(1));
+  }
+
+  // the type handler creates the arrays with the connection of the statement
+  private Connection recordArrays(final Connection connection, final List<Array> arrays) {
+    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class }, new InvocationHandler() {
+      @Override
+      public Object invoke(final Object proxy, Method method, Object[] args) throws Throwable {
+        Object result = invokeOn(connection, method, args);
+        if ("createArrayOf".equals(method.getName())) {
+          arrays.add((Array) result);
+        } else if (result instanceof PreparedStatement) {
+          final PreparedStatement ps = (PreparedStatement) result;
+          result = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object statement, Method method, Object[] args) throws Throwable {
+              return "getConnection".equals(method.getName()) ? proxy : invokeOn(ps, method, args);
+            }
+          });
+        }
+        return result;
+      }
+    });
+  }
+
+  private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private void assertFreed(Array array) {
+    try {
+      array.getArray();
+      fail("The array should have been freed");
+    } catch (SQLException e) {
+      // expected
+    }
+  }
+
+  private BoundSql getBoundSql(String id, List<Integer> ids) {
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("list", ids);
+    return sqlSessionFactory.getConfiguration().getMappedStatement("org.apache.ibatis.submitted.array_in.Mapper." + id)
+        .getBoundSql(parameter);
+  }
+
+}
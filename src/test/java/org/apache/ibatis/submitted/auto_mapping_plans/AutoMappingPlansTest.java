@@ -0,0 +1,91 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.auto_mapping_plans;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.Reader;
+import java.sql.Connection;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AutoMappingPlansTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/auto_mapping_plans/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/auto_mapping_plans/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Before
+  public void clearPlans() {
+    sqlSessionFactory.getConfiguration().getAutoMappingPlanCache().clear();
+  }
+
+  @Test
+  public void shouldSharePlansAcrossSessions() {
+    for (int i = 1; i <= 2; i++) {
+      SqlSession sqlSession = sqlSessionFactory.openSession();
+      try {
+        User user = sqlSession.getMapper(Mapper.class).getUser(i);
+        assertEquals("User" + i, user.getUserName());
+        assertEquals("user" + i + "@example.com", user.getEmail());
+      } finally {
+        sqlSession.close();
+      }
+    }
+    assertEquals(1, sqlSessionFactory.getConfiguration().getAutoMappingPlanCache().getPlanCount());
+  }
+
+  @Test
+  public void shouldKeepPlansOfDifferentColumnsApart() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      User user = mapper.getUserColumns(1, "user_name");
+      assertEquals("User1", user.getUserName());
+      assertNull(user.getEmail());
+      user = mapper.getUserColumns(2, "email");
+      assertNull(user.getUserName());
+      assertEquals("user2@example.com", user.getEmail());
+    } finally {
+      sqlSession.close();
+    }
+    assertEquals(2, sqlSessionFactory.getConfiguration().getAutoMappingPlanCache().getPlanCount());
+  }
+}
@@ -0,0 +1,179 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.block_select_key;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.executor.keygen.BlockSelectKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlockSelectKeyTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @Before
+  public void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/block_select_key/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/block_select_key/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldAllocateKeysFromIncrementedSequence() {
+    assertTrue(sqlSessionFactory.getConfiguration().getKeyGenerator("org.apache.ibatis.submitted.block_select_key.Mapper.insertUser!selectKey") instanceof BlockSelectKeyGenerator);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 25; i++) {
+        User user = new User("User" + i);
+        mapper.insertUser(user);
+        assertEquals(Long.valueOf(i), user.getId());
+      }
+      assertEquals(25, mapper.countUsers());
+      // 3 blocks of 10 keys were read
+      long next = sqlSession.<Long>selectOne("org.apache.ibatis.submitted.block_select_key.Mapper.insertUser!selectKey");
+      assertEquals(31L, next);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldAllocateKeysWithHiLo() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 7; i++) {
+        Item item = new Item("Item" + i);
+        mapper.insertItem(item);
+        assertEquals(Short.valueOf((short) i), item.getId());
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldAllocateKeysInBatch() {
+    SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= 15; i++) {
+        mapper.insertUser(new User("User" + i));
+      }
+      sqlSession.flushStatements();
+      sqlSession.commit();
+      assertEquals(15, mapper.countUsers());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotHandOutKeysTwiceConcurrently() throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    final Set<Long> keys = Collections.synchronizedSet(new HashSet<Long>());
+    try {
+      Set<Future<Object>> futures = new HashSet<Future<Object>>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(executorService.submit(new Callable<Object>() {
+          @Override
+          public Object call() {
+            SqlSession sqlSession = sqlSessionFactory.openSession();
+            try {
+              Mapper mapper = sqlSession.getMapper(Mapper.class);
+              for (int i = 0; i < 20; i++) {
+                User user = new User("User");
+                mapper.insertUser(user);
+                keys.add(user.getId());
+              }
+              sqlSession.commit();
+            } finally {
+              sqlSession.close();
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Object> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdown();
+    }
+    assertEquals(80, keys.size());
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      assertEquals(80, sqlSession.getMapper(Mapper.class).countUsers());
+      // exactly 8 blocks of 10 keys were read, none was discarded
+      long next = sqlSession.<Long>selectOne("org.apache.ibatis.submitted.block_select_key.Mapper.insertUser!selectKey");
+      assertEquals(81L, next);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldRequireBlockKeysBeforeInsert() throws Exception {
+    String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">"
+        + "<mapper namespace=\"blockAfter\"><insert id=\"insert\">"
+        + "<selectKey keyProperty=\"id\" resultType=\"long\" order=\"AFTER\" blockSize=\"10\">call next value for user_seq</selectKey>"
+        + "insert into users (id, name) values (#{id}, #{name})</insert></mapper>";
+    Configuration configuration = new Configuration();
+    try {
+      new XMLMapperBuilder(new StringReader(xml), configuration, "blockAfter.xml", configuration.getSqlFragments()).parse();
+      fail();
+    } catch (BuilderException e) {
+      assertTrue(e.getMessage().contains("BEFORE"));
+    }
+  }
+
+}
@@ -0,0 +1,33 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table users if exists;
+drop table items if exists;
+drop sequence user_seq if exists;
+drop sequence item_hi_seq if exists;
+
+create sequence user_seq as bigint start with 1 increment by 10;
+create sequence item_hi_seq as integer start with 0;
+
+create table users (
+  id bigint not null primary key,
+  name varchar(20)
+);
+
+create table items (
+  id int not null primary key,
+  name varchar(20)
+);
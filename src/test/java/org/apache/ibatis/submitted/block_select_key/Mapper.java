@@ -0,0 +1,31 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.block_select_key;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.SelectKey;
+
+public interface Mapper {
+
+  int insertUser(User user);
+
+  int countUsers();
+
+  @Insert("insert into items (id, name) values (#{id}, #{name})")
+  @SelectKey(statement = "call next value for item_hi_seq", keyProperty = "id", before = true, resultType = int.class, blockSize = 5, hilo = true)
+  int insertItem(Item item);
+
+}
@@ -0,0 +1,108 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mappers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.List;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompiledRowMappersTest {
+
+  private static SqlSessionFactory compiledFactory;
+  private static SqlSessionFactory reflectiveFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mappers/mybatis-config.xml");
+    compiledFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mappers/mybatis-config.xml");
+    reflectiveFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+    reflectiveFactory.getConfiguration().setCompileRowMappers(false);
+
+    // populate in-memory database
+    SqlSession session = compiledFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mappers/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldAutoMapLikeReflection() {
+    List<User> users = select("getUsers", compiledFactory);
+    assertEquals(select("getUsers", reflectiveFactory).toString(), users.toString());
+    assertEquals("User1", users.get(0).getUserName());
+    assertEquals(10L, users.get(0).getScore());
+    assertEquals(new BigDecimal("1.50"), users.get(0).getBalance());
+    assertEquals(Color.RED, users.get(0).getColor());
+    assertEquals(Boolean.TRUE, users.get(0).getActive());
+    assertEquals(0L, users.get(1).getScore());
+    assertNull(users.get(1).getCreated());
+    assertTrue(compiledFactory.getConfiguration().getRowMapperCompiler().getCompiledCount() > 0);
+  }
+
+  @Test
+  public void shouldApplyResultMapLikeReflection() {
+    List<User> users = select("getUsersWithResultMap", compiledFactory);
+    assertEquals(select("getUsersWithResultMap", reflectiveFactory).toString(), users.toString());
+    assertEquals("User1", users.get(0).getUserName());
+    assertEquals(Color.GREEN, users.get(1).getColor());
+    assertNull(users.get(0).getBalance());
+  }
+
+  @Test
+  public void shouldReturnNullForEmptyRows() {
+    List<User> users = select("getUserNames", compiledFactory);
+    assertEquals(select("getUserNames", reflectiveFactory).toString(), users.toString());
+    assertEquals(3, users.size());
+    assertNull(users.get(2));
+  }
+
+  @Test
+  public void shouldMapNestedResultMapsByReflection() {
+    List<User> users = select("getUsersWithTeam", compiledFactory);
+    assertEquals(select("getUsersWithTeam", reflectiveFactory).toString(), users.toString());
+    assertEquals("Team1", users.get(0).getTeam().getName());
+  }
+
+  private static List<User> select(String statement, SqlSessionFactory sqlSessionFactory) {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      return sqlSession.selectList("org.apache.ibatis.submitted.compiled_row_mappers.Mapper." + statement);
+    } finally {
+      sqlSession.close();
+    }
+  }
+}
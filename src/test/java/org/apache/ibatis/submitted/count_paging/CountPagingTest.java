@@ -0,0 +1,150 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.count_paging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.ibatis.builder.CountSqlSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.Page;
+import org.apache.ibatis.session.Paginator;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CountPagingTest {
+
+  private static final String GET_USERS = "org.apache.ibatis.submitted.count_paging.Mapper.getUsers";
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static ExecutorService executorService;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/count_paging/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/count_paging/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+
+    executorService = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    executorService.shutdown();
+  }
+
+  @Test
+  public void shouldDeriveCountStatement() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    assertTrue(configuration.hasStatement(GET_USERS + CountSqlSource.COUNT_STATEMENT_SUFFIX));
+    assertFalse(configuration.hasStatement("org.apache.ibatis.submitted.count_paging.Mapper.insertUser" + CountSqlSource.COUNT_STATEMENT_SUFFIX));
+    MappedStatement countStatement = configuration.getMappedStatement(GET_USERS + CountSqlSource.COUNT_STATEMENT_SUFFIX);
+    assertEquals("SELECT COUNT(*) from users WHERE name like ?", countStatement.getBoundSql(nameLike("%")).getSql().replaceAll("\\s+", " "));
+    assertEquals(Long.class, countStatement.getResultMaps().get(0).getType());
+  }
+
+  @Test
+  public void shouldCountWithParameters() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      assertEquals(Long.valueOf(7), sqlSession.selectOne(GET_USERS + CountSqlSource.COUNT_STATEMENT_SUFFIX, nameLike(null)));
+      assertEquals(Long.valueOf(1), sqlSession.selectOne(GET_USERS + CountSqlSource.COUNT_STATEMENT_SUFFIX, nameLike("User3")));
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReadPageAndCountConcurrently() {
+    Paginator paginator = new Paginator(sqlSessionFactory, executorService);
+    Page<User> page = paginator.selectPage(GET_USERS, nameLike(null), new RowBounds(2, 3));
+    assertEquals(3, page.size());
+    assertEquals("User3", page.get(0).getName());
+    assertEquals(7, page.getTotal());
+    assertEquals(2, page.getOffset());
+    assertEquals(3, page.getLimit());
+    assertTrue(page.hasNextPage());
+  }
+
+  @Test
+  public void shouldReadPageAndCountInOneSession() {
+    Paginator paginator = new Paginator(sqlSessionFactory);
+    Page<User> page = paginator.selectPage(GET_USERS, nameLike(null), new RowBounds(0, 5));
+    assertEquals(5, page.size());
+    assertEquals(7, page.getTotal());
+    page = paginator.selectPage(GET_USERS, nameLike(null), new RowBounds(5, 5));
+    assertEquals(2, page.size());
+    assertEquals(7, page.getTotal());
+    assertFalse(page.hasNextPage());
+  }
+
+  @Test
+  public void shouldCacheCountsPerParameterSet() {
+    Paginator paginator = new Paginator(sqlSessionFactory, executorService);
+    assertEquals(0, paginator.selectPage(GET_USERS, nameLike("Other%"), new RowBounds(0, 2)).getTotal());
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.insert("org.apache.ibatis.submitted.count_paging.Mapper.insertUser", new User(8, "Other8"));
+      sqlSession.insert("org.apache.ibatis.submitted.count_paging.Mapper.insertUser", new User(9, "Other9"));
+      sqlSession.insert("org.apache.ibatis.submitted.count_paging.Mapper.insertUser", new User(10, "Other10"));
+      sqlSession.commit();
+
+      Page<User> page = paginator.selectPage(GET_USERS, nameLike("Other%"), new RowBounds(0, 2));
+      assertEquals(2, page.size());
+      // count read before the inserts is still cached
+      assertEquals(0, page.getTotal());
+      assertEquals(3, paginator.selectPage(GET_USERS, nameLike("Oth%"), new RowBounds(0, 1)).getTotal());
+    } finally {
+      sqlSession.delete("org.apache.ibatis.submitted.count_paging.Mapper.deleteUser", new User(8, null));
+      sqlSession.delete("org.apache.ibatis.submitted.count_paging.Mapper.deleteUser", new User(9, null));
+      sqlSession.delete("org.apache.ibatis.submitted.count_paging.Mapper.deleteUser", new User(10, null));
+      sqlSession.commit();
+      sqlSession.close();
+    }
+  }
+
+  private static Map<String, Object> nameLike(String name) {
+    return Collections.<String, Object> singletonMap("name", name);
+  }
+
+}
@@ -0,0 +1,198 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.cursor_simple;
+
+import org.apache.ibatis.cursor.CursorSubscriber;
+import org.apache.ibatis.cursor.CursorSubscription;
+import org.apache.ibatis.cursor.defaults.DefaultCursorPublisher;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CursorPublisherTest {
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        // create a SqlSessionFactory
+        Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/mybatis-config.xml");
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+        reader.close();
+
+        // populate in-memory database
+        SqlSession session = sqlSessionFactory.openSession();
+        Connection conn = session.getConnection();
+        reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/cursor_simple/CreateDB.sql");
+        ScriptRunner runner = new ScriptRunner(conn);
+        runner.setLogWriter(null);
+        runner.runScript(reader);
+        reader.close();
+        session.close();
+    }
+
+    @Test
+    public void shouldEmitOnlyRequestedItems() {
+        DefaultCursorPublisher<User> publisher = new DefaultCursorPublisher<User>(sqlSessionFactory, "getAllUsers");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // Nothing is fetched before the first request
+        Assert.assertNotNull(subscriber.subscription);
+        Assert.assertTrue(subscriber.items.isEmpty());
+
+        subscriber.subscription.request(2);
+        Assert.assertEquals(2, subscriber.items.size());
+        Assert.assertEquals("User1", subscriber.items.get(0).getName());
+        Assert.assertEquals("User2", subscriber.items.get(1).getName());
+        Assert.assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(10);
+        Assert.assertEquals(5, subscriber.items.size());
+        Assert.assertEquals("User5", subscriber.items.get(4).getName());
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertNull(subscriber.error);
+
+        // Further requests are ignored once completed
+        subscriber.subscription.request(1);
+        Assert.assertEquals(5, subscriber.items.size());
+    }
+
+    @Test
+    public void shouldCompleteWhenDemandMatchesRowCount() {
+        DefaultCursorPublisher<User> publisher = new DefaultCursorPublisher<User>(sqlSessionFactory, "getAllUsers");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(5);
+        Assert.assertEquals(5, subscriber.items.size());
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void shouldEmitEverythingOnUnboundedDemand() {
+        DefaultCursorPublisher<User> publisher = new DefaultCursorPublisher<User>(sqlSessionFactory, "getAllUsers", null, new RowBounds(1, 3));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Assert.assertEquals(3, subscriber.items.size());
+        Assert.assertEquals("User2", subscriber.items.get(0).getName());
+        Assert.assertEquals("User4", subscriber.items.get(2).getName());
+        Assert.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void shouldStopEmittingWhenCancelledFromOnNext() {
+        DefaultCursorPublisher<User> publisher = new DefaultCursorPublisher<User>(sqlSessionFactory, "getAllUsers");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscriber.cancelAfter = 3;
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Assert.assertEquals(3, subscriber.items.size());
+        Assert.assertFalse(subscriber.completed);
+        Assert.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void shouldCancelWithoutSignallingErrorWhenOnNextThrows() {
+        DefaultCursorPublisher<User> publisher = new DefaultCursorPublisher<User>(sqlSessionFactory, "getAllUsers");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscriber.failAfter = 2;
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        Assert.assertEquals(2, subscriber.items.size());
+        Assert.assertNull(subscriber.error);
+        Assert.assertFalse(subscriber.completed);
+
+        // The subscription is cancelled
+        subscriber.subscription.request(1);
+        Assert.assertEquals(2, subscriber.items.size());
+        Assert.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void shouldSignalErrorOnNonPositiveRequest() {
+        DefaultCursorPublisher<User> publisher = new DefaultCursorPublisher<User>(sqlSessionFactory, "getAllUsers");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+        Assert.assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    public void shouldSignalErrorOnUnknownStatement() {
+        DefaultCursorPublisher<User> publisher = new DefaultCursorPublisher<User>(sqlSessionFactory, "unknownStatement");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        Assert.assertNotNull(subscriber.error);
+        Assert.assertFalse(subscriber.completed);
+    }
+
+    private static class RecordingSubscriber implements CursorSubscriber<User> {
+
+        private final List<User> items = new ArrayList<User>();
+        private CursorSubscription subscription;
+        private boolean completed;
+        private Throwable error;
+        private int cancelAfter = -1;
+        private int failAfter = -1;
+
+        @Override
+        public void onSubscribe(CursorSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(User item) {
+            items.add(item);
+            if (items.size() == cancelAfter) {
+                subscription.cancel();
+            }
+            if (items.size() == failAfter) {
+                throw new IllegalStateException("Subscriber failure");
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.dialect_paging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+
+import org.apache.ibatis.dialect.HsqldbDialect;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DialectPagingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/dialect_paging/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/dialect_paging/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldLoadDialectFromSettings() {
+    assertTrue(sqlSessionFactory.getConfiguration().getDialect() instanceof HsqldbDialect);
+  }
+
+  @Test
+  public void shouldPushDownRowBounds() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers(new RowBounds(2, 3));
+      assertTrue(SqlCaptureInterceptor.lastSql.endsWith("OFFSET 2 ROWS FETCH NEXT 3 ROWS ONLY"));
+      assertEquals(3, users.size());
+      assertEquals("User3", users.get(0).getName());
+      assertEquals("User5", users.get(2).getName());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldPushDownOffsetOnly() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers(new RowBounds(5, RowBounds.NO_ROW_LIMIT));
+      assertTrue(SqlCaptureInterceptor.lastSql.endsWith("OFFSET 5 ROWS"));
+      assertEquals(2, users.size());
+      assertEquals("User6", users.get(0).getName());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotRewriteWithoutRowBounds() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsers(RowBounds.DEFAULT);
+      assertFalse(SqlCaptureInterceptor.lastSql.contains("FETCH"));
+      assertEquals(7, users.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldSkipInMemoryForNestedResultMaps() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsersNested(new RowBounds(1, 2));
+      assertFalse(SqlCaptureInterceptor.lastSql.contains("FETCH"));
+      assertEquals(2, users.size());
+      assertEquals("User2", users.get(0).getName());
+      assertEquals("User2", users.get(0).getSelf().getName());
+      assertEquals("User3", users.get(1).getName());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
@@ -0,0 +1,221 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.keyset_paging;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.dialect.HsqldbDialect;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.KeysetList;
+import org.apache.ibatis.session.KeysetPage;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class KeysetPagingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/keyset_paging/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/keyset_paging/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldWalkAllPagesInKeyOrder() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      KeysetList<User> users = mapper.getUsersById(new KeysetPage(3));
+      assertEquals(3, users.size());
+      assertEquals(Integer.valueOf(1), users.get(0).getId());
+      assertEquals(Integer.valueOf(3), users.get(2).getId());
+      assertTrue(users.hasNextPage());
+      assertArrayEquals(new Object[] { 3 }, users.getNextPage().getLastKey());
+
+      users = mapper.getUsersById(users.getNextPage());
+      assertEquals(3, users.size());
+      assertEquals(Integer.valueOf(4), users.get(0).getId());
+      assertEquals(Integer.valueOf(6), users.get(2).getId());
+
+      users = mapper.getUsersById(users.getNextPage());
+      assertEquals(1, users.size());
+      assertEquals(Integer.valueOf(7), users.get(0).getId());
+      assertFalse(users.hasNextPage());
+      assertNull(users.getNextPage());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldSeekOnCompositeKeyWithMixedDirections() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<String> seen = new ArrayList<String>();
+      KeysetPage page = new KeysetPage(2);
+      while (page != null) {
+        List<User> users = mapper.getUsersByNameDescThenId(6, page);
+        for (User user : users) {
+          seen.add(user.getName() + user.getId());
+        }
+        page = ((KeysetList<User>) users).getNextPage();
+      }
+      List<String> expected = new ArrayList<String>();
+      expected.add("Carol4");
+      expected.add("Bob2");
+      expected.add("Bob5");
+      expected.add("Alice1");
+      expected.add("Alice3");
+      expected.add("Alice7");
+      assertEquals(expected, seen);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldUseAnnotatedKeysetOptions() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      KeysetList<User> users = mapper.getUsersByIdDesc(new KeysetPage(4));
+      assertEquals(4, users.size());
+      assertEquals(Integer.valueOf(7), users.get(0).getId());
+      users = mapper.getUsersByIdDesc(users.getNextPage());
+      assertEquals(3, users.size());
+      assertEquals(Integer.valueOf(3), users.get(0).getId());
+      assertEquals(Integer.valueOf(1), users.get(2).getId());
+      assertFalse(users.hasNextPage());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotReturnCachedPageForAnotherKey() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> first = mapper.getUsersById(new KeysetPage(2, 1));
+      List<User> second = mapper.getUsersById(new KeysetPage(2, 5));
+      assertEquals(Integer.valueOf(2), first.get(0).getId());
+      assertEquals(Integer.valueOf(6), second.get(0).getId());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldPushLimitDownWithDialect() {
+    sqlSessionFactory.getConfiguration().setDialect(new HsqldbDialect());
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      KeysetList<User> users = mapper.getUsersById(new KeysetPage(2, 4));
+      assertEquals(2, users.size());
+      assertEquals(Integer.valueOf(5), users.get(0).getId());
+      assertEquals(Integer.valueOf(6), users.get(1).getId());
+      assertArrayEquals(new Object[] { 6 }, users.getNextPage().getLastKey());
+    } finally {
+      sqlSession.close();
+      sqlSessionFactory.getConfiguration().setDialect(null);
+    }
+  }
+
+  @Test
+  public void shouldSeekInsideStatementWithDialect() {
+    sqlSessionFactory.getConfiguration().setDialect(new HsqldbDialect());
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<String> seen = new ArrayList<String>();
+      KeysetPage page = new KeysetPage(2);
+      while (page != null) {
+        List<User> users = mapper.getUsersByNameDescThenId(6, page);
+        for (User user : users) {
+          seen.add(user.getName() + user.getId());
+        }
+        page = ((KeysetList<User>) users).getNextPage();
+      }
+      assertEquals("[Carol4, Bob2, Bob5, Alice1, Alice3, Alice7]", seen.toString());
+
+      // 原有的 OR 条件不会吞掉定位条件
+      seen.clear();
+      page = new KeysetPage(4);
+      while (page != null) {
+        List<User> users = mapper.getUsersByNameThenId(2, page);
+        for (User user : users) {
+          seen.add(user.getName() + user.getId());
+        }
+        page = ((KeysetList<User>) users).getNextPage();
+      }
+      assertEquals("[Alice1, Alice3, Alice7, Bob5, Carol4, Dave6]", seen.toString());
+    } finally {
+      sqlSession.close();
+      sqlSessionFactory.getConfiguration().setDialect(null);
+    }
+  }
+
+  @Test
+  public void shouldFailWhenStatementHasNoKeysetColumns() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUnorderedUsers(new KeysetPage(2));
+      fail();
+    } catch (PersistenceException e) {
+      assertTrue(e.getCause() instanceof ExecutorException);
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectNonPositiveLimit() {
+    new KeysetPage(0);
+  }
+
+}
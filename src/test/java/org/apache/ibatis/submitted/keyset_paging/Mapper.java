@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.keyset_paging;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.KeysetList;
+import org.apache.ibatis.session.KeysetPage;
+
+public interface Mapper {
+
+  KeysetList<User> getUsersById(KeysetPage page);
+
+  List<User> getUsersByNameDescThenId(@Param("excludedId") int excludedId, KeysetPage page);
+
+  List<User> getUsersByNameThenId(@Param("excludedId") int excludedId, KeysetPage page);
+
+  @Select("select id as userId, name from users")
+  @Options(keysetColumn = "userId desc", keysetProperty = "id")
+  KeysetList<User> getUsersByIdDesc(KeysetPage page);
+
+  List<User> getUnorderedUsers(KeysetPage page);
+
+}
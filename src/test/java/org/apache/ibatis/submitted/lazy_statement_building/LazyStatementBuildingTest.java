@@ -0,0 +1,194 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.lazy_statement_building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LazyStatementBuildingTest {
+
+  private static final String USER_MAPPER = "org.apache.ibatis.submitted.lazy_statement_building.UserMapper";
+
+  private Configuration configuration;
+
+  @Before
+  public void setUp() throws Exception {
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/lazy_statement_building/mybatis-config.xml");
+    configuration = new XMLConfigBuilder(reader).parse();
+    reader.close();
+    CountingLanguageDriver.BUILT.set(0);
+
+    // populate in-memory database
+    SqlSession session = new SqlSessionFactoryBuilder().build(configuration).openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/lazy_statement_building/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldBuildStatementsOnFirstUse() {
+    assertEquals(0, CountingLanguageDriver.BUILT.get());
+    assertTrue(configuration.hasStatement(USER_MAPPER + ".brokenSelect", false));
+    assertTrue(configuration.getMappedStatementNames().contains("getUsers"));
+
+    SqlSession sqlSession = new SqlSessionFactoryBuilder().build(configuration).openSession();
+    try {
+      User user = sqlSession.selectOne(USER_MAPPER + ".getUser", 2);
+      assertEquals("User2", user.getName());
+      assertEquals(1, CountingLanguageDriver.BUILT.get());
+      assertEquals(4, sqlSession.selectList("getUsers").size());
+      assertEquals(2, CountingLanguageDriver.BUILT.get());
+    } finally {
+      sqlSession.close();
+    }
+    assertSame(configuration.getMappedStatement("getUser"), configuration.getMappedStatement(USER_MAPPER + ".getUser"));
+    assertEquals(2, CountingLanguageDriver.BUILT.get());
+  }
+
+  @Test
+  public void shouldBuildSelectKeyWithItsStatement() {
+    SqlSession sqlSession = new SqlSessionFactoryBuilder().build(configuration).openSession();
+    try {
+      User user = new User(null, "User5");
+      sqlSession.insert(USER_MAPPER + ".insertUser", user);
+      assertEquals(Integer.valueOf(5), user.getId());
+      assertTrue(configuration.hasKeyGenerator(USER_MAPPER + ".insertUser!selectKey"));
+      assertTrue(configuration.hasStatement(USER_MAPPER + ".insertUser!selectKey"));
+      assertEquals(2, CountingLanguageDriver.BUILT.get());
+    } finally {
+      sqlSession.rollback();
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldRejectStatementsAddedTwice() {
+    MappedStatement ms = configuration.getMappedStatement(USER_MAPPER + ".getUser");
+    try {
+      configuration.addMappedStatement(ms);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("already contains value for " + USER_MAPPER + ".getUser"));
+    }
+    assertTrue(configuration.getMappedStatementNames().contains(USER_MAPPER + ".getUser"));
+  }
+
+  @Test
+  public void shouldReportBuildErrorsOnEveryUse() {
+    for (int i = 0; i < 2; i++) {
+      try {
+        configuration.getMappedStatement(USER_MAPPER + ".brokenSelect");
+        fail("Expected a BuilderException");
+      } catch (BuilderException e) {
+        assertTrue(e.getMessage().contains("NoSuchType"));
+      }
+    }
+  }
+
+  @Test
+  public void shouldBuildEachStatementOnceUnderConcurrentUse() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<MappedStatement>> futures = new ArrayList<Future<MappedStatement>>();
+      for (int i = 0; i < 32; i++) {
+        futures.add(executor.submit(new Callable<MappedStatement>() {
+          @Override
+          public MappedStatement call() {
+            return configuration.getMappedStatement(USER_MAPPER + ".getUsers");
+          }
+        }));
+      }
+      MappedStatement first = futures.get(0).get();
+      for (Future<MappedStatement> future : futures) {
+        assertSame(first, future.get());
+      }
+      assertEquals(1, CountingLanguageDriver.BUILT.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldBuildSelectKeyOnceUnderConcurrentUse() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<KeyGenerator>> futures = new ArrayList<Future<KeyGenerator>>();
+      for (int i = 0; i < 32; i++) {
+        final boolean viaStatement = i % 2 == 0;
+        futures.add(executor.submit(new Callable<KeyGenerator>() {
+          @Override
+          public KeyGenerator call() {
+            if (viaStatement) {
+              return configuration.getMappedStatement(USER_MAPPER + ".insertUser").getKeyGenerator();
+            }
+            return configuration.getKeyGenerator(USER_MAPPER + ".insertUser!selectKey");
+          }
+        }));
+      }
+      KeyGenerator first = futures.get(0).get();
+      assertTrue(first instanceof SelectKeyGenerator);
+      for (Future<KeyGenerator> future : futures) {
+        assertSame(first, future.get());
+      }
+      assertEquals(2, CountingLanguageDriver.BUILT.get());
+      assertTrue(configuration.getKeyGeneratorNames().contains(USER_MAPPER + ".insertUser!selectKey"));
+      assertTrue(configuration.getKeyGenerators().contains(first));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldPrewarmStatementsInBackground() throws Exception {
+    configuration.setPrewarmLazyStatements(true);
+    new SqlSessionFactoryBuilder().build(configuration);
+    // getUser, getUsers, insertUser and its selectKey; brokenSelect fails before its SQL is parsed
+    long deadline = System.currentTimeMillis() + 10000;
+    while (CountingLanguageDriver.BUILT.get() < 4 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(4, CountingLanguageDriver.BUILT.get());
+  }
+
+}
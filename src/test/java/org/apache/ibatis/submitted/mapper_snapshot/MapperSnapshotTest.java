@@ -0,0 +1,126 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.mapper_snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.Properties;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MapperSnapshotTest {
+
+  private static final String USER_MAPPER = "org.apache.ibatis.submitted.mapper_snapshot.UserMapper";
+
+  private File snapshotFile;
+
+  @Before
+  public void setUp() throws Exception {
+    snapshotFile = File.createTempFile("mapper", "snapshot");
+    snapshotFile.delete();
+  }
+
+  @After
+  public void cleanUp() {
+    snapshotFile.delete();
+  }
+
+  @Test
+  public void shouldWriteSnapshotOnFirstStartup() throws Exception {
+    assertFalse(snapshotFile.exists());
+    assertUsersCanBeSelected(build());
+    assertTrue(snapshotFile.length() > 0);
+  }
+
+  @Test
+  public void shouldStartFromSnapshot() throws Exception {
+    build();
+    long length = snapshotFile.length();
+    assertTrue(snapshotFile.setLastModified(1000L));
+    assertUsersCanBeSelected(build());
+    // 快照有效时不会重写
+    assertEquals(1000L, snapshotFile.lastModified());
+    assertEquals(length, snapshotFile.length());
+  }
+
+  @Test
+  public void shouldRewriteSnapshotOfOtherMapperFiles() throws Exception {
+    build();
+    // 改动快照中记录的摘要，相当于 mapper 文件内容发生了变化
+    RandomAccessFile file = new RandomAccessFile(snapshotFile, "rw");
+    file.seek(10);
+    file.write('x');
+    file.close();
+    assertTrue(snapshotFile.setLastModified(1000L));
+    assertUsersCanBeSelected(build());
+    assertTrue(snapshotFile.lastModified() != 1000L);
+  }
+
+  @Test
+  public void shouldRewriteUnreadableSnapshot() throws Exception {
+    FileOutputStream out = new FileOutputStream(snapshotFile);
+    out.write("not a snapshot".getBytes("UTF-8"));
+    out.close();
+    assertUsersCanBeSelected(build());
+    assertTrue(snapshotFile.length() > "not a snapshot".length());
+  }
+
+  private SqlSessionFactory build() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty("snapshotFile", snapshotFile.getAbsolutePath());
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/mapper_snapshot/mybatis-config.xml");
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader, properties);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/mapper_snapshot/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+    return sqlSessionFactory;
+  }
+
+  private void assertUsersCanBeSelected(SqlSessionFactory sqlSessionFactory) {
+    assertTrue(sqlSessionFactory.getConfiguration().getIncompleteStatements().isEmpty());
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      User user = sqlSession.selectOne(USER_MAPPER + ".getUser", 3);
+      assertEquals(Integer.valueOf(3), user.getId());
+      assertEquals("User3", user.getName());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_mapper_parsing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelMapperParsingTest {
+
+  private static final String USER_MAPPER = "org.apache.ibatis.submitted.parallel_mapper_parsing.UserMapper";
+  private static final String BASE_MAPPER = "org.apache.ibatis.submitted.parallel_mapper_parsing.BaseMapper";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_mapper_parsing/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_mapper_parsing/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldResolveElementsReferringToLaterFiles() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    assertEquals(4, configuration.getMapperParsingThreads());
+    assertTrue(configuration.getIncompleteCacheRefs().isEmpty());
+    assertTrue(configuration.getIncompleteResultMaps().isEmpty());
+    assertTrue(configuration.getIncompleteStatements().isEmpty());
+    assertSame(configuration.getCache(BASE_MAPPER), configuration.getMappedStatement(USER_MAPPER + ".getUser").getCache());
+    assertEquals(2, configuration.getResultMap(USER_MAPPER + ".userMap").getResultMappings().size());
+  }
+
+  @Test
+  public void shouldSelectThroughBothMappers() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      User user = sqlSession.selectOne(USER_MAPPER + ".getUser", 2);
+      assertEquals("User2", user.getName());
+      assertEquals(4, sqlSession.selectList(BASE_MAPPER + ".getUsers").size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
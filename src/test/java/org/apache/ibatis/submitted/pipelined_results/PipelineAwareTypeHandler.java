@@ -0,0 +1,41 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.pipelined_results;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.executor.resultset.PipelinedResultSet;
+import org.apache.ibatis.type.StringTypeHandler;
+
+/**
+ * Records whether the last value was read from a pipelined result set.
+ */
+public class PipelineAwareTypeHandler extends StringTypeHandler {
+
+  private static volatile boolean pipelined;
+
+  @Override
+  public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+    pipelined = Proxy.isProxyClass(rs.getClass()) && Proxy.getInvocationHandler(rs) instanceof PipelinedResultSet;
+    return super.getNullableResult(rs, columnName);
+  }
+
+  public static boolean isPipelined() {
+    return pipelined;
+  }
+}
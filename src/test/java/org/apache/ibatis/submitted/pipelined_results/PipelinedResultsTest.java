@@ -0,0 +1,189 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.pipelined_results;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PipelinedResultsTest {
+
+  private static final int ROWS = 1000;
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/pipelined_results/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/pipelined_results/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+
+    session = sqlSessionFactory.openSession(ExecutorType.BATCH);
+    try {
+      Mapper mapper = session.getMapper(Mapper.class);
+      for (int i = 1; i <= ROWS; i++) {
+        mapper.insertUser(new User(i, "User" + i));
+      }
+      session.commit();
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test
+  public void shouldMapRowsInOrder() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(ROWS);
+      assertTrue(PipelineAwareTypeHandler.isPipelined());
+      assertEquals(ROWS, users.size());
+      for (int i = 0; i < ROWS; i++) {
+        assertEquals(Integer.valueOf(i + 1), users.get(i).getId());
+        assertEquals("User" + (i + 1), users.get(i).getName());
+      }
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldApplyRowBounds() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsers(ROWS, new RowBounds(100, 10));
+      assertEquals(10, users.size());
+      assertEquals(Integer.valueOf(101), users.get(0).getId());
+      assertEquals(Integer.valueOf(110), users.get(9).getId());
+      // the session can run other statements once the result set is closed
+      assertEquals(ROWS, sqlSession.getMapper(Mapper.class).getUsers(ROWS).size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldStreamCursor() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Cursor<User> cursor = sqlSession.selectCursor("org.apache.ibatis.submitted.pipelined_results.Mapper.getUsers", ROWS);
+      int id = 0;
+      for (User user : cursor) {
+        assertEquals(Integer.valueOf(++id), user.getId());
+      }
+      // the caller may run other statements while it reads a cursor
+      assertFalse(PipelineAwareTypeHandler.isPipelined());
+      assertEquals(ROWS, id);
+      assertTrue(cursor.isConsumed());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldCloseCursorEarly() throws Exception {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Cursor<User> cursor = sqlSession.selectCursor("org.apache.ibatis.submitted.pipelined_results.Mapper.getUsers", ROWS);
+      Iterator<User> iterator = cursor.iterator();
+      for (int i = 1; i <= 10; i++) {
+        assertEquals(Integer.valueOf(i), iterator.next().getId());
+      }
+      cursor.close();
+      assertFalse(cursor.isOpen());
+      assertEquals(ROWS, sqlSession.getMapper(Mapper.class).getUsers(ROWS).size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotPipelineNestedSelects() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<User> users = sqlSession.getMapper(Mapper.class).getUsersWithGroup(ROWS);
+      assertFalse(PipelineAwareTypeHandler.isPipelined());
+      assertEquals(ROWS, users.size());
+      assertEquals("Group1", users.get(ROWS - 1).getGroup().getName());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotPipelineResultHandlers() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      final List<Object> users = new ArrayList<Object>();
+      sqlSession.select("org.apache.ibatis.submitted.pipelined_results.Mapper.getUsers", ROWS, new ResultHandler<Object>() {
+        @Override
+        public void handleResult(ResultContext<?> context) {
+          users.add(context.getResultObject());
+        }
+      });
+      assertFalse(PipelineAwareTypeHandler.isPipelined());
+      assertEquals(ROWS, users.size());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldNotPipelineSmallSelects() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      // the size of the results is only known after the first execution
+      mapper.getUser(1);
+      assertTrue(PipelineAwareTypeHandler.isPipelined());
+      sqlSession.clearCache();
+      assertEquals("User1", mapper.getUser(1).getName());
+      assertFalse(PipelineAwareTypeHandler.isPipelined());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.positional_foreach;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class PositionalForeachTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/positional_foreach/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/positional_foreach/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldBindItemsByPosition() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertNames(mapper.getUsers(Arrays.asList(3, 1)), "User1", "User3");
+      assertNames(mapper.getUsers(Arrays.asList(2, 4)), "User2", "User4");
+      assertNames(mapper.getUsersLike(Arrays.asList(new User(1, "User1"), new User(2, "Other"), new User(4, "User4"))), "User1", "User4");
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldPadItemsToBuckets() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertNames(mapper.getUsersPadded(Arrays.asList(1, 2, 3)), "User1", "User2", "User3");
+      assertNames(mapper.getUsersPadded(Arrays.asList(4, 3, 2, 1, 5, 6, 7, 8, 9)), "User1", "User2", "User3", "User4");
+    } finally {
+      sqlSession.close();
+    }
+    MappedStatement ms = sqlSessionFactory.getConfiguration().getMappedStatement("org.apache.ibatis.submitted.positional_foreach.Mapper.getUsersPadded");
+    BoundSql three = ms.getBoundSql(list(1, 2, 3));
+    BoundSql five = ms.getBoundSql(list(1, 2, 3, 4, 5));
+    assertEquals(8, three.getParameterMappings().size());
+    assertEquals(three.getSql(), five.getSql());
+    assertEquals("__frch_id_0[7]", three.getParameterMappings().get(7).getProperty());
+    assertEquals(3, three.getAdditionalParameter("__frch_id_0[7]"));
+    assertEquals(16, ms.getBoundSql(list(1, 2, 3, 4, 5, 6, 7, 8, 9)).getParameterMappings().size());
+  }
+
+  private Map<String, Object> list(Integer... ids) {
+    Map<String, Object> parameter = new HashMap<String, Object>();
+    parameter.put("list", Arrays.asList(ids));
+    return parameter;
+  }
+
+  private void assertNames(List<User> users, String... names) {
+    assertEquals(names.length, users.size());
+    for (int i = 0; i < names.length; i++) {
+      assertEquals(names[i], users.get(i).getName());
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.query_coalescing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.executor.QueryCoalescer;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryCoalescingTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private BlockingInterceptor interceptor;
+  private ExecutorService executorService;
+
+  @Before
+  public void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/query_coalescing/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/query_coalescing/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+
+    interceptor = new BlockingInterceptor();
+    sqlSessionFactory.getConfiguration().addInterceptor(interceptor);
+    executorService = Executors.newFixedThreadPool(3);
+  }
+
+  @After
+  public void tearDown() {
+    interceptor.release();
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void shouldCoalesceConcurrentQueries() throws Exception {
+    List<User> users = runConcurrently("getUser");
+    assertEquals(1, interceptor.getExecutions());
+    for (User user : users) {
+      assertEquals("User1", user.getName());
+    }
+    assertNotSame(users.get(0), users.get(1));
+    assertNotSame(users.get(1), users.get(2));
+    assertEquals(2, sqlSessionFactory.getConfiguration().getMetricsRegistry()
+        .getCoalescedQueries("org.apache.ibatis.submitted.query_coalescing.Mapper.getUser"));
+  }
+
+  @Test
+  public void shouldShareResultsOfReadOnlyStatements() throws Exception {
+    List<User> users = runConcurrently("getReadOnlyUser");
+    assertEquals(1, interceptor.getExecutions());
+    assertSame(users.get(0), users.get(1));
+    assertSame(users.get(1), users.get(2));
+  }
+
+  @Test
+  public void shouldNotCoalesceQueriesOfWriteTransactions() throws Exception {
+    Future<User> executing = executorService.submit(getUser("getUser"));
+    QueryCoalescer coalescer = sqlSessionFactory.getConfiguration().getQueryCoalescer();
+    while (coalescer.getInFlightCount() == 0 || interceptor.getExecutions() == 0) {
+      Thread.sleep(5);
+    }
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.renameUser(1, "Renamed");
+      // runs on its own and sees its uncommitted change
+      assertEquals("Renamed", mapper.getUser(1).getName());
+      assertEquals(2, interceptor.getExecutions());
+      sqlSession.rollback();
+    } finally {
+      sqlSession.close();
+    }
+    interceptor.release();
+    assertEquals("User1", executing.get().getName());
+  }
+
+  @Test
+  public void shouldOnlyCoalesceMarkedStatements() throws Exception {
+    assertRunsOnItsOwn("getUncoalescedUser");
+  }
+
+  @Test
+  public void shouldNotCoalesceStatementsFlushingTheCache() throws Exception {
+    assertRunsOnItsOwn("getFlushingUser");
+  }
+
+  @Test
+  public void shouldRunTheQueryAfterWaitingForTheTimeout() throws Exception {
+    assertRunsOnItsOwn("getUserWithTimeout");
+  }
+
+  @Test
+  public void shouldRunSequentialQueriesAgain() {
+    interceptor.release();
+    for (int i = 0; i < 2; i++) {
+      SqlSession sqlSession = sqlSessionFactory.openSession();
+      try {
+        assertEquals("User1", sqlSession.getMapper(Mapper.class).getUser(1).getName());
+      } finally {
+        sqlSession.close();
+      }
+    }
+    assertEquals(2, interceptor.getExecutions());
+  }
+
+  /**
+   * Runs the statement in another session while the first execution is held.
+   */
+  private void assertRunsOnItsOwn(String statement) throws Exception {
+    Future<User> executing = executorService.submit(getUser(statement));
+    while (interceptor.getExecutions() == 0) {
+      Thread.sleep(5);
+    }
+    assertEquals("User1", getUser(statement).call().getName());
+    assertEquals(2, interceptor.getExecutions());
+    interceptor.release();
+    assertEquals("User1", executing.get().getName());
+  }
+
+  /**
+   * Runs the statement in three sessions while the first execution is held.
+   */
+  private List<User> runConcurrently(String statement) throws Exception {
+    QueryCoalescer coalescer = sqlSessionFactory.getConfiguration().getQueryCoalescer();
+    List<Future<User>> futures = new ArrayList<Future<User>>();
+    futures.add(executorService.submit(getUser(statement)));
+    while (coalescer.getInFlightCount() == 0 || interceptor.getExecutions() == 0) {
+      Thread.sleep(5);
+    }
+    futures.add(executorService.submit(getUser(statement)));
+    futures.add(executorService.submit(getUser(statement)));
+    while (coalescer.getWaitingCount() < 2) {
+      Thread.sleep(5);
+    }
+    interceptor.release();
+    List<User> users = new ArrayList<User>();
+    for (Future<User> future : futures) {
+      users.add(future.get());
+    }
+    return users;
+  }
+
+  private Callable<User> getUser(final String statement) {
+    return new Callable<User>() {
+      @Override
+      public User call() {
+        SqlSession sqlSession = sqlSessionFactory.openSession();
+        try {
+          return sqlSession.selectOne("org.apache.ibatis.submitted.query_coalescing.Mapper." + statement, 1);
+        } finally {
+          sqlSession.close();
+        }
+      }
+    };
+  }
+}
@@ -67,12 +67,26 @@ public class RawSqlSourceTest {
     test("getUser3", DynamicSqlSource.class);
   }
 
+  @Test
+  public void shouldUseRawSqlSourceForAnStatementWithStaticXmlTags() {
+    test("getUser4", RawSqlSource.class, "select * from users\n\t\t WHERE  id = ?");
+  }
+
+  @Test
+  public void shouldUseDynamicSqlSourceForAnStatementWithStaticAndDynamicXmlTags() {
+    test("getUser5", DynamicSqlSource.class, "select * from users\n\t\t WHERE  id = ?");
+  }
+
   private void test(String statement, Class<? extends SqlSource> sqlSource) {
+    test(statement, sqlSource, "select * from users where id = ?");
+  }
+
+  private void test(String statement, Class<? extends SqlSource> sqlSource, String expectedSql) {
     SqlSession sqlSession = sqlSessionFactory.openSession();
     try {
       Assert.assertEquals(sqlSource, sqlSession.getConfiguration().getMappedStatement(statement).getSqlSource().getClass());
       String sql = sqlSession.getConfiguration().getMappedStatement(statement).getSqlSource().getBoundSql('?').getSql();
-      Assert.assertEquals("select * from users where id = ?", sql);
+      Assert.assertEquals(expectedSql, sql);
       User user = sqlSession.selectOne(statement, 1);
       Assert.assertEquals("User1", user.getName());
     } finally {
@@ -0,0 +1,296 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.statement_metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.metrics.ExecutionEvent;
+import org.apache.ibatis.executor.metrics.ExecutionListener;
+import org.apache.ibatis.executor.metrics.MetricsRegistry;
+import org.apache.ibatis.executor.metrics.ResultSource;
+import org.apache.ibatis.executor.metrics.StatementMetrics;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class StatementMetricsTest {
+
+  private static final String GET_USERS = "org.apache.ibatis.submitted.statement_metrics.Mapper.getUsers";
+  private static final String GET_CACHED_USER = "org.apache.ibatis.submitted.statement_metrics.Mapper.getCachedUser";
+  private static final String RENAME_USER = "org.apache.ibatis.submitted.statement_metrics.Mapper.renameUser";
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  private MetricsRegistry registry;
+  private RecordingListener listener;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/statement_metrics/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/statement_metrics/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Before
+  public void addListener() {
+    registry = sqlSessionFactory.getConfiguration().getMetricsRegistry();
+    registry.reset();
+    listener = new RecordingListener();
+    registry.addListener(listener);
+  }
+
+  @After
+  public void removeListener() {
+    registry.removeListener(listener);
+    sqlSessionFactory.getConfiguration().setSlowQueryThreshold(null);
+  }
+
+  @Test
+  public void shouldRecordExecutionsAndRows() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUsers(2);
+      mapper.getUsers(3);
+      // answered by the local cache
+      mapper.getUsers(3);
+      mapper.renameUser(new User(1, "User1"));
+    } finally {
+      sqlSession.close();
+    }
+    StatementMetrics metrics = registry.getStatementMetrics(GET_USERS);
+    assertEquals(2, metrics.getExecutions());
+    assertEquals(5, metrics.getRows());
+    assertEquals(1, metrics.getLocalCacheHits());
+    assertTrue(metrics.getDatabaseNanos() > 0);
+    assertTrue(metrics.getMappingNanos() > 0);
+    assertTrue(metrics.getLatency().getPercentileMicros(100) > 0);
+    assertEquals(1, registry.getStatementMetrics(RENAME_USER).getRows());
+
+    assertEquals(4, listener.executions.size());
+    assertEquals(ResultSource.LOCAL_CACHE, listener.executions.get(2).getResultSource());
+    assertEquals(ResultSource.DATABASE, listener.executions.get(3).getResultSource());
+    assertTrue(listener.slowExecutions.isEmpty());
+  }
+
+  @Test
+  public void shouldRecordRowsReadByResultHandlersAndCursors() throws Exception {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      final List<Object> handled = new ArrayList<Object>();
+      sqlSession.select(GET_USERS, Collections.singletonMap("maxId", 2), new ResultHandler<Object>() {
+        @Override
+        public void handleResult(ResultContext<?> context) {
+          handled.add(context.getResultObject());
+        }
+      });
+      assertEquals(2, handled.size());
+      assertEquals(2, registry.getStatementMetrics(GET_USERS).getRows());
+
+      Cursor<User> cursor = sqlSession.selectCursor(GET_USERS, Collections.singletonMap("maxId", 3));
+      // rows of a cursor are recorded once it is closed
+      Iterator<User> iterator = cursor.iterator();
+      iterator.next();
+      iterator.next();
+      cursor.close();
+    } finally {
+      sqlSession.close();
+    }
+    StatementMetrics metrics = registry.getStatementMetrics(GET_USERS);
+    assertEquals(2, metrics.getExecutions());
+    assertEquals(4, metrics.getRows());
+    assertEquals(2, listener.executions.get(0).getRows());
+  }
+
+  @Test
+  public void shouldRecordSecondLevelCacheHits() {
+    for (int i = 0; i < 3; i++) {
+      SqlSession sqlSession = sqlSessionFactory.openSession();
+      try {
+        sqlSession.getMapper(Mapper.class).getCachedUser(2);
+      } finally {
+        sqlSession.close();
+      }
+    }
+    StatementMetrics metrics = registry.getStatementMetrics(GET_CACHED_USER);
+    assertTrue(metrics.getExecutions() <= 1);
+    assertTrue(metrics.getSecondLevelCacheHits() >= 2);
+  }
+
+  @Test
+  public void shouldReportSlowStatementsWithTheirParameters() {
+    sqlSessionFactory.getConfiguration().setSlowQueryThreshold(0L);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUsers(1);
+      mapper.renameUser(new User(2, "User2"));
+    } finally {
+      sqlSession.close();
+    }
+    assertEquals(2, listener.slowExecutions.size());
+    assertEquals(2, registry.getSlowQueryCount());
+    assertEquals(1, registry.getStatementMetrics(GET_USERS).getSlowExecutions());
+    ExecutionEvent event = listener.slowExecutions.get(1);
+    assertTrue(event.isSlow());
+    assertEquals(RENAME_USER, event.getStatementId());
+    assertTrue(event.getSql().contains("update users"));
+    assertArrayEquals(new Object[] { "User2", 2 }, event.getParameters().toArray());
+  }
+
+  @Test
+  public void shouldReadSettings() {
+    assertTrue(sqlSessionFactory.getConfiguration().isMetricsEnabled());
+    assertEquals(2, sqlSessionFactory.getConfiguration().getSlowQuerySampling());
+  }
+
+  @Test
+  public void shouldNotRecordWhenDisabled() {
+    sqlSessionFactory.getConfiguration().setMetricsEnabled(false);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.getMapper(Mapper.class).getUsers(3);
+    } finally {
+      sqlSession.close();
+      sqlSessionFactory.getConfiguration().setMetricsEnabled(true);
+    }
+    assertEquals(0, registry.getExecutions(GET_USERS));
+    assertTrue(listener.executions.isEmpty());
+  }
+
+  @Test
+  public void shouldAdaptFetchSizeToObservedRows() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setAdaptiveFetchSize(true);
+    configuration.setAdaptiveFetchSizeMin(1);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUsers(3);
+      assertEquals(0, registry.getFetchSize(GET_USERS));
+      mapper.getUsers(2);
+      // one more row than the 3 rows of the first execution plus 20%
+      assertEquals(5, registry.getFetchSize(GET_USERS));
+      assertTrue(registry.getStatementMetrics(GET_USERS).getAverageRowWidth() > 0);
+      // updates are not tuned
+      mapper.renameUser(new User(3, "User3"));
+      assertEquals(0, registry.getFetchSize(RENAME_USER));
+    } finally {
+      sqlSession.close();
+      configuration.setAdaptiveFetchSize(false);
+      configuration.setAdaptiveFetchSizeMin(10);
+    }
+  }
+
+  @Test
+  public void shouldAdaptFetchSizeWithMetricsDisabled() {
+    Configuration configuration = sqlSessionFactory.getConfiguration();
+    configuration.setMetricsEnabled(false);
+    configuration.setAdaptiveFetchSize(true);
+    configuration.setAdaptiveFetchSizeMin(1);
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUsers(3);
+      mapper.getUsers(2);
+      assertEquals(5, registry.getFetchSize(GET_USERS));
+      assertEquals(0, registry.getExecutions(GET_USERS));
+    } finally {
+      sqlSession.close();
+      configuration.setMetricsEnabled(true);
+      configuration.setAdaptiveFetchSize(false);
+      configuration.setAdaptiveFetchSizeMin(10);
+    }
+  }
+
+  @Test
+  public void shouldExposeMBean() throws Exception {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      sqlSession.getMapper(Mapper.class).getUsers(3);
+    } finally {
+      sqlSession.close();
+    }
+    ObjectName name = registry.registerMBean("statement_metrics");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+      assertEquals(Integer.valueOf(2), server.getAttribute(name, "SlowQuerySampling"));
+      String[] ids = (String[]) server.getAttribute(name, "StatementIds");
+      assertEquals(1, ids.length);
+      assertEquals(GET_USERS, ids[0]);
+      assertEquals(Long.valueOf(1), server.invoke(name, "getExecutions", new Object[] { GET_USERS }, new String[] { String.class.getName() }));
+      assertEquals(Long.valueOf(3), server.invoke(name, "getRows", new Object[] { GET_USERS }, new String[] { String.class.getName() }));
+      server.invoke(name, "reset", null, null);
+      assertEquals(0, ((String[]) server.getAttribute(name, "StatementIds")).length);
+    } finally {
+      server.unregisterMBean(name);
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  private static class RecordingListener implements ExecutionListener {
+
+    private final List<ExecutionEvent> executions = new ArrayList<ExecutionEvent>();
+    private final List<ExecutionEvent> slowExecutions = new ArrayList<ExecutionEvent>();
+
+    @Override
+    public void onExecution(ExecutionEvent event) {
+      executions.add(event);
+    }
+
+    @Override
+    public void onSlowExecution(ExecutionEvent event) {
+      slowExecutions.add(event);
+    }
+  }
+
+}
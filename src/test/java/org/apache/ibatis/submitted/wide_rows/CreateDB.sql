@@ -0,0 +1,46 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table wide_rows if exists;
+
+create table wide_rows (
+  id int,
+  s01 varchar(20),
+  s02 varchar(20),
+  s03 varchar(20),
+  s04 varchar(20),
+  s05 varchar(20),
+  s06 varchar(20),
+  s07 varchar(20),
+  s08 varchar(20),
+  s09 varchar(20),
+  s10 varchar(20),
+  n01 int,
+  n02 int,
+  n03 int,
+  n04 int,
+  n05 int,
+  n06 int,
+  n07 int,
+  n08 int,
+  n09 int,
+  n10 int,
+  code varchar(10)
+);
+
+insert into wide_rows values(1, 'S1_1', 'S1_2', 'S1_3', 'S1_4', 'S1_5', 'S1_6', 'S1_7', 'S1_8', 'S1_9', 'S1_10', 101, 102, 103, 104, 105, 106, 107, 108, 109, 110, ' C1 ');
+insert into wide_rows values(2, 'S2_1', 'S2_2', 'S2_3', 'S2_4', 'S2_5', 'S2_6', 'S2_7', 'S2_8', 'S2_9', 'S2_10', 201, 202, 203, 204, 205, 206, 207, 208, 209, 210, ' C2 ');
+insert into wide_rows values(3, 'S3_1', 'S3_2', 'S3_3', 'S3_4', 'S3_5', 'S3_6', 'S3_7', 'S3_8', 'S3_9', 'S3_10', 301, 302, 303, 304, 305, 306, 307, 308, 309, 310, ' C3 ');
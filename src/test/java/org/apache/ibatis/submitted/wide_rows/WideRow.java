@@ -0,0 +1,223 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.wide_rows;
+
+public class WideRow {
+
+  private Integer id;
+  private String s01;
+  private String s02;
+  private String s03;
+  private String s04;
+  private String s05;
+  private String s06;
+  private String s07;
+  private String s08;
+  private String s09;
+  private String s10;
+  private int n01;
+  private int n02;
+  private int n03;
+  private int n04;
+  private int n05;
+  private int n06;
+  private int n07;
+  private int n08;
+  private int n09;
+  private int n10;
+  private String code;
+
+  public Integer getId() {
+    return id;
+  }
+
+  public void setId(Integer id) {
+    this.id = id;
+  }
+
+  public String getS01() {
+    return s01;
+  }
+
+  public void setS01(String s01) {
+    this.s01 = s01;
+  }
+
+  public String getS02() {
+    return s02;
+  }
+
+  public void setS02(String s02) {
+    this.s02 = s02;
+  }
+
+  public String getS03() {
+    return s03;
+  }
+
+  public void setS03(String s03) {
+    this.s03 = s03;
+  }
+
+  public String getS04() {
+    return s04;
+  }
+
+  public void setS04(String s04) {
+    this.s04 = s04;
+  }
+
+  public String getS05() {
+    return s05;
+  }
+
+  public void setS05(String s05) {
+    this.s05 = s05;
+  }
+
+  public String getS06() {
+    return s06;
+  }
+
+  public void setS06(String s06) {
+    this.s06 = s06;
+  }
+
+  public String getS07() {
+    return s07;
+  }
+
+  public void setS07(String s07) {
+    this.s07 = s07;
+  }
+
+  public String getS08() {
+    return s08;
+  }
+
+  public void setS08(String s08) {
+    this.s08 = s08;
+  }
+
+  public String getS09() {
+    return s09;
+  }
+
+  public void setS09(String s09) {
+    this.s09 = s09;
+  }
+
+  public String getS10() {
+    return s10;
+  }
+
+  public void setS10(String s10) {
+    this.s10 = s10;
+  }
+
+  public int getN01() {
+    return n01;
+  }
+
+  public void setN01(int n01) {
+    this.n01 = n01;
+  }
+
+  public int getN02() {
+    return n02;
+  }
+
+  public void setN02(int n02) {
+    this.n02 = n02;
+  }
+
+  public int getN03() {
+    return n03;
+  }
+
+  public void setN03(int n03) {
+    this.n03 = n03;
+  }
+
+  public int getN04() {
+    return n04;
+  }
+
+  public void setN04(int n04) {
+    this.n04 = n04;
+  }
+
+  public int getN05() {
+    return n05;
+  }
+
+  public void setN05(int n05) {
+    this.n05 = n05;
+  }
+
+  public int getN06() {
+    return n06;
+  }
+
+  public void setN06(int n06) {
+    this.n06 = n06;
+  }
+
+  public int getN07() {
+    return n07;
+  }
+
+  public void setN07(int n07) {
+    this.n07 = n07;
+  }
+
+  public int getN08() {
+    return n08;
+  }
+
+  public void setN08(int n08) {
+    this.n08 = n08;
+  }
+
+  public int getN09() {
+    return n09;
+  }
+
+  public void setN09(int n09) {
+    this.n09 = n09;
+  }
+
+  public int getN10() {
+    return n10;
+  }
+
+  public void setN10(int n10) {
+    this.n10 = n10;
+  }
+
+  public String getCode() {
+    return code;
+  }
+
+  public void setCode(String code) {
+    this.code = code;
+  }
+
+  @Override
+  public String toString() {
+    return id + "," + s01 + "," + s02 + "," + s03 + "," + s04 + "," + s05 + "," + s06 + "," + s07 + "," + s08 + "," + s09 + "," + s10 + "," + n01 + "," + n02 + "," + n03 + "," + n04 + "," + n05 + "," + n06 + "," + n07 + "," + n08 + "," + n09 + "," + n10 + "," + code;
+  }
+}
@@ -0,0 +1,89 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.wide_rows;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.List;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class WideRowsTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/wide_rows/mybatis-config.xml");
+    sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    reader.close();
+
+    // populate in-memory database
+    SqlSession session = sqlSessionFactory.openSession();
+    Connection conn = session.getConnection();
+    reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/wide_rows/CreateDB.sql");
+    ScriptRunner runner = new ScriptRunner(conn);
+    runner.setLogWriter(null);
+    runner.runScript(reader);
+    reader.close();
+    session.close();
+  }
+
+  @Test
+  public void shouldAutoMapWideRows() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<WideRow> rows = sqlSession.getMapper(Mapper.class).getRows();
+      assertEquals(3, rows.size());
+      assertEquals("2,S2_1,S2_2,S2_3,S2_4,S2_5,S2_6,S2_7,S2_8,S2_9,S2_10,201,202,203,204,205,206,207,208,209,210, C2 ",
+          rows.get(1).toString());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldReadByNameWithCustomTypeHandlers() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<WideRow> rows = sqlSession.getMapper(Mapper.class).getRowsWithResultMap();
+      assertEquals("3,S3_1,S3_2,S3_3,S3_4,S3_5,S3_6,S3_7,S3_8,S3_9,S3_10,301,302,303,304,305,306,307,308,309,310,C3",
+          rows.get(2).toString());
+    } finally {
+      sqlSession.close();
+    }
+  }
+
+  @Test
+  public void shouldMapSimpleResults() {
+    SqlSession sqlSession = sqlSessionFactory.openSession();
+    try {
+      List<String> codes = sqlSession.getMapper(Mapper.class).getCodes();
+      assertEquals(" C1 ", codes.get(0));
+    } finally {
+      sqlSession.close();
+    }
+  }
+}
@@ -19,9 +19,16 @@ import org.junit.Test;
 import org.mockito.Mock;
 
 import java.sql.Array;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +46,52 @@ public class ArrayTypeHandlerTest extends BaseTypeHandlerTest {
     verify(ps).setArray(1, mockArray);
   }
 
+  @Test
+  public void shouldSetCollectionParameter() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(ps.getConnection()).thenReturn(connection);
+    when(connection.createArrayOf("BIGINT", new Object[] { 1L, 2L })).thenReturn(mockArray);
+    List<Array> arrays = new ArrayList<Array>();
+    ArrayTypeHandler.recordCreatedArrays(arrays);
+    try {
+      TYPE_HANDLER.setParameter(ps, 1, Arrays.asList(1L, 2L), null);
+    } finally {
+      ArrayTypeHandler.recordCreatedArrays(null);
+    }
+    verify(ps).setArray(1, mockArray);
+    // the driver may read the elements when the statement is executed, the executor frees them afterwards
+    verify(mockArray, never()).free();
+    assertEquals(Arrays.asList(mockArray), arrays);
+  }
+
+  @Test
+  public void shouldSetArrayParameterWithItsTypeName() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(ps.getConnection()).thenReturn(connection);
+    when(connection.createArrayOf("float8", new Object[] { 1.5 })).thenReturn(mockArray);
+    TYPE_HANDLER.setParameter(ps, 1, new ArrayParameter("float8", new Object[] { 1.5 }), null);
+    verify(ps).setArray(1, mockArray);
+  }
+
+  @Test
+  public void shouldSetPrimitiveArrayParameterWithJdbcType() throws Exception {
+    Connection connection = mock(Connection.class);
+    when(ps.getConnection()).thenReturn(connection);
+    when(connection.createArrayOf("NUMERIC", new Object[] { 1, 2 })).thenReturn(mockArray);
+    TYPE_HANDLER.setParameter(ps, 1, new int[] { 1, 2 }, JdbcType.NUMERIC);
+    verify(ps).setArray(1, mockArray);
+  }
+
+  @Test
+  public void shouldRejectUnknownElementType() throws Exception {
+    try {
+      TYPE_HANDLER.setParameter(ps, 1, Arrays.asList(new Object()), null);
+      fail();
+    } catch (TypeException e) {
+      // expected
+    }
+  }
+
   @Override
   @Test
   public void shouldGetResultFromResultSetByName() throws Exception {